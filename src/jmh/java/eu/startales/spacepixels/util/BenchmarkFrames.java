@@ -0,0 +1,301 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import nom.tam.fits.BasicHDU;
+import nom.tam.fits.Fits;
+import nom.tam.fits.Header;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+/**
+ * Synthetic, seeded sky frames and files for the JMH benchmarks, in the spirit of the test
+ * {@code SyntheticDatasetFactory} but at real sensor sizes: a sky background with read noise, a
+ * gentle gradient and a few hundred Gaussian stars.
+ */
+final class BenchmarkFrames {
+
+    private static final int SKY_LEVEL = 1200;
+    private static final int NOISE_SIGMA = 25;
+
+    private BenchmarkFrames() {
+    }
+
+    /**
+     * Parses a {@code WIDTHxHEIGHT} benchmark parameter.
+     */
+    static int[] parseSize(String frameSize) {
+        String[] parts = frameSize.toLowerCase(Locale.ROOT).split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected WIDTHxHEIGHT but got " + frameSize);
+        }
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    /**
+     * Unsigned 16-bit sky values in [0, 65535].
+     */
+    static int[][] createSkyValues(int width, int height, long seed) {
+        Random random = new Random(seed);
+        int[][] values = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            int gradient = (int) (200.0 * y / height);
+            for (int x = 0; x < width; x++) {
+                values[y][x] = SKY_LEVEL + gradient + (int) Math.round(random.nextGaussian() * NOISE_SIGMA);
+            }
+        }
+
+        int starCount = Math.max(50, (int) ((long) width * height / 40_000L));
+        for (int i = 0; i < starCount; i++) {
+            int centerX = random.nextInt(width);
+            int centerY = random.nextInt(height);
+            double peak = 2_000 + random.nextDouble() * 60_000;
+            double sigma = 1.2 + random.nextDouble() * 1.5;
+            stampStar(values, centerX, centerY, peak, sigma);
+        }
+
+        for (int[] row : values) {
+            for (int x = 0; x < row.length; x++) {
+                row[x] = Math.max(0, Math.min(65535, row[x]));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * SpacePixels' signed storage of unsigned 16-bit samples (value - 32768).
+     */
+    static short[][] createMono16Frame(int width, int height, long seed) {
+        int[][] values = createSkyValues(width, height, seed);
+        short[][] frame = new short[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                frame[y][x] = (short) (values[y][x] - 32768);
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Normalized [0, 1] float samples, as written by most stacking tools.
+     */
+    static float[][] createNormalizedFloatFrame(int width, int height, long seed) {
+        int[][] values = createSkyValues(width, height, seed);
+        float[][] frame = new float[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                frame[y][x] = values[y][x] / 65535.0f;
+            }
+        }
+        return frame;
+    }
+
+    static short[][][] createColor16Frame(int width, int height, long seed) {
+        return new short[][][]{
+                createMono16Frame(width, height, seed),
+                createMono16Frame(width, height, seed + 1),
+                createMono16Frame(width, height, seed + 2)
+        };
+    }
+
+    static File writeMono16Fits(Path directory, String fileName, short[][] frame, int frameIndex) throws Exception {
+        File file = directory.resolve(fileName).toFile();
+        try (Fits fits = new Fits()) {
+            BasicHDU<?> hdu = Fits.makeHDU(frame);
+            Header header = hdu.getHeader();
+            header.addValue("BZERO", 32768.0, "offset data range to that of unsigned short");
+            header.addValue("BSCALE", 1.0, "default scaling factor");
+            header.addValue("DATE-OBS", String.format("2026-04-08T21:%02d:%02d", frameIndex / 60 % 60, frameIndex % 60), null);
+            header.addValue("EXPTIME", 30.0, "seconds");
+            fits.addHDU(hdu);
+            fits.write(file);
+        }
+        return file;
+    }
+
+    /**
+     * Writes a monolithic gray UInt16 XISF file with the given XISF compression codec
+     * ({@code null}, {@code zlib}, {@code zlib+sh}, {@code lz4} or {@code lz4+sh}).
+     */
+    static File writeMono16Xisf(Path directory, String fileName, int[][] values, String codec) throws IOException {
+        int height = values.length;
+        int width = values[0].length;
+        ByteBuffer samples = ByteBuffer.allocate(width * height * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int[] row : values) {
+            for (int value : row) {
+                samples.putShort((short) value);
+            }
+        }
+        byte[] raw = samples.array();
+
+        byte[] payload = raw;
+        String compressionAttribute = "";
+        if (codec != null) {
+            boolean shuffled = codec.endsWith("+sh");
+            byte[] input = shuffled ? shuffle(raw, 2) : raw;
+            payload = codec.startsWith("lz4") ? compressLz4(input) : compressZlib(input);
+            compressionAttribute = " compression=\"" + codec + ":" + raw.length + (shuffled ? ":2" : "") + "\"";
+        }
+
+        File file = directory.resolve(fileName).toFile();
+        writeMonolithicXisf(file, width + ":" + height + ":1", compressionAttribute, payload);
+        return file;
+    }
+
+    private static void stampStar(int[][] values, int centerX, int centerY, double peak, double sigma) {
+        int radius = (int) Math.ceil(sigma * 4);
+        double twoSigmaSquared = 2 * sigma * sigma;
+        for (int y = Math.max(0, centerY - radius); y <= Math.min(values.length - 1, centerY + radius); y++) {
+            for (int x = Math.max(0, centerX - radius); x <= Math.min(values[y].length - 1, centerX + radius); x++) {
+                int dx = x - centerX;
+                int dy = y - centerY;
+                values[y][x] += (int) (peak * Math.exp(-(dx * dx + dy * dy) / twoSigmaSquared));
+            }
+        }
+    }
+
+    private static void writeMonolithicXisf(File file, String geometry, String compressionAttribute, byte[] payload) throws IOException {
+        String template = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<xisf xmlns=\"http://www.pixinsight.com/xisf\" version=\"1.0\">\n"
+                + "  <Image geometry=\"" + geometry + "\" sampleFormat=\"UInt16\" colorSpace=\"Gray\""
+                + compressionAttribute + " location=\"attachment:%d:%d\"/>\n"
+                + "</xisf>\n";
+
+        // The attachment position depends on the header length, which depends on the position.
+        int payloadPosition = 16 + String.format(template, 0, payload.length).getBytes(StandardCharsets.UTF_8).length;
+        String xml;
+        while (true) {
+            xml = String.format(template, payloadPosition, payload.length);
+            int candidatePosition = 16 + xml.getBytes(StandardCharsets.UTF_8).length;
+            if (candidatePosition == payloadPosition) {
+                break;
+            }
+            payloadPosition = candidatePosition;
+        }
+
+        byte[] headerBytes = xml.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(16 + headerBytes.length + payload.length);
+        output.write("XISF0100".getBytes(StandardCharsets.US_ASCII));
+        output.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(headerBytes.length).array());
+        output.write(new byte[4]);
+        output.write(headerBytes);
+        output.write(payload);
+        Files.write(file.toPath(), output.toByteArray());
+    }
+
+    private static byte[] compressZlib(byte[] input) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(input);
+        deflater.finish();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 2);
+        byte[] buffer = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            int written = deflater.deflate(buffer);
+            output.write(buffer, 0, written);
+        }
+        deflater.end();
+        return output.toByteArray();
+    }
+
+    /**
+     * Greedy single-probe LZ4 block encoder: enough to produce realistic match/literal mixes for
+     * the decoder benchmark, not a competitive compressor.
+     */
+    private static byte[] compressLz4(byte[] input) {
+        final int minMatch = 4;
+        final int lastLiterals = 5;
+        int[] hashTable = new int[1 << 16];
+        Arrays.fill(hashTable, -1);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(input.length);
+
+        int anchor = 0;
+        int position = 0;
+        int matchLimit = input.length - lastLiterals - minMatch;
+        while (position < matchLimit) {
+            int sequence = readInt(input, position);
+            int hash = (sequence * -1640531535) >>> 16;
+            int candidate = hashTable[hash];
+            hashTable[hash] = position;
+            if (candidate < 0 || position - candidate > 65535 || readInt(input, candidate) != sequence) {
+                position++;
+                continue;
+            }
+
+            int matchLength = minMatch;
+            while (position + matchLength < input.length - lastLiterals
+                    && input[candidate + matchLength] == input[position + matchLength]) {
+                matchLength++;
+            }
+            writeSequence(output, input, anchor, position - anchor, position - candidate, matchLength - minMatch);
+            position += matchLength;
+            anchor = position;
+        }
+
+        // Final sequence: literals only.
+        int literalLength = input.length - anchor;
+        output.write(Math.min(literalLength, 15) << 4);
+        writeLength(output, literalLength);
+        output.write(input, anchor, literalLength);
+        return output.toByteArray();
+    }
+
+    private static void writeSequence(ByteArrayOutputStream output, byte[] input, int literalStart, int literalLength,
+                                      int offset, int matchLengthMinusMin) {
+        output.write((Math.min(literalLength, 15) << 4) | Math.min(matchLengthMinusMin, 15));
+        writeLength(output, literalLength);
+        output.write(input, literalStart, literalLength);
+        output.write(offset & 0xFF);
+        output.write((offset >>> 8) & 0xFF);
+        writeLength(output, matchLengthMinusMin);
+    }
+
+    private static void writeLength(ByteArrayOutputStream output, int length) {
+        if (length < 15) {
+            return;
+        }
+        int remaining = length - 15;
+        while (remaining >= 255) {
+            output.write(255);
+            remaining -= 255;
+        }
+        output.write(remaining);
+    }
+
+    private static int readInt(byte[] data, int position) {
+        return (data[position] & 0xFF)
+                | (data[position + 1] & 0xFF) << 8
+                | (data[position + 2] & 0xFF) << 16
+                | (data[position + 3] & 0xFF) << 24;
+    }
+
+    private static byte[] shuffle(byte[] input, int itemSize) {
+        byte[] output = new byte[input.length];
+        int itemCount = input.length / itemSize;
+        int destinationIndex = 0;
+        for (int byteIndex = 0; byteIndex < itemSize; byteIndex++) {
+            int sourceIndex = byteIndex;
+            for (int itemIndex = 0; itemIndex < itemCount; itemIndex++) {
+                output[destinationIndex++] = input[sourceIndex];
+                sourceIndex += itemSize;
+            }
+        }
+        System.arraycopy(input, itemCount * itemSize, output, destinationIndex, input.length - itemCount * itemSize);
+        return output;
+    }
+}
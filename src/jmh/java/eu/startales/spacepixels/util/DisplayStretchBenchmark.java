@@ -0,0 +1,65 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DisplayImageRenderer} auto-stretch used for every frame shown in the viewer and blink
+ * player, on row-array and flat {@link FrameBuffer} input, against the three-pass renderer that the
+ * single-pass lookup table replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class DisplayStretchBenchmark {
+
+    @Param({"1920x1080", "4144x2822", "9576x6388"})
+    public String frameSize;
+
+    private short[][] frame;
+    private FrameBuffer flatFrame;
+
+    @Setup
+    public void setUp() {
+        int[] size = BenchmarkFrames.parseSize(frameSize);
+        frame = BenchmarkFrames.createMono16Frame(size[0], size[1], 42L);
+        flatFrame = FrameBuffer.fromRows(frame);
+    }
+
+    @Benchmark
+    public BufferedImage createDisplayImage() {
+        return DisplayImageRenderer.createDisplayImage(frame, 0.5, 5.0);
+    }
+
+    @Benchmark
+    public BufferedImage createDisplayImageFromFrameBuffer() {
+        return DisplayImageRenderer.createDisplayImage(flatFrame, 0.5, 5.0);
+    }
+
+    @Benchmark
+    public BufferedImage createDisplayImageThreePass() {
+        return DisplayImageRenderer.createDisplayImageThreePass(frame, 0.5, 5.0);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import nom.tam.fits.Fits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one mono 16-bit FITS frame as the detection pipeline does: the raw {@link FitsFrameReader}
+ * path (fresh and reused buffers) against the nom-tam kernel it replaced.
+ * The file is in the page cache after warm-up, so this measures decode cost rather than disk speed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class FitsFrameLoadingBenchmark {
+
+    @Param({"1920x1080", "4144x2822", "9576x6388"})
+    public String frameSize;
+
+    private Path directory;
+    private File fitsFile;
+    private short[][] reusableFrame;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        int[] size = BenchmarkFrames.parseSize(frameSize);
+        directory = Files.createTempDirectory("spacepixels-jmh-fits");
+        fitsFile = BenchmarkFrames.writeMono16Fits(directory, "frame.fit", BenchmarkFrames.createMono16Frame(size[0], size[1], 42L), 0);
+        reusableFrame = new short[size[1]][size[0]];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(fitsFile.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public short[][] readMono16Frame() throws Exception {
+        return FitsFrameReader.readMono16Frame(fitsFile);
+    }
+
+    @Benchmark
+    public short[][] readMono16FrameIntoReusedBuffer() throws Exception {
+        return FitsFrameReader.readMono16Frame(fitsFile, reusableFrame);
+    }
+
+    @Benchmark
+    public Object readWithNomTam() throws Exception {
+        try (Fits fits = new Fits(fitsFile)) {
+            return ImageProcessing.getImageHDU(fits).getKernel();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IterativeDetectionPipelineService#sampleFrameIndices} picking time-spaced subsets from a
+ * session with jittered exposure spacing and a few gaps, as every iterative pass does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameSamplingBenchmark {
+
+    @Param({"200", "2000", "20000"})
+    public int frameCount;
+
+    @Param({"10", "100"})
+    public int subsetSize;
+
+    private long[] timestamps;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        timestamps = new long[frameCount];
+        long time = 1_775_682_000_000L;
+        for (int i = 0; i < frameCount; i++) {
+            timestamps[i] = time;
+            time += 30_000L + random.nextInt(2_000);
+            if (random.nextInt(100) == 0) {
+                // Occasional clouds or meridian flip.
+                time += 600_000L;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Integer> sampleFrameIndices() {
+        return IterativeDetectionPipelineService.sampleFrameIndices(timestamps, true, frameCount, Math.min(subsetSize, frameCount));
+    }
+}
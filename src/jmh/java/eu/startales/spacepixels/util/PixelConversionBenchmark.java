@@ -0,0 +1,65 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FitsPixelConverter} kernels used when importing 32-bit and color sequences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class PixelConversionBenchmark {
+
+    @Param({"1920x1080", "4144x2822", "9576x6388"})
+    public String frameSize;
+
+    private float[][] normalizedFloatFrame;
+    private int[][] int32Frame;
+    private short[][][] color16Frame;
+
+    @Setup
+    public void setUp() {
+        int[] size = BenchmarkFrames.parseSize(frameSize);
+        normalizedFloatFrame = BenchmarkFrames.createNormalizedFloatFrame(size[0], size[1], 42L);
+        int32Frame = BenchmarkFrames.createSkyValues(size[0], size[1], 43L);
+        color16Frame = BenchmarkFrames.createColor16Frame(size[0], size[1], 44L);
+    }
+
+    @Benchmark
+    public short[][] standardizeFloatTo16BitMono() throws IOException {
+        return FitsPixelConverter.standardizeTo16BitMono(normalizedFloatFrame);
+    }
+
+    @Benchmark
+    public short[][] standardizeIntTo16BitMono() throws IOException {
+        return FitsPixelConverter.standardizeTo16BitMono(int32Frame);
+    }
+
+    @Benchmark
+    public short[][] extractLuminance() {
+        return FitsPixelConverter.extractLuminance(color16Frame);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar and SIMD {@link PixelKernels} over every row of a frame on a single thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class PixelKernelsBenchmark {
+
+    @Param({"1920x1080", "4144x2822"})
+    public String frameSize;
+
+    @Param({"scalar", "vector"})
+    public String kernelType;
+
+    private float[][] normalizedFloatFrame;
+    private int[][] int32Frame;
+    private short[][][] color16Frame;
+    private short[][] target;
+    private PixelKernels kernels;
+
+    @Setup
+    public void setUp() {
+        kernels = "vector".equals(kernelType) ? PixelKernels.vector() : PixelKernels.scalar();
+        if (kernels == null) {
+            throw new IllegalStateException("The vector kernels need --add-modules " + PixelKernels.VECTOR_MODULE);
+        }
+        int[] size = BenchmarkFrames.parseSize(frameSize);
+        normalizedFloatFrame = BenchmarkFrames.createNormalizedFloatFrame(size[0], size[1], 42L);
+        int32Frame = BenchmarkFrames.createSkyValues(size[0], size[1], 43L);
+        color16Frame = BenchmarkFrames.createColor16Frame(size[0], size[1], 44L);
+        target = new short[size[1]][size[0]];
+    }
+
+    @Benchmark
+    public float floatMax() {
+        float max = -Float.MAX_VALUE;
+        for (float[] row : normalizedFloatFrame) {
+            max = kernels.max(row, row.length, max);
+        }
+        return max;
+    }
+
+    @Benchmark
+    public short[][] floatToUnsigned16() {
+        for (int y = 0; y < target.length; y++) {
+            kernels.toUnsigned16(normalizedFloatFrame[y], 65535.0f, target[y], target[y].length);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public short[][] intToUnsigned16() {
+        for (int y = 0; y < target.length; y++) {
+            kernels.toUnsigned16(int32Frame[y], target[y], target[y].length);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public short[][] luminance() {
+        for (int y = 0; y < target.length; y++) {
+            kernels.luminance(color16Frame[0][y], color16Frame[1][y], color16Frame[2][y], target[y], target[y].length);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import nom.tam.fits.FitsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link StretchAlgorithm} as rendered by {@link FitsVisualizationRenderer} for full-size
+ * stretched previews, with each algorithm's default parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class StretchAlgorithmBenchmark {
+
+    @Param({"1920x1080", "4144x2822"})
+    public String frameSize;
+
+    @Param({"ASINH", "ENHANCE_LOW", "ENHANCE_HIGH", "EXTREME"})
+    public StretchAlgorithm algorithm;
+
+    private final FitsVisualizationRenderer renderer = new FitsVisualizationRenderer();
+    private short[][] frame;
+    private int width;
+    private int height;
+
+    @Setup
+    public void setUp() {
+        int[] size = BenchmarkFrames.parseSize(frameSize);
+        width = size[0];
+        height = size[1];
+        frame = BenchmarkFrames.createMono16Frame(width, height, 42L);
+    }
+
+    @Benchmark
+    public BufferedImage stretchFullSize() throws FitsException {
+        return renderer.getStretchedImageFullSize(
+                frame,
+                width,
+                height,
+                algorithm.getPrimaryDefault(),
+                algorithm.getSecondaryDefault(),
+                algorithm);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link XisfImageConverter} decode of one gray UInt16 frame per compression codec: header parse,
+ * attachment read, decompression, byte unshuffling and conversion to 16-bit mono storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class XisfDecodeBenchmark {
+
+    @Param({"1920x1080", "4144x2822", "9576x6388"})
+    public String frameSize;
+
+    /**
+     * XISF codec; {@code none} writes an uncompressed attachment.
+     */
+    @Param({"none", "zlib", "zlib+sh", "lz4", "lz4+sh"})
+    public String codec;
+
+    private Path directory;
+    private File xisfFile;
+
+    @Setup
+    public void setUp() throws Exception {
+        int[] size = BenchmarkFrames.parseSize(frameSize);
+        directory = Files.createTempDirectory("spacepixels-jmh-xisf");
+        xisfFile = BenchmarkFrames.writeMono16Xisf(
+                directory,
+                "frame.xisf",
+                BenchmarkFrames.createSkyValues(size[0], size[1], 42L),
+                "none".equals(codec) ? null : codec);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(xisfFile.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public short[][] readMonochromeFrame() throws Exception {
+        return XisfImageConverter.readMonochromeFrame(xisfFile);
+    }
+}
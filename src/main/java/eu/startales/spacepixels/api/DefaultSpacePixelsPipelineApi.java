@@ -11,7 +11,9 @@ import eu.startales.spacepixels.config.SpacePixelsDetectionProfile;
 import eu.startales.spacepixels.util.AutoTuneCandidatePoolBuilder;
 import eu.startales.spacepixels.util.DetectionInputPreparation;
 import eu.startales.spacepixels.util.FitsFileInformation;
+import eu.startales.spacepixels.util.FrameSource;
 import eu.startales.spacepixels.util.ImageProcessing;
+import eu.startales.spacepixels.util.PipelineMetrics;
 import io.github.ppissias.jtransient.config.DetectionConfig;
 import io.github.ppissias.jtransient.engine.ImageFrame;
 import io.github.ppissias.jtransient.engine.JTransientAutoTuner;
@@ -25,7 +27,10 @@ import java.util.Objects;
  * Default implementation of the public SpacePixels pipeline API.
  * <p>
  * This implementation performs optional input preparation, optional Auto-Tune optimization,
- * standard pipeline execution, and optional HTML report export.
+ * standard pipeline execution, and optional HTML report export. Inputs that are not detection-ready
+ * are normalized to 16-bit monochrome while each frame is read, so no converted copy of the
+ * sequence is written. Each of these stages is recorded in
+ * the {@link PipelineMetrics} returned with the result.
  *
  * <p>Auto-Tune-enabled runs should not be executed concurrently in the same JVM. The current
  * implementation temporarily adjusts shared JTransient Auto-Tune state while a tuning run is in
@@ -47,14 +52,23 @@ public final class DefaultSpacePixelsPipelineApi implements SpacePixelsPipelineA
             }
 
             SpacePixelsProgressListener progressListener = request.getProgressListener();
-            DetectionInputPreparation.PreparedDirectory preparedDirectory = DetectionInputPreparation.prepareInputDirectory(
-                    request.getInputDirectory(),
-                    request.getInputPreparationMode() == InputPreparationMode.AUTO_PREPARE_TO_16BIT_MONO,
-                    (percentage, message) -> emitScaledProgress(progressListener, 0, 15, percentage, message));
+            PipelineMetrics metrics = new PipelineMetrics();
+            DetectionInputPreparation.PreparedFrameSource preparedInput;
+            try (PipelineMetrics.Timer ignored = metrics.start(PipelineMetrics.INPUT_PREPARATION)) {
+                preparedInput = DetectionInputPreparation.prepareFrameSource(
+                        request.getInputDirectory(),
+                        request.getInputPreparationMode() == InputPreparationMode.AUTO_PREPARE_TO_16BIT_MONO,
+                        (percentage, message) -> emitScaledProgress(progressListener, 0, 15, percentage, message));
+            }
 
             emitProgress(progressListener, 16, "Validating FITS metadata for pipeline execution...");
-            ImageProcessing imageProcessing = ImageProcessing.getInstance(preparedDirectory.getPreparedInputDirectory());
-            FitsFileInformation[] filesInfo = imageProcessing.getFitsfileInformationHeadless();
+            ImageProcessing imageProcessing;
+            FitsFileInformation[] filesInfo;
+            try (PipelineMetrics.Timer metadataLoad = metrics.start(PipelineMetrics.METADATA_LOAD)) {
+                imageProcessing = ImageProcessing.getInstance(preparedInput.getInputDirectory(), preparedInput.getFrameSource());
+                filesInfo = imageProcessing.getFitsfileInformationHeadless();
+                metadataLoad.addCount(filesInfo.length);
+            }
 
             JTransientAutoTuner.AutoTunerResult autoTuneResult = null;
             int pipelineStartPercent = 15;
@@ -63,9 +77,11 @@ public final class DefaultSpacePixelsPipelineApi implements SpacePixelsPipelineA
                 pipelineStartPercent = 35;
                 autoTuneResult = runAutoTune(
                         filesInfo,
+                        imageProcessing.getFrameSource(),
                         pipelineBaseConfig.clone(),
                         request.getAutoTuneMaxCandidateFrames(),
                         request.getAutoTuneProfile(),
+                        metrics,
                         (percentage, message) -> emitScaledProgress(progressListener, 15, 35, percentage, message));
                 pipelineBaseConfig = autoTuneResult.optimizedConfig.clone();
             }
@@ -75,6 +91,7 @@ public final class DefaultSpacePixelsPipelineApi implements SpacePixelsPipelineA
             final int finalPipelineEndPercent = pipelineEndPercent;
             ImageProcessing.PipelineExecutionData executionData = imageProcessing.runDetectionPipeline(
                     pipelineBaseConfig,
+                    metrics,
                     (percentage, message) -> emitScaledProgress(progressListener, finalPipelineStartPercent, finalPipelineEndPercent, percentage, message));
 
             File reportFile = null;
@@ -93,8 +110,8 @@ public final class DefaultSpacePixelsPipelineApi implements SpacePixelsPipelineA
 
             return new SpacePixelsPipelineResult(
                     request.getInputDirectory(),
-                    preparedDirectory.getPreparedInputDirectory(),
-                    preparedDirectory.isInputWasPrepared(),
+                    preparedInput.getInputDirectory(),
+                    preparedInput.isNormalizedOnTheFly(),
                     executionData.getFilesInformation(),
                     baseConfig,
                     executionData.getEffectiveConfig(),
@@ -103,7 +120,8 @@ public final class DefaultSpacePixelsPipelineApi implements SpacePixelsPipelineA
                     autoTuneResult == null ? null : autoTuneResult.telemetryReport,
                     executionData.getPipelineResult(),
                     exportDirectory,
-                    reportFile);
+                    reportFile,
+                    metrics);
         } catch (SpacePixelsPipelineException e) {
             throw e;
         } catch (Exception e) {
@@ -112,20 +130,27 @@ public final class DefaultSpacePixelsPipelineApi implements SpacePixelsPipelineA
     }
 
     private static JTransientAutoTuner.AutoTunerResult runAutoTune(FitsFileInformation[] filesInfo,
+                                                                   FrameSource frameSource,
                                                                    DetectionConfig baseConfig,
                                                                    int autoTuneMaxCandidateFrames,
                                                                    JTransientAutoTuner.AutoTuneProfile profile,
+                                                                   PipelineMetrics metrics,
                                                                    SpacePixelsProgressListener progressListener) throws Exception {
         if (filesInfo == null || filesInfo.length < SpacePixelsDetectionProfile.MIN_AUTO_TUNE_MAX_CANDIDATE_FRAMES) {
             throw new SpacePixelsPipelineException("Auto-Tune requires at least " + SpacePixelsDetectionProfile.MIN_AUTO_TUNE_MAX_CANDIDATE_FRAMES +
                     " frames, but only " + (filesInfo == null ? 0 : filesInfo.length) + " were available.");
         }
 
-        List<ImageFrame> candidateFrames = AutoTuneCandidatePoolBuilder.buildCandidatePool(
-                filesInfo,
-                baseConfig,
-                autoTuneMaxCandidateFrames,
-                (percentage, message) -> emitProgress(progressListener, percentage, message));
+        List<ImageFrame> candidateFrames;
+        try (PipelineMetrics.Timer candidatePool = metrics.start(PipelineMetrics.AUTO_TUNE_CANDIDATE_POOL)) {
+            candidateFrames = AutoTuneCandidatePoolBuilder.buildCandidatePool(
+                    filesInfo,
+                    frameSource,
+                    baseConfig,
+                    autoTuneMaxCandidateFrames,
+                    (percentage, message) -> emitProgress(progressListener, percentage, message));
+            candidatePool.addCount(candidateFrames.size());
+        }
 
         emitProgress(progressListener, 50, "Starting mathematical tuning algorithms...");
 
@@ -139,7 +164,8 @@ public final class DefaultSpacePixelsPipelineApi implements SpacePixelsPipelineA
 
         JTransientAutoTuner.AutoTunerResult result;
         JTransientAutoTuner.AUTO_TUNE_SAMPLE_SIZE = effectiveSampleSize;
-        try {
+        try (PipelineMetrics.Timer scoring = metrics.start(PipelineMetrics.AUTO_TUNE_SCORING)) {
+            scoring.addCount(effectiveSampleSize);
             result = JTransientAutoTuner.tune(candidateFrames, baseConfig, profile, autoTuneListener);
         } finally {
             JTransientAutoTuner.AUTO_TUNE_SAMPLE_SIZE = originalSampleSize;
@@ -8,6 +8,7 @@
 package eu.startales.spacepixels.api;
 
 import eu.startales.spacepixels.util.FitsFileInformation;
+import eu.startales.spacepixels.util.PipelineMetrics;
 import io.github.ppissias.jtransient.config.DetectionConfig;
 import io.github.ppissias.jtransient.engine.JTransientAutoTuner;
 import io.github.ppissias.jtransient.engine.PipelineResult;
@@ -18,8 +19,8 @@ import java.io.File;
  * Result returned by the public SpacePixels pipeline API.
  * <p>
  * This object exposes the original and prepared input locations, the configuration actually used,
- * optional Auto-Tune telemetry, the raw JTransient {@link PipelineResult}, and optional report
- * export paths.
+ * optional Auto-Tune telemetry, the raw JTransient {@link PipelineResult}, per-stage
+ * {@link PipelineMetrics}, and optional report export paths.
  */
 public final class SpacePixelsPipelineResult {
     private final File originalInputDirectory;
@@ -34,6 +35,7 @@ public final class SpacePixelsPipelineResult {
     private final PipelineResult pipelineResult;
     private final File exportDirectory;
     private final File reportFile;
+    private final PipelineMetrics metrics;
 
     public SpacePixelsPipelineResult(File originalInputDirectory,
                                      File preparedInputDirectory,
@@ -47,6 +49,24 @@ public final class SpacePixelsPipelineResult {
                                      PipelineResult pipelineResult,
                                      File exportDirectory,
                                      File reportFile) {
+        this(originalInputDirectory, preparedInputDirectory, inputWasPrepared, filesInformation, baseConfig, effectiveConfig,
+                autoTuneApplied, autoTuneProfileUsed, autoTuneTelemetryReport, pipelineResult, exportDirectory, reportFile,
+                new PipelineMetrics());
+    }
+
+    public SpacePixelsPipelineResult(File originalInputDirectory,
+                                     File preparedInputDirectory,
+                                     boolean inputWasPrepared,
+                                     FitsFileInformation[] filesInformation,
+                                     DetectionConfig baseConfig,
+                                     DetectionConfig effectiveConfig,
+                                     boolean autoTuneApplied,
+                                     JTransientAutoTuner.AutoTuneProfile autoTuneProfileUsed,
+                                     String autoTuneTelemetryReport,
+                                     PipelineResult pipelineResult,
+                                     File exportDirectory,
+                                     File reportFile,
+                                     PipelineMetrics metrics) {
         this.originalInputDirectory = originalInputDirectory;
         this.preparedInputDirectory = preparedInputDirectory;
         this.inputWasPrepared = inputWasPrepared;
@@ -59,6 +79,7 @@ public final class SpacePixelsPipelineResult {
         this.pipelineResult = pipelineResult;
         this.exportDirectory = exportDirectory;
         this.reportFile = reportFile;
+        this.metrics = metrics != null ? metrics : new PipelineMetrics();
     }
 
     /**
@@ -73,16 +94,17 @@ public final class SpacePixelsPipelineResult {
     /**
      * Returns the directory actually processed by the pipeline.
      *
-     * @return prepared input directory, which may be the same as the original directory
+     * @return directory the frames were read from; {@link DefaultSpacePixelsPipelineApi} normalizes
+     *         frames while reading them, so this is the original directory
      */
     public File getPreparedInputDirectory() {
         return preparedInputDirectory;
     }
 
     /**
-     * Returns whether the API created a prepared working directory before running the pipeline.
+     * Returns whether input preparation had to normalize the frames for detection.
      *
-     * @return {@code true} when input preparation created a new detection-ready directory
+     * @return {@code true} when the frames were converted to 16-bit monochrome while being read
      */
     public boolean isInputWasPrepared() {
         return inputWasPrepared;
@@ -173,4 +195,16 @@ public final class SpacePixelsPipelineResult {
     public File getReportFile() {
         return reportFile;
     }
+
+    /**
+     * Returns per-stage timings, counts and sampled peak heap for this run.
+     *
+     * <p>When a report was exported, the same metrics are also written to
+     * {@value PipelineMetrics#METRICS_FILENAME} in {@link #getExportDirectory()}.
+     *
+     * @return stage metrics, never {@code null}
+     */
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
 }
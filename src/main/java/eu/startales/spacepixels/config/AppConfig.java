@@ -9,4 +9,20 @@ public class AppConfig {
     public String siteLong = "";
     public String pixelSize = "";
     public String focalLength = "";
+    /** Number of worker threads used to decode frames for detection; 0 selects a core-based default. */
+    public int frameLoadingThreads = 0;
+    /** Maximum number of frames decoded ahead of the engine handoff; 0 selects two per worker. */
+    public int frameLoadingMaxInFlight = 0;
+    /** Number of files converted concurrently by batch decompression, standardization, mono and stretch; 0 selects one per core. */
+    public int batchConversionThreads = 0;
+    /** Estimated working memory, in MiB, that concurrent batch conversions may use together; 0 selects half the heap. */
+    public int batchConversionMemoryBudgetMb = 0;
+    /** Number of iterative detection passes run concurrently, each with its own engine; 1 runs them one after another and 0 selects one per four cores. */
+    public int iterativeConcurrentPasses = 1;
+    /** Estimated working memory, in MiB, that iterative passes and their raw frame cache use together; 0 selects half the maximum heap. */
+    public int iterativeMemoryBudgetMb = 0;
+    /** Disk space, in MiB, that the downsampled preview cache in the user's home directory may use; 0 selects 1024 MiB. */
+    public int previewCacheBudgetMb = 0;
+    /** Pixel count from which stretch, conversion and display kernels split a frame across cores; 0 selects about one megapixel. */
+    public int parallelKernelMinPixels = 0;
 }
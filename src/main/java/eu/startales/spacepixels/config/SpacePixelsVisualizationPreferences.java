@@ -7,6 +7,7 @@
  */
 package eu.startales.spacepixels.config;
 
+import eu.startales.spacepixels.util.BlinkFrameWindow;
 import eu.startales.spacepixels.util.DisplayImageRenderer;
 import eu.startales.spacepixels.util.RawImageAnnotator;
 import eu.startales.spacepixels.util.reporting.DetectionReportGenerator;
@@ -23,6 +24,7 @@ public class SpacePixelsVisualizationPreferences {
     public double autoStretchBlackSigma = DisplayImageRenderer.autoStretchBlackSigma;
     public double autoStretchWhiteSigma = DisplayImageRenderer.autoStretchWhiteSigma;
     public int gifBlinkSpeedMs = DetectionReportGenerator.gifBlinkSpeedMs;
+    public int blinkFrameIntervalMs = BlinkFrameWindow.blinkFrameIntervalMs;
     public int trackCropPadding = DetectionReportGenerator.trackCropPadding;
     public boolean includeAiCreativeReportSections = DetectionReportGenerator.includeAiCreativeReportSections;
 
@@ -38,6 +40,7 @@ public class SpacePixelsVisualizationPreferences {
         DisplayImageRenderer.autoStretchBlackSigma = autoStretchBlackSigma;
         DisplayImageRenderer.autoStretchWhiteSigma = autoStretchWhiteSigma;
         DetectionReportGenerator.gifBlinkSpeedMs = gifBlinkSpeedMs;
+        BlinkFrameWindow.blinkFrameIntervalMs = blinkFrameIntervalMs;
         DetectionReportGenerator.trackCropPadding = trackCropPadding;
         DetectionReportGenerator.includeAiCreativeReportSections = includeAiCreativeReportSections;
     }
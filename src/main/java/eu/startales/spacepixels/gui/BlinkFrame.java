@@ -23,6 +23,7 @@ import java.awt.image.BufferedImage;
 public class BlinkFrame extends JFrame {
 
     private final JPanel imagePreviewPanel = new JPanel();
+    private final JScrollPane scrollPane = new JScrollPane();
     private ImageVisualizerComponent imageComponent = new ImageVisualizerComponent();
 
     private final EventBus eventBus;
@@ -49,7 +50,6 @@ public class BlinkFrame extends JFrame {
         contentPane.setLayout(new BorderLayout(0, 0));
         setContentPane(contentPane);
 
-        JScrollPane scrollPane = new JScrollPane();
         contentPane.add(scrollPane, BorderLayout.CENTER);
 
         imagePreviewPanel.add(imageComponent);
@@ -70,6 +70,21 @@ public class BlinkFrame extends JFrame {
         });
     }
 
+    /**
+     * Returns the area blink frames are rendered for: the visible part of the scroll pane, or the
+     * window size before the frame has been laid out.
+     */
+    public Dimension getViewportSize() {
+        Dimension extent = scrollPane.getViewport().getExtentSize();
+        if (extent.width > 0 && extent.height > 0) {
+            return extent;
+        }
+        Insets insets = getInsets();
+        return new Dimension(
+                Math.max(1, getWidth() - insets.left - insets.right - 10),
+                Math.max(1, getHeight() - insets.top - insets.bottom - 10));
+    }
+
     public void setImage(BufferedImage image) {
         ApplicationWindow.logger.info("setting image");
         imageComponent.setImage(image);
@@ -85,7 +85,7 @@ public class DetectionConfigurationPanel extends JPanel {
     private JSpinner spinAutoTuneMaxCandidateFrames;
 
     private JSpinner spinStreakScale, spinStreakCentroidRad, spinPointBoxRad, spinBoxPad;
-    private JSpinner spinAutoBlackSigma, spinAutoWhiteSigma, spinGifBlinkSpeed, spinCropPadding;
+    private JSpinner spinAutoBlackSigma, spinAutoWhiteSigma, spinGifBlinkSpeed, spinBlinkFrameInterval, spinCropPadding;
     private JCheckBox chkIncludeAiCreativeReportSections;
 
     private final JButton previewBtn = new JButton("Preview Detection Settings");
@@ -575,6 +575,7 @@ public class DetectionConfigurationPanel extends JPanel {
         spinAutoBlackSigma = addRow(panel, "Auto Stretch Black Sigma", "Controls how far below the image mean the automatic black point is placed when stretching rendered imagery. Higher values darken the background more aggressively.", doubleSpinnerModel(DisplayImageRenderer.autoStretchBlackSigma, 0.0, 10.0, 0.1));
         spinAutoWhiteSigma = addRow(panel, "Auto Stretch White Sigma", "Controls how far above the image mean the automatic white point is placed when stretching rendered imagery. Higher values preserve more bright-core detail but can reduce contrast on faint structure.", doubleSpinnerModel(DisplayImageRenderer.autoStretchWhiteSigma, 0.1, 20.0, 0.1));
         spinGifBlinkSpeed = addRow(panel, "GIF Blink Speed (ms)", "Frame delay used for exported animated GIFs. Lower values blink faster; higher values slow the inspection cadence.", intSpinnerModel(DetectionReportGenerator.gifBlinkSpeedMs, 50, 5000, 10));
+        spinBlinkFrameInterval = addRow(panel, "Blink Frame Interval (ms)", "How long each frame stays on screen when blinking selected frames in the main window.", intSpinnerModel(BlinkFrameWindow.blinkFrameIntervalMs, 20, 5000, 10));
 
         panel.add(Box.createVerticalStrut(10));
         panel.add(createSectionHeader("Raw Image Annotations"));
@@ -878,6 +879,7 @@ public class DetectionConfigurationPanel extends JPanel {
             DisplayImageRenderer.autoStretchBlackSigma = ((Number) spinAutoBlackSigma.getValue()).doubleValue();
             DisplayImageRenderer.autoStretchWhiteSigma = ((Number) spinAutoWhiteSigma.getValue()).doubleValue();
             DetectionReportGenerator.gifBlinkSpeedMs = ((Number) spinGifBlinkSpeed.getValue()).intValue();
+            BlinkFrameWindow.blinkFrameIntervalMs = ((Number) spinBlinkFrameInterval.getValue()).intValue();
             DetectionReportGenerator.trackCropPadding = ((Number) spinCropPadding.getValue()).intValue();
             DetectionReportGenerator.includeAiCreativeReportSections = chkIncludeAiCreativeReportSections != null && chkIncludeAiCreativeReportSections.isSelected();
 
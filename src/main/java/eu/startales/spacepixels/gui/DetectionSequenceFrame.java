@@ -25,11 +25,9 @@ public class DetectionSequenceFrame extends JFrame {
     private final ApplicationWindow mainAppWindow;
 
     // UI Components
-    private final JPanel imagePreviewPanel = new JPanel();
     private final ImageVisualizerComponent imageComponent = new ImageVisualizerComponent();
     private final JLabel frameStatusLabel = new JLabel(" Ready");
     private final JLabel cursorStatusLabel = new JLabel(" Cursor: WCS unavailable");
-    private JScrollPane scrollPane;
 
     // Sequence State
     private FitsFileInformation[] sequenceFiles;
@@ -55,11 +53,8 @@ public class DetectionSequenceFrame extends JFrame {
         contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
         setContentPane(contentPane);
 
-        scrollPane = new JScrollPane();
-        contentPane.add(scrollPane, BorderLayout.CENTER);
-
-        imagePreviewPanel.add(imageComponent);
-        scrollPane.setViewportView(imagePreviewPanel);
+        imageComponent.setZoomEnabled(true);
+        contentPane.add(imageComponent, BorderLayout.CENTER);
 
         JPanel bottomPanel = new JPanel(new BorderLayout(10, 0));
         bottomPanel.setBorder(BorderFactory.createEtchedBorder());
@@ -205,16 +200,18 @@ public class DetectionSequenceFrame extends JFrame {
     private void setImage(BufferedImage image) {
         if (image == null) return;
         imageComponent.setImage(image);
-        imageComponent.setPreferredSize(new Dimension(image.getWidth(), image.getHeight()));
-        imagePreviewPanel.revalidate();
-        imagePreviewPanel.repaint();
     }
 
     private void installCursorTracking() {
         imageComponent.addMouseMotionListener(new MouseMotionAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
-                updateCursorStatus(e.getX(), e.getY());
+                updateCursorStatus(imageComponent.getImagePixelAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                updateCursorStatus(imageComponent.getImagePixelAt(e.getX(), e.getY()));
             }
         });
         imageComponent.addMouseListener(new MouseAdapter() {
@@ -225,7 +222,13 @@ public class DetectionSequenceFrame extends JFrame {
         });
     }
 
-    private void updateCursorStatus(int pixelX, int pixelY) {
+    private void updateCursorStatus(Point pixel) {
+        if (pixel == null) {
+            cursorStatusLabel.setText(buildDefaultCursorStatus());
+            return;
+        }
+        int pixelX = pixel.x;
+        int pixelY = pixel.y;
         if (currentWcsTransformer == null) {
             cursorStatusLabel.setText(String.format(" Cursor: x=%d y=%d | WCS unavailable", pixelX, pixelY));
             return;
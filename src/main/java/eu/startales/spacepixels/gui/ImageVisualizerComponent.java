@@ -9,17 +9,58 @@
  */
 package eu.startales.spacepixels.gui;
 
+import eu.startales.spacepixels.util.ImageTilePyramid;
+import eu.startales.spacepixels.util.SharedExecutors;
+
+import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Shows a display image at its actual size, or, with {@link #setZoomEnabled(boolean)}, as a zoomable
+ * and pannable view of any size.
+ *
+ * <p>Zoomable views start fitted to the component and keep their zoom and position while frames of
+ * the same size replace each other. The mouse wheel zooms around the cursor, dragging pans and a
+ * double click toggles between fitted and actual size. Zoomed-out views draw the visible tiles of an
+ * {@link ImageTilePyramid} level instead of rescaling the whole frame. Missing tiles are composed on
+ * the shared CPU pool and drawn from a coarser cached tile until they arrive, so the event thread
+ * only ever scales a viewport's worth of pixels. After stepping to a frame of the same size, the
+ * previous frame's tiles stand in for tiles of the new one until those arrive, so the view does not
+ * flash empty.</p>
+ *
  * @author Petros Pissias
  *
  */
-public class ImageVisualizerComponent extends Component {
+public class ImageVisualizerComponent extends JComponent {
+
+    private static final double ZOOM_STEP = 1.25;
+    private static final double MAX_ZOOM = 16.0;
 
     private BufferedImage image = null;
 
+    private boolean zoomEnabled = false;
+    private volatile ImageTilePyramid pyramid;
+    private boolean pyramidDrawnComplete;
+    // An earlier frame's pyramid of the same size, drawn where the current one has no tile yet.
+    private ImageTilePyramid previousPyramid;
+    private Set<Long> pendingTiles = ConcurrentHashMap.newKeySet();
+    private volatile VisibleTiles visibleTiles;
+    private boolean fitPending;
+    // Display pixels per image pixel, and the image coordinate at the component's top-left corner.
+    private double zoom = 1.0;
+    private double viewX;
+    private double viewY;
+
+    private Point dragOrigin;
+    private double dragViewX;
+    private double dragViewY;
+
     /**
      *
      */
@@ -29,13 +70,64 @@ public class ImageVisualizerComponent extends Component {
     }
 
     public void setImage(BufferedImage image) {
+        BufferedImage previous = this.image;
         this.image = image;
         ApplicationWindow.logger.info("setImage");
 
+        if (zoomEnabled) {
+            // Sequence viewers keep the current zoom and position while stepping through same-sized frames.
+            boolean sameSize = image != null && previous != null
+                    && previous.getWidth() == image.getWidth() && previous.getHeight() == image.getHeight();
+            resetPyramid(sameSize);
+            if (image != null && !sameSize) {
+                fitPending = true;
+            }
+        }
+
         repaint();
 
     }
 
+    /**
+     * Turns mouse zooming and panning on or off. Views without zoom draw the image at its actual size
+     * at the top-left corner.
+     */
+    public void setZoomEnabled(boolean zoomEnabled) {
+        if (this.zoomEnabled == zoomEnabled) {
+            return;
+        }
+        this.zoomEnabled = zoomEnabled;
+        setOpaque(zoomEnabled);
+        if (zoomEnabled) {
+            ViewNavigation navigation = new ViewNavigation();
+            addMouseListener(navigation);
+            addMouseMotionListener(navigation);
+            addMouseWheelListener(navigation);
+            fitPending = image != null;
+        } else {
+            zoom = 1.0;
+            viewX = 0;
+            viewY = 0;
+        }
+        resetPyramid(false);
+        repaint();
+    }
+
+    /**
+     * Returns the image pixel under a point of this component, or {@code null} outside the image.
+     */
+    public Point getImagePixelAt(int x, int y) {
+        if (image == null) {
+            return null;
+        }
+        int imageX = (int) Math.floor(viewX + x / zoom);
+        int imageY = (int) Math.floor(viewY + y / zoom);
+        if (imageX < 0 || imageY < 0 || imageX >= image.getWidth() || imageY >= image.getHeight()) {
+            return null;
+        }
+        return new Point(imageX, imageY);
+    }
+
     @Override
     public Dimension getPreferredSize() {
         if (image == null) {
@@ -46,10 +138,10 @@ public class ImageVisualizerComponent extends Component {
     }
 
     @Override
-    public void paint(Graphics g) {
-        //super.paint(g);
-
-        if (image != null) {
+    protected void paintComponent(Graphics g) {
+        if (image != null && zoomEnabled) {
+            paintZoomable((Graphics2D) g.create());
+        } else if (image != null) {
             ApplicationWindow.logger.info("drawing image");
             g.drawImage(image, 0, 0, null);
         } else {
@@ -63,4 +155,275 @@ public class ImageVisualizerComponent extends Component {
             }
         }
     }
+
+    private void paintZoomable(Graphics2D g) {
+        try {
+            if (fitPending && getWidth() > 0 && getHeight() > 0) {
+                zoom = Math.min(1.0, fitZoom());
+                fitPending = false;
+            }
+            constrainView();
+
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+            // Pick the level for device pixels, so scaled desktops do not draw from a level too coarse.
+            int level = pyramid.levelFor(zoom * g.getTransform().getScaleX());
+            // Pyramid levels are already averaged down to within a factor of two of the screen, so only
+            // the source image needs filtering, when it is shrunk.
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, level == 0 && zoom < 1.0
+                    ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+                    : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            if (level == 0) {
+                paintSourceRegion(g);
+            } else {
+                paintTiles(g, pyramid, level);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private void paintSourceRegion(Graphics2D g) {
+        visibleTiles = null;
+        replacePreviousPyramid(null);
+        int x1 = Math.max(0, (int) Math.floor(viewX));
+        int y1 = Math.max(0, (int) Math.floor(viewY));
+        int x2 = Math.min(image.getWidth(), (int) Math.ceil(viewX + getWidth() / zoom));
+        int y2 = Math.min(image.getHeight(), (int) Math.ceil(viewY + getHeight() / zoom));
+        if (x2 > x1 && y2 > y1) {
+            g.drawImage(image, screenX(x1), screenY(y1), screenX(x2), screenY(y2), x1, y1, x2, y2, null);
+        }
+    }
+
+    private void paintTiles(Graphics2D g, ImageTilePyramid tiles, int level) {
+        double tileSpan = (double) ImageTilePyramid.TILE_SIZE * (1 << level);
+        int firstColumn = Math.max(0, (int) Math.floor(viewX / tileSpan));
+        int firstRow = Math.max(0, (int) Math.floor(viewY / tileSpan));
+        int lastColumn = Math.min(tiles.getTileColumns(level) - 1, (int) Math.floor((viewX + getWidth() / zoom) / tileSpan));
+        int lastRow = Math.min(tiles.getTileRows(level) - 1, (int) Math.floor((viewY + getHeight() / zoom) / tileSpan));
+        visibleTiles = new VisibleTiles(level, firstColumn, lastColumn, firstRow, lastRow);
+
+        boolean complete = true;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                BufferedImage tile = tiles.getTileIfAvailable(level, column, row);
+                if (tile != null) {
+                    drawTile(g, tiles, tile, level, column, row, 0, 0, tile.getWidth(), tile.getHeight());
+                } else {
+                    complete = false;
+                    paintStandIn(g, tiles, level, column, row);
+                    requestTile(tiles, level, column, row);
+                }
+            }
+        }
+        if (complete) {
+            pyramidDrawnComplete = true;
+            replacePreviousPyramid(null);
+        }
+    }
+
+    /**
+     * Draws what is cached in place of a tile still being composed: the previous frame's tile, or else
+     * part of a coarser tile of the current or previous frame.
+     */
+    private void paintStandIn(Graphics2D g, ImageTilePyramid tiles, int level, int column, int row) {
+        ImageTilePyramid previous = previousPyramid;
+        BufferedImage tile = previous != null ? previous.getTileIfAvailable(level, column, row) : null;
+        if (tile != null) {
+            drawTile(g, previous, tile, level, column, row, 0, 0, tile.getWidth(), tile.getHeight());
+        } else if (!paintFromCoarserLevel(g, tiles, level, column, row) && previous != null) {
+            paintFromCoarserLevel(g, previous, level, column, row);
+        }
+    }
+
+    /**
+     * Draws the part of the nearest cached coarser tile that covers a tile still being composed.
+     *
+     * @return {@code false} if no coarser tile is cached
+     */
+    private boolean paintFromCoarserLevel(Graphics2D g, ImageTilePyramid tiles, int level, int column, int row) {
+        int size = ImageTilePyramid.TILE_SIZE;
+        for (int coarse = level + 1; coarse < tiles.getLevelCount(); coarse++) {
+            int shift = coarse - level;
+            BufferedImage tile = tiles.getTileIfAvailable(coarse, column >> shift, row >> shift);
+            if (tile == null) {
+                continue;
+            }
+            int width = Math.min(size, tiles.getLevelWidth(level) - column * size);
+            int height = Math.min(size, tiles.getLevelHeight(level) - row * size);
+            int x1 = ((column * size) >> shift) - (column >> shift) * size;
+            int y1 = ((row * size) >> shift) - (row >> shift) * size;
+            int x2 = Math.min(tile.getWidth(), ((column * size + width + (1 << shift) - 1) >> shift) - (column >> shift) * size);
+            int y2 = Math.min(tile.getHeight(), ((row * size + height + (1 << shift) - 1) >> shift) - (row >> shift) * size);
+            drawTile(g, tiles, tile, level, column, row, x1, y1, x2, y2);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Draws a source region of {@code tile} over the screen area of tile {@code (level, column, row)},
+     * the last row and column of tiles ending at the image edge.
+     */
+    private void drawTile(Graphics2D g, ImageTilePyramid tiles, BufferedImage tile, int level, int column, int row,
+                          int sourceX1, int sourceY1, int sourceX2, int sourceY2) {
+        int size = ImageTilePyramid.TILE_SIZE;
+        int scale = 1 << level;
+        int x1 = screenX((long) column * size * scale);
+        int y1 = screenY((long) row * size * scale);
+        int x2 = screenX(Math.min(tiles.getSource().getWidth(), (long) Math.min(tiles.getLevelWidth(level), (column + 1) * size) * scale));
+        int y2 = screenY(Math.min(tiles.getSource().getHeight(), (long) Math.min(tiles.getLevelHeight(level), (row + 1) * size) * scale));
+        g.drawImage(tile, x1, y1, x2, y2, sourceX1, sourceY1, sourceX2, sourceY2, null);
+    }
+
+    private void requestTile(ImageTilePyramid tiles, int level, int column, int row) {
+        Set<Long> pending = pendingTiles;
+        long key = ((long) level << 48) | ((long) row << 24) | column;
+        if (!pending.add(key)) {
+            return;
+        }
+        SharedExecutors.cpu().execute(() -> {
+            try {
+                VisibleTiles wanted = visibleTiles;
+                // Skip tiles scrolled or zoomed out of view while queued.
+                if (tiles == pyramid && wanted != null && wanted.contains(level, column, row)) {
+                    tiles.getTile(level, column, row);
+                    repaint();
+                }
+            } finally {
+                pending.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Starts a pyramid for the current image. With {@code keepStandIn}, the image has the size of the
+     * one it replaces, and the replaced pyramid stays available as a stand-in; while stepping faster
+     * than tiles are composed, the last pyramid that was drawn complete is kept instead.
+     */
+    private void resetPyramid(boolean keepStandIn) {
+        ImageTilePyramid replaced = pyramid;
+        if (!keepStandIn) {
+            replacePreviousPyramid(null);
+        } else if (replaced != null && (pyramidDrawnComplete || previousPyramid == null)) {
+            replacePreviousPyramid(replaced);
+            replaced = null;
+        }
+        if (replaced != null) {
+            replaced.discardTiles();
+        }
+        pyramid = zoomEnabled && image != null ? new ImageTilePyramid(image) : null;
+        pyramidDrawnComplete = false;
+        pendingTiles = ConcurrentHashMap.newKeySet();
+        visibleTiles = null;
+    }
+
+    private void replacePreviousPyramid(ImageTilePyramid tiles) {
+        if (previousPyramid != null && previousPyramid != tiles) {
+            previousPyramid.discardTiles();
+        }
+        previousPyramid = tiles;
+    }
+
+    private double fitZoom() {
+        return Math.min((double) getWidth() / image.getWidth(), (double) getHeight() / image.getHeight());
+    }
+
+    private void zoomAround(double factor, int x, int y) {
+        if (image == null) {
+            return;
+        }
+        double imageX = viewX + x / zoom;
+        double imageY = viewY + y / zoom;
+        zoom = Math.max(Math.min(1.0, fitZoom()), Math.min(MAX_ZOOM, zoom * factor));
+        viewX = imageX - x / zoom;
+        viewY = imageY - y / zoom;
+        constrainView();
+        repaint();
+    }
+
+    /**
+     * Centers the image along axes it does not fill and otherwise keeps the view inside the image.
+     */
+    private void constrainView() {
+        double visibleWidth = getWidth() / zoom;
+        double visibleHeight = getHeight() / zoom;
+        viewX = visibleWidth >= image.getWidth()
+                ? (image.getWidth() - visibleWidth) / 2
+                : Math.max(0, Math.min(image.getWidth() - visibleWidth, viewX));
+        viewY = visibleHeight >= image.getHeight()
+                ? (image.getHeight() - visibleHeight) / 2
+                : Math.max(0, Math.min(image.getHeight() - visibleHeight, viewY));
+    }
+
+    private int screenX(double imageX) {
+        return (int) Math.round((imageX - viewX) * zoom);
+    }
+
+    private int screenY(double imageY) {
+        return (int) Math.round((imageY - viewY) * zoom);
+    }
+
+    private static final class VisibleTiles {
+        private final int level;
+        private final int firstColumn;
+        private final int lastColumn;
+        private final int firstRow;
+        private final int lastRow;
+
+        private VisibleTiles(int level, int firstColumn, int lastColumn, int firstRow, int lastRow) {
+            this.level = level;
+            this.firstColumn = firstColumn;
+            this.lastColumn = lastColumn;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        private boolean contains(int level, int column, int row) {
+            return this.level == level
+                    && column >= firstColumn && column <= lastColumn
+                    && row >= firstRow && row <= lastRow;
+        }
+    }
+
+    private final class ViewNavigation extends MouseAdapter {
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent e) {
+            zoomAround(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+        }
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            if (SwingUtilities.isLeftMouseButton(e)) {
+                dragOrigin = e.getPoint();
+                dragViewX = viewX;
+                dragViewY = viewY;
+                setCursor(Cursor.getPredefinedCursor(Cursor.MOVE_CURSOR));
+            }
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent e) {
+            if (dragOrigin != null && image != null) {
+                viewX = dragViewX - (e.getX() - dragOrigin.x) / zoom;
+                viewY = dragViewY - (e.getY() - dragOrigin.y) / zoom;
+                constrainView();
+                repaint();
+            }
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            dragOrigin = null;
+            setCursor(Cursor.getDefaultCursor());
+        }
+
+        @Override
+        public void mouseClicked(MouseEvent e) {
+            if (e.getClickCount() == 2 && SwingUtilities.isLeftMouseButton(e) && image != null) {
+                double fit = Math.min(1.0, fitZoom());
+                zoomAround((zoom > fit ? fit : 1.0) / zoom, e.getX(), e.getY());
+            }
+        }
+    }
 }
@@ -197,7 +197,8 @@ public class MainApplicationPanel extends JPanel {
                         stretchFactor,
                         iterations,
                         algo,
-                        isBlinking
+                        isBlinking,
+                        mainAppWindow.getBlinkFrame().getViewportSize()
                 )).start();
 
             } else {
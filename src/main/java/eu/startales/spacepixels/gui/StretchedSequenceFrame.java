@@ -29,9 +29,7 @@ public class StretchedSequenceFrame extends JFrame {
     private final StretchPanel stretchPanel;
 
     // UI Components
-    private final JPanel imagePreviewPanel = new JPanel();
     private final ImageVisualizerComponent imageComponent = new ImageVisualizerComponent();
-    private final JScrollPane scrollPane;
 
     // Sequence State
     private FitsFileInformation[] sequenceFiles;
@@ -54,11 +52,8 @@ public class StretchedSequenceFrame extends JFrame {
         contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
         setContentPane(contentPane);
 
-        scrollPane = new JScrollPane();
-        contentPane.add(scrollPane, BorderLayout.CENTER);
-
-        imagePreviewPanel.add(imageComponent);
-        scrollPane.setViewportView(imagePreviewPanel);
+        imageComponent.setZoomEnabled(true);
+        contentPane.add(imageComponent, BorderLayout.CENTER);
 
         // Lifecycle Management: Free up RAM immediately when closed
         this.addWindowListener(new WindowAdapter() {
@@ -184,8 +179,5 @@ public class StretchedSequenceFrame extends JFrame {
 
     private void setImage(BufferedImage image) {
         imageComponent.setImage(image);
-        imageComponent.setPreferredSize(new Dimension(image.getWidth(), image.getHeight()));
-        imagePreviewPanel.revalidate();
-        imagePreviewPanel.repaint();
     }
 }
\ No newline at end of file
@@ -31,7 +31,7 @@ public class TransientInspectionFrame extends JFrame {
     private WcsCoordinateTransformer currentWcsTransformer;
     private WcsSolutionResolver.ResolvedWcsSolution currentWcsSolution;
 
-    private final JLabel imageLabel = new JLabel();
+    private final ImageVisualizerComponent imageComponent = new ImageVisualizerComponent();
     private final JLabel statusLabel = new JLabel();
     private final JLabel cursorStatusLabel = new JLabel(" Cursor: WCS unavailable");
 
@@ -58,9 +58,9 @@ public class TransientInspectionFrame extends JFrame {
         contentPane.setBorder(new EmptyBorder(5, 5, 5, 5));
         setContentPane(contentPane);
 
-        // Setup Scroll Pane
-        JScrollPane scrollPane = new JScrollPane(imageLabel);
-        contentPane.add(scrollPane, BorderLayout.CENTER);
+        // Setup zoomable image view
+        imageComponent.setZoomEnabled(true);
+        contentPane.add(imageComponent, BorderLayout.CENTER);
 
         // Setup Status Bar
         JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -149,20 +149,25 @@ public class TransientInspectionFrame extends JFrame {
         RawImageAnnotator.drawExactBlobs(displayImage, frameTransients);
         RawImageAnnotator.drawDetections(displayImage, frameTransients);
 
-        imageLabel.setIcon(new ImageIcon(displayImage));
-        statusLabel.setText("  Frame: [" + (currentIndex + 1) + " / " + allTransients.size() + "]   |   File: " + ft.filename + "   |   Transients Detected: " + frameTransients.size() + "   |   (Use Arrow Keys to Navigate)");
+        imageComponent.setImage(displayImage);
+        statusLabel.setText("  Frame: [" + (currentIndex + 1) + " / " + allTransients.size() + "]   |   File: " + ft.filename + "   |   Transients Detected: " + frameTransients.size() + "   |   (Arrow Keys: Navigate, Wheel: Zoom, Drag: Pan)");
         
         repaint();
     }
 
     private void installCursorTracking() {
-        imageLabel.addMouseMotionListener(new MouseMotionAdapter() {
+        imageComponent.addMouseMotionListener(new MouseMotionAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
-                updateCursorStatus(e.getX(), e.getY());
+                updateCursorStatus(imageComponent.getImagePixelAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                updateCursorStatus(imageComponent.getImagePixelAt(e.getX(), e.getY()));
             }
         });
-        imageLabel.addMouseListener(new MouseAdapter() {
+        imageComponent.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseExited(MouseEvent e) {
                 cursorStatusLabel.setText(buildDefaultCursorStatus());
@@ -170,7 +175,13 @@ public class TransientInspectionFrame extends JFrame {
         });
     }
 
-    private void updateCursorStatus(int pixelX, int pixelY) {
+    private void updateCursorStatus(Point pixel) {
+        if (pixel == null) {
+            cursorStatusLabel.setText(buildDefaultCursorStatus());
+            return;
+        }
+        int pixelX = pixel.x;
+        int pixelY = pixel.y;
         if (currentWcsTransformer == null) {
             cursorStatusLabel.setText(String.format(" Cursor: x=%d y=%d | WCS unavailable", pixelX, pixelY));
             return;
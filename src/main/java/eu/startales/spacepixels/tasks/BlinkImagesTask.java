@@ -4,16 +4,29 @@ import com.google.common.eventbus.EventBus;
 import eu.startales.spacepixels.events.BlinkFinishedEvent;
 import eu.startales.spacepixels.events.BlinkFrameUpdateEvent;
 import eu.startales.spacepixels.events.BlinkStartedEvent;
+import eu.startales.spacepixels.util.BlinkFrameWindow;
 import eu.startales.spacepixels.util.FitsFileInformation;
 import eu.startales.spacepixels.util.ImageProcessing;
+import eu.startales.spacepixels.util.SharedExecutors;
 import eu.startales.spacepixels.util.StretchAlgorithm;
-import nom.tam.fits.Fits;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BlinkImagesTask implements Runnable {
 
+    /**
+     * Frames rendered ahead of the one shown.
+     */
+    private static final int PREFETCH_AHEAD = 4;
+    /**
+     * Frames kept behind the one shown; the shown frame's image is never reused while it is among them.
+     */
+    private static final int KEEP_BEHIND = 2;
+    private static final int MIN_FRAME_INTERVAL_MS = 20;
+
     private final EventBus eventBus;
     private final ImageProcessing imageProcessing;
     private final FitsFileInformation[] files;
@@ -21,9 +34,11 @@ public class BlinkImagesTask implements Runnable {
     private final int iterations;
     private final StretchAlgorithm algorithm;
     private final AtomicBoolean isBlinking;
+    private final Dimension viewportSize;
 
     public BlinkImagesTask(EventBus eventBus, ImageProcessing imageProcessing, FitsFileInformation[] files,
-                           int stretchFactor, int iterations, StretchAlgorithm algorithm, AtomicBoolean isBlinking) {
+                           int stretchFactor, int iterations, StretchAlgorithm algorithm, AtomicBoolean isBlinking,
+                           Dimension viewportSize) {
         this.eventBus = eventBus;
         this.imageProcessing = imageProcessing;
         this.files = files;
@@ -31,53 +46,45 @@ public class BlinkImagesTask implements Runnable {
         this.iterations = iterations;
         this.algorithm = algorithm;
         this.isBlinking = isBlinking;
+        this.viewportSize = viewportSize;
     }
 
     @Override
     public void run() {
         eventBus.post(new BlinkStartedEvent());
 
-        try {
-            if (files == null || files.length == 0) {
-                eventBus.post(new BlinkFinishedEvent(false, "No files selected for blinking."));
-                return;
-            }
-
-            // 1. Pre-load and stretch all images into memory
-            BufferedImage[] loadedImages = new BufferedImage[files.length];
-            for (int i = 0; i < files.length; i++) {
-                // If the user cancelled while we were loading, abort early
-                if (!isBlinking.get()) {
-                    eventBus.post(new BlinkFinishedEvent(true, null));
-                    return;
-                }
-
-                Fits fitsImage = new Fits(files[i].getFilePath());
-                Object kernelData = fitsImage.getHDU(0).getKernel();
-                fitsImage.close();
+        if (files == null || files.length == 0) {
+            eventBus.post(new BlinkFinishedEvent(false, "No files selected for blinking."));
+            return;
+        }
 
-                loadedImages[i] = imageProcessing.getStretchedImageFullSize(
-                        kernelData,
-                        files[i].getSizeWidth(),
-                        files[i].getSizeHeight(),
-                        stretchFactor,
-                        iterations,
-                        algorithm
-                );
-            }
+        int maxWidth = viewportSize == null ? 0 : viewportSize.width;
+        int maxHeight = viewportSize == null ? 0 : viewportSize.height;
+        BlinkFrameWindow.FrameRenderer renderer = (index, reuse) -> imageProcessing.getStretchedImageForViewport(
+                files[index], maxWidth, maxHeight, stretchFactor, iterations, algorithm, reuse);
 
-            // 2. The Animation Loop
+        // Only a window around the shown frame is decoded and stretched, at viewport size.
+        try (BlinkFrameWindow window = new BlinkFrameWindow(
+                files.length, PREFETCH_AHEAD, KEEP_BEHIND, renderer, SharedExecutors.io())) {
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(MIN_FRAME_INTERVAL_MS, BlinkFrameWindow.blinkFrameIntervalMs));
+            long deadline = System.nanoTime();
             int currentIndex = 0;
             while (isBlinking.get()) {
-                // Emit the current frame to the UI
-                eventBus.post(new BlinkFrameUpdateEvent(loadedImages[currentIndex]));
+                BufferedImage image = window.get(currentIndex);
+
+                long wait = deadline - System.nanoTime();
+                if (wait > 0L) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                if (!isBlinking.get()) {
+                    break;
+                }
 
-                // Wait 500ms
-                Thread.sleep(500);
+                eventBus.post(new BlinkFrameUpdateEvent(image));
+                deadline = BlinkFrameWindow.nextFrameDeadline(deadline, System.nanoTime(), intervalNanos);
 
-                // Advance index
                 currentIndex++;
-                if (currentIndex >= loadedImages.length) {
+                if (currentIndex >= files.length) {
                     currentIndex = 0;
                 }
             }
@@ -89,4 +96,4 @@ public class BlinkImagesTask implements Runnable {
             eventBus.post(new BlinkFinishedEvent(false, ex.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
@@ -49,6 +49,7 @@ public class FitsImportTask implements Runnable {
             ImageProcessing imgProcessing = ImageProcessing.getInstance(importDirectory);
             FitsFileInformation[] filesInfo = imgProcessing.getFitsfileInformation();
             eventBus.post(new EngineProgressUpdateEvent(100, "Import complete."));
+            imgProcessing.warmUpPreviewCache(filesInfo);
 
             // 3. Post success with the extracted data
             eventBus.post(new FitsImportFinishedEvent(true, null, imgProcessing, filesInfo));
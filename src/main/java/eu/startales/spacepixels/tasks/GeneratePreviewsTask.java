@@ -11,12 +11,12 @@
 package eu.startales.spacepixels.tasks;
 
 import com.google.common.eventbus.EventBus;
-import nom.tam.fits.Fits;
 import eu.startales.spacepixels.events.PreviewGenerationFinishedEvent;
 import eu.startales.spacepixels.util.ImageProcessing;
 import eu.startales.spacepixels.util.StretchAlgorithm;
 
 import java.awt.image.BufferedImage;
+import java.io.File;
 
 public class GeneratePreviewsTask implements Runnable {
     private final EventBus eventBus;
@@ -39,13 +39,10 @@ public class GeneratePreviewsTask implements Runnable {
     @Override
     public void run() {
         try {
-            Fits fitsImage = new Fits(filePath);
-            Object kernelData = ImageProcessing.getImageHDU(fitsImage).getKernel();
-
-            BufferedImage orig = preProcessing.getImagePreview(kernelData);
-            BufferedImage stretched = preProcessing.getStretchedImagePreview(kernelData, stretchFactor, iterations, algo);
-
-            fitsImage.close();
+            // Both previews come from the cached downsampled copy; only the first view of a frame reads the FITS file.
+            File file = new File(filePath);
+            BufferedImage orig = preProcessing.getCachedImagePreview(file);
+            BufferedImage stretched = preProcessing.getCachedStretchedImagePreview(file, stretchFactor, iterations, algo);
 
             eventBus.post(new PreviewGenerationFinishedEvent(orig, stretched, true));
         } catch (Exception e) {
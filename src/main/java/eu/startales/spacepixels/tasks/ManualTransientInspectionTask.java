@@ -7,6 +7,7 @@ import eu.startales.spacepixels.events.EngineProgressUpdateEvent;
 import eu.startales.spacepixels.gui.ApplicationWindow;
 import eu.startales.spacepixels.gui.TransientInspectionFrame;
 import eu.startales.spacepixels.util.FitsFileInformation;
+import eu.startales.spacepixels.util.FitsFrameReader;
 import eu.startales.spacepixels.util.ImageProcessing;
 import io.github.ppissias.jtransient.config.DetectionConfig;
 import io.github.ppissias.jtransient.engine.FrameTransients;
@@ -15,8 +16,6 @@ import io.github.ppissias.jtransient.engine.JTransientEngine;
 import io.github.ppissias.jtransient.engine.TransientEngineProgressListener;
 import io.github.ppissias.jtransient.core.SourceExtractor;
 
-import nom.tam.fits.Fits;
-
 import javax.swing.*;
 import java.io.File;
 import java.util.ArrayList;
@@ -50,15 +49,10 @@ public class ManualTransientInspectionTask implements Runnable {
                 eventBus.post(new EngineProgressUpdateEvent(percent, "Loading frame " + (i + 1) + " of " + numFrames + "..."));
 
                 File currentFile = new File(filesInfo[i].getFilePath());
-                try (Fits fitsFile = new Fits(currentFile)) {
-                    Object kernel = fitsFile.getHDU(0).getKernel();
-                    if (!(kernel instanceof short[][])) {
-                        throw new Exception("Cannot process: Expected short[][]");
-                    }
-                    long timestamp = filesInfo[i].getObservationTimestamp();
-                    long exposure = filesInfo[i].getExposureDurationMillis();
-                    framesForLibrary.add(new ImageFrame(i, currentFile.getName(), (short[][]) kernel, timestamp, exposure));
-                }
+                short[][] pixelData = FitsFrameReader.readMono16Frame(currentFile);
+                long timestamp = filesInfo[i].getObservationTimestamp();
+                long exposure = filesInfo[i].getExposureDurationMillis();
+                framesForLibrary.add(new ImageFrame(i, currentFile.getName(), pixelData, timestamp, exposure));
             }
 
             TransientEngineProgressListener progressListener = (percentage, message) -> {
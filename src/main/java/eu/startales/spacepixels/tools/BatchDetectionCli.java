@@ -18,6 +18,10 @@ import eu.startales.spacepixels.config.SpacePixelsDetectionProfile;
 import eu.startales.spacepixels.config.SpacePixelsDetectionProfileIO;
 import eu.startales.spacepixels.config.SpacePixelsVisualizationPreferences;
 import eu.startales.spacepixels.config.SpacePixelsVisualizationPreferencesIO;
+import eu.startales.spacepixels.util.DetectionSessionQueue;
+import eu.startales.spacepixels.util.FitsFileInformation;
+import eu.startales.spacepixels.util.ImageProcessing;
+import eu.startales.spacepixels.util.LiveDetectionSession;
 import io.github.ppissias.jtransient.config.DetectionConfig;
 import io.github.ppissias.jtransient.engine.JTransientAutoTuner;
 
@@ -35,20 +39,59 @@ import java.util.Objects;
  */
 public class BatchDetectionCli {
 
+    private static final int DEFAULT_WATCH_WINDOW_FRAMES = 20;
+    private static final int DEFAULT_WATCH_RERUN_AFTER_FRAMES = 1;
+    private static final double DEFAULT_WATCH_POLL_SECONDS = 5.0;
+    private static final long MIB = 1024L * 1024L;
+
     private static class CliArguments {
         private final File inputDir;
         private final File configFile;
         private final JTransientAutoTuner.AutoTuneProfile autoTuneProfile;
         private final boolean showHelp;
+        private final WatchOptions watchOptions;
+        private final QueueOptions queueOptions;
 
         private CliArguments(File inputDir,
                              File configFile,
                              JTransientAutoTuner.AutoTuneProfile autoTuneProfile,
-                             boolean showHelp) {
+                             boolean showHelp,
+                             WatchOptions watchOptions,
+                             QueueOptions queueOptions) {
             this.inputDir = inputDir;
             this.configFile = configFile;
             this.autoTuneProfile = autoTuneProfile;
             this.showHelp = showHelp;
+            this.watchOptions = watchOptions;
+            this.queueOptions = queueOptions;
+        }
+    }
+
+    private static class QueueOptions {
+        private final List<String> inputs;
+        private final File manifestFile;
+        private final int sessions;
+        private final int memoryBudgetMb;
+
+        private QueueOptions(List<String> inputs, File manifestFile, int sessions, int memoryBudgetMb) {
+            this.inputs = inputs;
+            this.manifestFile = manifestFile;
+            this.sessions = sessions;
+            this.memoryBudgetMb = memoryBudgetMb;
+        }
+    }
+
+    private static class WatchOptions {
+        private final int windowFrames;
+        private final int rerunAfterFrames;
+        private final long pollIntervalMillis;
+        private final long maxIdleMillis;
+
+        private WatchOptions(int windowFrames, int rerunAfterFrames, long pollIntervalMillis, long maxIdleMillis) {
+            this.windowFrames = windowFrames;
+            this.rerunAfterFrames = rerunAfterFrames;
+            this.pollIntervalMillis = pollIntervalMillis;
+            this.maxIdleMillis = maxIdleMillis;
         }
     }
 
@@ -73,7 +116,13 @@ public class BatchDetectionCli {
                 return 0;
             }
 
-            run(cliArguments, out, err);
+            if (cliArguments.watchOptions != null) {
+                runWatch(cliArguments, out, err);
+            } else if (cliArguments.queueOptions != null) {
+                exitCode = runQueue(cliArguments, out, err);
+            } else {
+                run(cliArguments, out, err);
+            }
         } catch (IllegalArgumentException e) {
             err.println("Argument error: " + e.getMessage());
             printUsage(out);
@@ -87,37 +136,229 @@ public class BatchDetectionCli {
     }
 
     private static void run(CliArguments cliArguments, PrintStream out, PrintStream err) throws Exception {
-        if (!cliArguments.inputDir.exists() || !cliArguments.inputDir.isDirectory()) {
-            throw new IOException("Input path is not a directory: " + cliArguments.inputDir.getAbsolutePath());
-        }
-        if (!cliArguments.configFile.exists() || !cliArguments.configFile.isFile()) {
-            throw new IOException("Configuration JSON file not found: " + cliArguments.configFile.getAbsolutePath());
-        }
+        validateInputs(cliArguments);
 
         SpacePixelsDetectionProfile detectionProfile = loadDetectionConfig(cliArguments.configFile);
-        DetectionConfig baseConfig = detectionProfile.getDetectionConfig();
         SpacePixelsDetectionProfileIO.setActiveAutoTuneMaxCandidateFrames(detectionProfile.getAutoTuneMaxCandidateFrames());
         loadVisualizationPreferences(err);
+        SpacePixelsPipelineResult pipelineResult = runPipeline(
+                cliArguments.inputDir,
+                detectionProfile,
+                cliArguments.autoTuneProfile,
+                createConsoleProgressListener("Pipeline", out));
+        File reportFile = pipelineResult.getReportFile();
+
+        out.println();
+        out.println("Batch detection completed successfully.");
+        out.println("Export directory: " + reportFile.getParentFile().getAbsolutePath());
+        out.println("Report file: " + reportFile.getAbsolutePath());
+    }
+
+    private static SpacePixelsPipelineResult runPipeline(File inputDir,
+                                                         SpacePixelsDetectionProfile detectionProfile,
+                                                         JTransientAutoTuner.AutoTuneProfile autoTuneProfile,
+                                                         SpacePixelsProgressListener progressListener) throws Exception {
+        DetectionConfig baseConfig = detectionProfile.getDetectionConfig();
         SpacePixelsPipelineApi pipelineApi = new DefaultSpacePixelsPipelineApi();
-        SpacePixelsPipelineRequest request = SpacePixelsPipelineRequest.builder(cliArguments.inputDir)
+        SpacePixelsPipelineRequest request = SpacePixelsPipelineRequest.builder(inputDir)
                 .detectionConfig(baseConfig)
-                .autoTuneProfile(cliArguments.autoTuneProfile)
+                .autoTuneProfile(autoTuneProfile)
                 .autoTuneMaxCandidateFrames(detectionProfile.getAutoTuneMaxCandidateFrames())
                 .inputPreparationMode(InputPreparationMode.FAIL_IF_NOT_READY)
                 .generateReport(true)
-                .progressListener(createConsoleProgressListener("Pipeline", out))
+                .progressListener(progressListener)
                 .build();
 
         SpacePixelsPipelineResult pipelineResult = pipelineApi.run(request);
-        File reportFile = pipelineResult.getReportFile();
-        if (reportFile == null) {
+        if (pipelineResult.getReportFile() == null) {
             throw new IOException("Pipeline completed without producing an export report.");
         }
+        return pipelineResult;
+    }
+
+    private static int runQueue(CliArguments cliArguments, PrintStream out, PrintStream err) throws Exception {
+        if (!cliArguments.configFile.exists() || !cliArguments.configFile.isFile()) {
+            throw new IOException("Configuration JSON file not found: " + cliArguments.configFile.getAbsolutePath());
+        }
+        QueueOptions queueOptions = cliArguments.queueOptions;
+        List<String> inputs = new ArrayList<>(queueOptions.inputs);
+        if (queueOptions.manifestFile != null) {
+            inputs.addAll(DetectionSessionQueue.readManifest(queueOptions.manifestFile));
+        }
+        List<File> inputDirectories = DetectionSessionQueue.resolveInputDirectories(inputs);
+        if (inputDirectories.isEmpty()) {
+            throw new IOException("The queue contains no input directories.");
+        }
+
+        SpacePixelsDetectionProfile detectionProfile = loadDetectionConfig(cliArguments.configFile);
+        SpacePixelsDetectionProfileIO.setActiveAutoTuneMaxCandidateFrames(detectionProfile.getAutoTuneMaxCandidateFrames());
+        loadVisualizationPreferences(err);
+
+        int sessions = queueOptions.sessions;
+        if (cliArguments.autoTuneProfile != null && sessions != 1) {
+            // Auto-Tune adjusts shared JTransient state while it runs, see DefaultSpacePixelsPipelineApi.
+            err.println("Auto-Tune is enabled: sessions run one at a time.");
+            sessions = 1;
+        }
+        DetectionSessionQueue queue = new DetectionSessionQueue(sessions, queueOptions.memoryBudgetMb);
+        int total = inputDirectories.size();
+        out.printf(Locale.US, "Queued %d session(s): up to %d concurrent, %d MiB memory budget.%n",
+                total, queue.getMaxConcurrentSessions(), queue.getMemoryBudgetBytes() / MIB);
+
+        long queueStart = System.nanoTime();
+        List<DetectionSessionQueue.Outcome<SpacePixelsPipelineResult>> outcomes = queue.run(
+                inputDirectories,
+                (index, inputDirectory) -> runPipeline(
+                        inputDirectory,
+                        detectionProfile,
+                        cliArguments.autoTuneProfile,
+                        createConsoleProgressListener("Session " + (index + 1) + "/" + total, out)),
+                new DetectionSessionQueue.Listener<SpacePixelsPipelineResult>() {
+                    @Override
+                    public void onSessionStarted(int index, File inputDirectory, DetectionSessionQueue.Estimate estimate) {
+                        out.printf(Locale.US, "Starting session %d/%d: %s (%d frame(s), ~%d MiB)%n",
+                                index + 1, total, inputDirectory.getAbsolutePath(),
+                                estimate.getFrameCount(), estimate.getEstimatedBytes() / MIB);
+                    }
+
+                    @Override
+                    public void onSessionFinished(int completed, int sessionCount, DetectionSessionQueue.Outcome<SpacePixelsPipelineResult> outcome) {
+                        if (outcome.succeeded()) {
+                            out.printf(Locale.US, "Finished session %d/%d (%d of %d done): %s%n",
+                                    outcome.getIndex() + 1, total, completed, sessionCount, outcome.getInputDirectory().getName());
+                        } else {
+                            err.printf(Locale.US, "Session %d/%d failed (%d of %d done): %s: %s%n",
+                                    outcome.getIndex() + 1, total, completed, sessionCount,
+                                    outcome.getInputDirectory().getName(), outcome.getFailure().getMessage());
+                        }
+                    }
+                });
+        long queueMillis = (System.nanoTime() - queueStart) / 1_000_000L;
 
         out.println();
-        out.println("Batch detection completed successfully.");
-        out.println("Export directory: " + reportFile.getParentFile().getAbsolutePath());
-        out.println("Report file: " + reportFile.getAbsolutePath());
+        printQueueSummary(outcomes, queueMillis, out);
+
+        int failures = 0;
+        for (DetectionSessionQueue.Outcome<SpacePixelsPipelineResult> outcome : outcomes) {
+            if (!outcome.succeeded()) {
+                failures++;
+            }
+        }
+        if (failures > 0) {
+            err.println(failures + " of " + total + " session(s) failed.");
+            return 1;
+        }
+        return 0;
+    }
+
+    private static void printQueueSummary(List<DetectionSessionQueue.Outcome<SpacePixelsPipelineResult>> outcomes,
+                                          long queueMillis,
+                                          PrintStream out) {
+        int nameWidth = "Session".length();
+        for (DetectionSessionQueue.Outcome<SpacePixelsPipelineResult> outcome : outcomes) {
+            nameWidth = Math.max(nameWidth, outcome.getInputDirectory().getName().length());
+        }
+        String rowFormat = "%-3s  %-" + nameWidth + "s  %-6s  %6s  %9s  %8s  %10s  %7s  %6s  %9s  %s%n";
+
+        out.println("Queue summary:");
+        out.printf(Locale.US, rowFormat, "#", "Session", "Status", "Frames", "Wall (s)", "Frames/s",
+                "Detections", "Streaks", "Moving", "Anomalies", "Report / error");
+        long totalFrames = 0L;
+        for (DetectionSessionQueue.Outcome<SpacePixelsPipelineResult> outcome : outcomes) {
+            String index = String.valueOf(outcome.getIndex() + 1);
+            String name = outcome.getInputDirectory().getName();
+            String wallSeconds = String.format(Locale.US, "%.1f", outcome.getWallTimeMillis() / 1000.0);
+            if (!outcome.succeeded()) {
+                out.printf(Locale.US, rowFormat, index, name, "FAILED", "-", wallSeconds, "-", "-", "-", "-", "-",
+                        outcome.getFailure().getMessage());
+                continue;
+            }
+
+            SpacePixelsPipelineResult result = outcome.getResult();
+            int frames = result.getFilesInformation().length;
+            totalFrames += frames;
+            ImageProcessing.DetectionSummary summary = ImageProcessing.summarizeDetections(result.getPipelineResult());
+            out.printf(Locale.US, rowFormat, index, name, "OK",
+                    String.valueOf(frames),
+                    wallSeconds,
+                    String.format(Locale.US, "%.2f", outcome.getWallTimeMillis() > 0 ? frames * 1000.0 / outcome.getWallTimeMillis() : 0.0),
+                    String.valueOf(summary.totalDetections),
+                    String.valueOf(summary.singleStreaks + summary.streakTracks),
+                    String.valueOf(summary.movingTargets),
+                    String.valueOf(summary.anomalies),
+                    result.getReportFile().getAbsolutePath());
+        }
+        out.printf(Locale.US, "Total: %d session(s), %d frame(s) in %.1f s (%.2f frames/s)%n",
+                outcomes.size(),
+                totalFrames,
+                queueMillis / 1000.0,
+                queueMillis > 0 ? totalFrames * 1000.0 / queueMillis : 0.0);
+    }
+
+    private static void runWatch(CliArguments cliArguments, PrintStream out, PrintStream err) throws Exception {
+        validateInputs(cliArguments);
+
+        SpacePixelsDetectionProfile detectionProfile = loadDetectionConfig(cliArguments.configFile);
+        loadVisualizationPreferences(err);
+        WatchOptions watchOptions = cliArguments.watchOptions;
+        LiveDetectionSession session = new LiveDetectionSession(
+                cliArguments.inputDir,
+                detectionProfile.getDetectionConfig(),
+                watchOptions.windowFrames,
+                watchOptions.rerunAfterFrames,
+                createConsoleWatchListener(out, err));
+
+        out.printf(Locale.US, "Watching %s (window %d frames, re-run every %d new frame(s), poll every %.1fs)%n",
+                cliArguments.inputDir.getAbsolutePath(),
+                watchOptions.windowFrames,
+                watchOptions.rerunAfterFrames,
+                watchOptions.pollIntervalMillis / 1000.0);
+        SpacePixelsProgressListener progressListener = createConsoleProgressListener("Live", out);
+        session.run(watchOptions.pollIntervalMillis, watchOptions.maxIdleMillis, progressListener::onProgress);
+
+        out.println();
+        out.println("Watch mode finished after " + session.getFramesIngested() + " ingested frame(s).");
+        out.println("Update log: " + new File(cliArguments.inputDir, LiveDetectionSession.UPDATE_LOG_FILENAME).getAbsolutePath());
+    }
+
+    private static void validateInputs(CliArguments cliArguments) throws IOException {
+        if (!cliArguments.inputDir.exists() || !cliArguments.inputDir.isDirectory()) {
+            throw new IOException("Input path is not a directory: " + cliArguments.inputDir.getAbsolutePath());
+        }
+        if (!cliArguments.configFile.exists() || !cliArguments.configFile.isFile()) {
+            throw new IOException("Configuration JSON file not found: " + cliArguments.configFile.getAbsolutePath());
+        }
+    }
+
+    private static LiveDetectionSession.Listener createConsoleWatchListener(PrintStream out, PrintStream err) {
+        return new LiveDetectionSession.Listener() {
+            @Override
+            public void onFrameIngested(FitsFileInformation fileInfo, int windowSize) {
+                out.println("Ingested " + fileInfo.getFileName() + " (window " + windowSize + ")");
+            }
+
+            @Override
+            public void onFrameRejected(File file, String reason) {
+                err.println("Skipped " + file.getName() + ": " + reason);
+            }
+
+            @Override
+            public void onUpdate(LiveDetectionSession.Update update) {
+                out.printf(Locale.US, "Update #%d: %d frames [%s .. %s], %d detection(s) in %d ms%s%n",
+                        update.getRunNumber(),
+                        update.getWindowFrameCount(),
+                        update.getFirstFrame(),
+                        update.getLastFrame(),
+                        update.getSummary().totalDetections,
+                        update.getPipelineDurationMillis(),
+                        update.getReportFile() == null ? "" : " -> " + update.getReportFile().getAbsolutePath());
+            }
+
+            @Override
+            public void onRunFailed(Exception failure) {
+                err.println("Live detection run failed: " + failure.getMessage());
+            }
+        };
     }
 
     private static SpacePixelsDetectionProfile loadDetectionConfig(File configFile) throws IOException {
@@ -142,16 +383,71 @@ public class BatchDetectionCli {
 
     private static CliArguments parseArguments(String[] args) {
         if (args.length == 0) {
-            return new CliArguments(null, null, null, true);
+            return new CliArguments(null, null, null, true, null, null);
         }
 
         List<String> positionalArgs = new ArrayList<>();
         JTransientAutoTuner.AutoTuneProfile autoTuneProfile = null;
+        boolean watch = false;
+        int windowFrames = DEFAULT_WATCH_WINDOW_FRAMES;
+        int rerunAfterFrames = DEFAULT_WATCH_RERUN_AFTER_FRAMES;
+        double pollSeconds = DEFAULT_WATCH_POLL_SECONDS;
+        double maxIdleMinutes = 0.0;
+        boolean queue = false;
+        File manifestFile = null;
+        int sessions = 0;
+        int memoryBudgetMb = 0;
 
         for (int i = 0; i < args.length; i++) {
             String arg = args[i];
             if ("--help".equalsIgnoreCase(arg) || "-h".equalsIgnoreCase(arg)) {
-                return new CliArguments(null, null, null, true);
+                return new CliArguments(null, null, null, true, null, null);
+            }
+
+            if ("--watch".equalsIgnoreCase(arg) || "-w".equalsIgnoreCase(arg)) {
+                watch = true;
+                continue;
+            }
+
+            if ("--queue".equalsIgnoreCase(arg) || "-q".equalsIgnoreCase(arg)) {
+                queue = true;
+                continue;
+            }
+
+            if ("--manifest".equalsIgnoreCase(arg)) {
+                manifestFile = new File(nextValue(args, ++i, arg));
+                queue = true;
+                continue;
+            }
+
+            if ("--sessions".equalsIgnoreCase(arg)) {
+                sessions = (int) parseNumber(arg, nextValue(args, ++i, arg), 1.0);
+                continue;
+            }
+
+            if ("--memory-budget".equalsIgnoreCase(arg)) {
+                memoryBudgetMb = (int) parseNumber(arg, nextValue(args, ++i, arg), 64.0);
+                continue;
+            }
+
+            if ("--window".equalsIgnoreCase(arg)) {
+                windowFrames = (int) parseNumber(arg, nextValue(args, ++i, arg), 1.0);
+                continue;
+            }
+
+            if ("--rerun-after".equalsIgnoreCase(arg)) {
+                rerunAfterFrames = (int) parseNumber(arg, nextValue(args, ++i, arg), 1.0);
+                continue;
+            }
+
+            if ("--poll".equalsIgnoreCase(arg)) {
+                pollSeconds = parseNumber(arg, nextValue(args, ++i, arg), 0.1);
+                continue;
+            }
+
+            if ("--max-idle".equalsIgnoreCase(arg)) {
+                maxIdleMinutes = parseNumber(arg, nextValue(args, ++i, arg), 0.0);
+                continue;
             }
 
             if (arg.startsWith("--auto-tune=")) {
@@ -170,15 +466,71 @@ public class BatchDetectionCli {
             positionalArgs.add(arg);
         }
 
+        if (queue) {
+            if (watch) {
+                throw new IllegalArgumentException("--watch cannot be combined with --queue or --manifest.");
+            }
+            int minimumPositional = manifestFile != null ? 1 : 2;
+            if (positionalArgs.size() < minimumPositional) {
+                throw new IllegalArgumentException("Queue mode expects <fits_directory_or_glob>... <detection_config.json>"
+                        + " (the directories may instead come from --manifest).");
+            }
+            File configFile = new File(positionalArgs.remove(positionalArgs.size() - 1));
+            return new CliArguments(
+                    null,
+                    configFile,
+                    autoTuneProfile,
+                    false,
+                    null,
+                    new QueueOptions(positionalArgs, manifestFile, sessions, memoryBudgetMb));
+        }
+
         if (positionalArgs.size() != 2) {
             throw new IllegalArgumentException("Expected exactly 2 positional arguments: <fits_directory> <detection_config.json>.");
         }
 
+        WatchOptions watchOptions = null;
+        if (watch) {
+            if (autoTuneProfile != null) {
+                throw new IllegalArgumentException("--auto-tune cannot be combined with --watch.");
+            }
+            if (windowFrames < 3) {
+                throw new IllegalArgumentException("--window must be at least 3 frames.");
+            }
+            watchOptions = new WatchOptions(
+                    windowFrames,
+                    rerunAfterFrames,
+                    Math.round(pollSeconds * 1000.0),
+                    Math.round(maxIdleMinutes * 60_000.0));
+        }
+
         return new CliArguments(
                 new File(positionalArgs.get(0)),
                 new File(positionalArgs.get(1)),
                 autoTuneProfile,
-                false);
+                false,
+                watchOptions,
+                null);
+    }
+
+    private static String nextValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value after " + option + ".");
+        }
+        return args[index];
+    }
+
+    private static double parseNumber(String option, String value, double minimum) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number '" + value + "' for " + option + ".");
+        }
+        if (Double.isNaN(parsed) || parsed < minimum) {
+            throw new IllegalArgumentException(option + " must be at least " + minimum + ".");
+        }
+        return parsed;
     }
 
     private static JTransientAutoTuner.AutoTuneProfile parseAutoTuneProfile(String value) {
@@ -211,12 +563,24 @@ public class BatchDetectionCli {
         out.println("==================================================================");
         out.println("Usage:");
         out.println("  java eu.startales.spacepixels.tools.BatchDetectionCli <fits_directory> <detection_config.json> [--auto-tune <conservative|balanced|aggressive>]");
+        out.println("  java eu.startales.spacepixels.tools.BatchDetectionCli --queue <fits_directory_or_glob>... <detection_config.json> [--manifest <file>] [--sessions <n>] [--memory-budget <MB>] [--auto-tune <profile>]");
+        out.println("  java eu.startales.spacepixels.tools.BatchDetectionCli <capture_directory> <detection_config.json> --watch [--window <frames>] [--rerun-after <frames>] [--poll <seconds>] [--max-idle <minutes>]");
         out.println();
         out.println("Notes:");
         out.println("  - The input directory must contain only uncompressed 16-bit monochrome FITS files with identical dimensions.");
         out.println("  - The configuration JSON should be a SpacePixels detection profile JSON (flat DetectionConfig fields plus autoTuneMaxCandidateFrames).");
         out.println("  - Packaged distributions include config/default_detection_profile.json as a starting point.");
         out.println("  - When Auto-Tune is enabled, the tuned configuration is used for the pipeline run and exported with the report.");
+        out.println("  - --watch tails a capture folder: each new frame is used once it has been completely written, and detection");
+        out.println("    is re-run on the most recent --window frames (default " + DEFAULT_WATCH_WINDOW_FRAMES + ") after every --rerun-after new frames (default "
+                + DEFAULT_WATCH_RERUN_AFTER_FRAMES + ").");
+        out.println("    Each run replaces the report in " + LiveDetectionSession.LIVE_REPORT_DIRECTORY + " and appends a line to "
+                + LiveDetectionSession.UPDATE_LOG_FILENAME + " in the capture folder.");
+        out.println("    --max-idle stops watching after that many minutes without new frames (default 0 = until interrupted).");
+        out.println("  - --queue runs several session directories in one JVM. Globs are expanded in the last path segment, and a");
+        out.println("    --manifest file lists one directory or glob per line (# starts a comment). --sessions sets how many run at");
+        out.println("    once (default one per four cores); a session only starts when its frames and stacks fit in --memory-budget");
+        out.println("    (default half of the maximum heap). A summary table is printed at the end.");
         out.println();
         out.println("Packaged launcher example:");
         out.println("  batchDetect.bat \"C:\\astro\\sequence\" \"config\\default_detection_profile.json\" --auto-tune aggressive");
@@ -11,10 +11,7 @@ import eu.startales.spacepixels.config.SpacePixelsDetectionProfile;
 import io.github.ppissias.jtransient.config.DetectionConfig;
 import io.github.ppissias.jtransient.engine.ImageFrame;
 import io.github.ppissias.jtransient.quality.FrameQualityAnalyzer;
-import nom.tam.fits.BasicHDU;
-import nom.tam.fits.Fits;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
@@ -68,6 +65,18 @@ public final class AutoTuneCandidatePoolBuilder {
                                                       DetectionConfig baseConfig,
                                                       int autoTuneMaxCandidateFrames,
                                                       ProgressListener progressListener) throws Exception {
+        return buildCandidatePool(filesInfo, Mono16FitsFrameSource.INSTANCE, baseConfig, autoTuneMaxCandidateFrames, progressListener);
+    }
+
+    /**
+     * Same as {@link #buildCandidatePool(FitsFileInformation[], DetectionConfig, int, ProgressListener)},
+     * reading the frames through {@code frameSource}.
+     */
+    public static List<ImageFrame> buildCandidatePool(FitsFileInformation[] filesInfo,
+                                                      FrameSource frameSource,
+                                                      DetectionConfig baseConfig,
+                                                      int autoTuneMaxCandidateFrames,
+                                                      ProgressListener progressListener) throws Exception {
         if (filesInfo == null || filesInfo.length < SpacePixelsDetectionProfile.MIN_AUTO_TUNE_MAX_CANDIDATE_FRAMES) {
             throw new IllegalStateException("Not enough frames to run Auto-Tuning.");
         }
@@ -75,15 +84,15 @@ public final class AutoTuneCandidatePoolBuilder {
         int candidateLimit = SpacePixelsDetectionProfile.normalizeAutoTuneMaxCandidateFrames(autoTuneMaxCandidateFrames);
         if (filesInfo.length <= candidateLimit) {
             emitProgress(progressListener, 0, "Loading full candidate pool...");
-            return loadFrames(filesInfo, buildSequentialIndices(filesInfo.length), progressListener, 0, 50, "Loading candidate frame");
+            return loadFrames(filesInfo, frameSource, buildSequentialIndices(filesInfo.length), progressListener, 0, 50, "Loading candidate frame");
         }
 
         emitProgress(progressListener, 0, "Evaluating frame quality for candidate pool...");
-        List<FrameQualityRecord> frameQualityRecords = scoreFrames(filesInfo, baseConfig, progressListener);
+        List<FrameQualityRecord> frameQualityRecords = scoreFrames(filesInfo, frameSource, baseConfig, progressListener);
         List<Integer> selectedIndices = selectCandidateSequenceIndices(frameQualityRecords, candidateLimit);
 
         emitProgress(progressListener, 40, "Loading deterministic candidate pool...");
-        return loadFrames(filesInfo, selectedIndices, progressListener, 40, 50, "Loading candidate frame");
+        return loadFrames(filesInfo, frameSource, selectedIndices, progressListener, 40, 50, "Loading candidate frame");
     }
 
     static List<Integer> selectCandidateSequenceIndices(List<FrameQualityRecord> frameQualityRecords, int autoTuneMaxCandidateFrames) {
@@ -124,9 +133,11 @@ public final class AutoTuneCandidatePoolBuilder {
     }
 
     private static List<FrameQualityRecord> scoreFrames(FitsFileInformation[] filesInfo,
+                                                        FrameSource frameSource,
                                                         DetectionConfig baseConfig,
                                                         ProgressListener progressListener) throws Exception {
         List<FrameQualityRecord> scoredFrames = new ArrayList<>(filesInfo.length);
+        short[][] pixelData = null;
 
         for (int i = 0; i < filesInfo.length; i++) {
             emitProgress(progressListener,
@@ -134,29 +145,23 @@ public final class AutoTuneCandidatePoolBuilder {
                     "Evaluating frame " + (i + 1) + " of " + filesInfo.length + "...");
 
             FitsFileInformation info = filesInfo[i];
-            try (Fits fitsFile = new Fits(info.getFilePath())) {
-                BasicHDU<?> hdu = ImageProcessing.getImageHDU(fitsFile);
-                Object kernel = hdu.getKernel();
-                if (!(kernel instanceof short[][])) {
-                    throw new IOException("FITS file is not 16-bit monochrome: " + info.getFileName());
-                }
-
-                short[][] pixelData = (short[][]) kernel;
-                // Quality scoring is driven by DetectionConfig's dedicated quality-only thresholds.
-                FrameQualityAnalyzer.FrameMetrics metrics = FrameQualityAnalyzer.evaluateFrame(pixelData, baseConfig);
-                double score = metrics.backgroundNoise * metrics.medianFWHM;
-                if (!Double.isFinite(score) || score <= 0.0d) {
-                    score = Double.POSITIVE_INFINITY;
-                }
-
-                scoredFrames.add(new FrameQualityRecord(i, score));
+            // Scored frames are discarded right after evaluation, so their rows are recycled.
+            pixelData = frameSource.readFrame(info, pixelData);
+            // Quality scoring is driven by DetectionConfig's dedicated quality-only thresholds.
+            FrameQualityAnalyzer.FrameMetrics metrics = FrameQualityAnalyzer.evaluateFrame(pixelData, baseConfig);
+            double score = metrics.backgroundNoise * metrics.medianFWHM;
+            if (!Double.isFinite(score) || score <= 0.0d) {
+                score = Double.POSITIVE_INFINITY;
             }
+
+            scoredFrames.add(new FrameQualityRecord(i, score));
         }
 
         return scoredFrames;
     }
 
     private static List<ImageFrame> loadFrames(FitsFileInformation[] filesInfo,
+                                               FrameSource frameSource,
                                                List<Integer> selectedIndices,
                                                ProgressListener progressListener,
                                                int startPercent,
@@ -174,20 +179,12 @@ public final class AutoTuneCandidatePoolBuilder {
                     scaleProgress(i + 1, orderedIndices.size(), startPercent, endPercent),
                     progressPrefix + " " + (i + 1) + " of " + orderedIndices.size() + "...");
 
-            try (Fits fitsFile = new Fits(info.getFilePath())) {
-                BasicHDU<?> hdu = ImageProcessing.getImageHDU(fitsFile);
-                Object kernel = hdu.getKernel();
-                if (!(kernel instanceof short[][])) {
-                    throw new IOException("FITS file is not 16-bit monochrome: " + info.getFileName());
-                }
-
-                frames.add(new ImageFrame(
-                        frameIndex,
-                        info.getFileName(),
-                        (short[][]) kernel,
-                        info.getObservationTimestamp(),
-                        info.getExposureDurationMillis()));
-            }
+            frames.add(new ImageFrame(
+                    frameIndex,
+                    info.getFileName(),
+                    frameSource.readFrame(info),
+                    info.getObservationTimestamp(),
+                    info.getExposureDurationMillis()));
         }
 
         frames.sort(Comparator.comparingInt(frame -> frame.sequenceIndex));
@@ -0,0 +1,313 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs an independent conversion task for every file of a batch (decompression, 32-to-16-bit
+ * standardization, mono extraction, stretching) on the shared I/O pool.
+ *
+ * <ul>
+ *     <li>At most {@code workers} files are in flight, and the estimated working memory of the
+ *     files in flight never exceeds the memory budget. A single file larger than the whole budget
+ *     still runs, but alone.</li>
+ *     <li>Progress is reported on the calling thread, one call per file, strictly in file order.</li>
+ *     <li>A failing file is recorded in the returned {@link Report} and never stops the others.</li>
+ * </ul>
+ */
+final class BatchFileProcessor {
+
+    static final long MIB = 1024L * 1024L;
+
+    /**
+     * Working-memory multiplier applied to the on-disk size of an uncompressed file: the decoded
+     * kernel, its converted copy and the output buffers.
+     */
+    private static final long UNCOMPRESSED_MEMORY_FACTOR = 3L;
+    /**
+     * Tile-compressed {@code .fz} data typically expands 3-4x when decoded.
+     */
+    private static final long COMPRESSED_MEMORY_FACTOR = UNCOMPRESSED_MEMORY_FACTOR * 4L;
+
+    @FunctionalInterface
+    interface FileTask<T> {
+        T process(int index, File file) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface ProgressListener<T> {
+        /**
+         * Called once per file, in file order, after it has finished.
+         *
+         * @param completed number of files finished so far, including this one
+         */
+        void onFileFinished(int completed, int total, Outcome<T> outcome);
+    }
+
+    /**
+     * Result of one file: either a (possibly {@code null}) task result or the failure it raised.
+     */
+    static final class Outcome<T> {
+        final int index;
+        final File file;
+        final T result;
+        final Exception failure;
+
+        private Outcome(int index, File file, T result, Exception failure) {
+            this.index = index;
+            this.file = file;
+            this.result = result;
+            this.failure = failure;
+        }
+
+        boolean succeeded() {
+            return failure == null;
+        }
+    }
+
+    /**
+     * Outcomes of a whole batch, in file order.
+     */
+    static final class Report<T> {
+        private final List<Outcome<T>> outcomes;
+
+        private Report(List<Outcome<T>> outcomes) {
+            this.outcomes = Collections.unmodifiableList(outcomes);
+        }
+
+        List<Outcome<T>> getOutcomes() {
+            return outcomes;
+        }
+
+        List<Outcome<T>> getFailures() {
+            List<Outcome<T>> failures = new ArrayList<>();
+            for (Outcome<T> outcome : outcomes) {
+                if (!outcome.succeeded()) {
+                    failures.add(outcome);
+                }
+            }
+            return failures;
+        }
+
+        int getSuccessCount() {
+            return outcomes.size() - getFailures().size();
+        }
+
+        /**
+         * Returns the first non-{@code null} result of a successful file, or {@code null}.
+         */
+        T firstResult() {
+            for (Outcome<T> outcome : outcomes) {
+                if (outcome.succeeded() && outcome.result != null) {
+                    return outcome.result;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Multi-line summary naming every failed file, or {@code null} if every file succeeded.
+         */
+        String describeFailures() {
+            List<Outcome<T>> failures = getFailures();
+            if (failures.isEmpty()) {
+                return null;
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(failures.size()).append(" of ").append(outcomes.size()).append(" files failed:");
+            for (Outcome<T> failure : failures) {
+                sb.append(System.lineSeparator())
+                        .append("  ")
+                        .append(failure.file.getName())
+                        .append(": ")
+                        .append(failure.failure.getMessage());
+            }
+            return sb.toString();
+        }
+    }
+
+    private BatchFileProcessor() {
+    }
+
+    /**
+     * Resolves the configured worker count, where values {@code <= 0} select one worker per core.
+     */
+    static int resolveWorkerCount(int configuredWorkers) {
+        if (configuredWorkers > 0) {
+            return configuredWorkers;
+        }
+        return Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Resolves the configured memory budget in MiB, where values {@code <= 0} allow half of the
+     * maximum heap. Batch conversion, the session queue and concurrent iterative passes all resolve
+     * their budgets here, so they share this default.
+     */
+    static long resolveMemoryBudgetBytes(int configuredBudgetMb) {
+        if (configuredBudgetMb > 0) {
+            return configuredBudgetMb * MIB;
+        }
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        if (maxHeap == Long.MAX_VALUE) {
+            maxHeap = Runtime.getRuntime().totalMemory();
+        }
+        return Math.max(64L * MIB, maxHeap / 2L);
+    }
+
+    /**
+     * Estimates the peak heap needed to convert {@code file}, based on its size on disk.
+     */
+    static long estimateWorkingMemory(File file) {
+        long length = Math.max(0L, file.length());
+        boolean compressed = file.getName().toLowerCase(Locale.ROOT).endsWith(".fz");
+        return length * (compressed ? COMPRESSED_MEMORY_FACTOR : UNCOMPRESSED_MEMORY_FACTOR);
+    }
+
+    /**
+     * Processes {@code files} with {@link #estimateWorkingMemory(File)} as the per-file cost.
+     */
+    static <T> Report<T> process(File[] files,
+                                 int workers,
+                                 long memoryBudgetBytes,
+                                 FileTask<T> task,
+                                 ProgressListener<T> progressListener) throws InterruptedException {
+        long[] costs = new long[files.length];
+        for (int i = 0; i < files.length; i++) {
+            costs[i] = estimateWorkingMemory(files[i]);
+        }
+        return process(files, costs, workers, memoryBudgetBytes, task, progressListener);
+    }
+
+    /**
+     * Processes {@code files} with explicit per-file memory costs in bytes.
+     *
+     * @throws InterruptedException if the calling thread is interrupted; files not yet started are
+     *                              then cancelled
+     */
+    static <T> Report<T> process(File[] files,
+                                 long[] costBytes,
+                                 int workers,
+                                 long memoryBudgetBytes,
+                                 FileTask<T> task,
+                                 ProgressListener<T> progressListener) throws InterruptedException {
+        int total = files.length;
+        List<Outcome<T>> outcomes = new ArrayList<>(total);
+        if (total == 0) {
+            return new Report<>(outcomes);
+        }
+
+        int maxWorkers = Math.max(1, Math.min(workers, total));
+        if (maxWorkers == 1 || SharedExecutors.isIoWorkerThread()) {
+            for (int i = 0; i < total; i++) {
+                Outcome<T> outcome = runTask(task, i, files[i]);
+                outcomes.add(outcome);
+                notifyProgress(progressListener, outcomes.size(), total, outcome);
+            }
+            return new Report<>(outcomes);
+        }
+
+        int budgetMb = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, memoryBudgetBytes / MIB));
+        int[] permits = new int[total];
+        for (int i = 0; i < total; i++) {
+            long costMb = (Math.max(0L, costBytes[i]) + MIB - 1) / MIB;
+            permits[i] = (int) Math.max(1L, Math.min(budgetMb, costMb));
+        }
+
+        Semaphore memoryBudget = new Semaphore(budgetMb);
+        ExecutorService executor = SharedExecutors.io();
+        List<Future<Outcome<T>>> pending = new ArrayList<>(total);
+        int submitted = 0;
+        try {
+            for (int next = 0; next < total; next++) {
+                // Start as many files as the worker and memory limits allow, then wait for the
+                // oldest one so progress stays in order. Its permits are released before it
+                // completes, so an idle budget always admits the next file.
+                while (submitted < total
+                        && submitted - next < maxWorkers
+                        && memoryBudget.tryAcquire(permits[submitted])) {
+                    pending.add(submit(executor, memoryBudget, permits[submitted], task, submitted, files[submitted]));
+                    submitted++;
+                }
+
+                Outcome<T> outcome = await(pending.get(next), next, files[next]);
+                pending.set(next, null);
+                outcomes.add(outcome);
+                notifyProgress(progressListener, outcomes.size(), total, outcome);
+            }
+        } finally {
+            for (Future<Outcome<T>> future : pending) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+        return new Report<>(outcomes);
+    }
+
+    private static <T> Future<Outcome<T>> submit(ExecutorService executor,
+                                                 Semaphore memoryBudget,
+                                                 int permits,
+                                                 FileTask<T> task,
+                                                 int index,
+                                                 File file) {
+        try {
+            return executor.submit(() -> {
+                try {
+                    return runTask(task, index, file);
+                } finally {
+                    memoryBudget.release(permits);
+                }
+            });
+        } catch (RuntimeException e) {
+            memoryBudget.release(permits);
+            throw e;
+        }
+    }
+
+    private static <T> Outcome<T> runTask(FileTask<T> task, int index, File file) {
+        try {
+            return new Outcome<>(index, file, task.process(index, file), null);
+        } catch (Exception e) {
+            return new Outcome<>(index, file, null, e);
+        } catch (OutOfMemoryError e) {
+            return new Outcome<>(index, file, null, new IllegalStateException(
+                    "Out of memory while processing " + file.getName() + "; lower the batch parallelism or memory budget", e));
+        }
+    }
+
+    private static <T> Outcome<T> await(Future<Outcome<T>> future, int index, File file) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return new Outcome<>(index, file, null, cause instanceof Exception ? (Exception) cause : e);
+        } catch (CancellationException e) {
+            return new Outcome<>(index, file, null, e);
+        }
+    }
+
+    private static <T> void notifyProgress(ProgressListener<T> progressListener, int completed, int total, Outcome<T> outcome) {
+        if (progressListener != null) {
+            progressListener.onFileFinished(completed, total, outcome);
+        }
+    }
+}
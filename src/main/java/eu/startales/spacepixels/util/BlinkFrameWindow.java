@@ -0,0 +1,179 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Renders the frames of a looping blink sequence lazily, keeping only a window around the frame
+ * being shown.
+ *
+ * <ul>
+ *     <li>{@link #get(int)} renders the requested frame if needed and starts rendering the next
+ *     {@code ahead} frames in the background, wrapping around the end of the sequence.</li>
+ *     <li>Frames further than {@code ahead} frames forward or {@code behind} frames back are dropped.
+ *     Their images are handed to later renders for reuse; the frame shown last is always within
+ *     {@code behind} and is never reused while it may still be on screen.</li>
+ * </ul>
+ *
+ * <p>{@link #get(int)} and {@link #close()} are called from the playback thread; renders run on the
+ * supplied executor.</p>
+ */
+public final class BlinkFrameWindow implements AutoCloseable {
+
+    /**
+     * Time each frame stays on screen while blinking, in milliseconds.
+     */
+    public static int blinkFrameIntervalMs = 500;
+
+    /**
+     * Renders one frame, drawing into {@code reuse} when it is not {@code null} and has the right
+     * size.
+     */
+    @FunctionalInterface
+    public interface FrameRenderer {
+        BufferedImage render(int index, BufferedImage reuse) throws Exception;
+    }
+
+    private final int frameCount;
+    private final int ahead;
+    private final int behind;
+    private final FrameRenderer renderer;
+    private final ExecutorService executor;
+    private final Map<Integer, Future<BufferedImage>> frames = new HashMap<>();
+    private final Deque<BufferedImage> recycled = new ArrayDeque<>();
+    private boolean closed;
+
+    public BlinkFrameWindow(int frameCount, int ahead, int behind, FrameRenderer renderer, ExecutorService executor) {
+        if (frameCount < 1) {
+            throw new IllegalArgumentException("frameCount must be positive");
+        }
+        this.frameCount = frameCount;
+        this.ahead = Math.max(0, ahead);
+        this.behind = Math.max(1, behind);
+        this.renderer = renderer;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the rendered frame, waiting for its render to finish, and moves the window to it.
+     */
+    public BufferedImage get(int index) throws Exception {
+        Future<BufferedImage> frame;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Blink window is closed");
+            }
+            evictOutsideWindow(index);
+            frame = schedule(index);
+            for (int step = 1; step <= ahead && step < frameCount; step++) {
+                schedule((index + step) % frameCount);
+            }
+        }
+
+        try {
+            return frame.get();
+        } catch (ExecutionException e) {
+            synchronized (this) {
+                frames.remove(index);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of frames rendered or being rendered
+     */
+    public synchronized int size() {
+        return frames.size();
+    }
+
+    /**
+     * Cancels the renders that have not started and drops every frame.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Future<BufferedImage> frame : frames.values()) {
+            frame.cancel(false);
+        }
+        frames.clear();
+        recycled.clear();
+    }
+
+    /**
+     * Returns whether {@code index} lies within {@code ahead} frames after or {@code behind} frames
+     * before {@code current}, counting around the end of the sequence.
+     */
+    static boolean isInWindow(int index, int current, int frameCount, int ahead, int behind) {
+        int forward = Math.floorMod(index - current, frameCount);
+        return forward <= ahead || frameCount - forward <= behind;
+    }
+
+    /**
+     * Returns when the frame after one shown at {@code shownAtNanos} is due. Playback keeps a fixed
+     * cadence from the previous deadline, so sleep overshoot does not accumulate; after a stall
+     * longer than one interval it restarts from the late frame instead of catching up in a burst.
+     */
+    public static long nextFrameDeadline(long deadlineNanos, long shownAtNanos, long intervalNanos) {
+        long next = deadlineNanos + intervalNanos;
+        if (next - shownAtNanos <= 0L) {
+            return shownAtNanos + intervalNanos;
+        }
+        return next;
+    }
+
+    private Future<BufferedImage> schedule(int index) {
+        Future<BufferedImage> frame = frames.get(index);
+        if (frame == null) {
+            frame = executor.submit(() -> renderer.render(index, takeRecycled()));
+            frames.put(index, frame);
+        }
+        return frame;
+    }
+
+    private void evictOutsideWindow(int current) {
+        Iterator<Map.Entry<Integer, Future<BufferedImage>>> iterator = frames.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Future<BufferedImage>> entry = iterator.next();
+            if (isInWindow(entry.getKey(), current, frameCount, ahead, behind)) {
+                continue;
+            }
+            Future<BufferedImage> frame = entry.getValue();
+            iterator.remove();
+            if (!frame.isDone()) {
+                frame.cancel(false);
+                continue;
+            }
+            try {
+                BufferedImage image = frame.get();
+                if (image != null) {
+                    recycled.push(image);
+                }
+            } catch (Exception ignored) {
+                // A failed or cancelled render leaves nothing to reuse.
+            }
+        }
+    }
+
+    private synchronized BufferedImage takeRecycled() {
+        return recycled.poll();
+    }
+}
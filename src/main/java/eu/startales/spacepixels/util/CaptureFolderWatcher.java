@@ -0,0 +1,112 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Polls a capture folder and reports each new FITS file once it has been completely written.
+ *
+ * <p>A file is reported only after two consecutive polls observed the same size and modification
+ * time, and, when its header can be scanned, once the file is long enough to hold the whole data
+ * unit the header announces. Capture software that is still writing a frame therefore never hands
+ * a truncated file to the detection pipeline. Polling with {@code stat} is used instead of a
+ * {@code WatchService} because it behaves the same on local disks and network shares.</p>
+ */
+final class CaptureFolderWatcher {
+
+    private final File directory;
+    private final Map<String, FitsMetadataIndex.FileStamp> pending = new HashMap<>();
+    private final Set<String> delivered = new HashSet<>();
+    private boolean lastPollSawWrites;
+
+    CaptureFolderWatcher(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the files that became complete since the previous poll, ordered by name.
+     */
+    List<File> poll() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> isFitsFile(name));
+        if (files == null) {
+            throw new IOException("Cannot list capture folder: " + directory.getAbsolutePath());
+        }
+        Arrays.sort(files);
+
+        Set<String> present = new HashSet<>();
+        List<File> ready = new ArrayList<>();
+        lastPollSawWrites = false;
+        for (File file : files) {
+            String name = file.getName();
+            present.add(name);
+            if (delivered.contains(name) || !file.isFile()) {
+                continue;
+            }
+
+            FitsMetadataIndex.FileStamp stamp;
+            try {
+                stamp = FitsMetadataIndex.stat(file);
+            } catch (IOException e) {
+                // Vanished or locked between listing and stat; look again next poll.
+                pending.remove(name);
+                continue;
+            }
+
+            FitsMetadataIndex.FileStamp previous = pending.put(name, stamp);
+            if (!stamp.matches(previous)) {
+                lastPollSawWrites = true;
+            }
+            if (stamp.size > 0L && stamp.matches(previous) && hasCompleteDataUnit(file, stamp.size)) {
+                pending.remove(name);
+                delivered.add(name);
+                ready.add(file);
+            }
+        }
+        pending.keySet().retainAll(present);
+        return ready;
+    }
+
+    /**
+     * Returns whether the last poll found a new file or one whose size or modification time changed.
+     */
+    boolean lastPollSawWrites() {
+        return lastPollSawWrites;
+    }
+
+    static boolean hasCompleteDataUnit(File file, long size) {
+        FitsFrameReader.ImageLayout layout;
+        try {
+            layout = FitsFrameReader.readImageLayout(file);
+        } catch (IOException e) {
+            return false;
+        }
+        if (layout == null) {
+            // Headers the raw scanner cannot follow are left to the full parser once the file is stable.
+            return true;
+        }
+        long samples = 1L;
+        for (int axis : layout.axes) {
+            samples *= axis;
+        }
+        return size >= layout.dataOffset + samples * (Math.abs(layout.bitpix) / 8);
+    }
+
+    private static boolean isFitsFile(String name) {
+        // Hidden files are typically sidecars or partial copies written by the capture software.
+        return !name.startsWith(".") && DetectionInputPreparation.isFitsFilename(name);
+    }
+}
@@ -9,7 +9,6 @@ package eu.startales.spacepixels.util;
 
 import nom.tam.fits.BasicHDU;
 import nom.tam.fits.Fits;
-import nom.tam.fits.Header;
 import nom.tam.image.compression.hdu.CompressedImageHDU;
 
 import java.io.File;
@@ -25,8 +24,9 @@ import java.util.Locale;
 import java.util.Objects;
 
 /**
- * Headless preparation utility that normalizes supported FITS/XISF inputs into a directory of
- * uncompressed 16-bit monochrome FITS files that the batch pipeline can consume directly.
+ * Headless preparation utility that makes supported FITS/XISF inputs consumable by the batch
+ * pipeline, either by normalizing them into a directory of uncompressed 16-bit monochrome FITS
+ * files or by selecting a {@link FrameSource} that normalizes each frame while it is read.
  */
 public final class DetectionInputPreparation {
 
@@ -67,8 +67,89 @@ public final class DetectionInputPreparation {
         }
     }
 
+    /**
+     * Input directory together with the frame source that reads it for detection.
+     */
+    public static final class PreparedFrameSource {
+        private final File inputDirectory;
+        private final FrameSource frameSource;
+
+        private PreparedFrameSource(File inputDirectory, FrameSource frameSource) {
+            this.inputDirectory = inputDirectory;
+            this.frameSource = frameSource;
+        }
+
+        public File getInputDirectory() {
+            return inputDirectory;
+        }
+
+        public FrameSource getFrameSource() {
+            return frameSource;
+        }
+
+        /**
+         * @return {@code true} when frames are converted to 16-bit mono while they are read
+         */
+        public boolean isNormalizedOnTheFly() {
+            return !frameSource.isDetectionReady();
+        }
+    }
+
+    /**
+     * Chooses how the frames of {@code inputDirectory} are read for detection without writing any
+     * converted copies: detection-ready mono 16-bit FITS are read as they are, XISF is decoded
+     * frame by frame, and other FITS inputs (32-bit, floating-point, colour, compressed) are
+     * normalized to 16-bit mono luminance as each frame is loaded.
+     */
+    public static PreparedFrameSource prepareFrameSource(File inputDirectory,
+                                                         boolean autoPrepare,
+                                                         ProgressListener progressListener) throws Exception {
+        Objects.requireNonNull(inputDirectory, "inputDirectory");
+        if (!inputDirectory.exists() || !inputDirectory.isDirectory()) {
+            throw new IOException("Input path is not a directory: " + inputDirectory.getAbsolutePath());
+        }
+
+        if (!autoPrepare) {
+            return new PreparedFrameSource(inputDirectory, Mono16FitsFrameSource.INSTANCE);
+        }
+
+        emitProgress(progressListener, 0, "Inspecting input directory...");
+
+        File[] fitsFiles = listFilesWithExtensions(inputDirectory, FITS_EXTENSIONS);
+        if (fitsFiles.length == 0 && containsFilesWithExtensions(inputDirectory, XISF_EXTENSIONS)) {
+            emitProgress(progressListener, 100, "XISF inputs will be decoded to 16-bit monochrome frames on the fly.");
+            return new PreparedFrameSource(inputDirectory, XisfFrameSource.INSTANCE);
+        }
+        if (fitsFiles.length == 0) {
+            throw new IOException("No FITS files in directory: " + inputDirectory.getAbsolutePath());
+        }
+
+        emitProgress(progressListener, 20, "Validating whether the FITS inputs are already detection-ready...");
+        if (allFilesDetectionReady(fitsFiles)) {
+            emitProgress(progressListener, 100, "Input directory is already ready for 16-bit monochrome detection.");
+            return new PreparedFrameSource(inputDirectory, Mono16FitsFrameSource.INSTANCE);
+        }
+
+        emitProgress(progressListener, 100, "FITS inputs will be normalized to 16-bit monochrome frames on the fly.");
+        return new PreparedFrameSource(inputDirectory, NormalizingFitsFrameSource.INSTANCE);
+    }
+
+    public static PreparedDirectory prepareInputDirectory(File inputDirectory,
+                                                          boolean autoPrepare,
+                                                          ProgressListener progressListener) throws Exception {
+        return prepareInputDirectory(inputDirectory, autoPrepare, 0, 0, progressListener);
+    }
+
+    /**
+     * Prepares the input directory, converting up to {@code conversionThreads} files at once while
+     * their estimated working memory stays within {@code memoryBudgetMb}. Values {@code <= 0} select
+     * one thread per core and half of the heap respectively. Files that fail to convert are reported
+     * and left out of the prepared directory; the call fails only if none could be converted.
+     */
     public static PreparedDirectory prepareInputDirectory(File inputDirectory,
                                                           boolean autoPrepare,
+                                                          int conversionThreads,
+                                                          int memoryBudgetMb,
                                                           ProgressListener progressListener) throws Exception {
         Objects.requireNonNull(inputDirectory, "inputDirectory");
         if (!inputDirectory.exists() || !inputDirectory.isDirectory()) {
@@ -105,12 +186,28 @@ public final class DetectionInputPreparation {
         }
 
         File preparedOutputDirectory = createPreparedOutputDirectory(workingDirectory);
-        for (int i = 0; i < fitsFiles.length; i++) {
-            File fitsFile = fitsFiles[i];
-            emitProgress(progressListener,
-                    scaleProgress(i + 1, fitsFiles.length, 75, 100),
-                    "Preparing " + fitsFile.getName() + " for mono 16-bit detection...");
-            prepareFitsFile(fitsFile, preparedOutputDirectory);
+        BatchFileProcessor.Report<Void> report = BatchFileProcessor.process(
+                fitsFiles,
+                BatchFileProcessor.resolveWorkerCount(conversionThreads),
+                BatchFileProcessor.resolveMemoryBudgetBytes(memoryBudgetMb),
+                (index, fitsFile) -> {
+                    prepareFitsFile(fitsFile, preparedOutputDirectory);
+                    return null;
+                },
+                (completed, total, outcome) -> emitProgress(progressListener,
+                        scaleProgress(completed, total, 75, 100),
+                        (outcome.succeeded() ? "Prepared " : "Failed to prepare ") + outcome.file.getName()
+                                + " for mono 16-bit detection (" + completed + "/" + total + ")"));
+
+        String failures = report.describeFailures();
+        if (failures != null) {
+            if (report.getSuccessCount() == 0) {
+                throw new IOException(failures, report.getFailures().get(0).failure);
+            }
+            System.err.println(failures);
+            emitProgress(progressListener, 100, "Prepared " + report.getSuccessCount() + " of " + fitsFiles.length
+                    + " FITS files for detection; " + report.getFailures().size() + " could not be converted.");
+            return new PreparedDirectory(inputDirectory, preparedOutputDirectory, true);
         }
 
         emitProgress(progressListener, 100, "Prepared a 16-bit monochrome FITS directory for detection.");
@@ -150,7 +247,13 @@ public final class DetectionInputPreparation {
         try (Fits preparedFits = createPreparedFits(inputFile)) {
             File outputFile = new File(outputDirectory, buildPreparedFilename(inputFile));
             Files.deleteIfExists(outputFile.toPath());
-            preparedFits.write(outputFile);
+            try {
+                preparedFits.write(outputFile);
+            } catch (Exception e) {
+                // Never leave a truncated frame behind for the detection run to pick up.
+                Files.deleteIfExists(outputFile.toPath());
+                throw e;
+            }
         }
     }
 
@@ -161,27 +264,8 @@ public final class DetectionInputPreparation {
                 throw new IOException("No valid image HDU found in " + inputFile.getName());
             }
 
-            Header originalHeader = imageHdu.getHeader();
-            Object kernel = imageHdu.getKernel();
-
-            if (kernel instanceof short[][]) {
-                return FitsPixelConverter.createFitsFromData(kernel, originalHeader);
-            }
-            if (kernel instanceof short[][][]) {
-                short[][] monoKernel = FitsPixelConverter.convertColorKernelToMono(kernel);
-                return FitsPixelConverter.createFitsFromData(monoKernel, originalHeader);
-            }
-            if (kernel instanceof float[][] || kernel instanceof int[][]) {
-                short[][] monoKernel = FitsPixelConverter.standardizeTo16BitMono(kernel);
-                return FitsPixelConverter.createFitsFromData(monoKernel, originalHeader);
-            }
-            if (kernel instanceof float[][][] || kernel instanceof int[][][]) {
-                short[][][] colorKernel = FitsPixelConverter.standardizeTo16BitColor(kernel);
-                short[][] monoKernel = FitsPixelConverter.extractLuminance(colorKernel);
-                return FitsPixelConverter.createFitsFromData(monoKernel, originalHeader);
-            }
-
-            throw new IOException("Unsupported FITS kernel type in " + inputFile.getName() + ": " + kernel.getClass().getName());
+            short[][] monoKernel = FitsPixelConverter.convertToMono16(imageHdu.getKernel(), inputFile.getName());
+            return FitsPixelConverter.createFitsFromData(monoKernel, imageHdu.getHeader());
         }
     }
 
@@ -223,6 +307,14 @@ public final class DetectionInputPreparation {
         return filename + ".fit";
     }
 
+    /**
+     * Returns whether {@code filename} carries one of the FITS extensions this utility accepts,
+     * fpack-compressed {@code .fz} included.
+     */
+    static boolean isFitsFilename(String filename) {
+        return hasExtension(filename, FITS_EXTENSIONS);
+    }
+
     private static boolean containsFilesWithExtensions(File directory, String[] extensions) {
         return listFilesWithExtensions(directory, extensions).length > 0;
     }
@@ -0,0 +1,355 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs several detection sessions (one input directory each) in a single JVM.
+ *
+ * <p>Sessions run on {@link SharedExecutors#sessions()}, not on the I/O pool, so the frame reads and
+ * exports inside each session keep the whole I/O pool however many sessions run. Sessions are
+ * admitted in queue order; a session starts only when a session slot is free and its estimated
+ * frame memory fits in what is left of the memory budget; a session whose estimate exceeds the
+ * whole budget still runs, but alone. A failing session is recorded in its
+ * {@link Outcome} and never stops the others.</p>
+ */
+public final class DetectionSessionQueue {
+
+    /**
+     * Per-pixel working memory of the engine besides the frames themselves: master, median and
+     * maximum stacks plus background and noise maps, as float planes.
+     */
+    static final long STACK_BYTES_PER_PIXEL = 6L * Float.BYTES;
+
+    @FunctionalInterface
+    public interface SessionTask<T> {
+        T run(int index, File inputDirectory) throws Exception;
+    }
+
+    /**
+     * Callbacks for console feedback. They run on the thread that called {@link #run}.
+     */
+    public interface Listener<T> {
+        default void onSessionStarted(int index, File inputDirectory, Estimate estimate) {
+        }
+
+        default void onSessionFinished(int completed, int total, Outcome<T> outcome) {
+        }
+    }
+
+    /**
+     * Frame geometry and heap estimate of one input directory.
+     */
+    public static final class Estimate {
+        private final int frameCount;
+        private final int width;
+        private final int height;
+        private final long estimatedBytes;
+
+        Estimate(int frameCount, int width, int height, long estimatedBytes) {
+            this.frameCount = frameCount;
+            this.width = width;
+            this.height = height;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public int getFrameCount() {
+            return frameCount;
+        }
+
+        /**
+         * @return frame width, or -1 if the first frame's header could not be scanned
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * @return frame height, or -1 if the first frame's header could not be scanned
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+    }
+
+    /**
+     * Result of one session: either its task result or the failure it raised.
+     */
+    public static final class Outcome<T> {
+        private final int index;
+        private final File inputDirectory;
+        private final Estimate estimate;
+        private final long wallTimeMillis;
+        private final T result;
+        private final Exception failure;
+
+        private Outcome(int index, File inputDirectory, Estimate estimate, long wallTimeMillis, T result, Exception failure) {
+            this.index = index;
+            this.inputDirectory = inputDirectory;
+            this.estimate = estimate;
+            this.wallTimeMillis = wallTimeMillis;
+            this.result = result;
+            this.failure = failure;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public File getInputDirectory() {
+            return inputDirectory;
+        }
+
+        public Estimate getEstimate() {
+            return estimate;
+        }
+
+        public long getWallTimeMillis() {
+            return wallTimeMillis;
+        }
+
+        public T getResult() {
+            return result;
+        }
+
+        public Exception getFailure() {
+            return failure;
+        }
+
+        public boolean succeeded() {
+            return failure == null;
+        }
+    }
+
+    private final int maxConcurrentSessions;
+    private final long memoryBudgetBytes;
+
+    /**
+     * @param maxConcurrentSessions sessions allowed to run at once; {@code <= 0} selects one per four cores
+     * @param memoryBudgetMb        heap budget shared by running sessions in MiB; {@code <= 0} allows half of the maximum heap
+     */
+    public DetectionSessionQueue(int maxConcurrentSessions, int memoryBudgetMb) {
+        this.maxConcurrentSessions = maxConcurrentSessions > 0
+                ? maxConcurrentSessions
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        this.memoryBudgetBytes = BatchFileProcessor.resolveMemoryBudgetBytes(memoryBudgetMb);
+    }
+
+    public int getMaxConcurrentSessions() {
+        return maxConcurrentSessions;
+    }
+
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    /**
+     * Estimates the heap a detection run over {@code inputDirectory} needs: every frame decoded as
+     * 16-bit samples plus the engine's stacks. The geometry is read from the first frame's header
+     * only; if it cannot be scanned the on-disk size of the frames is used instead.
+     */
+    public static Estimate estimate(File inputDirectory) throws IOException {
+        File[] fitsFiles = inputDirectory.listFiles((dir, name) -> DetectionInputPreparation.isFitsFilename(name));
+        if (fitsFiles == null) {
+            throw new IOException("Cannot list input directory: " + inputDirectory.getAbsolutePath());
+        }
+        if (fitsFiles.length == 0) {
+            return new Estimate(0, -1, -1, 0L);
+        }
+        Arrays.sort(fitsFiles);
+
+        FitsFrameReader.ImageLayout layout = null;
+        try {
+            layout = FitsFrameReader.readImageLayout(fitsFiles[0]);
+        } catch (IOException e) {
+            // Fall back to file sizes below; the session itself will report the unreadable frame.
+        }
+        if (layout == null || layout.axes.length < 2) {
+            long totalBytes = 0L;
+            for (File fitsFile : fitsFiles) {
+                totalBytes += fitsFile.length();
+            }
+            return new Estimate(fitsFiles.length, -1, -1, totalBytes);
+        }
+
+        int height = layout.axes[0];
+        int width = layout.axes[1];
+        return new Estimate(fitsFiles.length, width, height, estimateBytes(width, height, fitsFiles.length));
+    }
+
+    static long estimateBytes(int width, int height, int frameCount) {
+        long pixels = (long) width * height;
+        return pixels * frameCount * Short.BYTES + pixels * STACK_BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Expands input arguments into directories, in argument order and without duplicates. An
+     * argument is either a directory or a path whose last segment contains glob wildcards
+     * ({@code *}, {@code ?}, {@code [..]}, <code>{a,b}</code>); matches of a glob are sorted by name.
+     */
+    public static List<File> resolveInputDirectories(List<String> arguments) throws IOException {
+        Set<File> directories = new LinkedHashSet<>();
+        for (String argument : arguments) {
+            File candidate = new File(argument);
+            if (!containsGlob(candidate.getName())) {
+                if (!candidate.isDirectory()) {
+                    throw new IOException("Input path is not a directory: " + candidate.getAbsolutePath());
+                }
+                directories.add(candidate);
+                continue;
+            }
+
+            File parent = candidate.getAbsoluteFile().getParentFile();
+            if (parent == null || containsGlob(parent.getPath()) || !parent.isDirectory()) {
+                throw new IOException("Wildcards are only supported in the last path segment: " + argument);
+            }
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + candidate.getName());
+            File[] matches = parent.listFiles(file -> file.isDirectory() && matcher.matches(Paths.get(file.getName())));
+            if (matches == null || matches.length == 0) {
+                throw new IOException("No input directory matches " + argument);
+            }
+            Arrays.sort(matches);
+            directories.addAll(Arrays.asList(matches));
+        }
+        return new ArrayList<>(directories);
+    }
+
+    /**
+     * Reads a manifest with one directory or glob per line. Blank lines and lines starting with
+     * {@code #} are ignored, and relative entries are resolved against the manifest's folder.
+     */
+    public static List<String> readManifest(File manifestFile) throws IOException {
+        File baseDirectory = manifestFile.getAbsoluteFile().getParentFile();
+        List<String> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            String entry = line.trim();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            File file = new File(entry);
+            entries.add(file.isAbsolute() ? entry : new File(baseDirectory, entry).getPath());
+        }
+        return entries;
+    }
+
+    /**
+     * Runs {@code task} for every input directory and returns the outcomes in input order.
+     *
+     * @throws InterruptedException if the calling thread is interrupted; running sessions are then
+     *                              interrupted and queued ones never start
+     */
+    public <T> List<Outcome<T>> run(List<File> inputDirectories, SessionTask<T> task, Listener<T> listener) throws InterruptedException {
+        Listener<T> callbacks = listener != null ? listener : new Listener<T>() { };
+        int total = inputDirectories.size();
+        List<Outcome<T>> outcomes = new ArrayList<>(Collections.nCopies(total, (Outcome<T>) null));
+        if (total == 0) {
+            return outcomes;
+        }
+
+        Estimate[] estimates = new Estimate[total];
+        long[] reservedBytes = new long[total];
+        for (int i = 0; i < total; i++) {
+            try {
+                estimates[i] = estimate(inputDirectories.get(i));
+            } catch (IOException e) {
+                estimates[i] = new Estimate(0, -1, -1, 0L);
+            }
+            reservedBytes[i] = Math.min(memoryBudgetBytes, estimates[i].estimatedBytes);
+        }
+
+        int workers = Math.min(maxConcurrentSessions, total);
+        CompletionService<Outcome<T>> completionService = new ExecutorCompletionService<>(SharedExecutors.sessions());
+        List<Future<Outcome<T>>> running = new ArrayList<>();
+        long availableBytes = memoryBudgetBytes;
+        int submitted = 0;
+        int completed = 0;
+        try {
+            while (completed < total) {
+                // Admit in queue order. Reservations are capped at the budget, so an idle queue
+                // always admits the next session.
+                while (submitted < total
+                        && running.size() < workers
+                        && reservedBytes[submitted] <= availableBytes) {
+                    int index = submitted++;
+                    File inputDirectory = inputDirectories.get(index);
+                    availableBytes -= reservedBytes[index];
+                    callbacks.onSessionStarted(index, inputDirectory, estimates[index]);
+                    running.add(completionService.submit(() -> runSession(task, index, inputDirectory, estimates[index])));
+                }
+
+                Future<Outcome<T>> finished = completionService.take();
+                running.remove(finished);
+                Outcome<T> outcome = await(finished);
+                availableBytes += reservedBytes[outcome.index];
+                outcomes.set(outcome.index, outcome);
+                completed++;
+                callbacks.onSessionFinished(completed, total, outcome);
+            }
+        } finally {
+            for (Future<Outcome<T>> future : running) {
+                future.cancel(true);
+            }
+        }
+        return outcomes;
+    }
+
+    private static <T> Outcome<T> runSession(SessionTask<T> task, int index, File inputDirectory, Estimate estimate) {
+        long start = System.nanoTime();
+        try {
+            T result = task.run(index, inputDirectory);
+            return new Outcome<>(index, inputDirectory, estimate, elapsedMillis(start), result, null);
+        } catch (Exception e) {
+            return new Outcome<>(index, inputDirectory, estimate, elapsedMillis(start), null, e);
+        } catch (OutOfMemoryError e) {
+            return new Outcome<>(index, inputDirectory, estimate, elapsedMillis(start), null, new IllegalStateException(
+                    "Out of memory while processing " + inputDirectory.getName() + "; lower the session count or memory budget", e));
+        }
+    }
+
+    private static <T> Outcome<T> await(Future<Outcome<T>> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // runSession never throws checked exceptions; anything else is a JVM error.
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    private static boolean containsGlob(String path) {
+        return path.indexOf('*') >= 0 || path.indexOf('?') >= 0 || path.indexOf('[') >= 0 || path.indexOf('{') >= 0;
+    }
+}
@@ -11,16 +11,29 @@
 package eu.startales.spacepixels.util;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 import java.awt.image.WritableRaster;
+import java.util.Arrays;
 
 /**
  * Generic grayscale display renderer shared by UI previews and report export paths.
+ *
+ * <p>The auto-stretch gathers mean, sigma and maximum in a single pass over the samples, then maps
+ * every pixel through a 16-bit lookup table straight into the image's byte buffer. The table is
+ * kept per thread and only the span between the black and white points is recomputed, so rendering
+ * a frame allocates nothing beyond the output image. Tiny crops whose pixel count is smaller than
+ * that span skip the table and evaluate the curve directly. Frames above the {@link RowBands}
+ * threshold gather their moments and map their pixels in row bands on the shared CPU pool.</p>
  */
 public final class DisplayImageRenderer {
 
     public static double autoStretchBlackSigma = 0.5;
     public static double autoStretchWhiteSigma = 5.0;
 
+    private static final int LUT_SIZE = 65536;
+    private static final ThreadLocal<byte[]> STRETCH_LUT = ThreadLocal.withInitial(() -> new byte[LUT_SIZE]);
+
     private DisplayImageRenderer() {
     }
 
@@ -34,6 +47,154 @@ public final class DisplayImageRenderer {
         int height = imageData.length;
         int width = imageData[0].length;
 
+        Moments moments = RowBands.reduce(height, width, (rowStart, rowEnd) -> {
+            long sum = 0;
+            long sumSq = 0;
+            int actualMax = 0;
+            for (int y = rowStart; y < rowEnd; y++) {
+                short[] row = imageData[y];
+                for (int x = 0; x < width; x++) {
+                    int val = row[x] + 32768;
+                    sum += val;
+                    sumSq += (long) val * val;
+                    if (val > actualMax) {
+                        actualMax = val;
+                    }
+                }
+            }
+            return new Moments(sum, sumSq, actualMax);
+        }, Moments::merge);
+        StretchCurve curve = StretchCurve.fromMoments(
+                moments.sum, moments.sumSq, moments.max, (long) width * height, blackSigma, whiteSigma);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        byte[] lut = shareableLut(curve.prepareLut((long) width * height), height, width);
+        RowBands.forEach(height, width, (rowStart, rowEnd) -> {
+            int index = rowStart * width;
+            for (int y = rowStart; y < rowEnd; y++) {
+                short[] row = imageData[y];
+                if (lut != null) {
+                    for (int x = 0; x < width; x++) {
+                        pixels[index++] = lut[row[x] + 32768];
+                    }
+                } else {
+                    for (int x = 0; x < width; x++) {
+                        pixels[index++] = (byte) curve.map(row[x] + 32768);
+                    }
+                }
+            }
+        });
+        return image;
+    }
+
+    public static BufferedImage createDisplayImage(FrameBuffer frame) {
+        return createDisplayImage(frame, autoStretchBlackSigma, autoStretchWhiteSigma);
+    }
+
+    /**
+     * Same auto-stretch as {@link #createDisplayImage(short[][], double, double)}, reading samples
+     * straight from a flat frame or crop view.
+     */
+    public static BufferedImage createDisplayImage(FrameBuffer frame,
+                                                   double blackSigma,
+                                                   double whiteSigma) {
+        int height = frame.height();
+        int width = frame.width();
+        short[] data = frame.data();
+
+        Moments moments = RowBands.reduce(height, width, (bandStart, bandEnd) -> {
+            long sum = 0;
+            long sumSq = 0;
+            int actualMax = 0;
+            for (int y = bandStart; y < bandEnd; y++) {
+                int rowStart = frame.rowOffset(y);
+                for (int i = rowStart; i < rowStart + width; i++) {
+                    int val = data[i] + 32768;
+                    sum += val;
+                    sumSq += (long) val * val;
+                    if (val > actualMax) {
+                        actualMax = val;
+                    }
+                }
+            }
+            return new Moments(sum, sumSq, actualMax);
+        }, Moments::merge);
+        StretchCurve curve = StretchCurve.fromMoments(
+                moments.sum, moments.sumSq, moments.max, (long) width * height, blackSigma, whiteSigma);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        byte[] lut = shareableLut(curve.prepareLut((long) width * height), height, width);
+        RowBands.forEach(height, width, (bandStart, bandEnd) -> {
+            int index = bandStart * width;
+            for (int y = bandStart; y < bandEnd; y++) {
+                int rowStart = frame.rowOffset(y);
+                if (lut != null) {
+                    for (int i = rowStart; i < rowStart + width; i++) {
+                        pixels[index++] = lut[data[i] + 32768];
+                    }
+                } else {
+                    for (int i = rowStart; i < rowStart + width; i++) {
+                        pixels[index++] = (byte) curve.map(data[i] + 32768);
+                    }
+                }
+            }
+        });
+        return image;
+    }
+
+    /**
+     * Converts an 8-bit grayscale image from this renderer into a {@code TYPE_INT_RGB} image, mapping
+     * each gray level through {@code palette}, 256 RGB values. Overlays can then be drawn on the
+     * result.
+     */
+    public static BufferedImage toRgbImage(BufferedImage grayImage, int[] palette) {
+        if (grayImage.getType() != BufferedImage.TYPE_BYTE_GRAY || palette.length != 256) {
+            throw new IllegalArgumentException("Expected an 8-bit gray image and a 256-entry palette");
+        }
+        int width = grayImage.getWidth();
+        int height = grayImage.getHeight();
+        byte[] gray = ((DataBufferByte) grayImage.getRaster().getDataBuffer()).getData();
+        BufferedImage rgbImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] rgb = ((DataBufferInt) rgbImage.getRaster().getDataBuffer()).getData();
+        RowBands.forEach(height, width, (rowStart, rowEnd) -> {
+            for (int i = rowStart * width; i < rowEnd * width; i++) {
+                rgb[i] = palette[gray[i] & 0xFF];
+            }
+        });
+        return rgbImage;
+    }
+
+    /**
+     * Returns the palette that shows each gray level as the same level in R, G and B.
+     */
+    public static int[] grayPalette() {
+        int[] palette = new int[256];
+        for (int level = 0; level < palette.length; level++) {
+            palette[level] = (level << 16) | (level << 8) | level;
+        }
+        return palette;
+    }
+
+    /**
+     * Returns a table the row bands may read concurrently. The per-thread table is copied when the
+     * bands run on the pool, since a waiting pool thread may render another frame into it meanwhile.
+     */
+    private static byte[] shareableLut(byte[] lut, int height, int width) {
+        return lut != null && RowBands.runsInParallel(height, width) ? lut.clone() : lut;
+    }
+
+    /**
+     * Original three-pass renderer (sum, variance and maximum, then per-pixel mapping through
+     * {@code setSample}). Kept as the reference for parity tests and the stretch benchmark.
+     */
+    static BufferedImage createDisplayImageThreePass(short[][] imageData,
+                                                     double blackSigma,
+                                                     double whiteSigma) {
+        int height = imageData.length;
+        int width = imageData[0].length;
+
         BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
         WritableRaster raster = image.getRaster();
 
@@ -59,51 +220,117 @@ public final class DisplayImageRenderer {
                 sumSqDiff += (diff * diff);
             }
         }
-        double variance = sumSqDiff / (width * height);
-        double sigma = Math.sqrt(variance);
-
-        double blackPoint = mean - (blackSigma * sigma);
-        double whitePoint = mean + (whiteSigma * sigma);
+        double sigma = Math.sqrt(sumSqDiff / (width * height));
+        StretchCurve curve = new StretchCurve(mean, sigma, actualMax, blackSigma, whiteSigma);
 
-        if (blackPoint < 0) {
-            blackPoint = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                raster.setSample(x, y, 0, curve.map(imageData[y][x] + 32768));
+            }
         }
-        if (whitePoint > actualMax) {
-            whitePoint = actualMax;
+
+        return image;
+    }
+
+    /**
+     * Sum, sum of squares and maximum of unsigned samples.
+     */
+    private static final class Moments {
+        private final long sum;
+        private final long sumSq;
+        private final int max;
+
+        private Moments(long sum, long sumSq, int max) {
+            this.sum = sum;
+            this.sumSq = sumSq;
+            this.max = max;
         }
 
-        double range = whitePoint - blackPoint;
-        if (range <= 0) {
-            range = 1.0;
+        static Moments merge(Moments lower, Moments upper) {
+            return new Moments(lower.sum + upper.sum, lower.sumSq + upper.sumSq, Math.max(lower.max, upper.max));
         }
+    }
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int val = imageData[y][x] + 32768;
+    /**
+     * Square-root stretch between {@code mean - blackSigma * sigma} and
+     * {@code mean + whiteSigma * sigma}, clipped to {@code [0, max]}.
+     */
+    private static final class StretchCurve {
+        private final double blackPoint;
+        private final double range;
 
-                double adjustedVal = val - blackPoint;
-                if (adjustedVal < 0) {
-                    adjustedVal = 0;
-                }
-                if (adjustedVal > range) {
-                    adjustedVal = range;
-                }
+        private StretchCurve(double mean, double sigma, int actualMax, double blackSigma, double whiteSigma) {
+            double black = mean - (blackSigma * sigma);
+            if (black < 0) {
+                black = 0;
+            }
+            double whitePoint = mean + (whiteSigma * sigma);
+            if (whitePoint > actualMax) {
+                whitePoint = actualMax;
+            }
 
-                double normalized = adjustedVal / range;
-                double stretched = Math.sqrt(normalized);
-                int displayValue = (int) (stretched * 255.0);
+            double span = whitePoint - black;
+            if (span <= 0) {
+                span = 1.0;
+            }
+            this.blackPoint = black;
+            this.range = span;
+        }
 
-                if (displayValue > 255) {
-                    displayValue = 255;
-                }
-                if (displayValue < 0) {
-                    displayValue = 0;
-                }
+        static StretchCurve fromMoments(long sum,
+                                        long sumSq,
+                                        int actualMax,
+                                        long pixelCount,
+                                        double blackSigma,
+                                        double whiteSigma) {
+            double mean = (double) sum / pixelCount;
+            double variance = ((double) sumSq - (double) sum * mean) / pixelCount;
+            double sigma = Math.sqrt(Math.max(0.0, variance));
+            return new StretchCurve(mean, sigma, actualMax, blackSigma, whiteSigma);
+        }
 
-                raster.setSample(x, y, 0, displayValue);
+        int map(int val) {
+            double adjustedVal = val - blackPoint;
+            if (adjustedVal < 0) {
+                adjustedVal = 0;
             }
+            if (adjustedVal > range) {
+                adjustedVal = range;
+            }
+
+            double normalized = adjustedVal / range;
+            double stretched = Math.sqrt(normalized);
+            int displayValue = (int) (stretched * 255.0);
+
+            if (displayValue > 255) {
+                displayValue = 255;
+            }
+            if (displayValue < 0) {
+                displayValue = 0;
+            }
+            return displayValue;
         }
 
-        return image;
+        /**
+         * Fills this thread's lookup table for the curve, or returns {@code null} when evaluating
+         * the curve per pixel is cheaper than rebuilding the table's ramp.
+         */
+        byte[] prepareLut(long pixelCount) {
+            // Samples at or below the black point map to 0 and samples above the white point to 255;
+            // one guard entry on each side absorbs floating-point rounding at the boundaries.
+            int rampStart = (int) Math.max(0L, Math.min(LUT_SIZE - 1L, (long) Math.floor(blackPoint) - 1L));
+            int rampEnd = (int) Math.max(0L, Math.min(LUT_SIZE - 1L, (long) Math.ceil(blackPoint + range) + 1L));
+            if (pixelCount < rampEnd - rampStart + 1) {
+                return null;
+            }
+
+            byte[] lut = STRETCH_LUT.get();
+            Arrays.fill(lut, 0, rampStart, (byte) 0);
+            for (int val = rampStart; val <= rampEnd; val++) {
+                lut[val] = (byte) map(val);
+            }
+            Arrays.fill(lut, rampEnd + 1, LUT_SIZE, (byte) 255);
+            return lut;
+        }
     }
 }
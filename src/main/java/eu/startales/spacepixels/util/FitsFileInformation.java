@@ -10,46 +10,22 @@
 package eu.startales.spacepixels.util;
 
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Mutable metadata container for one imported FITS file, including basic image dimensions,
  * monochrome/color state, raw header cards, and normalized observation timestamps used by the
  * detection pipeline and report export.
+ *
+ * <p>Derived values are served from an immutable {@link FrameMetadata} that is parsed once and
+ * rebuilt only after the header or geometry changes.</p>
  */
 public class FitsFileInformation {
     private static final DateTimeFormatter PIPELINE_TIMESTAMP_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS 'UTC'").withZone(ZoneOffset.UTC);
-    private static final Pattern COMBINED_DATE_TIME_PATTERN = Pattern.compile(
-            "^(\\d{4}-\\d{2}-\\d{2})[T ](\\d{2})[:._-](\\d{2})[:._-](\\d{2})([.,]\\d+)?(Z|[+-]\\d{2}:?\\d{2})?$");
-    private static final Pattern COMBINED_COMPACT_TIME_PATTERN = Pattern.compile(
-            "^(\\d{4}-\\d{2}-\\d{2})[T ](\\d{2})(\\d{2})(\\d{2})([.,]\\d+)?(Z|[+-]\\d{2}:?\\d{2})?$");
-
-    private static final class ObservationTimestampParseResult {
-        private final long timestampMillis;
-        private final String normalizedInput;
-        private final String strategy;
-        private final String failureReason;
-
-        private ObservationTimestampParseResult(long timestampMillis,
-                                               String normalizedInput,
-                                               String strategy,
-                                               String failureReason) {
-            this.timestampMillis = timestampMillis;
-            this.normalizedInput = normalizedInput;
-            this.strategy = strategy;
-            this.failureReason = failureReason;
-        }
-    }
 
     private String filePath;
     private String fileName;
@@ -57,7 +33,8 @@ public class FitsFileInformation {
     private int sizeWidth;
     private int sizeHeight;
 
-    private final Map<String, String> fitsHeader = new HashMap<String, String>();
+    private final Map<String, String> fitsHeader = new FitsHeaderMap(this::invalidateMetadata);
+    private volatile FrameMetadata metadata;
 
 
     public String getFilePath() {
@@ -74,6 +51,7 @@ public class FitsFileInformation {
 
     public void setMonochrome(boolean monochrome) {
         this.monochrome = monochrome;
+        invalidateMetadata();
     }
 
     public int getSizeWidth() {
@@ -82,6 +60,7 @@ public class FitsFileInformation {
 
     public void setSizeWidth(int sizeWidth) {
         this.sizeWidth = sizeWidth;
+        invalidateMetadata();
     }
 
     public int getSizeHeight() {
@@ -90,6 +69,7 @@ public class FitsFileInformation {
 
     public void setSizeHeight(int sizeHeight) {
         this.sizeHeight = sizeHeight;
+        invalidateMetadata();
     }
 
 
@@ -117,24 +97,40 @@ public class FitsFileInformation {
         this.fileName = fileName;
     }
 
+    /**
+     * Returns the live header card map. Keys and values are interned, and any change invalidates
+     * the cached {@link #getMetadata() metadata}.
+     */
     public Map<String, String> getFitsHeader() {
         return fitsHeader;
     }
 
+    /**
+     * Returns the parsed metadata of this frame, parsing the header on first use.
+     */
+    public FrameMetadata getMetadata() {
+        FrameMetadata current = metadata;
+        if (current == null) {
+            current = FrameMetadata.fromHeader(fitsHeader, sizeWidth, sizeHeight, monochrome);
+            metadata = current;
+        }
+        return current;
+    }
+
     // --- NEW: Helper methods to extract display information from the FITS header map ---
 
     public String getRawObservationDateHeader() {
-        return sanitizeHeaderValue(fitsHeader.get("DATE-OBS"));
+        return FrameMetadata.sanitizeHeaderValue(fitsHeader.get("DATE-OBS"));
     }
 
     public String getRawObservationTimeHeader() {
-        return sanitizeHeaderValue(fitsHeader.get("TIME-OBS"));
+        return FrameMetadata.sanitizeHeaderValue(fitsHeader.get("TIME-OBS"));
     }
 
     public String getObservationDate() {
-        ObservationTimestampParseResult parseResult = parseObservationTimestamp();
-        if (parseResult.timestampMillis > 0L) {
-            return formatPipelineTimestamp(parseResult.timestampMillis);
+        long timestampMillis = getObservationTimestamp();
+        if (timestampMillis > 0L) {
+            return formatPipelineTimestamp(timestampMillis);
         }
 
         String rawDisplay = getRawObservationDisplay();
@@ -146,7 +142,7 @@ public class FitsFileInformation {
      * @return Epoch milliseconds, or -1 if the date is missing or malformed.
      */
     public long getObservationTimestamp() {
-        return parseObservationTimestamp().timestampMillis;
+        return getMetadata().getObservationTimestampMillis();
     }
 
     public boolean hasDisplayableObservationDateWithoutUsableTimestamp() {
@@ -154,43 +150,39 @@ public class FitsFileInformation {
     }
 
     public String getObservationTimestampDiagnostics() {
-        ObservationTimestampParseResult parseResult = parseObservationTimestamp();
+        FrameMetadata parsed = getMetadata();
+        long timestampMillis = parsed.getObservationTimestampMillis();
         StringBuilder sb = new StringBuilder();
         sb.append("rawDATE-OBS='").append(valueOrPlaceholder(getRawObservationDateHeader())).append("'");
         sb.append(", rawTIME-OBS='").append(valueOrPlaceholder(getRawObservationTimeHeader())).append("'");
         sb.append(", rawDisplay='").append(valueOrPlaceholder(getRawObservationDisplay())).append("'");
         sb.append(", guiDisplay='").append(valueOrPlaceholder(getObservationDate())).append("'");
-        sb.append(", parseStatus=").append(parseResult.timestampMillis > 0L ? "OK" : "FAILED");
-        if (parseResult.strategy != null) {
-            sb.append(", strategy='").append(parseResult.strategy).append("'");
+        sb.append(", parseStatus=").append(timestampMillis > 0L ? "OK" : "FAILED");
+        if (parsed.getTimestampStrategy() != null) {
+            sb.append(", strategy='").append(parsed.getTimestampStrategy()).append("'");
         }
-        if (parseResult.normalizedInput != null) {
-            sb.append(", normalized='").append(parseResult.normalizedInput).append("'");
+        if (parsed.getNormalizedTimestampInput() != null) {
+            sb.append(", normalized='").append(parsed.getNormalizedTimestampInput()).append("'");
         }
-        if (parseResult.timestampMillis > 0L) {
-            sb.append(", timestampMillis=").append(parseResult.timestampMillis);
-            sb.append(", timestampUtc='").append(formatPipelineTimestamp(parseResult.timestampMillis)).append("'");
+        if (timestampMillis > 0L) {
+            sb.append(", timestampMillis=").append(timestampMillis);
+            sb.append(", timestampUtc='").append(formatPipelineTimestamp(timestampMillis)).append("'");
         }
-        if (parseResult.failureReason != null) {
-            sb.append(", reason='").append(parseResult.failureReason).append("'");
+        if (parsed.getTimestampFailureReason() != null) {
+            sb.append(", reason='").append(parsed.getTimestampFailureReason()).append("'");
         }
         return sb.toString();
     }
 
     public String getExposure() {
-        String exp = fitsHeader.get("EXPTIME");
-        if (exp == null) exp = fitsHeader.get("EXPOSURE"); // Fallback for older FITS standard
-        
-        if (exp != null) {
-            exp = exp.replace("'", "").trim();
-            try {
-                double val = Double.parseDouble(exp);
-                return String.format(java.util.Locale.US, "%.2f s", val);
-            } catch (NumberFormatException e) {
-                return exp + " s";
-            }
+        FrameMetadata parsed = getMetadata();
+        if (parsed.getExposureText() == null) {
+            return "N/A";
         }
-        return "N/A";
+        if (Double.isNaN(parsed.getExposureSeconds())) {
+            return parsed.getExposureText() + " s";
+        }
+        return String.format(Locale.US, "%.2f s", parsed.getExposureSeconds());
     }
 
     /**
@@ -198,39 +190,25 @@ public class FitsFileInformation {
      * @return Exposure time in milliseconds, or -1 if missing.
      */
     public long getExposureDurationMillis() {
-        String exp = fitsHeader.get("EXPTIME");
-        if (exp == null) exp = fitsHeader.get("EXPOSURE"); // Fallback for older FITS standard
-        
-        if (exp != null) {
-            exp = exp.replace("'", "").trim();
-            try {
-                double val = Double.parseDouble(exp);
-                return (long) (val * 1000.0);
-            } catch (NumberFormatException e) {
-                return -1;
-            }
-        }
-        return -1;
+        return getMetadata().getExposureMillis();
     }
 
     public String getLocation() {
-        String lat = firstCoordinateHeader("SITELAT", "OBSGEO-B", "LAT-OBS");
-        String lon = firstCoordinateHeader("SITELONG", "SITELON", "OBSGEO-L", "LONG-OBS", "LON-OBS");
-        
-        if (lat != null && lon != null) {
-            return lat + " / " + lon;
+        FrameMetadata parsed = getMetadata();
+        if (parsed.getSiteLatitude() != null && parsed.getSiteLongitude() != null) {
+            return parsed.getSiteLatitude() + " / " + parsed.getSiteLongitude();
         }
-        
-        String obs = sanitizeHeaderValue(fitsHeader.get("OBSERVAT"));
-        if (obs != null) {
-            return obs;
+
+        if (parsed.getObservatory() != null) {
+            return parsed.getObservatory();
         }
         return "N/A";
     }
 
     public String getGoogleEarthUrl() {
-        String latitude = firstCoordinateHeader("SITELAT", "OBSGEO-B", "LAT-OBS");
-        String longitude = firstCoordinateHeader("SITELONG", "SITELON", "OBSGEO-L", "LONG-OBS", "LON-OBS");
+        FrameMetadata parsed = getMetadata();
+        String latitude = parsed.getSiteLatitude();
+        String longitude = parsed.getSiteLongitude();
         if (latitude == null || longitude == null) {
             return null;
         }
@@ -247,8 +225,7 @@ public class FitsFileInformation {
     }
 
     public boolean isWcsSolved() {
-        // A FITS file is widely considered Plate Solved if it contains standard WCS coordinate mappings
-        return fitsHeader.containsKey("CRVAL1") && fitsHeader.containsKey("CTYPE1");
+        return getMetadata().isWcsSolved();
     }
 
     @Override
@@ -257,6 +234,10 @@ public class FitsFileInformation {
                 + ", sizeHeight=" + sizeHeight + ", fitsHeader=" + fitsHeader + "]";
     }
 
+    private void invalidateMetadata() {
+        metadata = null;
+    }
+
     private String getRawObservationDisplay() {
         String dateObs = getRawObservationDateHeader();
         String timeObs = getRawObservationTimeHeader();
@@ -273,151 +254,8 @@ public class FitsFileInformation {
         return "N/A";
     }
 
-    private String firstCoordinateHeader(String... keys) {
-        if (keys == null) {
-            return null;
-        }
-        for (String key : keys) {
-            String value = sanitizeHeaderValue(fitsHeader.get(key));
-            if (value != null && !value.isBlank()) {
-                return value;
-            }
-        }
-        return null;
-    }
-
-    private ObservationTimestampParseResult parseObservationTimestamp() {
-        String dateObs = getRawObservationDateHeader();
-        if (dateObs == null || dateObs.isEmpty()) {
-            return new ObservationTimestampParseResult(-1L, null, null, "DATE-OBS missing");
-        }
-
-        if (dateObs.contains("T")) {
-            return parseCombinedDateTime(dateObs, "DATE-OBS as combined date/time");
-        }
-
-        String timeObs = getRawObservationTimeHeader();
-        if (timeObs != null && !timeObs.isEmpty()) {
-            return parseCombinedDateTime(dateObs + "T" + timeObs, "DATE-OBS + TIME-OBS as combined date/time");
-        }
-
-        try {
-            long timestampMillis = LocalDate.parse(dateObs, DateTimeFormatter.ISO_LOCAL_DATE)
-                    .atStartOfDay(ZoneOffset.UTC)
-                    .toInstant()
-                    .toEpochMilli();
-            return new ObservationTimestampParseResult(timestampMillis, dateObs, "DATE-OBS as ISO_LOCAL_DATE", null);
-        } catch (Exception e) {
-            return new ObservationTimestampParseResult(-1L, dateObs, "DATE-OBS as ISO_LOCAL_DATE", e.getMessage());
-        }
-    }
-
-    private ObservationTimestampParseResult parseCombinedDateTime(String candidateInput, String strategy) {
-        String normalizedInput = normalizeCombinedDateTime(candidateInput);
-        if (normalizedInput == null) {
-            return new ObservationTimestampParseResult(-1L, candidateInput, strategy, "Could not normalize date/time value");
-        }
-
-        try {
-            if (normalizedInput.endsWith("Z") || normalizedInput.matches(".*[+-]\\d{2}:\\d{2}$")) {
-                long timestampMillis = OffsetDateTime.parse(normalizedInput, DateTimeFormatter.ISO_OFFSET_DATE_TIME)
-                        .toInstant()
-                        .toEpochMilli();
-                return new ObservationTimestampParseResult(timestampMillis, normalizedInput, strategy + " via ISO_OFFSET_DATE_TIME", null);
-            }
-
-            long timestampMillis = LocalDateTime.parse(normalizedInput, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-                    .atZone(ZoneOffset.UTC)
-                    .toInstant()
-                    .toEpochMilli();
-            return new ObservationTimestampParseResult(timestampMillis, normalizedInput, strategy + " via ISO_LOCAL_DATE_TIME", null);
-        } catch (Exception e) {
-            return new ObservationTimestampParseResult(-1L, normalizedInput, strategy, e.getMessage());
-        }
-    }
-
-    private static String normalizeCombinedDateTime(String candidateInput) {
-        String sanitized = sanitizeHeaderValue(candidateInput);
-        if (sanitized == null) {
-            return null;
-        }
-
-        Matcher dottedMatcher = COMBINED_DATE_TIME_PATTERN.matcher(sanitized);
-        if (dottedMatcher.matches()) {
-            return buildNormalizedDateTime(
-                    dottedMatcher.group(1),
-                    dottedMatcher.group(2),
-                    dottedMatcher.group(3),
-                    dottedMatcher.group(4),
-                    dottedMatcher.group(5),
-                    dottedMatcher.group(6));
-        }
-
-        Matcher compactMatcher = COMBINED_COMPACT_TIME_PATTERN.matcher(sanitized);
-        if (compactMatcher.matches()) {
-            return buildNormalizedDateTime(
-                    compactMatcher.group(1),
-                    compactMatcher.group(2),
-                    compactMatcher.group(3),
-                    compactMatcher.group(4),
-                    compactMatcher.group(5),
-                    compactMatcher.group(6));
-        }
-
-        if (sanitized.matches("^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}([.,]\\d+)?(Z|[+-]\\d{2}:?\\d{2})?$")) {
-            sanitized = sanitized.replaceFirst(" ", "T");
-        }
-
-        return sanitized.replace(',', '.');
-    }
-
-    private static String buildNormalizedDateTime(String datePart,
-                                                  String hour,
-                                                  String minute,
-                                                  String second,
-                                                  String fraction,
-                                                  String zone) {
-        StringBuilder normalized = new StringBuilder();
-        normalized.append(datePart)
-                .append('T')
-                .append(hour)
-                .append(':')
-                .append(minute)
-                .append(':')
-                .append(second);
-
-        if (fraction != null && !fraction.isEmpty()) {
-            normalized.append(fraction.replace(',', '.'));
-        }
-        if (zone != null && !zone.isEmpty()) {
-            normalized.append(normalizeZoneSuffix(zone));
-        }
-        return normalized.toString();
-    }
-
-    private static String normalizeZoneSuffix(String zone) {
-        if (zone == null || zone.isEmpty() || "Z".equals(zone)) {
-            return zone;
-        }
-        if (zone.matches("[+-]\\d{2}:\\d{2}")) {
-            return zone;
-        }
-        if (zone.matches("[+-]\\d{4}")) {
-            return zone.substring(0, 3) + ":" + zone.substring(3);
-        }
-        return zone;
-    }
-
-    private static String sanitizeHeaderValue(String value) {
-        if (value == null) {
-            return null;
-        }
-        String sanitized = value.replace("'", "").trim();
-        return sanitized.isEmpty() ? null : sanitized;
-    }
-
     private static String sanitizeCoordinateSearchValue(String value) {
-        String sanitized = sanitizeHeaderValue(value);
+        String sanitized = FrameMetadata.sanitizeHeaderValue(value);
         if (sanitized == null) {
             return "";
         }
@@ -0,0 +1,359 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import nom.tam.fits.BasicHDU;
+import nom.tam.fits.Fits;
+import nom.tam.fits.FitsException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fast reader for the uncompressed 16-bit monochrome FITS frames consumed by the detection
+ * pipelines.
+ *
+ * <p>Instead of building a full nom-tam {@code Header} and buffering the file, the reader scans the
+ * raw 2880-byte header blocks for the handful of structural cards it needs, memory-maps the data
+ * unit, and decodes the big-endian samples straight into the destination rows. The returned values
+ * are the raw stored samples, exactly as {@code BasicHDU.getKernel()} would expose them. Anything
+ * outside that fast path (compressed HDUs, tables, other BITPIX values, long-string or HIERARCH
+ * headers) falls back to nom-tam.</p>
+ */
+public final class FitsFrameReader {
+
+    private static final int BLOCK_SIZE = 2880;
+    private static final int CARD_SIZE = 80;
+    private static final int CARDS_PER_BLOCK = BLOCK_SIZE / CARD_SIZE;
+    private static final int MAX_HEADER_BLOCKS = 4096;
+
+    /**
+     * Structural description of the first image HDU found by the raw header scan.
+     */
+    static final class ImageLayout {
+        final int bitpix;
+        /**
+         * Axis lengths in nom-tam order, i.e. slowest-varying axis first ({@code NAXISn ... NAXIS1}).
+         */
+        final int[] axes;
+        final long dataOffset;
+        final Map<String, String> headerCards;
+
+        private ImageLayout(int bitpix, int[] axes, long dataOffset, Map<String, String> headerCards) {
+            this.bitpix = bitpix;
+            this.axes = axes;
+            this.dataOffset = dataOffset;
+            this.headerCards = headerCards;
+        }
+    }
+
+    private FitsFrameReader() {
+    }
+
+    /**
+     * Reads a 16-bit monochrome frame as {@code short[height][width]}.
+     */
+    public static short[][] readMono16Frame(File file) throws IOException, FitsException {
+        return readMono16Frame(file, null);
+    }
+
+    /**
+     * Reads a 16-bit monochrome frame, decoding into {@code reuse} when its geometry matches the
+     * file. Callers that only inspect a frame transiently (e.g. quality scoring) can pass the
+     * previous result back in to avoid allocating a fresh set of rows per file.
+     */
+    public static short[][] readMono16Frame(File file, short[][] reuse) throws IOException, FitsException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ImageLayout layout = scanImageLayout(channel, false);
+            if (layout != null && layout.bitpix == 16 && layout.axes.length == 2) {
+                return decodeMono16(channel, layout, reuse);
+            }
+        }
+        return readMono16FrameWithNomTam(file);
+    }
+
+    /**
+     * Scans the file's headers and returns the first image HDU layout together with all of its
+     * header card values, or {@code null} when the file needs the full nom-tam parser.
+     */
+    static ImageLayout readImageLayout(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return scanImageLayout(channel, true);
+        }
+    }
+
+    private static short[][] readMono16FrameWithNomTam(File file) throws IOException, FitsException {
+        try (Fits fitsFile = new Fits(file)) {
+            BasicHDU<?> hdu = ImageProcessing.getImageHDU(fitsFile);
+            Object kernel = hdu.getKernel();
+            if (!(kernel instanceof short[][])) {
+                throw new IOException("Cannot process: Expected short[][] but found "
+                        + (kernel == null ? "no image data" : kernel.getClass()) + " in file " + file.getName());
+            }
+            return (short[][]) kernel;
+        }
+    }
+
+    private static short[][] decodeMono16(FileChannel channel, ImageLayout layout, short[][] reuse) throws IOException {
+        int height = layout.axes[0];
+        int width = layout.axes[1];
+        ShortBuffer samples = mapSamples(channel, layout, width, height);
+
+        short[][] rows = hasGeometry(reuse, width, height) ? reuse : new short[height][width];
+        for (int y = 0; y < height; y++) {
+            samples.get(rows[y], 0, width);
+        }
+        return rows;
+    }
+
+    private static ShortBuffer mapSamples(FileChannel channel, ImageLayout layout, int width, int height) throws IOException {
+        long dataBytes = 2L * width * height;
+        if (layout.dataOffset + dataBytes > channel.size()) {
+            throw new IOException("FITS data unit is truncated: expected " + dataBytes + " bytes at offset " + layout.dataOffset);
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, layout.dataOffset, dataBytes);
+        // ByteBuffer defaults to big-endian, which matches the FITS on-disk sample order.
+        return mapped.asShortBuffer();
+    }
+
+    private static boolean hasGeometry(short[][] frame, int width, int height) {
+        if (frame == null || frame.length != height) {
+            return false;
+        }
+        for (short[] row : frame) {
+            if (row == null || row.length != width) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks HDUs the same way {@link ImageProcessing#getImageHDU(Fits)} does and stops at the first
+     * one with at least two non-empty axes.
+     */
+    private static ImageLayout scanImageLayout(FileChannel channel, boolean collectCards) throws IOException {
+        long fileSize = channel.size();
+        long offset = 0L;
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        byte[] card = new byte[CARD_SIZE];
+        boolean primary = true;
+
+        while (offset + BLOCK_SIZE <= fileSize) {
+            Map<String, String> cards = collectCards ? new HashMap<>() : null;
+            int bitpix = 0;
+            int naxis = -1;
+            int[] naxisValues = new int[0];
+            long pcount = 0L;
+            long gcount = 1L;
+            boolean imageExtension = primary;
+            boolean ended = false;
+            int blocksRead = 0;
+
+            while (!ended) {
+                if (blocksRead >= MAX_HEADER_BLOCKS || offset + BLOCK_SIZE > fileSize) {
+                    return null;
+                }
+                block.clear();
+                readFully(channel, block, offset);
+                offset += BLOCK_SIZE;
+                blocksRead++;
+
+                for (int c = 0; c < CARDS_PER_BLOCK && !ended; c++) {
+                    block.position(c * CARD_SIZE);
+                    block.get(card);
+                    String key = keyword(card);
+
+                    if ("END".equals(key)) {
+                        ended = true;
+                        continue;
+                    }
+                    if ("CONTINUE".equals(key) || "HIERARCH".equals(key)) {
+                        // Long-string and HIERARCH conventions are left to nom-tam.
+                        return null;
+                    }
+
+                    boolean hasValue = card[8] == '=' && card[9] == ' ';
+                    String value = hasValue ? parseValue(card) : null;
+
+                    if (blocksRead == 1 && c == 0) {
+                        if (primary) {
+                            if (!"SIMPLE".equals(key)) {
+                                return null;
+                            }
+                        } else {
+                            if (!"XTENSION".equals(key)) {
+                                return null;
+                            }
+                            imageExtension = "IMAGE".equals(value);
+                        }
+                    }
+
+                    if ("BITPIX".equals(key)) {
+                        bitpix = parseInt(value);
+                    } else if ("NAXIS".equals(key)) {
+                        naxis = parseInt(value);
+                        if (naxis < 0 || naxis > 999) {
+                            return null;
+                        }
+                        naxisValues = new int[naxis];
+                    } else if (key.startsWith("NAXIS") && naxis > 0) {
+                        int axisNumber = parseAxisNumber(key);
+                        if (axisNumber >= 1 && axisNumber <= naxis) {
+                            naxisValues[axisNumber - 1] = parseInt(value);
+                        }
+                    } else if ("PCOUNT".equals(key)) {
+                        pcount = parseInt(value);
+                    } else if ("GCOUNT".equals(key)) {
+                        gcount = parseInt(value);
+                    } else if ("ZIMAGE".equals(key) && "T".equals(value)) {
+                        return null;
+                    }
+
+                    if (cards != null) {
+                        cards.put(key, value);
+                    }
+                }
+            }
+
+            if (bitpix == 0 || naxis < 0) {
+                return null;
+            }
+
+            boolean hasImageData = naxis >= 2;
+            for (int axisLength : naxisValues) {
+                if (axisLength <= 0) {
+                    hasImageData = false;
+                }
+            }
+            if (hasImageData) {
+                if (!imageExtension || pcount != 0L || gcount != 1L) {
+                    return null;
+                }
+                int[] axes = new int[naxis];
+                for (int i = 0; i < naxis; i++) {
+                    axes[i] = naxisValues[naxis - 1 - i];
+                }
+                return new ImageLayout(bitpix, axes, offset, cards);
+            }
+
+            long elements = naxis == 0 ? 0L : 1L;
+            for (int axisLength : naxisValues) {
+                elements *= Math.max(0, axisLength);
+            }
+            long dataBytes = (Math.abs(bitpix) / 8L) * gcount * (pcount + elements);
+            offset += ((dataBytes + BLOCK_SIZE - 1) / BLOCK_SIZE) * BLOCK_SIZE;
+            primary = false;
+        }
+        return null;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new IOException("Unexpected end of FITS file while reading header at offset " + position);
+            }
+            current += read;
+        }
+    }
+
+    private static String keyword(byte[] card) {
+        int end = 8;
+        while (end > 0 && card[end - 1] == ' ') {
+            end--;
+        }
+        return new String(card, 0, end, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Extracts a card value using the same conventions as nom-tam's {@code HeaderCard.getValue()}:
+     * quoted strings lose their quotes, doubled quotes and trailing blanks; other values are trimmed
+     * and stripped of any inline comment.
+     */
+    static String parseValue(byte[] card) {
+        int i = 10;
+        while (i < CARD_SIZE && card[i] == ' ') {
+            i++;
+        }
+        if (i >= CARD_SIZE) {
+            return "";
+        }
+
+        if (card[i] == '\'') {
+            StringBuilder sb = new StringBuilder();
+            i++;
+            while (i < CARD_SIZE) {
+                char ch = (char) (card[i] & 0xFF);
+                if (ch == '\'') {
+                    if (i + 1 < CARD_SIZE && card[i + 1] == '\'') {
+                        sb.append('\'');
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                sb.append(ch);
+                i++;
+            }
+            int end = sb.length();
+            while (end > 0 && sb.charAt(end - 1) == ' ') {
+                end--;
+            }
+            sb.setLength(end);
+            return sb.toString();
+        }
+
+        int start = i;
+        while (i < CARD_SIZE && card[i] != '/') {
+            i++;
+        }
+        int end = i;
+        while (end > start && card[end - 1] == ' ') {
+            end--;
+        }
+        return new String(card, start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    private static int parseAxisNumber(String key) {
+        String suffix = key.substring("NAXIS".length());
+        if (suffix.isEmpty()) {
+            return -1;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (!Character.isDigit(suffix.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(suffix);
+    }
+
+    private static int parseInt(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (int) Double.parseDouble(value);
+            } catch (NumberFormatException ignored) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Raw FITS header card map held by {@link FitsFileInformation}.
+ *
+ * <p>Keys and values are interned on insertion: the keyword vocabulary and most values (instrument,
+ * telescope, binning, BITPIX, ...) repeat across every frame of a session, so thousands of frames
+ * share one copy of each string. Every mutation, including through the entry views, notifies the
+ * owner so cached derived metadata can be dropped.</p>
+ */
+final class FitsHeaderMap extends AbstractMap<String, String> {
+
+    private final Map<String, String> cards = new HashMap<>();
+    private final Runnable onChange;
+    private Set<Map.Entry<String, String>> entrySet;
+
+    FitsHeaderMap(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    @Override
+    public int size() {
+        return cards.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return cards.containsKey(key);
+    }
+
+    @Override
+    public String get(Object key) {
+        return cards.get(key);
+    }
+
+    @Override
+    public String put(String key, String value) {
+        String previous = cards.put(intern(key), intern(value));
+        onChange.run();
+        return previous;
+    }
+
+    @Override
+    public String remove(Object key) {
+        boolean present = cards.containsKey(key);
+        String previous = cards.remove(key);
+        if (present) {
+            onChange.run();
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (!cards.isEmpty()) {
+            cards.clear();
+            onChange.run();
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, String>> {
+        @Override
+        public int size() {
+            return cards.size();
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            Iterator<Map.Entry<String, String>> delegate = cards.entrySet().iterator();
+            return new Iterator<Map.Entry<String, String>>() {
+                @Override
+                public boolean hasNext() {
+                    return delegate.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, String> next() {
+                    Map.Entry<String, String> card = delegate.next();
+                    return new AbstractMap.SimpleEntry<String, String>(card) {
+                        @Override
+                        public String setValue(String value) {
+                            super.setValue(value);
+                            String previous = card.setValue(intern(value));
+                            onChange.run();
+                            return previous;
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    delegate.remove();
+                    onChange.run();
+                }
+            };
+        }
+    }
+}
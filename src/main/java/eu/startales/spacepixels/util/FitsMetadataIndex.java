@@ -0,0 +1,258 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-directory sidecar that remembers the import metadata of every FITS file in a sequence folder,
+ * so re-importing an unchanged directory costs one {@code stat} per file instead of opening and
+ * parsing every header again.
+ *
+ * <p>Entries are keyed by file name and are only returned when the file's size and modification
+ * time (at the file system's full precision) still match the values recorded before the file was
+ * read. Any change, including a touch that keeps the size, invalidates the entry. The sidecar is
+ * rewritten atomically; a missing, unreadable or outdated sidecar simply behaves as an empty index,
+ * and failing to write it (e.g. a read-only folder) never fails an import.</p>
+ */
+final class FitsMetadataIndex {
+
+    static final String SIDECAR_FILENAME = ".spacepixels_metadata.idx";
+
+    private static final int MAGIC = 0x53505849; // "SPXI"
+    private static final int VERSION = 1;
+
+    /**
+     * Size and modification time of a file, captured before its metadata is read.
+     */
+    static final class FileStamp {
+        final String fileName;
+        final long size;
+        final long modifiedNanos;
+
+        FileStamp(String fileName, long size, long modifiedNanos) {
+            this.fileName = fileName;
+            this.size = size;
+            this.modifiedNanos = modifiedNanos;
+        }
+
+        boolean matches(FileStamp other) {
+            return other != null
+                    && fileName.equals(other.fileName)
+                    && size == other.size
+                    && modifiedNanos == other.modifiedNanos;
+        }
+    }
+
+    /**
+     * Indexed metadata for one file.
+     */
+    static final class Entry {
+        final FileStamp stamp;
+        final FitsFormatChecker.FitsFormat format;
+        final boolean monochrome;
+        final int width;
+        final int height;
+        final Map<String, String> header;
+
+        Entry(FileStamp stamp,
+              FitsFormatChecker.FitsFormat format,
+              boolean monochrome,
+              int width,
+              int height,
+              Map<String, String> header) {
+            this.stamp = stamp;
+            this.format = format;
+            this.monochrome = monochrome;
+            this.width = width;
+            this.height = height;
+            this.header = header;
+        }
+
+        /**
+         * Creates a fresh file-information object, so callers may modify it freely.
+         */
+        FitsFileInformation toFileInformation(File file) {
+            FitsFileInformation fileInfo = new FitsFileInformation(file.getAbsolutePath(), file.getName(), monochrome, width, height);
+            fileInfo.getFitsHeader().putAll(header);
+            return fileInfo;
+        }
+    }
+
+    private final File sidecarFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    private FitsMetadataIndex(File sidecarFile) {
+        this.sidecarFile = sidecarFile;
+    }
+
+    /**
+     * Loads the sidecar of {@code directory}, or returns an empty index if there is none or it
+     * cannot be read.
+     */
+    static FitsMetadataIndex load(File directory) {
+        FitsMetadataIndex index = new FitsMetadataIndex(new File(directory, SIDECAR_FILENAME));
+        if (!index.sidecarFile.isFile()) {
+            return index;
+        }
+        try (InputStream in = Files.newInputStream(index.sidecarFile.toPath())) {
+            index.read(new DataInputStream(new BufferedInputStream(in)));
+        } catch (IOException | RuntimeException e) {
+            index.entries.clear();
+            index.dirty = true;
+        }
+        return index;
+    }
+
+    /**
+     * Captures the current size and modification time of {@code file}.
+     */
+    static FileStamp stat(File file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        return new FileStamp(file.getName(), attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Returns the entry recorded for the stamped file, or {@code null} if there is none or the file
+     * changed since it was indexed.
+     */
+    Entry get(FileStamp stamp) {
+        Entry entry = entries.get(stamp.fileName);
+        return entry != null && entry.stamp.matches(stamp) ? entry : null;
+    }
+
+    /**
+     * Records metadata read from a file. {@code stamp} must have been captured before the read.
+     */
+    void put(FileStamp stamp, FitsFormatChecker.FitsFormat format, FitsFileInformation fileInfo) {
+        entries.put(stamp.fileName, new Entry(
+                stamp,
+                format,
+                fileInfo.isMonochrome(),
+                fileInfo.getSizeWidth(),
+                fileInfo.getSizeHeight(),
+                new HashMap<>(fileInfo.getFitsHeader())));
+        dirty = true;
+    }
+
+    /**
+     * Drops entries for files that are no longer part of the directory listing.
+     */
+    void retainOnly(Collection<String> fileNames) {
+        Set<String> keep = new HashSet<>(fileNames);
+        if (entries.keySet().retainAll(keep)) {
+            dirty = true;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    File getSidecarFile() {
+        return sidecarFile;
+    }
+
+    /**
+     * Writes the sidecar if anything changed since it was loaded. The new content is written to a
+     * temporary file first and moved into place, so readers never observe a partial index.
+     */
+    void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        Path target = sidecarFile.toPath();
+        Path temporary = Files.createTempFile(target.getParent(), SIDECAR_FILENAME, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+                write(data);
+                data.flush();
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            dirty = true;
+            return;
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            FileStamp stamp = new FileStamp(in.readUTF(), in.readLong(), in.readLong());
+            FitsFormatChecker.FitsFormat format = FitsFormatChecker.FitsFormat.valueOf(in.readUTF());
+            boolean monochrome = in.readBoolean();
+            int width = in.readInt();
+            int height = in.readInt();
+            int headerCount = in.readInt();
+            Map<String, String> header = new HashMap<>(Math.max(16, headerCount * 2));
+            for (int card = 0; card < headerCount; card++) {
+                String key = in.readBoolean() ? in.readUTF() : null;
+                String value = in.readBoolean() ? in.readUTF() : null;
+                header.put(key, value);
+            }
+            entries.put(stamp.fileName, new Entry(stamp, format, monochrome, width, height, header));
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        Map<String, Entry> snapshot = new HashMap<>(entries);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(snapshot.size());
+        for (Entry entry : snapshot.values()) {
+            out.writeUTF(entry.stamp.fileName);
+            out.writeLong(entry.stamp.size);
+            out.writeLong(entry.stamp.modifiedNanos);
+            out.writeUTF(entry.format.name());
+            out.writeBoolean(entry.monochrome);
+            out.writeInt(entry.width);
+            out.writeInt(entry.height);
+            out.writeInt(entry.header.size());
+            for (Map.Entry<String, String> card : entry.header.entrySet()) {
+                writeNullableUTF(out, card.getKey());
+                writeNullableUTF(out, card.getValue());
+            }
+        }
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import nom.tam.util.Cursor;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Converts FITS pixel kernels into SpacePixels' normalized 16-bit formats.
@@ -54,6 +55,27 @@ final class FitsPixelConverter {
         return updatedFits;
     }
 
+    /**
+     * Normalizes any supported 2D or 3D kernel to 16-bit mono storage: 16-bit mono is returned as
+     * is, 32-bit and floating-point data is rescaled, and colour is reduced to its luminance.
+     */
+    static short[][] convertToMono16(Object kernel, String sourceName) throws IOException, FitsException {
+        if (kernel instanceof short[][]) {
+            return (short[][]) kernel;
+        }
+        if (kernel instanceof short[][][]) {
+            return convertColorKernelToMono(kernel);
+        }
+        if (kernel instanceof float[][] || kernel instanceof int[][]) {
+            return standardizeTo16BitMono(kernel);
+        }
+        if (kernel instanceof float[][][] || kernel instanceof int[][][]) {
+            return extractLuminance(standardizeTo16BitColor(kernel));
+        }
+        throw new IOException("Unsupported FITS kernel type in " + sourceName + ": "
+                + (kernel == null ? "no image data" : kernel.getClass().getName()));
+    }
+
     static short[][] standardizeTo16BitMono(Object kernel) throws IOException {
         if (kernel instanceof float[][]) {
             float[][] floatData = (float[][]) kernel;
@@ -61,32 +83,33 @@ final class FitsPixelConverter {
             int width = floatData[0].length;
             short[][] shortData = new short[height][width];
 
-            float maxVal = -Float.MAX_VALUE;
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    if (floatData[y][x] > maxVal) {
-                        maxVal = floatData[y][x];
-                    }
+            PixelKernels kernels = PixelKernels.get();
+            float maxVal = RowBands.reduce(height, width, (rowStart, rowEnd) -> {
+                float bandMax = -Float.MAX_VALUE;
+                for (int y = rowStart; y < rowEnd; y++) {
+                    bandMax = kernels.max(floatData[y], width, bandMax);
                 }
-            }
+                return bandMax;
+            }, FitsPixelConverter::greater);
             float scaleFactor = (maxVal <= 10.0f && maxVal > 0.0f) ? 65535.0f : 1.0f;
 
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    shortData[y][x] = toUnsigned16Storage(floatData[y][x] * scaleFactor);
+            RowBands.forEach(height, width, (rowStart, rowEnd) -> {
+                for (int y = rowStart; y < rowEnd; y++) {
+                    kernels.toUnsigned16(floatData[y], scaleFactor, shortData[y], width);
                 }
-            }
+            });
             return shortData;
         } else if (kernel instanceof int[][]) {
             int[][] intData = (int[][]) kernel;
             int height = intData.length;
             int width = intData[0].length;
             short[][] shortData = new short[height][width];
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    shortData[y][x] = toUnsigned16Storage(intData[y][x]);
+            PixelKernels kernels = PixelKernels.get();
+            RowBands.forEach(height, width, (rowStart, rowEnd) -> {
+                for (int y = rowStart; y < rowEnd; y++) {
+                    kernels.toUnsigned16(intData[y], shortData[y], width);
                 }
-            }
+            });
             return shortData;
         }
         throw new IOException("Unsupported FITS format for Mono Standardization");
@@ -100,25 +123,23 @@ final class FitsPixelConverter {
             int width = floatData[0][0].length;
             short[][][] shortData = new short[depth][height][width];
 
-            float maxVal = -Float.MAX_VALUE;
-            for (int z = 0; z < depth; z++) {
-                for (int y = 0; y < height; y++) {
-                    for (int x = 0; x < width; x++) {
-                        if (floatData[z][y][x] > maxVal) {
-                            maxVal = floatData[z][y][x];
-                        }
-                    }
+            // Bands run over the rows of all planes, row r being row r % height of plane r / height.
+            PixelKernels kernels = PixelKernels.get();
+            float maxVal = RowBands.reduce(depth * height, width, (rowStart, rowEnd) -> {
+                float bandMax = -Float.MAX_VALUE;
+                for (int r = rowStart; r < rowEnd; r++) {
+                    bandMax = kernels.max(floatData[r / height][r % height], width, bandMax);
                 }
-            }
+                return bandMax;
+            }, FitsPixelConverter::greater);
             float scaleFactor = (maxVal <= 10.0f && maxVal > 0.0f) ? 65535.0f : 1.0f;
 
-            for (int z = 0; z < depth; z++) {
-                for (int y = 0; y < height; y++) {
-                    for (int x = 0; x < width; x++) {
-                        shortData[z][y][x] = toUnsigned16Storage(floatData[z][y][x] * scaleFactor);
-                    }
+            RowBands.forEach(depth * height, width, (rowStart, rowEnd) -> {
+                for (int r = rowStart; r < rowEnd; r++) {
+                    kernels.toUnsigned16(floatData[r / height][r % height], scaleFactor,
+                            shortData[r / height][r % height], width);
                 }
-            }
+            });
             return shortData;
         } else if (kernel instanceof int[][][]) {
             int[][][] intData = (int[][][]) kernel;
@@ -126,13 +147,12 @@ final class FitsPixelConverter {
             int height = intData[0].length;
             int width = intData[0][0].length;
             short[][][] shortData = new short[depth][height][width];
-            for (int z = 0; z < depth; z++) {
-                for (int y = 0; y < height; y++) {
-                    for (int x = 0; x < width; x++) {
-                        shortData[z][y][x] = toUnsigned16Storage(intData[z][y][x]);
-                    }
+            PixelKernels kernels = PixelKernels.get();
+            RowBands.forEach(depth * height, width, (rowStart, rowEnd) -> {
+                for (int r = rowStart; r < rowEnd; r++) {
+                    kernels.toUnsigned16(intData[r / height][r % height], shortData[r / height][r % height], width);
                 }
-            }
+            });
             return shortData;
         }
         throw new IOException("Unsupported FITS format for Color Standardization");
@@ -142,15 +162,13 @@ final class FitsPixelConverter {
         int height = color16[0].length;
         int width = color16[0][0].length;
         short[][] monoData = new short[height][width];
+        PixelKernels kernels = PixelKernels.get();
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int r = color16[0][y][x];
-                int g = color16[1][y][x];
-                int b = color16[2][y][x];
-                monoData[y][x] = (short) ((r + g + b) / 3);
+        RowBands.forEach(height, 3 * width, (rowStart, rowEnd) -> {
+            for (int y = rowStart; y < rowEnd; y++) {
+                kernels.luminance(color16[0][y], color16[1][y], color16[2][y], monoData[y], width);
             }
-        }
+        });
         return monoData;
     }
 
@@ -163,25 +181,23 @@ final class FitsPixelConverter {
                         + kernelData.getClass().getName());
     }
 
-    private static short toUnsigned16Storage(float value) {
-        float clamped = value;
-        if (clamped < 0) {
-            clamped = 0;
-        }
-        if (clamped > 65535) {
-            clamped = 65535;
-        }
-        return (short) (Math.round(clamped) - 32768);
+    /**
+     * Rewrites the structural cards of a header map so they describe the 16-bit mono frame the
+     * image is normalized to, as {@link #createFitsFromData(Object, Header)} would write them.
+     * Every other card is kept.
+     */
+    static void describeAsMono16(Map<String, String> header, int width, int height) {
+        header.remove("NAXIS3");
+        header.remove("ZIMAGE");
+        header.put("BITPIX", "16");
+        header.put("NAXIS", "2");
+        header.put("NAXIS1", String.valueOf(width));
+        header.put("NAXIS2", String.valueOf(height));
+        header.put("BZERO", "32768.0");
+        header.put("BSCALE", "1.0");
     }
 
-    private static short toUnsigned16Storage(int value) {
-        int clamped = value;
-        if (clamped < 0) {
-            clamped = 0;
-        }
-        if (clamped > 65535) {
-            clamped = 65535;
-        }
-        return (short) (clamped - 32768);
+    private static float greater(float a, float b) {
+        return a > b ? a : b;
     }
 }
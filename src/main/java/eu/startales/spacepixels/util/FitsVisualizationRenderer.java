@@ -14,12 +14,26 @@ import nom.tam.fits.FitsException;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Renders previews and applies stretch algorithms to FITS image kernels.
  */
 final class FitsVisualizationRenderer {
 
+    /**
+     * 8-bit display channel for each unsigned stretched value, matching the {@link Color} conversion
+     * the renderer used per pixel.
+     */
+    private static final int[] DISPLAY_CHANNEL = new int[StretchLookupTable.SIZE];
+
+    static {
+        for (int absValue = 0; absValue < DISPLAY_CHANNEL.length; absValue++) {
+            int clamped = Math.min(absValue, 2 * Short.MAX_VALUE);
+            DISPLAY_CHANNEL[absValue] = previewChannel(((float) clamped) / (2 * (float) Short.MAX_VALUE));
+        }
+    }
+
     public void stretchFitsImage(Fits fitsImage, int stretchFactor, int iterations, StretchAlgorithm algo)
             throws FitsException, IOException {
         BasicHDU<?> hdu = ImageProcessing.getImageHDU(fitsImage);
@@ -27,13 +41,15 @@ final class FitsVisualizationRenderer {
 
         if (kernelData instanceof short[][]) {
             short[][] data = (short[][]) kernelData;
-            short[][] stretchedData = (short[][]) stretchImageData(
-                    data, stretchFactor, iterations, data[0].length, data.length, algo);
-            for (int i = 0; i < data.length; i++) {
-                for (int j = 0; j < data[i].length; j++) {
-                    data[i][j] = stretchedData[i][j];
+            short[] table = StretchLookupTable.build(data, data[0].length, data.length, stretchFactor, iterations, algo);
+            RowBands.forEach(data.length, data[0].length, (rowStart, rowEnd) -> {
+                for (int i = rowStart; i < rowEnd; i++) {
+                    short[] row = data[i];
+                    for (int j = 0; j < row.length; j++) {
+                        row[j] = table[row[j] - Short.MIN_VALUE];
+                    }
                 }
-            }
+            });
 
         } else if (kernelData instanceof int[][]) {
             int[][] data = (int[][]) kernelData;
@@ -44,33 +60,43 @@ final class FitsVisualizationRenderer {
         } else if (kernelData instanceof short[][][]) {
             short[][][] data = (short[][][]) kernelData;
 
-            short[][] stretchedRedData = (short[][]) stretchImageData(
-                    data[0], stretchFactor, iterations, data[0][0].length, data[0].length, algo);
-            short[][] stretchedGreenData = (short[][]) stretchImageData(
-                    data[1], stretchFactor, iterations, data[1][0].length, data[1].length, algo);
-            short[][] stretchedBlueData = (short[][]) stretchImageData(
-                    data[2], stretchFactor, iterations, data[2][0].length, data[2].length, algo);
-
-            for (int i = 0; i < data[0].length; i++) {
-                for (int j = 0; j < data[0][i].length; j++) {
-                    if (algo.equals(StretchAlgorithm.EXTREME)) {
-                        short max = stretchedRedData[i][j];
-                        if (max < stretchedGreenData[i][j]) {
-                            max = stretchedGreenData[i][j];
-                        }
-                        if (max < stretchedBlueData[i][j]) {
-                            max = stretchedBlueData[i][j];
+            short[] redTable = StretchLookupTable.build(
+                    data[0], data[0][0].length, data[0].length, stretchFactor, iterations, algo);
+            short[] greenTable = StretchLookupTable.build(
+                    data[1], data[1][0].length, data[1].length, stretchFactor, iterations, algo);
+            short[] blueTable = StretchLookupTable.build(
+                    data[2], data[2][0].length, data[2].length, stretchFactor, iterations, algo);
+
+            // All three channels of a row are mapped together, so the bands cover R, G and B at once.
+            boolean extreme = algo.equals(StretchAlgorithm.EXTREME);
+            RowBands.forEach(data[0].length, 3 * data[0][0].length, (rowStart, rowEnd) -> {
+                for (int i = rowStart; i < rowEnd; i++) {
+                    short[] redRow = data[0][i];
+                    short[] greenRow = data[1][i];
+                    short[] blueRow = data[2][i];
+                    for (int j = 0; j < redRow.length; j++) {
+                        short red = redTable[redRow[j] - Short.MIN_VALUE];
+                        short green = greenTable[greenRow[j] - Short.MIN_VALUE];
+                        short blue = blueTable[blueRow[j] - Short.MIN_VALUE];
+                        if (extreme) {
+                            short max = red;
+                            if (max < green) {
+                                max = green;
+                            }
+                            if (max < blue) {
+                                max = blue;
+                            }
+                            red = max;
+                            green = max;
+                            blue = max;
                         }
-                        stretchedRedData[i][j] = max;
-                        stretchedGreenData[i][j] = max;
-                        stretchedBlueData[i][j] = max;
-                    }
 
-                    data[0][i][j] = stretchedRedData[i][j];
-                    data[1][i][j] = stretchedGreenData[i][j];
-                    data[2][i][j] = stretchedBlueData[i][j];
+                        redRow[j] = red;
+                        greenRow[j] = green;
+                        blueRow[j] = blue;
+                    }
                 }
-            }
+            });
         } else if (kernelData instanceof int[][][]) {
             int[][][] data = (int[][][]) kernelData;
         } else if (kernelData instanceof float[][][]) {
@@ -96,13 +122,18 @@ final class FitsVisualizationRenderer {
                 imageHeight = 350;
             }
 
-            for (int i = 0; i < imageHeight; i++) {
-                for (int j = 0; j < imageWidth; j++) {
-                    int convertedValue = data[i][j] + Short.MAX_VALUE;
-                    float intensity = ((float) convertedValue) / (2 * (float) Short.MAX_VALUE);
-                    ret.setRGB(j, i, new Color(intensity, intensity, intensity, 1.0f).getRGB());
+            int rowWidth = imageWidth;
+            RowBands.forEach(imageHeight, rowWidth, (rowStart, rowEnd) -> {
+                int[] row = new int[rowWidth];
+                for (int i = rowStart; i < rowEnd; i++) {
+                    for (int j = 0; j < rowWidth; j++) {
+                        int convertedValue = data[i][j] + Short.MAX_VALUE;
+                        int gray = previewChannel(((float) convertedValue) / (2 * (float) Short.MAX_VALUE));
+                        row[j] = opaqueRgb(gray, gray, gray);
+                    }
+                    ret.setRGB(0, i, rowWidth, 1, row, 0, rowWidth);
                 }
-            }
+            });
         } else if (kernelData instanceof int[][]) {
             int[][] data = (int[][]) kernelData;
         } else if (kernelData instanceof float[][]) {
@@ -120,20 +151,25 @@ final class FitsVisualizationRenderer {
                 imageHeight = 350;
             }
 
-            for (int i = 0; i < imageHeight; i++) {
-                for (int j = 0; j < imageWidth; j++) {
-                    int convertedValueR = data[0][i][j] + Short.MAX_VALUE + 1;
-                    float intensityR = ((float) convertedValueR) / (2 * (float) Short.MAX_VALUE);
+            int rowWidth = imageWidth;
+            RowBands.forEach(imageHeight, 3 * rowWidth, (rowStart, rowEnd) -> {
+                int[] row = new int[rowWidth];
+                for (int i = rowStart; i < rowEnd; i++) {
+                    for (int j = 0; j < rowWidth; j++) {
+                        int convertedValueR = data[0][i][j] + Short.MAX_VALUE + 1;
+                        float intensityR = ((float) convertedValueR) / (2 * (float) Short.MAX_VALUE);
 
-                    int convertedValueG = data[1][i][j] + Short.MAX_VALUE + 1;
-                    float intensityG = ((float) convertedValueG) / (2 * (float) Short.MAX_VALUE);
+                        int convertedValueG = data[1][i][j] + Short.MAX_VALUE + 1;
+                        float intensityG = ((float) convertedValueG) / (2 * (float) Short.MAX_VALUE);
 
-                    int convertedValueB = data[2][i][j] + Short.MAX_VALUE + 1;
-                    float intensityB = ((float) convertedValueB) / (2 * (float) Short.MAX_VALUE);
+                        int convertedValueB = data[2][i][j] + Short.MAX_VALUE + 1;
+                        float intensityB = ((float) convertedValueB) / (2 * (float) Short.MAX_VALUE);
 
-                    ret.setRGB(j, i, new Color(intensityR, intensityG, intensityB, 1.0f).getRGB());
+                        row[j] = opaqueRgb(previewChannel(intensityR), previewChannel(intensityG), previewChannel(intensityB));
+                    }
+                    ret.setRGB(0, i, rowWidth, 1, row, 0, rowWidth);
                 }
-            }
+            });
         } else if (kernelData instanceof int[][][]) {
             int[][][] data = (int[][][]) kernelData;
         } else if (kernelData instanceof float[][][]) {
@@ -144,12 +180,25 @@ final class FitsVisualizationRenderer {
         return ret;
     }
 
+    /**
+     * Converts a preview intensity to an 8-bit channel the way {@link Color#Color(float, float, float, float)}
+     * does, clamping the values just outside {@code [0, 1]} that the extreme storage values map to.
+     */
+    static int previewChannel(float intensity) {
+        float clamped = Math.max(0f, Math.min(1f, intensity));
+        return (int) (clamped * 255 + 0.5);
+    }
+
+    private static int opaqueRgb(int red, int green, int blue) {
+        return 0xFF000000 | (red << 16) | (green << 8) | blue;
+    }
+
     public BufferedImage getStretchedImagePreview(
             Object kernelData,
             int stretchFactor,
             int iterations,
             StretchAlgorithm algo) throws FitsException {
-        return getStretchedImage(kernelData, 350, 350, stretchFactor, iterations, algo);
+        return getStretchedImage(kernelData, 350, 350, stretchFactor, iterations, algo, null);
     }
 
     public BufferedImage getStretchedImageFullSize(
@@ -159,7 +208,100 @@ final class FitsVisualizationRenderer {
             int stretchFactor,
             int iterations,
             StretchAlgorithm algo) throws FitsException {
-        return getStretchedImage(kernelData, width, height, stretchFactor, iterations, algo);
+        return getStretchedImage(kernelData, width, height, stretchFactor, iterations, algo, null);
+    }
+
+    /**
+     * Renders a stretched image that fits within {@code maxWidth x maxHeight}. Larger images are
+     * first binned by the smallest integer factor that makes them fit, so the stretch runs on the
+     * viewport-sized data only. {@code reuse} is drawn into when its size matches the result.
+     */
+    public BufferedImage getStretchedImageForViewport(
+            Object kernelData,
+            int maxWidth,
+            int maxHeight,
+            int stretchFactor,
+            int iterations,
+            StretchAlgorithm algo,
+            BufferedImage reuse) throws FitsException {
+        Object displayData = kernelData;
+        if (kernelData instanceof short[][]) {
+            short[][] data = (short[][]) kernelData;
+            displayData = binForDisplay(data, displayBinFactor(data[0].length, data.length, maxWidth, maxHeight));
+        } else if (kernelData instanceof short[][][]) {
+            short[][][] data = (short[][][]) kernelData;
+            int factor = displayBinFactor(data[0][0].length, data[0].length, maxWidth, maxHeight);
+            short[][][] binned = new short[data.length][][];
+            for (int channel = 0; channel < data.length; channel++) {
+                binned[channel] = binForDisplay(data[channel], factor);
+            }
+            displayData = binned;
+        }
+
+        int width;
+        int height;
+        if (displayData instanceof short[][]) {
+            short[][] data = (short[][]) displayData;
+            width = data[0].length;
+            height = data.length;
+        } else if (displayData instanceof short[][][]) {
+            short[][][] data = (short[][][]) displayData;
+            width = data[0][0].length;
+            height = data[0].length;
+        } else {
+            throw new FitsException("Cannot understand file, it has a type=" + kernelData.getClass().getName());
+        }
+        return getStretchedImage(displayData, width, height, stretchFactor, iterations, algo, reuse);
+    }
+
+    /**
+     * Returns the smallest integer factor by which a {@code width x height} image has to be binned to
+     * fit within {@code maxWidth x maxHeight}; 1 when it already fits or no bound is given.
+     */
+    static int displayBinFactor(int width, int height, int maxWidth, int maxHeight) {
+        if (maxWidth <= 0 || maxHeight <= 0) {
+            return 1;
+        }
+        int horizontal = (width + maxWidth - 1) / maxWidth;
+        int vertical = (height + maxHeight - 1) / maxHeight;
+        return Math.max(1, Math.max(horizontal, vertical));
+    }
+
+    /**
+     * Averages {@code factor x factor} blocks of 16-bit storage values. Blocks at the right and bottom
+     * edges average the pixels they cover, so the result is {@code ceil(width / factor)} wide.
+     */
+    static short[][] binForDisplay(short[][] data, int factor) {
+        if (factor <= 1) {
+            return data;
+        }
+        int height = data.length;
+        int width = data[0].length;
+        int binnedHeight = (height + factor - 1) / factor;
+        int binnedWidth = (width + factor - 1) / factor;
+        short[][] binned = new short[binnedHeight][binnedWidth];
+
+        RowBands.forEach(binnedHeight, width * factor, (bandStart, bandEnd) -> {
+            long[] rowSums = new long[binnedWidth];
+            int[] rowCounts = new int[binnedWidth];
+            for (int by = bandStart; by < bandEnd; by++) {
+                Arrays.fill(rowSums, 0L);
+                Arrays.fill(rowCounts, 0);
+                int yEnd = Math.min(height, (by + 1) * factor);
+                for (int y = by * factor; y < yEnd; y++) {
+                    short[] row = data[y];
+                    for (int x = 0; x < width; x++) {
+                        int bx = x / factor;
+                        rowSums[bx] += row[x] - Short.MIN_VALUE;
+                        rowCounts[bx]++;
+                    }
+                }
+                for (int bx = 0; bx < binnedWidth; bx++) {
+                    binned[by][bx] = (short) (rowSums[bx] / rowCounts[bx] + Short.MIN_VALUE);
+                }
+            }
+        });
+        return binned;
     }
 
     private BufferedImage getStretchedImage(
@@ -168,8 +310,14 @@ final class FitsVisualizationRenderer {
             int height,
             int stretchFactor,
             int iterations,
-            StretchAlgorithm algo) throws FitsException {
-        BufferedImage ret = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            StretchAlgorithm algo,
+            BufferedImage reuse) throws FitsException {
+        BufferedImage ret = reuse != null
+                && reuse.getWidth() == width
+                && reuse.getHeight() == height
+                && reuse.getType() == BufferedImage.TYPE_INT_ARGB
+                ? reuse
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 
         if (kernelData instanceof short[][]) {
             short[][] data = (short[][]) kernelData;
@@ -184,19 +332,20 @@ final class FitsVisualizationRenderer {
                 imageHeight = height;
             }
 
-            short[][] stretchedData = (short[][]) stretchImageData(
-                    data, stretchFactor, iterations, imageWidth, imageHeight, algo);
-
-            for (int i = 0; i < imageHeight; i++) {
-                for (int j = 0; j < imageWidth; j++) {
-                    int absValue = stretchedData[i][j] + Short.MAX_VALUE + 1;
-                    if (absValue > 2 * Short.MAX_VALUE) {
-                        absValue = 2 * Short.MAX_VALUE;
+            // After the histogram, stretch and display conversion are one pass of table lookups.
+            short[] table = StretchLookupTable.build(data, imageWidth, imageHeight, stretchFactor, iterations, algo);
+            int rowWidth = imageWidth;
+            RowBands.forEach(imageHeight, rowWidth, (rowStart, rowEnd) -> {
+                int[] row = new int[rowWidth];
+                for (int i = rowStart; i < rowEnd; i++) {
+                    short[] source = data[i];
+                    for (int j = 0; j < rowWidth; j++) {
+                        int gray = DISPLAY_CHANNEL[table[source[j] - Short.MIN_VALUE] - Short.MIN_VALUE];
+                        row[j] = opaqueRgb(gray, gray, gray);
                     }
-                    float intensity = ((float) absValue) / (2 * (float) Short.MAX_VALUE);
-                    ret.setRGB(j, i, new Color(intensity, intensity, intensity, 1.0f).getRGB());
+                    ret.setRGB(0, i, rowWidth, 1, row, 0, rowWidth);
                 }
-            }
+            });
         } else if (kernelData instanceof int[][]) {
             int[][] data = (int[][]) kernelData;
         } else if (kernelData instanceof float[][]) {
@@ -204,10 +353,6 @@ final class FitsVisualizationRenderer {
         } else if (kernelData instanceof short[][][]) {
             short[][][] data = (short[][][]) kernelData;
 
-            short[][] stretchedDataRed = (short[][]) stretchImageData(data[0], stretchFactor, iterations, width, height, algo);
-            short[][] stretchedDataGreen = (short[][]) stretchImageData(data[1], stretchFactor, iterations, width, height, algo);
-            short[][] stretchedDataBlue = (short[][]) stretchImageData(data[2], stretchFactor, iterations, width, height, algo);
-
             int imageHeight = data[0].length;
             int imageWidth = data[0][0].length;
 
@@ -218,44 +363,31 @@ final class FitsVisualizationRenderer {
                 imageHeight = height;
             }
 
-            for (int i = 0; i < imageHeight; i++) {
-                for (int j = 0; j < imageWidth; j++) {
-                    int absValueRed = stretchedDataRed[i][j] + Short.MAX_VALUE + 1;
-                    if (absValueRed > 2 * Short.MAX_VALUE) {
-                        absValueRed = 2 * Short.MAX_VALUE;
-                    }
-                    float intensityRed = ((float) absValueRed) / (2 * (float) Short.MAX_VALUE);
-
-                    int absValueGreen = stretchedDataGreen[i][j] + Short.MAX_VALUE + 1;
-                    if (absValueGreen > 2 * Short.MAX_VALUE) {
-                        absValueGreen = 2 * Short.MAX_VALUE;
-                    }
-                    float intensityGreen = ((float) absValueGreen) / (2 * (float) Short.MAX_VALUE);
-
-                    int absValueBlue = stretchedDataBlue[i][j] + Short.MAX_VALUE + 1;
-                    if (absValueBlue > 2 * Short.MAX_VALUE) {
-                        absValueBlue = 2 * Short.MAX_VALUE;
-                    }
-                    float intensityBlue = ((float) absValueBlue) / (2 * (float) Short.MAX_VALUE);
-
-                    if (algo.equals(StretchAlgorithm.EXTREME)) {
-                        float maxValue = absValueRed;
-                        if (maxValue < absValueGreen) {
-                            maxValue = absValueGreen;
-                        }
-                        if (maxValue < absValueBlue) {
-                            maxValue = absValueBlue;
+            short[] redTable = StretchLookupTable.build(data[0], imageWidth, imageHeight, stretchFactor, iterations, algo);
+            short[] greenTable = StretchLookupTable.build(data[1], imageWidth, imageHeight, stretchFactor, iterations, algo);
+            short[] blueTable = StretchLookupTable.build(data[2], imageWidth, imageHeight, stretchFactor, iterations, algo);
+
+            boolean extreme = algo.equals(StretchAlgorithm.EXTREME);
+            int rowWidth = imageWidth;
+            RowBands.forEach(imageHeight, 3 * rowWidth, (rowStart, rowEnd) -> {
+                int[] row = new int[rowWidth];
+                for (int i = rowStart; i < rowEnd; i++) {
+                    for (int j = 0; j < rowWidth; j++) {
+                        int absValueRed = redTable[data[0][i][j] - Short.MIN_VALUE] - Short.MIN_VALUE;
+                        int absValueGreen = greenTable[data[1][i][j] - Short.MIN_VALUE] - Short.MIN_VALUE;
+                        int absValueBlue = blueTable[data[2][i][j] - Short.MIN_VALUE] - Short.MIN_VALUE;
+
+                        if (extreme) {
+                            int maxValue = Math.max(absValueRed, Math.max(absValueGreen, absValueBlue));
+                            int gray = DISPLAY_CHANNEL[maxValue];
+                            row[j] = opaqueRgb(gray, gray, gray);
+                        } else {
+                            row[j] = opaqueRgb(DISPLAY_CHANNEL[absValueRed], DISPLAY_CHANNEL[absValueGreen], DISPLAY_CHANNEL[absValueBlue]);
                         }
-
-                        intensityRed = ((float) maxValue) / (2 * (float) Short.MAX_VALUE);
-                        intensityGreen = intensityRed;
-                        intensityBlue = intensityRed;
                     }
-
-                    Color targetColor = new Color(intensityRed, intensityGreen, intensityBlue, 1.0f);
-                    ret.setRGB(j, i, targetColor.getRGB());
+                    ret.setRGB(0, i, rowWidth, 1, row, 0, rowWidth);
                 }
-            }
+            });
         } else if (kernelData instanceof int[][][]) {
             int[][][] data = (int[][][]) kernelData;
         } else if (kernelData instanceof float[][][]) {
@@ -265,298 +397,4 @@ final class FitsVisualizationRenderer {
         }
         return ret;
     }
-
-    private Object stretchImageData(
-            Object kernelData,
-            int intensity,
-            int iterations,
-            int width,
-            int height,
-            StretchAlgorithm algo) throws FitsException {
-        switch (algo) {
-            case ENHANCE_HIGH:
-                return stretchImageEnhanceHigh(kernelData, intensity, iterations, width, height);
-            case ENHANCE_LOW:
-                return stretchImageEnhanceLow(kernelData, intensity, iterations, width, height);
-            case EXTREME:
-                return stretchImageEnhanceExtreme(kernelData, intensity, iterations, width, height);
-            case ASINH:
-                return stretchImageAsinh(kernelData, intensity, iterations, width, height);
-            default:
-                return stretchImageEnhanceLow(kernelData, intensity, iterations, width, height);
-        }
-    }
-
-    private Object stretchImageEnhanceHigh(
-            Object kernelData,
-            int intensity,
-            int iterations,
-            int width,
-            int height) throws FitsException {
-        if (kernelData instanceof short[][]) {
-            short[][] data = (short[][]) kernelData;
-            short[][] returnData = new short[height][width];
-
-            for (int i = 0; i < height; i++) {
-                for (int j = 0; j < width; j++) {
-                    returnData[i][j] = data[i][j];
-                }
-            }
-
-            for (int iteration = 0; iteration < iterations; iteration++) {
-                short minimumValue = Short.MAX_VALUE;
-                for (int i = 0; i < height; i++) {
-                    for (int j = 0; j < width; j++) {
-                        int absValue = returnData[i][j] - Short.MIN_VALUE;
-                        float newValue = (float) absValue * (1 + ((float) intensity / 100));
-                        newValue = newValue - Short.MAX_VALUE;
-
-                        if (newValue > Short.MAX_VALUE) {
-                            returnData[i][j] = Short.MAX_VALUE;
-                        } else {
-                            returnData[i][j] = (short) newValue;
-                        }
-
-                        if (minimumValue > returnData[i][j]) {
-                            minimumValue = returnData[i][j];
-                        }
-                    }
-                }
-
-                int minimumValueDistanceFromZero = minimumValue - Short.MIN_VALUE;
-                if (minimumValueDistanceFromZero > 2 * Short.MAX_VALUE) {
-                    minimumValueDistanceFromZero = 2 * Short.MAX_VALUE;
-                }
-
-                for (int i = 0; i < height; i++) {
-                    for (int j = 0; j < width; j++) {
-                        returnData[i][j] = (short) (returnData[i][j] - minimumValueDistanceFromZero);
-                    }
-                }
-            }
-            return returnData;
-        } else if (kernelData instanceof int[][]) {
-            int[][] data = (int[][]) kernelData;
-            return null;
-        } else if (kernelData instanceof float[][]) {
-            float[][] data = (float[][]) kernelData;
-            return null;
-        } else {
-            throw new FitsException("Cannot understand file, it has a type=" + kernelData.getClass().getName());
-        }
-    }
-
-    private Object stretchImageEnhanceLow(
-            Object kernelData,
-            int intensity,
-            int iterations,
-            int width,
-            int height) throws FitsException {
-        if (kernelData instanceof short[][]) {
-            short[][] data = (short[][]) kernelData;
-            short[][] returnData = new short[height][width];
-
-            for (int i = 0; i < height; i++) {
-                for (int j = 0; j < width; j++) {
-                    returnData[i][j] = data[i][j];
-                }
-            }
-
-            for (int iteration = 0; iteration < iterations; iteration++) {
-                short minimumValue = Short.MAX_VALUE;
-                short maximumValue = Short.MIN_VALUE;
-
-                for (int i = 0; i < height; i++) {
-                    for (int j = 0; j < width; j++) {
-                        int absValue = returnData[i][j] - Short.MIN_VALUE;
-                        float scale = 1 - (((float) absValue) / (2 * (float) Short.MAX_VALUE));
-                        float newValue = (float) absValue * (1 + (((float) intensity / 100) * scale));
-                        newValue = newValue - Short.MAX_VALUE;
-
-                        if (newValue > Short.MAX_VALUE) {
-                            returnData[i][j] = Short.MAX_VALUE;
-                        } else {
-                            returnData[i][j] = (short) newValue;
-                        }
-
-                        if (minimumValue > returnData[i][j]) {
-                            minimumValue = returnData[i][j];
-                        }
-                        if (maximumValue < returnData[i][j]) {
-                            maximumValue = returnData[i][j];
-                        }
-                    }
-                }
-
-                int minimumValueDistanceFromZero = minimumValue - Short.MIN_VALUE;
-                if (minimumValueDistanceFromZero > 2 * Short.MAX_VALUE) {
-                    minimumValueDistanceFromZero = 2 * Short.MAX_VALUE;
-                }
-                int maximumValueDistanceFromMax = Short.MAX_VALUE - maximumValue;
-                if (maximumValueDistanceFromMax > 2 * Short.MAX_VALUE) {
-                    maximumValueDistanceFromMax = 2 * Short.MAX_VALUE;
-                }
-
-                float stretchCoefficient = 1 + (((float) maximumValueDistanceFromMax) / (2 * (float) Short.MAX_VALUE));
-
-                for (int i = 0; i < height; i++) {
-                    for (int j = 0; j < width; j++) {
-                        int absValue = returnData[i][j] - Short.MIN_VALUE - minimumValueDistanceFromZero;
-                        float newValue = ((float) absValue) * stretchCoefficient;
-                        newValue = newValue - Short.MAX_VALUE;
-
-                        if (newValue > Short.MAX_VALUE) {
-                            returnData[i][j] = Short.MAX_VALUE;
-                        } else {
-                            returnData[i][j] = (short) newValue;
-                        }
-                    }
-                }
-            }
-            return returnData;
-        } else if (kernelData instanceof int[][]) {
-            int[][] data = (int[][]) kernelData;
-            return null;
-        } else if (kernelData instanceof float[][]) {
-            float[][] data = (float[][]) kernelData;
-            return null;
-        } else {
-            throw new FitsException("Cannot understand file, it has a type=" + kernelData.getClass().getName());
-        }
-    }
-
-    private Object stretchImageEnhanceExtreme(
-            Object kernelData,
-            int threshold,
-            int intensity,
-            int width,
-            int height) throws FitsException {
-        if (kernelData instanceof short[][]) {
-            short[][] data = (short[][]) kernelData;
-            short[][] returnData = new short[height][width];
-
-            long allPixelSumValue = 0;
-            for (int i = 0; i < height; i++) {
-                for (int j = 0; j < width; j++) {
-                    allPixelSumValue += (data[i][j] - Short.MIN_VALUE);
-                }
-            }
-
-            float averageNoiseLevel = ((float) allPixelSumValue) / ((float) width * height);
-
-            for (int i = 0; i < height; i++) {
-                for (int j = 0; j < width; j++) {
-                    returnData[i][j] = data[i][j];
-                    int absValue = returnData[i][j] - Short.MIN_VALUE;
-
-                    if (absValue >= averageNoiseLevel + 10 * threshold) {
-                        float newValue = (((float) intensity) / 20) * (2 * (float) Short.MAX_VALUE);
-                        newValue = newValue - Short.MAX_VALUE;
-
-                        if (newValue > Short.MAX_VALUE) {
-                            returnData[i][j] = Short.MAX_VALUE;
-                        } else {
-                            returnData[i][j] = (short) newValue;
-                        }
-                    }
-                }
-            }
-            return returnData;
-        } else if (kernelData instanceof int[][]) {
-            int[][] data = (int[][]) kernelData;
-            return null;
-        } else if (kernelData instanceof float[][]) {
-            float[][] data = (float[][]) kernelData;
-            return null;
-        } else {
-            throw new FitsException("Cannot understand file, it has a type=" + kernelData.getClass().getName());
-        }
-    }
-
-    private Object stretchImageAsinh(
-            Object kernelData,
-            int blackPointPercent,
-            int stretchStrength,
-            int width,
-            int height) throws FitsException {
-        if (kernelData instanceof short[][]) {
-            short[][] data = (short[][]) kernelData;
-            short[][] returnData = new short[height][width];
-
-            int sourceHeight = data.length;
-            int sourceWidth = data[0].length;
-            int[] histogram = new int[(2 * Short.MAX_VALUE) + 2];
-
-            for (int i = 0; i < sourceHeight; i++) {
-                for (int j = 0; j < sourceWidth; j++) {
-                    histogram[data[i][j] - Short.MIN_VALUE]++;
-                }
-            }
-
-            long totalPixels = (long) sourceHeight * sourceWidth;
-            int blackPointValue = percentileFromHistogram(histogram, totalPixels, blackPointPercent / 100.0);
-            int whitePointValue = percentileFromHistogram(histogram, totalPixels, 0.999);
-
-            if (whitePointValue <= blackPointValue) {
-                whitePointValue = blackPointValue + 1;
-            }
-
-            double usableRange = whitePointValue - blackPointValue;
-            double stretchScale = Math.max(1.0, stretchStrength);
-            double normalization = asinh(stretchScale);
-
-            for (int i = 0; i < height; i++) {
-                for (int j = 0; j < width; j++) {
-                    double absValue = data[i][j] - Short.MIN_VALUE;
-                    double normalizedValue = (absValue - blackPointValue) / usableRange;
-                    if (normalizedValue < 0.0) {
-                        normalizedValue = 0.0;
-                    } else if (normalizedValue > 1.0) {
-                        normalizedValue = 1.0;
-                    }
-
-                    double stretchedValue = asinh(normalizedValue * stretchScale) / normalization;
-                    int unsignedValue = (int) Math.round(stretchedValue * ((2.0 * Short.MAX_VALUE) + 1.0));
-                    if (unsignedValue < 0) {
-                        unsignedValue = 0;
-                    } else if (unsignedValue > (2 * Short.MAX_VALUE) + 1) {
-                        unsignedValue = (2 * Short.MAX_VALUE) + 1;
-                    }
-
-                    returnData[i][j] = (short) (unsignedValue + Short.MIN_VALUE);
-                }
-            }
-            return returnData;
-        } else if (kernelData instanceof int[][]) {
-            int[][] data = (int[][]) kernelData;
-            return null;
-        } else if (kernelData instanceof float[][]) {
-            float[][] data = (float[][]) kernelData;
-            return null;
-        } else {
-            throw new FitsException("Cannot understand file, it has a type=" + kernelData.getClass().getName());
-        }
-    }
-
-    private static double asinh(double value) {
-        return Math.log(value + Math.sqrt((value * value) + 1.0));
-    }
-
-    private static int percentileFromHistogram(int[] histogram, long totalPixels, double percentile) {
-        if (totalPixels <= 0) {
-            return 0;
-        }
-
-        long targetCount = Math.max(0L, Math.min(totalPixels - 1, (long) Math.floor((totalPixels - 1) * percentile)));
-        long runningCount = 0;
-
-        for (int value = 0; value < histogram.length; value++) {
-            runningCount += histogram[value];
-            if (runningCount > targetCount) {
-                return value;
-            }
-        }
-
-        return histogram.length - 1;
-    }
 }
@@ -0,0 +1,239 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.util.Arrays;
+
+/**
+ * Flat 16-bit frame backed by a single contiguous {@code short[]}.
+ *
+ * <p>Pixels are stored row-major with an explicit {@code offset} and {@code stride}, so row and crop
+ * views share the parent's backing array instead of copying it. Sample values use the same raw
+ * signed storage convention as FITS {@code BITPIX=16} kernels ({@code value + 32768} is the
+ * unsigned intensity). Hot loops should read {@link #data()} directly using
+ * {@link #rowOffset(int)}; {@link #toRows()} exists only for APIs such as JTransient that still
+ * require jagged {@code short[][]} frames.</p>
+ */
+public final class FrameBuffer {
+
+    private final short[] data;
+    private final int offset;
+    private final int width;
+    private final int height;
+    private final int stride;
+
+    private FrameBuffer(short[] data, int offset, int width, int height, int stride) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Frame dimensions must be positive: " + width + "x" + height);
+        }
+        if (stride < width || offset < 0 || (long) offset + (long) (height - 1) * stride + width > data.length) {
+            throw new IllegalArgumentException("Frame view exceeds its backing array.");
+        }
+        this.data = data;
+        this.offset = offset;
+        this.width = width;
+        this.height = height;
+        this.stride = stride;
+    }
+
+    /**
+     * Allocates a zero-filled frame.
+     */
+    public static FrameBuffer allocate(int width, int height) {
+        return new FrameBuffer(new short[Math.multiplyExact(width, height)], 0, width, height, width);
+    }
+
+    /**
+     * Wraps an existing row-major array without copying it.
+     */
+    public static FrameBuffer wrap(short[] data, int width, int height) {
+        return new FrameBuffer(data, 0, width, height, width);
+    }
+
+    /**
+     * Copies a jagged {@code short[height][width]} frame into a new contiguous buffer.
+     */
+    public static FrameBuffer fromRows(short[][] rows) {
+        if (rows == null || rows.length == 0 || rows[0] == null) {
+            throw new IllegalArgumentException("rows must contain at least one row");
+        }
+        int height = rows.length;
+        int width = rows[0].length;
+        FrameBuffer frame = allocate(width, height);
+        for (int y = 0; y < height; y++) {
+            if (rows[y].length != width) {
+                throw new IllegalArgumentException("Row " + y + " has length " + rows[y].length + " but expected " + width);
+            }
+            System.arraycopy(rows[y], 0, frame.data, y * width, width);
+        }
+        return frame;
+    }
+
+    /**
+     * Copies the rectangle centred on {@code (cx, cy)} of a jagged frame into one contiguous buffer,
+     * padding samples outside the source with the raw black level ({@code -32768}). This is the flat
+     * equivalent of the report crop helper and allocates a single array instead of one per row.
+     */
+    public static FrameBuffer paddedCrop(short[][] rows, int cx, int cy, int cropWidth, int cropHeight) {
+        int height = rows.length;
+        int width = rows[0].length;
+        int startX = cx - cropWidth / 2;
+        int startY = cy - cropHeight / 2;
+
+        FrameBuffer cropped = allocate(cropWidth, cropHeight);
+        int copyStartX = Math.max(0, startX);
+        int copyEndX = Math.min(width, startX + cropWidth);
+        boolean fullyInside = startX >= 0 && startY >= 0 && startX + cropWidth <= width && startY + cropHeight <= height;
+        if (!fullyInside) {
+            Arrays.fill(cropped.data, Short.MIN_VALUE);
+        }
+        if (copyEndX <= copyStartX) {
+            return cropped;
+        }
+        for (int y = 0; y < cropHeight; y++) {
+            int sourceY = startY + y;
+            if (sourceY < 0 || sourceY >= height) {
+                continue;
+            }
+            System.arraycopy(
+                    rows[sourceY],
+                    copyStartX,
+                    cropped.data,
+                    y * cropWidth + (copyStartX - startX),
+                    copyEndX - copyStartX);
+        }
+        return cropped;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int stride() {
+        return stride;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Returns the shared backing array. Index it with {@link #rowOffset(int)} plus the column.
+     */
+    public short[] data() {
+        return data;
+    }
+
+    /**
+     * Returns whether the view covers its rows without gaps, i.e. pixels occupy
+     * {@code data()[offset() .. offset() + width() * height())}.
+     */
+    public boolean isContiguous() {
+        return stride == width || height == 1;
+    }
+
+    public int rowOffset(int y) {
+        return offset + y * stride;
+    }
+
+    public short get(int x, int y) {
+        return data[offset + y * stride + x];
+    }
+
+    public void set(int x, int y, short value) {
+        data[offset + y * stride + x] = value;
+    }
+
+    /**
+     * Returns a one-row view of row {@code y} that shares this frame's storage.
+     */
+    public FrameBuffer row(int y) {
+        return crop(0, y, width, 1);
+    }
+
+    /**
+     * Returns a view of the given rectangle that shares this frame's storage.
+     */
+    public FrameBuffer crop(int x, int y, int cropWidth, int cropHeight) {
+        if (x < 0 || y < 0 || cropWidth <= 0 || cropHeight <= 0 || x + cropWidth > width || y + cropHeight > height) {
+            throw new IllegalArgumentException("Crop " + cropWidth + "x" + cropHeight + "+" + x + "+" + y
+                    + " is outside the " + width + "x" + height + " frame.");
+        }
+        return new FrameBuffer(data, offset + y * stride + x, cropWidth, cropHeight, stride);
+    }
+
+    /**
+     * Copies the rectangle centred on {@code (cx, cy)} into a new contiguous frame, padding samples
+     * that fall outside this frame with the raw black level ({@code -32768}). When the rectangle is
+     * fully inside the frame a shared view is returned instead.
+     */
+    public FrameBuffer paddedCrop(int cx, int cy, int cropWidth, int cropHeight) {
+        int startX = cx - cropWidth / 2;
+        int startY = cy - cropHeight / 2;
+        if (startX >= 0 && startY >= 0 && startX + cropWidth <= width && startY + cropHeight <= height) {
+            return crop(startX, startY, cropWidth, cropHeight);
+        }
+
+        FrameBuffer cropped = allocate(cropWidth, cropHeight);
+        Arrays.fill(cropped.data, Short.MIN_VALUE);
+        int copyStartX = Math.max(0, startX);
+        int copyEndX = Math.min(width, startX + cropWidth);
+        if (copyEndX <= copyStartX) {
+            return cropped;
+        }
+        for (int y = 0; y < cropHeight; y++) {
+            int sourceY = startY + y;
+            if (sourceY < 0 || sourceY >= height) {
+                continue;
+            }
+            System.arraycopy(
+                    data,
+                    rowOffset(sourceY) + copyStartX,
+                    cropped.data,
+                    y * cropWidth + (copyStartX - startX),
+                    copyEndX - copyStartX);
+        }
+        return cropped;
+    }
+
+    /**
+     * Copies row {@code y} into {@code destination}, which must hold at least {@link #width()} samples.
+     */
+    public void copyRow(int y, short[] destination) {
+        System.arraycopy(data, rowOffset(y), destination, 0, width);
+    }
+
+    /**
+     * Materializes a jagged copy for APIs that still require {@code short[height][width]}.
+     */
+    public short[][] toRows() {
+        short[][] rows = new short[height][width];
+        for (int y = 0; y < height; y++) {
+            copyRow(y, rows[y]);
+        }
+        return rows;
+    }
+
+    /**
+     * Returns a contiguous copy of this view.
+     */
+    public FrameBuffer compact() {
+        if (offset == 0 && isContiguous() && data.length == width * height) {
+            return this;
+        }
+        FrameBuffer copy = allocate(width, height);
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(data, rowOffset(y), copy.data, y * width, width);
+        }
+        return copy;
+    }
+}
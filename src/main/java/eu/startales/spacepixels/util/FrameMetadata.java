@@ -0,0 +1,348 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, parse-once view of the header values SpacePixels derives from a frame: observation
+ * timestamp, exposure, geometry, WCS presence and observing site.
+ *
+ * <p>{@link FitsFileInformation#getMetadata()} builds one instance per frame the first time it is
+ * needed (normally on the import worker that read the header) and keeps it until the header or the
+ * frame geometry changes, so sorting, pipeline setup and report export read plain fields instead of
+ * re-running date and number parsing over the raw header map.</p>
+ */
+public final class FrameMetadata {
+
+    private static final Pattern COMBINED_DATE_TIME_PATTERN = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2})[T ](\\d{2})[:._-](\\d{2})[:._-](\\d{2})([.,]\\d+)?(Z|[+-]\\d{2}:?\\d{2})?$");
+    private static final Pattern COMBINED_COMPACT_TIME_PATTERN = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2})[T ](\\d{2})(\\d{2})(\\d{2})([.,]\\d+)?(Z|[+-]\\d{2}:?\\d{2})?$");
+    private static final Pattern SPACE_SEPARATED_DATE_TIME_PATTERN = Pattern.compile(
+            "^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}([.,]\\d+)?(Z|[+-]\\d{2}:?\\d{2})?$");
+    private static final Pattern OFFSET_SUFFIX_PATTERN = Pattern.compile(".*[+-]\\d{2}:\\d{2}$");
+
+    private final long observationTimestampMillis;
+    private final String timestampStrategy;
+    private final String normalizedTimestampInput;
+    private final String timestampFailureReason;
+
+    private final String exposureText;
+    private final double exposureSeconds;
+
+    private final int width;
+    private final int height;
+    private final boolean monochrome;
+    private final boolean wcsSolved;
+
+    private final String siteLatitude;
+    private final String siteLongitude;
+    private final String observatory;
+
+    private FrameMetadata(long observationTimestampMillis,
+                          String timestampStrategy,
+                          String normalizedTimestampInput,
+                          String timestampFailureReason,
+                          String exposureText,
+                          double exposureSeconds,
+                          int width,
+                          int height,
+                          boolean monochrome,
+                          boolean wcsSolved,
+                          String siteLatitude,
+                          String siteLongitude,
+                          String observatory) {
+        this.observationTimestampMillis = observationTimestampMillis;
+        this.timestampStrategy = timestampStrategy;
+        this.normalizedTimestampInput = normalizedTimestampInput;
+        this.timestampFailureReason = timestampFailureReason;
+        this.exposureText = exposureText;
+        this.exposureSeconds = exposureSeconds;
+        this.width = width;
+        this.height = height;
+        this.monochrome = monochrome;
+        this.wcsSolved = wcsSolved;
+        this.siteLatitude = siteLatitude;
+        this.siteLongitude = siteLongitude;
+        this.observatory = observatory;
+    }
+
+    /**
+     * Parses the derived values from a raw header map as stored by {@link FitsFileInformation}.
+     */
+    static FrameMetadata fromHeader(Map<String, String> header, int width, int height, boolean monochrome) {
+        String dateObs = sanitizeHeaderValue(header.get("DATE-OBS"));
+        String timeObs = sanitizeHeaderValue(header.get("TIME-OBS"));
+        TimestampParse timestamp = parseObservationTimestamp(dateObs, timeObs);
+
+        String exposure = header.get("EXPTIME");
+        if (exposure == null) exposure = header.get("EXPOSURE"); // Fallback for older FITS standard
+        String exposureText = exposure != null ? exposure.replace("'", "").trim() : null;
+        double exposureSeconds = Double.NaN;
+        if (exposureText != null) {
+            try {
+                exposureSeconds = Double.parseDouble(exposureText);
+            } catch (NumberFormatException e) {
+                exposureSeconds = Double.NaN;
+            }
+        }
+
+        return new FrameMetadata(
+                timestamp.timestampMillis,
+                timestamp.strategy,
+                timestamp.normalizedInput,
+                timestamp.failureReason,
+                exposureText,
+                exposureSeconds,
+                width,
+                height,
+                monochrome,
+                // A FITS file is widely considered Plate Solved if it contains standard WCS coordinate mappings
+                header.containsKey("CRVAL1") && header.containsKey("CTYPE1"),
+                firstHeaderValue(header, "SITELAT", "OBSGEO-B", "LAT-OBS"),
+                firstHeaderValue(header, "SITELONG", "SITELON", "OBSGEO-L", "LONG-OBS", "LON-OBS"),
+                sanitizeHeaderValue(header.get("OBSERVAT")));
+    }
+
+    /**
+     * @return observation start in epoch milliseconds, or -1 if DATE-OBS is missing or malformed
+     */
+    public long getObservationTimestampMillis() {
+        return observationTimestampMillis;
+    }
+
+    /**
+     * @return exposure time in milliseconds, or -1 if EXPTIME/EXPOSURE is missing or not numeric
+     */
+    public long getExposureMillis() {
+        return Double.isNaN(exposureSeconds) ? -1L : (long) (exposureSeconds * 1000.0);
+    }
+
+    /**
+     * @return exposure time in seconds, or {@code NaN} if it is missing or not numeric
+     */
+    public double getExposureSeconds() {
+        return exposureSeconds;
+    }
+
+    /**
+     * @return the EXPTIME/EXPOSURE value without quotes, or {@code null} if neither card is present
+     */
+    public String getExposureText() {
+        return exposureText;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isMonochrome() {
+        return monochrome;
+    }
+
+    public boolean isWcsSolved() {
+        return wcsSolved;
+    }
+
+    /**
+     * @return the first non-blank site latitude card, or {@code null}
+     */
+    public String getSiteLatitude() {
+        return siteLatitude;
+    }
+
+    /**
+     * @return the first non-blank site longitude card, or {@code null}
+     */
+    public String getSiteLongitude() {
+        return siteLongitude;
+    }
+
+    /**
+     * @return the OBSERVAT card, or {@code null}
+     */
+    public String getObservatory() {
+        return observatory;
+    }
+
+    String getTimestampStrategy() {
+        return timestampStrategy;
+    }
+
+    String getNormalizedTimestampInput() {
+        return normalizedTimestampInput;
+    }
+
+    String getTimestampFailureReason() {
+        return timestampFailureReason;
+    }
+
+    static String sanitizeHeaderValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        String sanitized = value.replace("'", "").trim();
+        return sanitized.isEmpty() ? null : sanitized;
+    }
+
+    private static final class TimestampParse {
+        private final long timestampMillis;
+        private final String normalizedInput;
+        private final String strategy;
+        private final String failureReason;
+
+        private TimestampParse(long timestampMillis, String normalizedInput, String strategy, String failureReason) {
+            this.timestampMillis = timestampMillis;
+            this.normalizedInput = normalizedInput;
+            this.strategy = strategy;
+            this.failureReason = failureReason;
+        }
+    }
+
+    private static String firstHeaderValue(Map<String, String> header, String... keys) {
+        for (String key : keys) {
+            String value = sanitizeHeaderValue(header.get(key));
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static TimestampParse parseObservationTimestamp(String dateObs, String timeObs) {
+        if (dateObs == null || dateObs.isEmpty()) {
+            return new TimestampParse(-1L, null, null, "DATE-OBS missing");
+        }
+
+        if (dateObs.contains("T")) {
+            return parseCombinedDateTime(dateObs, "DATE-OBS as combined date/time");
+        }
+
+        if (timeObs != null && !timeObs.isEmpty()) {
+            return parseCombinedDateTime(dateObs + "T" + timeObs, "DATE-OBS + TIME-OBS as combined date/time");
+        }
+
+        try {
+            long timestampMillis = LocalDate.parse(dateObs, DateTimeFormatter.ISO_LOCAL_DATE)
+                    .atStartOfDay(ZoneOffset.UTC)
+                    .toInstant()
+                    .toEpochMilli();
+            return new TimestampParse(timestampMillis, dateObs, "DATE-OBS as ISO_LOCAL_DATE", null);
+        } catch (Exception e) {
+            return new TimestampParse(-1L, dateObs, "DATE-OBS as ISO_LOCAL_DATE", e.getMessage());
+        }
+    }
+
+    private static TimestampParse parseCombinedDateTime(String candidateInput, String strategy) {
+        String normalizedInput = normalizeCombinedDateTime(candidateInput);
+        if (normalizedInput == null) {
+            return new TimestampParse(-1L, candidateInput, strategy, "Could not normalize date/time value");
+        }
+
+        try {
+            if (normalizedInput.endsWith("Z") || OFFSET_SUFFIX_PATTERN.matcher(normalizedInput).matches()) {
+                long timestampMillis = OffsetDateTime.parse(normalizedInput, DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+                        .toInstant()
+                        .toEpochMilli();
+                return new TimestampParse(timestampMillis, normalizedInput, strategy + " via ISO_OFFSET_DATE_TIME", null);
+            }
+
+            long timestampMillis = LocalDateTime.parse(normalizedInput, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                    .atZone(ZoneOffset.UTC)
+                    .toInstant()
+                    .toEpochMilli();
+            return new TimestampParse(timestampMillis, normalizedInput, strategy + " via ISO_LOCAL_DATE_TIME", null);
+        } catch (Exception e) {
+            return new TimestampParse(-1L, normalizedInput, strategy, e.getMessage());
+        }
+    }
+
+    private static String normalizeCombinedDateTime(String candidateInput) {
+        String sanitized = sanitizeHeaderValue(candidateInput);
+        if (sanitized == null) {
+            return null;
+        }
+
+        Matcher dottedMatcher = COMBINED_DATE_TIME_PATTERN.matcher(sanitized);
+        if (dottedMatcher.matches()) {
+            return buildNormalizedDateTime(
+                    dottedMatcher.group(1),
+                    dottedMatcher.group(2),
+                    dottedMatcher.group(3),
+                    dottedMatcher.group(4),
+                    dottedMatcher.group(5),
+                    dottedMatcher.group(6));
+        }
+
+        Matcher compactMatcher = COMBINED_COMPACT_TIME_PATTERN.matcher(sanitized);
+        if (compactMatcher.matches()) {
+            return buildNormalizedDateTime(
+                    compactMatcher.group(1),
+                    compactMatcher.group(2),
+                    compactMatcher.group(3),
+                    compactMatcher.group(4),
+                    compactMatcher.group(5),
+                    compactMatcher.group(6));
+        }
+
+        if (SPACE_SEPARATED_DATE_TIME_PATTERN.matcher(sanitized).matches()) {
+            sanitized = sanitized.replaceFirst(" ", "T");
+        }
+
+        return sanitized.replace(',', '.');
+    }
+
+    private static String buildNormalizedDateTime(String datePart,
+                                                  String hour,
+                                                  String minute,
+                                                  String second,
+                                                  String fraction,
+                                                  String zone) {
+        StringBuilder normalized = new StringBuilder();
+        normalized.append(datePart)
+                .append('T')
+                .append(hour)
+                .append(':')
+                .append(minute)
+                .append(':')
+                .append(second);
+
+        if (fraction != null && !fraction.isEmpty()) {
+            normalized.append(fraction.replace(',', '.'));
+        }
+        if (zone != null && !zone.isEmpty()) {
+            normalized.append(normalizeZoneSuffix(zone));
+        }
+        return normalized.toString();
+    }
+
+    private static String normalizeZoneSuffix(String zone) {
+        if (zone == null || zone.isEmpty() || "Z".equals(zone)) {
+            return zone;
+        }
+        if (zone.matches("[+-]\\d{2}:\\d{2}")) {
+            return zone;
+        }
+        if (zone.matches("[+-]\\d{4}")) {
+            return zone.substring(0, 3) + ":" + zone.substring(3);
+        }
+        return zone;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Supplies the frames of a sequence directory to the detection pipelines as 16-bit monochrome
+ * rows, in the offset storage used by {@link FitsFrameReader#readMono16Frame(File)}.
+ *
+ * <p>Sources that normalise their input (XISF decoding, 32-bit to 16-bit scaling, colour to
+ * luminance) do so while a frame is read, so a sequence that is not detection-ready can be
+ * processed without first writing a converted copy of every frame to disk.</p>
+ *
+ * <p>Implementations are stateless and may be called concurrently.</p>
+ */
+public interface FrameSource {
+
+    /**
+     * @return the frame files of {@code directory} this source reads, in stable path order
+     */
+    File[] listFrameFiles(File directory) throws IOException;
+
+    /**
+     * Reads the header metadata of one frame. Width, height and structural cards describe the
+     * frame as {@link #readFrame(FitsFileInformation)} returns it, not as it is stored.
+     */
+    FitsFileInformation readFrameInformation(File file) throws Exception;
+
+    /**
+     * Decodes one frame as {@code short[height][width]}.
+     */
+    short[][] readFrame(FitsFileInformation fileInfo) throws Exception;
+
+    /**
+     * Decodes one frame, writing into {@code reuse} when the source supports it and the geometry
+     * matches. Callers that only inspect a frame transiently pass the previous result back in.
+     */
+    default short[][] readFrame(FitsFileInformation fileInfo, short[][] reuse) throws Exception {
+        return readFrame(fileInfo);
+    }
+
+    /**
+     * @return {@code true} when frames are read unchanged from detection-ready mono 16-bit FITS files
+     */
+    boolean isDetectionReady();
+
+    /**
+     * @return short description for logs, e.g. {@code "XISF (decoded on the fly)"}
+     */
+    String describe();
+}
@@ -35,7 +35,6 @@ import java.util.*;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 /**
@@ -49,6 +48,11 @@ import java.util.concurrent.Future;
 public class ImageProcessing {
     public static final int MIN_USABLE_FRAMES_FOR_MULTI_FRAME_ANALYSIS =
             DetectionPipelineSupport.MIN_USABLE_FRAMES_FOR_MULTI_FRAME_ANALYSIS;
+    /**
+     * Frames decoded concurrently while warming the preview cache, kept low so the warm-up does not
+     * compete with interactive work.
+     */
+    private static final int PREVIEW_WARM_UP_WORKERS = 2;
     private static final DateTimeFormatter TRACE_TIMESTAMP_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS 'UTC'").withZone(ZoneOffset.UTC);
 
@@ -104,17 +108,20 @@ public class ImageProcessing {
         private final FitsFileInformation[] filesInformation;
         private final List<short[][]> rawFramesForExport;
         private final long pipelineDurationMillis;
+        private final PipelineMetrics metrics;
 
         PipelineExecutionData(PipelineResult pipelineResult,
                               DetectionConfig effectiveConfig,
                               FitsFileInformation[] filesInformation,
                               List<short[][]> rawFramesForExport,
-                              long pipelineDurationMillis) {
+                              long pipelineDurationMillis,
+                              PipelineMetrics metrics) {
             this.pipelineResult = pipelineResult;
             this.effectiveConfig = effectiveConfig == null ? null : effectiveConfig.clone();
             this.filesInformation = filesInformation == null ? new FitsFileInformation[0] : filesInformation.clone();
             this.rawFramesForExport = Collections.unmodifiableList(new ArrayList<>(rawFramesForExport));
             this.pipelineDurationMillis = pipelineDurationMillis;
+            this.metrics = metrics != null ? metrics : new PipelineMetrics();
         }
 
         public PipelineResult getPipelineResult() {
@@ -136,6 +143,13 @@ public class ImageProcessing {
         public long getPipelineDurationMillis() {
             return pipelineDurationMillis;
         }
+
+        /**
+         * Returns the stage metrics of this run. Exporting the report adds its own stages.
+         */
+        public PipelineMetrics getMetrics() {
+            return metrics;
+        }
     }
 
     private static void logFitsTimestampDiagnostics(String stageLabel, FitsFileInformation[] filesInfo) {
@@ -222,9 +236,8 @@ public class ImageProcessing {
 
     private final File alignedFitsFolderFullPath;
 
-    // --- NEW: Multi-threading Executor! ---
-    // Uses a cached pool to dynamically spin up threads based on available CPU cores
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    // Process-wide bounded I/O pool shared by every instance, so repeated imports reuse its threads
+    private final ExecutorService executor = SharedExecutors.io();
 
     private final AppConfig appConfig;
     private final File appConfigFile;
@@ -232,6 +245,8 @@ public class ImageProcessing {
     private final StandardDetectionPipelineService standardDetectionPipelineService;
     private final IterativeDetectionPipelineService iterativeDetectionPipelineService;
     private final FitsVisualizationRenderer fitsVisualizationRenderer;
+    private final FrameSource frameSource;
+    private final PreviewMipmapCache previewCache;
 
     private FitsFileInformation[] cachedFileInfo;
 
@@ -239,14 +254,24 @@ public class ImageProcessing {
      * Creates a processing facade bound to a specific aligned FITS directory.
      */
     public static synchronized ImageProcessing getInstance(File alignedFitsFolderFullPath) throws IOException, FitsException {
-        return new ImageProcessing(alignedFitsFolderFullPath);
+        return new ImageProcessing(alignedFitsFolderFullPath, Mono16FitsFrameSource.INSTANCE);
+    }
+
+    /**
+     * Creates a processing facade whose headless metadata loading and detection pipelines read the
+     * directory through {@code frameSource}, e.g. one chosen by
+     * {@link DetectionInputPreparation#prepareFrameSource}.
+     */
+    public static synchronized ImageProcessing getInstance(File alignedFitsFolderFullPath, FrameSource frameSource) throws IOException, FitsException {
+        return new ImageProcessing(alignedFitsFolderFullPath, Objects.requireNonNull(frameSource, "frameSource"));
     }
 
     /**
      * Initializes the processor and loads persisted app-level preferences if they exist.
      */
-    private ImageProcessing(File alignedFitsFolderFullPath) throws IOException, FitsException {
+    private ImageProcessing(File alignedFitsFolderFullPath, FrameSource frameSource) throws IOException, FitsException {
         this.alignedFitsFolderFullPath = alignedFitsFolderFullPath;
+        this.frameSource = frameSource;
 
         String userhome = System.getProperty("user.home");
         if (userhome == null) userhome = "";
@@ -262,9 +287,14 @@ public class ImageProcessing {
         }
         this.appConfig = (loadedConfig != null) ? loadedConfig : new AppConfig();
         this.plateSolveService = new PlateSolveService(this.appConfig);
-        this.standardDetectionPipelineService = new StandardDetectionPipelineService(this.appConfig);
-        this.iterativeDetectionPipelineService = new IterativeDetectionPipelineService(this.appConfig, this.standardDetectionPipelineService);
+        this.standardDetectionPipelineService = new StandardDetectionPipelineService(this.appConfig, frameSource);
+        this.iterativeDetectionPipelineService = new IterativeDetectionPipelineService(this.appConfig, frameSource, this.standardDetectionPipelineService);
         this.fitsVisualizationRenderer = new FitsVisualizationRenderer();
+        RowBands.setParallelThresholdPixels(this.appConfig.parallelKernelMinPixels);
+        this.previewCache = PreviewMipmapCache.shared(
+                new File(userhome, PreviewMipmapCache.DEFAULT_DIRECTORY_NAME),
+                PreviewMipmapCache.resolveDiskBudgetBytes(this.appConfig.previewCacheBudgetMb),
+                ImageProcessing::readPreviewKernel);
     }
 
     // =========================================================================
@@ -319,7 +349,7 @@ public class ImageProcessing {
     /**
      * Detects whether a FITS file is compressed, either via a compressed HDU or `ZIMAGE` header.
      */
-    private boolean isCompressedFits(Fits fits) throws FitsException, IOException {
+    private static boolean isCompressedFits(Fits fits) throws FitsException, IOException {
         int numHdus = fits.getNumberOfHDUs();
         for (int i = 0; i < numHdus; i++) {
             if (fits.getHDU(i) instanceof CompressedImageHDU || fits.getHDU(i).getHeader().getBooleanValue("ZIMAGE", false)) {
@@ -349,30 +379,23 @@ public class ImageProcessing {
      */
     public File batchConvertToMono(boolean stretch, int stretchFactor, int iterations, StretchAlgorithm algo, TransientEngineProgressListener progressListener) throws IOException, FitsException {
         File[] fitsFileInformation = getFitsFilesDetails();
-        File generatedMonoDirectory = null;
-
-        int total = fitsFileInformation.length;
-        for (int i = 0; i < total; i++) {
-            File fileInfo = fitsFileInformation[i];
-            if (progressListener != null) {
-                int percent = (int) (((float) i / total) * 100);
-                progressListener.onProgressUpdate(percent, "Converting " + fileInfo.getName() + "...");
-            }
 
-            Fits originalFits = new Fits(fileInfo);
-            BasicHDU<?> imageHDU = getImageHDU(originalFits);
+        BatchFileProcessor.Report<File> report = runBatchConversion(fitsFileInformation, "Converted", progressListener, (index, fileInfo) -> {
+            try (Fits originalFits = new Fits(fileInfo)) {
+                BasicHDU<?> imageHDU = getImageHDU(originalFits);
+
+                // Check if it's already mono to save time
+                int naxis = imageHDU.getHeader().getIntValue("NAXIS");
+                if (naxis != 3) {
+                    ApplicationWindow.logger.info("Skipping mono conversion (already mono): " + fileInfo.getName());
+                    return null;
+                }
 
-            // Check if it's already mono to save time
-            int naxis = imageHDU.getHeader().getIntValue("NAXIS");
-            if (naxis == 3) { // It's a color image
                 ApplicationWindow.logger.info("Converting color image to mono: " + fileInfo.getName());
                 Fits monochromeFits = convertToMono(originalFits);
 
                 // Save standard mono
                 String monoFilename = addDirectory(fileInfo, "_mono");
-                if (generatedMonoDirectory == null) {
-                    generatedMonoDirectory = new File(monoFilename).getParentFile();
-                }
                 writeFitsWithSuffix(monochromeFits, monoFilename, "_mono");
 
                 // If stretch is enabled, stretch the mono version and save it
@@ -382,12 +405,10 @@ public class ImageProcessing {
                     String monoStretchFilename = addDirectory(fileInfo, "_mono_stretched");
                     writeFitsWithSuffix(monochromeFits, monoStretchFilename, "_mono_stretch");
                 }
-            } else {
-                ApplicationWindow.logger.info("Skipping mono conversion (already mono): " + fileInfo.getName());
+                return new File(monoFilename).getParentFile();
             }
-            originalFits.close();
-        }
-        return generatedMonoDirectory;
+        });
+        return report.firstResult();
     }
 
     /**
@@ -396,27 +417,68 @@ public class ImageProcessing {
     public void batchStretch(int stretchFactor, int iterations, StretchAlgorithm algo, TransientEngineProgressListener progressListener) throws IOException, FitsException {
         File[] fitsFileInformation = getFitsFilesDetails();
 
-        int total = fitsFileInformation.length;
-        for (int i = 0; i < total; i++) {
-            File fileInfo = fitsFileInformation[i];
-            if (progressListener != null) {
-                int percent = (int) (((float) i / total) * 100);
-                progressListener.onProgressUpdate(percent, "Stretching " + fileInfo.getName() + "...");
-            }
+        runBatchConversion(fitsFileInformation, "Stretched", progressListener, (index, fileInfo) -> {
+            try (Fits originalFits = new Fits(fileInfo)) {
+                ApplicationWindow.logger.info("Stretching image: " + fileInfo.getName());
 
-            Fits originalFits = new Fits(fileInfo);
+                // Stretch the file in memory
+                stretchFITSImage(originalFits, stretchFactor, iterations, algo);
 
-            ApplicationWindow.logger.info("Stretching image: " + fileInfo.getName());
-
-            // Stretch the file in memory
-            stretchFITSImage(originalFits, stretchFactor, iterations, algo);
+                // Save the stretched version
+                String stretchFilename = addDirectory(fileInfo, "_stretched");
+                writeFitsWithSuffix(originalFits, stretchFilename, "_stretch");
+            }
+            return null;
+        });
+    }
 
-            // Save the stretched version
-            String stretchFilename = addDirectory(fileInfo, "_stretched");
-            writeFitsWithSuffix(originalFits, stretchFilename, "_stretch");
+    /**
+     * Runs one independent conversion per file with the configured parallelism and memory budget.
+     * Progress is reported in file order; a failing file is logged and skipped, and an
+     * {@link IOException} is raised only when no file could be converted.
+     */
+    private <T> BatchFileProcessor.Report<T> runBatchConversion(File[] files,
+                                                                String verb,
+                                                                TransientEngineProgressListener progressListener,
+                                                                BatchFileProcessor.FileTask<T> task) throws IOException {
+        int workers = BatchFileProcessor.resolveWorkerCount(appConfig.batchConversionThreads);
+        long memoryBudget = BatchFileProcessor.resolveMemoryBudgetBytes(appConfig.batchConversionMemoryBudgetMb);
+        ApplicationWindow.logger.info("Batch conversion of " + files.length + " files using up to " + workers
+                + " workers and " + (memoryBudget / BatchFileProcessor.MIB) + " MiB working memory.");
+
+        BatchFileProcessor.Report<T> report;
+        try {
+            report = BatchFileProcessor.process(files, workers, memoryBudget, task, (completed, total, outcome) -> {
+                if (!outcome.succeeded()) {
+                    ApplicationWindow.logger.warning("Failed to process " + outcome.file.getName() + ": " + outcome.failure.getMessage());
+                }
+                if (progressListener != null) {
+                    int percent = (int) (((float) completed / total) * 100);
+                    String status = outcome.succeeded() ? verb + " " : "Failed ";
+                    progressListener.onProgressUpdate(percent, status + outcome.file.getName() + " (" + completed + "/" + total + ")");
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch conversion interrupted");
+        }
+        return checkBatchReport(report);
+    }
 
-            originalFits.close();
+    /**
+     * Logs the failures of a finished batch and fails only when every file failed.
+     */
+    private static <T> BatchFileProcessor.Report<T> checkBatchReport(BatchFileProcessor.Report<T> report) throws IOException {
+        String failures = report.describeFailures();
+        if (failures == null) {
+            return report;
         }
+        ApplicationWindow.logger.warning(failures);
+        if (report.getSuccessCount() == 0) {
+            Exception firstFailure = report.getFailures().get(0).failure;
+            throw new IOException(failures, firstFailure);
+        }
+        return report;
     }
 
 
@@ -438,17 +500,61 @@ public class ImageProcessing {
      * any report artifacts to disk.
      */
     public PipelineExecutionData runDetectionPipeline(DetectionConfig config, TransientEngineProgressListener progressListener) throws Exception {
+        return runDetectionPipeline(config, new PipelineMetrics(), progressListener);
+    }
+
+    /**
+     * Runs the standard detection pipeline, recording frame loading and the engine run into
+     * {@code metrics} so callers can add their own stages to the same recorder.
+     */
+    public PipelineExecutionData runDetectionPipeline(DetectionConfig config,
+                                                      PipelineMetrics metrics,
+                                                      TransientEngineProgressListener progressListener) throws Exception {
         if (this.cachedFileInfo == null) getFitsfileInformation();
-        return standardDetectionPipelineService.runDetectionPipeline(config, this.cachedFileInfo, progressListener);
+        return standardDetectionPipelineService.runDetectionPipeline(config, this.cachedFileInfo, metrics, progressListener);
+    }
+
+    /**
+     * Runs the standard detection pipeline on frames the caller already holds in memory, without
+     * re-reading the directory. {@code frames} must hold one decoded frame per entry of
+     * {@code filesInfo}, in the same order.
+     */
+    public PipelineExecutionData runDetectionPipeline(DetectionConfig config,
+                                                      FitsFileInformation[] filesInfo,
+                                                      List<short[][]> frames,
+                                                      TransientEngineProgressListener progressListener) throws Exception {
+        return standardDetectionPipelineService.runDetectionPipelineOnFrames(config, filesInfo, frames, progressListener);
+    }
+
+    /**
+     * Counts the detections of a finished pipeline run by category.
+     */
+    public static DetectionSummary summarizeDetections(PipelineExecutionData executionData) {
+        return DetectionPipelineSupport.summarizeDetections(executionData.getPipelineResult());
+    }
+
+    /**
+     * Counts the detections of a raw pipeline result, e.g. one returned by the public pipeline API.
+     */
+    public static DetectionSummary summarizeDetections(PipelineResult pipelineResult) {
+        return DetectionPipelineSupport.summarizeDetections(pipelineResult);
     }
 
     /**
-     * Exports the HTML report and visualization bundle for a previously executed pipeline run.
+     * Exports the HTML report and visualization bundle for a previously executed pipeline run, and
+     * writes the run's stage metrics to {@value PipelineMetrics#METRICS_FILENAME} next to the report.
      */
     public File exportDetectionReport(PipelineExecutionData executionData) throws IOException {
         return standardDetectionPipelineService.exportDetectionReport(executionData);
     }
 
+    /**
+     * Exports the report into an existing {@code exportDir} instead of a new timestamped directory.
+     */
+    public File exportDetectionReport(PipelineExecutionData executionData, File exportDir) throws IOException {
+        return standardDetectionPipelineService.exportDetectionReport(executionData, exportDir);
+    }
+
 // =========================================================================
 // ITERATIVE SLOW-MOVER PIPELINE
 // =========================================================================
@@ -481,84 +587,119 @@ public class ImageProcessing {
 
         if (numFiles == 0) return new FitsFileInformation[0];
 
+        // --- PERSISTENT METADATA INDEX ---
+        // Files whose size and modification time match the sidecar skip every header read below.
+        FitsMetadataIndex metadataIndex = FitsMetadataIndex.load(alignedFitsFolderFullPath);
+        FitsMetadataIndex.FileStamp[] stamps = new FitsMetadataIndex.FileStamp[numFiles];
+        FitsMetadataIndex.Entry[] indexedEntries = new FitsMetadataIndex.Entry[numFiles];
+        int indexedCount = lookupIndexedMetadata(metadataIndex, fitsFileInformation, stamps, indexedEntries);
+        if (indexedCount > 0) {
+            ApplicationWindow.logger.info("Metadata index covers " + indexedCount + " of " + numFiles + " files.");
+        }
+
         // --- NEW: COMPRESSION GATEKEEPER ---
-        try (Fits firstFits = new Fits(fitsFileInformation[0])) {
-            if (isCompressedFits(firstFits)) {
-                int choice = JOptionPane.showConfirmDialog(null,
-                        "These images appear to be compressed (.fz format).\nSpacePixels requires uncompressed FITS files for optimal tracking and plate-solving.\n\n" +
-                                "Would you like to automatically decompress this sequence into a new directory?",
-                        "Decompression Required",
-                        JOptionPane.YES_NO_OPTION,
-                        JOptionPane.QUESTION_MESSAGE);
-
-                if (choice == JOptionPane.YES_OPTION) {
-                    ApplicationWindow.logger.info("Starting decompression...");
-                    File newDir = batchDecompress(fitsFileInformation);
+        // Only uncompressed sequences are ever indexed, so an indexed first file needs no probe.
+        if (indexedEntries[0] == null) {
+            try (Fits firstFits = new Fits(fitsFileInformation[0])) {
+                if (isCompressedFits(firstFits)) {
+                    int choice = JOptionPane.showConfirmDialog(null,
+                            "These images appear to be compressed (.fz format).\nSpacePixels requires uncompressed FITS files for optimal tracking and plate-solving.\n\n" +
+                                    "Would you like to automatically decompress this sequence into a new directory?",
+                            "Decompression Required",
+                            JOptionPane.YES_NO_OPTION,
+                            JOptionPane.QUESTION_MESSAGE);
+
+                    if (choice == JOptionPane.YES_OPTION) {
+                        ApplicationWindow.logger.info("Starting decompression...");
+                        File newDir = batchDecompress(fitsFileInformation);
                     
-                    int loadChoice = JOptionPane.showConfirmDialog(null, 
-                            "Decompression Complete!\n\nWould you like to automatically load the new uncompressed directory?", 
-                            "Success", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+                        int loadChoice = JOptionPane.showConfirmDialog(null, 
+                                "Decompression Complete!\n\nWould you like to automatically load the new uncompressed directory?", 
+                                "Success", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
                     
-                    if (loadChoice == JOptionPane.YES_OPTION && newDir != null) {
-                        throw new RedirectImportException(newDir);
+                        if (loadChoice == JOptionPane.YES_OPTION && newDir != null) {
+                            throw new RedirectImportException(newDir);
+                        }
                     }
+                    return new FitsFileInformation[0]; // Stop the current import
                 }
-                return new FitsFileInformation[0]; // Stop the current import
+            } catch (RedirectImportException re) {
+                throw re;
+            } catch (Exception e) {
+                ApplicationWindow.logger.warning("Failed to read first FITS for compression check: " + e.getMessage());
             }
-        } catch (RedirectImportException re) {
-            throw re;
-        } catch (Exception e) {
-            ApplicationWindow.logger.warning("Failed to read first FITS for compression check: " + e.getMessage());
         }
 
 
         // --- PRE-FLIGHT CONSISTENCY CHECK ---
         ApplicationWindow.logger.info("Performing pre-flight consistency check on " + numFiles + " files...");
         FitsFormatChecker.FitsFormat refFormat = FitsFormatChecker.FitsFormat.UNSUPPORTED;
-        try {
-            refFormat = FitsFormatChecker.checkFormat(fitsFileInformation[0]);
-        } catch (Exception ignore) {}
+        if (indexedEntries[0] != null) {
+            refFormat = indexedEntries[0].format;
+        } else {
+            try {
+                refFormat = FitsFormatChecker.checkFormat(fitsFileInformation[0]);
+            } catch (Exception ignore) {}
+        }
 
         int tempRefWidth = -1;
         int tempRefHeight = -1;
         boolean tempRefMono = true;
 
-        try {
-            Fits firstFits = new Fits(fitsFileInformation[0]);
-            BasicHDU<?> hdu = getImageHDU(firstFits);
-            int[] axes = hdu.getAxes();
-            if (axes == null) throw new FitsException("No image axes found");
-
-            if (axes.length == 2) {
-                tempRefHeight = axes[0];
-                tempRefWidth = axes[1];
-                tempRefMono = true;
-            } else if (axes.length == 3) {
-                tempRefHeight = axes[1];
-                tempRefWidth = axes[2];
-                tempRefMono = false;
-            } else {
+        if (indexedEntries[0] != null) {
+            tempRefWidth = indexedEntries[0].width;
+            tempRefHeight = indexedEntries[0].height;
+            tempRefMono = indexedEntries[0].monochrome;
+        } else {
+            try {
+                Fits firstFits = new Fits(fitsFileInformation[0]);
+                BasicHDU<?> hdu = getImageHDU(firstFits);
+                int[] axes = hdu.getAxes();
+                if (axes == null) throw new FitsException("No image axes found");
+
+                if (axes.length == 2) {
+                    tempRefHeight = axes[0];
+                    tempRefWidth = axes[1];
+                    tempRefMono = true;
+                } else if (axes.length == 3) {
+                    tempRefHeight = axes[1];
+                    tempRefWidth = axes[2];
+                    tempRefMono = false;
+                } else {
+                    firstFits.close();
+                    JOptionPane.showMessageDialog(null, "Unsupported FITS axes length: " + axes.length, "Import Error", JOptionPane.ERROR_MESSAGE);
+                    return new FitsFileInformation[0];
+                }
                 firstFits.close();
-                JOptionPane.showMessageDialog(null, "Unsupported FITS axes length: " + axes.length, "Import Error", JOptionPane.ERROR_MESSAGE);
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(null, "Failed to read the first FITS file: " + e.getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
                 return new FitsFileInformation[0];
             }
-            firstFits.close();
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null, "Failed to read the first FITS file: " + e.getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
-            return new FitsFileInformation[0];
         }
 
         final int refWidth = tempRefWidth;
         final int refHeight = tempRefHeight;
         final boolean refMono = tempRefMono;
         final FitsFormatChecker.FitsFormat finalRefFormat = refFormat;
+        final FitsFormatChecker.FitsFormat[] fileFormats = new FitsFormatChecker.FitsFormat[numFiles];
+        fileFormats[0] = refFormat;
 
         List<Callable<String>> validationTasks = new ArrayList<>();
         for (int i = 1; i < numFiles; i++) {
+            final int index = i;
             final File f = fitsFileInformation[i];
+            FitsMetadataIndex.Entry indexedEntry = indexedEntries[i];
+            if (indexedEntry != null) {
+                fileFormats[i] = indexedEntry.format;
+                validationTasks.add(() -> describeInconsistency(
+                        f, indexedEntry.format, indexedEntry.monochrome, indexedEntry.width, indexedEntry.height,
+                        finalRefFormat, refMono, refWidth, refHeight));
+                continue;
+            }
             validationTasks.add(() -> {
                 FitsFormatChecker.FitsFormat format = FitsFormatChecker.FitsFormat.UNSUPPORTED;
                 try { format = FitsFormatChecker.checkFormat(f); } catch (Exception ignore) {}
+                fileFormats[index] = format;
 
                 if (format != finalRefFormat) {
                     return "Inconsistent FITS formats detected!\nFile: " + f.getName() + " has format " + format + " but expected " + finalRefFormat + ".\nAll FITS files in the sequence must be of the exact same type.";
@@ -580,8 +721,9 @@ public class ImageProcessing {
                         w = axes[2];
                     }
 
-                    if (mono != refMono || w != refWidth || h != refHeight) {
-                        return "Inconsistent FITS dimensions or color-space detected!\nFile: " + f.getName() + " is " + w + "x" + h + " (Mono: " + mono + ")\nExpected: " + refWidth + "x" + refHeight + " (Mono: " + refMono + ").\nAll files must have the exact same resolution and color space.";
+                    String inconsistency = describeInconsistency(f, format, mono, w, h, finalRefFormat, refMono, refWidth, refHeight);
+                    if (inconsistency != null) {
+                        return inconsistency;
                     }
                 } catch (Exception e) {
                     return "Failed to read FITS file " + f.getName() + ": " + e.getMessage();
@@ -595,7 +737,7 @@ public class ImageProcessing {
         }
 
         try {
-            List<Future<String>> results = executor.invokeAll(validationTasks);
+            List<Future<String>> results = SharedExecutors.invokeAll(executor, validationTasks);
             for (Future<String> res : results) {
                 String errorMsg = res.get();
                 if (errorMsg != null) {
@@ -672,53 +814,25 @@ public class ImageProcessing {
             final File currentFile = fitsFileInformation[i];
 
             tasks.add(() -> {
-                Fits fitsFile = null;
-                try {
-                    fitsFile = new Fits(currentFile);
-                    BasicHDU<?> hdu = getImageHDU(fitsFile);
-                    Header fitsHeader = hdu.getHeader();
-
-                    String fpath = currentFile.getAbsolutePath();
-                    boolean monochromeImage;
-                    int width;
-                    int height;
-
-                    int[] axes = hdu.getAxes();
-
-                    if (axes.length == 2) {
-                        monochromeImage = true;
-                        height = axes[0];
-                        width = axes[1];
-                    } else if (axes.length == 3) {
-                        monochromeImage = false;
-                        height = axes[1];
-                        width = axes[2];
-                    } else {
-                        throw new FitsException("Cannot understand file, it has axes length=" + axes.length);
-                    }
-
-                    FitsFileInformation fileInfo = new FitsFileInformation(fpath, currentFile.getName(), monochromeImage, width, height);
-
-                    Cursor<String, HeaderCard> iter = fitsHeader.iterator();
-                    while (iter.hasNext()) {
-                        HeaderCard fitsHeaderCard = iter.next();
-                        fileInfo.getFitsHeader().put(fitsHeaderCard.getKey(), fitsHeaderCard.getValue());
-                    }
-
-                    return fileInfo;
-
-                } finally {
-                    if (fitsFile != null) {
-                        fitsFile.close();
+                FitsFileInformation fileInfo;
+                if (indexedEntries[index] != null) {
+                    fileInfo = indexedEntries[index].toFileInformation(currentFile);
+                } else {
+                    fileInfo = readFitsFileInformation(currentFile);
+                    if (stamps[index] != null && fileFormats[index] != null) {
+                        metadataIndex.put(stamps[index], fileFormats[index], fileInfo);
                     }
                 }
+                // Parse timestamps and exposure here, in parallel, rather than inside the sort below.
+                fileInfo.getMetadata();
+                return fileInfo;
             });
         }
 
         FitsFileInformation[] ret = new FitsFileInformation[numFiles];
 
         try {
-            List<Future<FitsFileInformation>> futures = executor.invokeAll(tasks);
+            List<Future<FitsFileInformation>> futures = SharedExecutors.invokeAll(executor, tasks);
             for (int i = 0; i < futures.size(); i++) {
                 ret[i] = futures.get(i).get();
             }
@@ -737,8 +851,11 @@ public class ImageProcessing {
             return a.getFileName().compareTo(b.getFileName());
         });
 
+        saveMetadataIndex(metadataIndex, fitsFileInformation);
+
         this.cachedFileInfo = ret;
         System.out.println("Finished loading metadata for " + numFiles + " files instantly.");
+        ApplicationWindow.logger.fine(SharedExecutors::describeStatistics);
         logFitsTimestampDiagnostics("Interactive import", ret);
         return ret;
     }
@@ -748,6 +865,10 @@ public class ImageProcessing {
      * user for decompression or format-conversion decisions.
      */
     public FitsFileInformation[] getFitsfileInformationHeadless() throws Exception {
+        if (!frameSource.isDetectionReady()) {
+            return loadFrameSourceInformationHeadless();
+        }
+
         File[] fitsFiles = getFitsFilesDetails();
         int numFiles = fitsFiles.length;
 
@@ -758,14 +879,90 @@ public class ImageProcessing {
 
         System.out.println("\n--- Validating " + numFiles + " FITS files for headless batch detection ---");
 
+        FitsMetadataIndex metadataIndex = FitsMetadataIndex.load(alignedFitsFolderFullPath);
+        FitsMetadataIndex.FileStamp[] stamps = new FitsMetadataIndex.FileStamp[numFiles];
+        FitsMetadataIndex.Entry[] indexedEntries = new FitsMetadataIndex.Entry[numFiles];
+        int indexedCount = lookupIndexedMetadata(metadataIndex, fitsFiles, stamps, indexedEntries);
+        if (indexedCount > 0) {
+            System.out.println("Metadata index covers " + indexedCount + " of " + numFiles + " files.");
+        }
+
         List<Callable<FitsMetadataLoadResult>> tasks = new ArrayList<>();
-        for (File currentFile : fitsFiles) {
-            tasks.add(() -> loadFitsMetadataHeadless(currentFile));
+        for (int i = 0; i < numFiles; i++) {
+            final File currentFile = fitsFiles[i];
+            final FitsMetadataIndex.FileStamp stamp = stamps[i];
+            final FitsMetadataIndex.Entry indexedEntry = indexedEntries[i];
+            tasks.add(() -> {
+                FitsMetadataLoadResult result;
+                if (indexedEntry != null && indexedEntry.format == FitsFormatChecker.FitsFormat.MONO_16BIT) {
+                    result = new FitsMetadataLoadResult(indexedEntry.toFileInformation(currentFile), indexedEntry.width, indexedEntry.height, 16);
+                } else {
+                    result = loadFitsMetadataHeadless(currentFile);
+                    if (stamp != null) {
+                        metadataIndex.put(stamp, FitsFormatChecker.FitsFormat.MONO_16BIT, result.fileInfo);
+                    }
+                }
+                result.fileInfo.getMetadata();
+                return result;
+            });
         }
 
+        FitsFileInformation[] ret = loadConsistentSequence(tasks);
+
+        saveMetadataIndex(metadataIndex, fitsFiles);
+
+        this.cachedFileInfo = ret;
+        System.out.println("Validated and loaded metadata for " + numFiles + " FITS files.");
+        ApplicationWindow.logger.fine(SharedExecutors::describeStatistics);
+        logFitsTimestampDiagnostics("Headless import", ret);
+        return ret;
+    }
+
+    /**
+     * Headless metadata loading for frame sources that normalize while reading. Every frame is
+     * described as the 16-bit mono frame the source returns, so the same geometry checks apply;
+     * the metadata index is skipped because it only records detection-ready files.
+     */
+    private FitsFileInformation[] loadFrameSourceInformationHeadless() throws Exception {
+        if (!alignedFitsFolderFullPath.isDirectory()) {
+            throw new IOException("file:" + alignedFitsFolderFullPath.getAbsolutePath() + " is not a directory");
+        }
+        File[] frameFiles = frameSource.listFrameFiles(alignedFitsFolderFullPath);
+        int numFiles = frameFiles.length;
+
+        if (numFiles == 0) {
+            this.cachedFileInfo = new FitsFileInformation[0];
+            return this.cachedFileInfo;
+        }
+
+        System.out.println("\n--- Validating " + numFiles + " frames for headless batch detection (" + frameSource.describe() + ") ---");
+
+        List<Callable<FitsMetadataLoadResult>> tasks = new ArrayList<>();
+        for (File currentFile : frameFiles) {
+            tasks.add(() -> {
+                FitsFileInformation fileInfo = frameSource.readFrameInformation(currentFile);
+                fileInfo.getMetadata();
+                return new FitsMetadataLoadResult(fileInfo, fileInfo.getSizeWidth(), fileInfo.getSizeHeight(), 16);
+            });
+        }
+
+        FitsFileInformation[] ret = loadConsistentSequence(tasks);
+
+        this.cachedFileInfo = ret;
+        System.out.println("Validated and loaded metadata for " + numFiles + " frames.");
+        logFitsTimestampDiagnostics("Headless import", ret);
+        return ret;
+    }
+
+    /**
+     * Runs the per-file metadata tasks on the shared I/O pool, checks that every frame matches the
+     * first one and returns the frames in observation order, falling back to file name order.
+     */
+    private FitsFileInformation[] loadConsistentSequence(List<Callable<FitsMetadataLoadResult>> tasks) throws Exception {
+        int numFiles = tasks.size();
         FitsMetadataLoadResult[] loadedResults = new FitsMetadataLoadResult[numFiles];
         try {
-            List<Future<FitsMetadataLoadResult>> futures = executor.invokeAll(tasks);
+            List<Future<FitsMetadataLoadResult>> futures = SharedExecutors.invokeAll(executor, tasks);
             for (int i = 0; i < futures.size(); i++) {
                 loadedResults[i] = futures.get(i).get();
             }
@@ -799,9 +996,6 @@ public class ImageProcessing {
             return a.getFileName().compareTo(b.getFileName());
         });
 
-        this.cachedFileInfo = ret;
-        System.out.println("Validated and loaded metadata for " + numFiles + " FITS files.");
-        logFitsTimestampDiagnostics("Headless import", ret);
         return ret;
     }
 
@@ -813,7 +1007,23 @@ public class ImageProcessing {
      * Loads and validates a single FITS file for headless mode, enforcing the strict mono 16-bit
      * requirements expected by the batch pipeline.
      */
-    private FitsMetadataLoadResult loadFitsMetadataHeadless(File currentFile) throws Exception {
+    private static FitsMetadataLoadResult loadFitsMetadataHeadless(File currentFile) throws Exception {
+        FitsFrameReader.ImageLayout layout = FitsFrameReader.readImageLayout(currentFile);
+        if (layout != null) {
+            if (layout.axes.length != 2) {
+                throw new FitsException("Expected uncompressed 16-bit monochrome FITS files. File " + currentFile.getName() + " has axes length " + layout.axes.length + ".");
+            }
+            if (layout.bitpix != 16) {
+                throw new FitsException("Expected uncompressed 16-bit monochrome FITS files. File " + currentFile.getName() + " has BITPIX=" + layout.bitpix + ".");
+            }
+
+            int height = layout.axes[0];
+            int width = layout.axes[1];
+            FitsFileInformation fileInfo = new FitsFileInformation(currentFile.getAbsolutePath(), currentFile.getName(), true, width, height);
+            fileInfo.getFitsHeader().putAll(layout.headerCards);
+            return new FitsMetadataLoadResult(fileInfo, width, height, layout.bitpix);
+        }
+
         Fits fitsFile = null;
         try {
             fitsFile = new Fits(currentFile);
@@ -859,6 +1069,150 @@ public class ImageProcessing {
         }
     }
 
+    /**
+     * Reads and validates the metadata of a single frame with the headless mono 16-bit rules, for
+     * callers that ingest frames one at a time.
+     */
+    static FitsFileInformation loadHeadlessFrameInformation(File currentFile) throws Exception {
+        FitsFileInformation fileInfo = loadFitsMetadataHeadless(currentFile).fileInfo;
+        fileInfo.getMetadata();
+        return fileInfo;
+    }
+
+    /**
+     * Stats every file and collects the index entries that are still valid for it. Files that cannot
+     * be stat'ed are simply treated as not indexed.
+     *
+     * @return the number of files served by the index
+     */
+    private static int lookupIndexedMetadata(FitsMetadataIndex metadataIndex,
+                                             File[] files,
+                                             FitsMetadataIndex.FileStamp[] stamps,
+                                             FitsMetadataIndex.Entry[] indexedEntries) {
+        int indexedCount = 0;
+        for (int i = 0; i < files.length; i++) {
+            try {
+                stamps[i] = FitsMetadataIndex.stat(files[i]);
+            } catch (IOException e) {
+                continue;
+            }
+            indexedEntries[i] = metadataIndex.get(stamps[i]);
+            if (indexedEntries[i] != null) {
+                indexedCount++;
+            }
+        }
+        return indexedCount;
+    }
+
+    /**
+     * Prunes entries of files that left the directory and rewrites the sidecar. A folder that
+     * cannot be written to only costs the speed-up on the next import.
+     */
+    private static void saveMetadataIndex(FitsMetadataIndex metadataIndex, File[] files) {
+        List<String> fileNames = new ArrayList<>(files.length);
+        for (File file : files) {
+            fileNames.add(file.getName());
+        }
+        metadataIndex.retainOnly(fileNames);
+        try {
+            metadataIndex.save();
+        } catch (IOException e) {
+            ApplicationWindow.logger.warning("Could not write metadata index " + metadataIndex.getSidecarFile().getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the import error for a file whose format, color space or dimensions differ from the
+     * reference file, or {@code null} when it matches.
+     */
+    private static String describeInconsistency(File file,
+                                                FitsFormatChecker.FitsFormat format,
+                                                boolean mono,
+                                                int width,
+                                                int height,
+                                                FitsFormatChecker.FitsFormat refFormat,
+                                                boolean refMono,
+                                                int refWidth,
+                                                int refHeight) {
+        if (format != refFormat) {
+            return "Inconsistent FITS formats detected!\nFile: " + file.getName() + " has format " + format + " but expected " + refFormat + ".\nAll FITS files in the sequence must be of the exact same type.";
+        }
+        if (mono != refMono || width != refWidth || height != refHeight) {
+            return "Inconsistent FITS dimensions or color-space detected!\nFile: " + file.getName() + " is " + width + "x" + height + " (Mono: " + mono + ")\nExpected: " + refWidth + "x" + refHeight + " (Mono: " + refMono + ").\nAll files must have the exact same resolution and color space.";
+        }
+        return null;
+    }
+
+    /**
+     * Reads the dimensions and header cards of one FITS file, preferring the raw header scan and
+     * falling back to nom-tam for compressed or unusual layouts.
+     */
+    static FitsFileInformation readFitsFileInformation(File currentFile) throws Exception {
+        FitsFileInformation fastInfo = loadFitsFileInformationFromRawHeader(currentFile);
+        if (fastInfo != null) {
+            return fastInfo;
+        }
+
+        Fits fitsFile = null;
+        try {
+            fitsFile = new Fits(currentFile);
+            BasicHDU<?> hdu = getImageHDU(fitsFile);
+            Header fitsHeader = hdu.getHeader();
+
+            String fpath = currentFile.getAbsolutePath();
+            boolean monochromeImage;
+            int width;
+            int height;
+
+            int[] axes = hdu.getAxes();
+
+            if (axes.length == 2) {
+                monochromeImage = true;
+                height = axes[0];
+                width = axes[1];
+            } else if (axes.length == 3) {
+                monochromeImage = false;
+                height = axes[1];
+                width = axes[2];
+            } else {
+                throw new FitsException("Cannot understand file, it has axes length=" + axes.length);
+            }
+
+            FitsFileInformation fileInfo = new FitsFileInformation(fpath, currentFile.getName(), monochromeImage, width, height);
+
+            Cursor<String, HeaderCard> iter = fitsHeader.iterator();
+            while (iter.hasNext()) {
+                HeaderCard fitsHeaderCard = iter.next();
+                fileInfo.getFitsHeader().put(fitsHeaderCard.getKey(), fitsHeaderCard.getValue());
+            }
+
+            return fileInfo;
+
+        } finally {
+            if (fitsFile != null) {
+                fitsFile.close();
+            }
+        }
+    }
+
+    /**
+     * Builds file metadata from a raw header scan without instantiating nom-tam header objects.
+     * Returns {@code null} when the file is compressed or otherwise needs the full FITS parser.
+     */
+    private static FitsFileInformation loadFitsFileInformationFromRawHeader(File currentFile) throws IOException {
+        FitsFrameReader.ImageLayout layout = FitsFrameReader.readImageLayout(currentFile);
+        if (layout == null || (layout.axes.length != 2 && layout.axes.length != 3)) {
+            return null;
+        }
+
+        boolean monochromeImage = layout.axes.length == 2;
+        int height = monochromeImage ? layout.axes[0] : layout.axes[1];
+        int width = monochromeImage ? layout.axes[1] : layout.axes[2];
+        FitsFileInformation fileInfo = new FitsFileInformation(currentFile.getAbsolutePath(), currentFile.getName(), monochromeImage, width, height);
+        fileInfo.getFitsHeader().putAll(layout.headerCards);
+        return fileInfo;
+    }
+
     /**
      * Ensures every headless input frame matches the reference frame in geometry and bit depth.
      */
@@ -881,7 +1235,14 @@ public class ImageProcessing {
      * Enumerates FITS-like files in the configured directory and returns them in stable path order.
      */
     private File[] getFitsFilesDetails() throws IOException, FitsException {
-        File directory = alignedFitsFolderFullPath;
+        return listFitsFiles(alignedFitsFolderFullPath);
+    }
+
+    /**
+     * Enumerates FITS-like files in {@code directory} in stable path order, failing when there are
+     * none.
+     */
+    static File[] listFitsFiles(File directory) throws IOException {
         if (!directory.isDirectory()) {
             throw new IOException("file:" + directory.getAbsolutePath() + " is not a directory");
         }
@@ -961,6 +1322,13 @@ public class ImageProcessing {
         plateSolveService.cleanupSolveArtifacts(fitsFileFullPath, result);
     }
 
+    /**
+     * Returns the source the headless metadata loading and detection pipelines read frames from.
+     */
+    public FrameSource getFrameSource() {
+        return frameSource;
+    }
+
     /**
      * Exposes the mutable application preferences currently associated with this processor.
      */
@@ -1086,17 +1454,14 @@ public class ImageProcessing {
 
         SwingUtilities.invokeLater(() -> progressDialog.setVisible(true));
 
-        File targetDir = null;
         try {
-            for (int i = 0; i < files.length; i++) {
-                File file = files[i];
-                final int percent = (int) (((float) i / files.length) * 100);
-                SwingUtilities.invokeLater(() -> progressDialog.updateProgress(percent, "Decompressing " + file.getName() + "..."));
-
-                Fits originalFits = new Fits(file);
-                BasicHDU<?> imageHDU = getImageHDU(originalFits);
+            BatchFileProcessor.Report<File> report = runBatchConversion(files, "Decompressed", progressDialogListener(progressDialog), (index, file) -> {
+                try (Fits originalFits = new Fits(file)) {
+                    BasicHDU<?> imageHDU = getImageHDU(originalFits);
+                    if (imageHDU == null) {
+                        return null;
+                    }
 
-                if (imageHDU != null) {
                     Fits decompressedFits = new Fits();
                     decompressedFits.addHDU(imageHDU);
 
@@ -1105,17 +1470,23 @@ public class ImageProcessing {
                         outName = outName.substring(0, outName.length() - 3);
                     }
 
-                    if (targetDir == null) targetDir = new File(outName).getParentFile();
                     File outFile = new File(outName);
                     if (outFile.exists()) outFile.delete();
                     decompressedFits.write(outFile);
+                    return outFile.getParentFile();
                 }
-                originalFits.close();
-            }
+            });
+            return report.firstResult();
         } finally {
             SwingUtilities.invokeLater(() -> progressDialog.dispose());
         }
-        return targetDir;
+    }
+
+    /**
+     * Adapts a progress dialog to the batch progress callback, updating it on the EDT.
+     */
+    private static TransientEngineProgressListener progressDialogListener(eu.startales.spacepixels.gui.ProcessingProgressDialog progressDialog) {
+        return (percent, message) -> SwingUtilities.invokeLater(() -> progressDialog.updateProgress(percent, message));
     }
 
     /**
@@ -1129,66 +1500,66 @@ public class ImageProcessing {
 
         SwingUtilities.invokeLater(() -> progressDialog.setVisible(true));
 
-        File targetDir = null;
         try {
-            for (int i = 0; i < files.length; i++) {
-                File file = files[i];
-                final int percent = (int) (((float) i / files.length) * 100);
-                SwingUtilities.invokeLater(() -> progressDialog.updateProgress(percent, "Converting " + file.getName() + "..."));
+            BatchFileProcessor.Report<File> report = runBatchConversion(files, "Converted", progressDialogListener(progressDialog),
+                    (index, file) -> convert32BitTo16Bit(file, isColor));
+            return report.firstResult();
+        } finally {
+            SwingUtilities.invokeLater(() -> progressDialog.dispose());
+        }
+    }
 
-                ApplicationWindow.logger.info("Converting 32-bit file: " + file.getName());
+    /**
+     * Standardizes one 32-bit FITS file and returns the directory holding its mono 16-bit output.
+     */
+    private File convert32BitTo16Bit(File file, boolean isColor) throws IOException, FitsException {
+        ApplicationWindow.logger.info("Converting 32-bit file: " + file.getName());
 
-                // --- DEBUG: Print Original File ---
-                printFitsDebugInfo("ORIGINAL 32-BIT", file);
+        // --- DEBUG: Print Original File ---
+        printFitsDebugInfo("ORIGINAL 32-BIT", file);
 
-                Fits originalFits = new Fits(file);
-                BasicHDU<?> imageHDU = getImageHDU(originalFits);
-                Header origHeader = imageHDU.getHeader();
-                Object kernel = imageHDU.getKernel();
-
-                if (isColor) {
-                    // 1. Convert to 16-bit Color
-                    short[][][] color16 = FitsPixelConverter.standardizeTo16BitColor(kernel);
-                    Fits colorFits = FitsPixelConverter.createFitsFromData(color16, origHeader);
-                    String colorName = addDirectory(file, "_16bit_color");
-                    writeFitsWithSuffix(colorFits, colorName, "_16bit_color");
-
-                    // --- DEBUG: Print Converted Color File ---
-                    String finalColorPath = colorName.substring(0, colorName.lastIndexOf(".")) + "_16bit_color.fit";
-                    printFitsDebugInfo("CONVERTED 16-BIT COLOR", new File(finalColorPath));
-
-                    // 2. Extract Luminance to 16-bit Mono
-                    short[][] mono16 = FitsPixelConverter.extractLuminance(color16);
-                    Fits monoFits = FitsPixelConverter.createFitsFromData(mono16, origHeader);
-
-                    // Note: No manual header hacking needed here anymore!
-                    // createFitsFromData safely handles NAXIS and NAXIS3 automatically.
-                    String monoName = addDirectory(file, "_16bit_mono");
-                    if (targetDir == null) targetDir = new File(monoName).getParentFile();
-                    writeFitsWithSuffix(monoFits, monoName, "_16bit_mono");
-
-                    // --- DEBUG: Print Converted Luminance File ---
-                    String finalLuminancePath = monoName.substring(0, monoName.lastIndexOf(".")) + "_16bit_mono.fit";
-                    printFitsDebugInfo("CONVERTED 16-BIT LUMINANCE", new File(finalLuminancePath));
+        try (Fits originalFits = new Fits(file)) {
+            BasicHDU<?> imageHDU = getImageHDU(originalFits);
+            Header origHeader = imageHDU.getHeader();
+            Object kernel = imageHDU.getKernel();
 
-                } else {
-                    // Convert to 16-bit Mono
-                    short[][] mono16 = FitsPixelConverter.standardizeTo16BitMono(kernel);
-                    Fits monoFits = FitsPixelConverter.createFitsFromData(mono16, origHeader);
-                    String monoName = addDirectory(file, "_16bit_converted");
-                    if (targetDir == null) targetDir = new File(monoName).getParentFile();
-                    writeFitsWithSuffix(monoFits, monoName, "_16bit");
-
-                    // --- DEBUG: Print Converted Mono File ---
-                    String finalMonoPath = monoName.substring(0, monoName.lastIndexOf(".")) + "_16bit.fit";
-                    printFitsDebugInfo("CONVERTED 16-BIT MONO", new File(finalMonoPath));
-                }
-                originalFits.close();
+            if (isColor) {
+                // 1. Convert to 16-bit Color
+                short[][][] color16 = FitsPixelConverter.standardizeTo16BitColor(kernel);
+                Fits colorFits = FitsPixelConverter.createFitsFromData(color16, origHeader);
+                String colorName = addDirectory(file, "_16bit_color");
+                writeFitsWithSuffix(colorFits, colorName, "_16bit_color");
+
+                // --- DEBUG: Print Converted Color File ---
+                String finalColorPath = colorName.substring(0, colorName.lastIndexOf(".")) + "_16bit_color.fit";
+                printFitsDebugInfo("CONVERTED 16-BIT COLOR", new File(finalColorPath));
+
+                // 2. Extract Luminance to 16-bit Mono
+                short[][] mono16 = FitsPixelConverter.extractLuminance(color16);
+                Fits monoFits = FitsPixelConverter.createFitsFromData(mono16, origHeader);
+
+                // Note: No manual header hacking needed here anymore!
+                // createFitsFromData safely handles NAXIS and NAXIS3 automatically.
+                String monoName = addDirectory(file, "_16bit_mono");
+                writeFitsWithSuffix(monoFits, monoName, "_16bit_mono");
+
+                // --- DEBUG: Print Converted Luminance File ---
+                String finalLuminancePath = monoName.substring(0, monoName.lastIndexOf(".")) + "_16bit_mono.fit";
+                printFitsDebugInfo("CONVERTED 16-BIT LUMINANCE", new File(finalLuminancePath));
+                return new File(monoName).getParentFile();
             }
-        } finally {
-            SwingUtilities.invokeLater(() -> progressDialog.dispose());
+
+            // Convert to 16-bit Mono
+            short[][] mono16 = FitsPixelConverter.standardizeTo16BitMono(kernel);
+            Fits monoFits = FitsPixelConverter.createFitsFromData(mono16, origHeader);
+            String monoName = addDirectory(file, "_16bit_converted");
+            writeFitsWithSuffix(monoFits, monoName, "_16bit");
+
+            // --- DEBUG: Print Converted Mono File ---
+            String finalMonoPath = monoName.substring(0, monoName.lastIndexOf(".")) + "_16bit.fit";
+            printFitsDebugInfo("CONVERTED 16-BIT MONO", new File(finalMonoPath));
+            return new File(monoName).getParentFile();
         }
-        return targetDir;
     }
 
 // =========================================================================
@@ -1238,21 +1609,25 @@ public class ImageProcessing {
                 }
             }
 
-            System.out.println("\n--- DEBUG: " + label + " ---");
-            System.out.println("File:   " + fitsFile.getName());
-            System.out.println("BITPIX: " + bitpix);
-            System.out.println("BZERO:  " + bzero);
-            System.out.println("BSCALE: " + bscale);
+            // Built first and printed in one call so blocks from concurrent conversions never interleave.
+            String nl = System.lineSeparator();
+            StringBuilder sb = new StringBuilder();
+            sb.append(nl).append("--- DEBUG: ").append(label).append(" ---").append(nl);
+            sb.append("File:   ").append(fitsFile.getName()).append(nl);
+            sb.append("BITPIX: ").append(bitpix).append(nl);
+            sb.append("BZERO:  ").append(bzero).append(nl);
+            sb.append("BSCALE: ").append(bscale).append(nl);
             if (min != Double.MAX_VALUE) {
-                System.out.println("Raw Min Value: " + min);
-                System.out.println("Raw Max Value: " + max);
+                sb.append("Raw Min Value: ").append(min).append(nl);
+                sb.append("Raw Max Value: ").append(max).append(nl);
                 // Calculate what the true value is after BZERO/BSCALE are applied by a viewer
-                System.out.println("True Visual Min: " + ((min * bscale) + bzero));
-                System.out.println("True Visual Max: " + ((max * bscale) + bzero));
+                sb.append("True Visual Min: ").append((min * bscale) + bzero).append(nl);
+                sb.append("True Visual Max: ").append((max * bscale) + bzero).append(nl);
             } else {
-                System.out.println("(3D Color array, skipping min/max scan for brevity)");
+                sb.append("(3D Color array, skipping min/max scan for brevity)").append(nl);
             }
-            System.out.println("-----------------------------------");
+            sb.append("-----------------------------------");
+            System.out.println(sb);
 
         } catch (Exception e) {
             System.err.println("Debug read failed for " + fitsFile.getName() + ": " + e.getMessage());
@@ -1287,6 +1662,79 @@ public class ImageProcessing {
         return fitsVisualizationRenderer.getStretchedImageFullSize(kernelData, width, height, stretchFactor, iterations, algo);
     }
 
+    /**
+     * Reads one frame and renders it stretched at no more than {@code maxWidth x maxHeight}, binning
+     * larger frames before the stretch. Frames that are neither 16-bit mono nor 16-bit colour are
+     * normalized to 16-bit mono first. {@code reuse} is drawn into when its size matches.
+     */
+    public BufferedImage getStretchedImageForViewport(FitsFileInformation fileInfo,
+                                                      int maxWidth,
+                                                      int maxHeight,
+                                                      int stretchFactor,
+                                                      int iterations,
+                                                      StretchAlgorithm algo,
+                                                      BufferedImage reuse) throws FitsException, IOException {
+        Object kernelData;
+        try (Fits fitsImage = new Fits(new File(fileInfo.getFilePath()))) {
+            kernelData = getImageHDU(fitsImage).getKernel();
+        }
+        if (!(kernelData instanceof short[][]) && !(kernelData instanceof short[][][])) {
+            kernelData = FitsPixelConverter.convertToMono16(kernelData, fileInfo.getFileName());
+        }
+        return fitsVisualizationRenderer.getStretchedImageForViewport(
+                kernelData, maxWidth, maxHeight, stretchFactor, iterations, algo, reuse);
+    }
+
+    /**
+     * Renders the unstretched preview of a frame from its cached downsampled copy, building the copy
+     * on first use. The whole frame is shown, scaled down to fit the preview.
+     */
+    public BufferedImage getCachedImagePreview(File file) throws FitsException, IOException {
+        PreviewMipmapCache.Level level = previewCache.get(file)
+                .levelFitting(PreviewMipmapCache.PREVIEW_SIZE, PreviewMipmapCache.PREVIEW_SIZE);
+        return fitsVisualizationRenderer.getImagePreview(level.toKernel());
+    }
+
+    /**
+     * Renders the stretched preview of a frame from its cached downsampled copy, so changing the
+     * stretch settings does not read the FITS file again.
+     */
+    public BufferedImage getCachedStretchedImagePreview(File file, int stretchFactor, int iterations, StretchAlgorithm algo)
+            throws FitsException, IOException {
+        PreviewMipmapCache.Level level = previewCache.get(file)
+                .levelFitting(PreviewMipmapCache.PREVIEW_SIZE, PreviewMipmapCache.PREVIEW_SIZE);
+        return fitsVisualizationRenderer.getStretchedImageForViewport(
+                level.toKernel(), PreviewMipmapCache.PREVIEW_SIZE, PreviewMipmapCache.PREVIEW_SIZE,
+                stretchFactor, iterations, algo, null);
+    }
+
+    /**
+     * Starts building the cached downsampled copies of {@code filesInfo} in the background, replacing
+     * a warm-up still running for a previous import.
+     */
+    public void warmUpPreviewCache(FitsFileInformation[] filesInfo) {
+        File[] files = new File[filesInfo.length];
+        for (int i = 0; i < filesInfo.length; i++) {
+            files[i] = new File(filesInfo[i].getFilePath());
+        }
+        previewCache.warmUpInBackground(files, PREVIEW_WARM_UP_WORKERS);
+    }
+
+    /**
+     * Reads a frame for the preview cache as 16-bit data, normalizing other formats to 16-bit mono.
+     */
+    private static Object readPreviewKernel(File file) throws IOException {
+        try (Fits fitsImage = new Fits(file)) {
+            Object kernelData = getImageHDU(fitsImage).getKernel();
+            if (!(kernelData instanceof short[][]) && !(kernelData instanceof short[][][])) {
+                kernelData = FitsPixelConverter.convertToMono16(kernelData, file.getName());
+            }
+            return kernelData;
+        } catch (FitsException e) {
+            throw new IOException("Cannot read " + file.getName() + " for preview: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Creates a timestamped sibling directory for detection exports and returns its location.
      */
@@ -0,0 +1,302 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downsampled tiles of a display image, for views that zoom out of frames too large to rescale
+ * whole on every repaint.
+ *
+ * <p>Level 0 is the image itself, and every further level halves both dimensions: each pixel is the
+ * rounded per-channel mean of a 2x2 block of the level below, repeating the last row and column at
+ * odd sizes. Levels are cut into {@value #TILE_SIZE}-pixel tiles that are composed on demand from the
+ * four tiles beneath them. Composed tiles are kept in a least-recently-used cache bounded in bytes, so
+ * only the tiles a view actually shows are ever built. One cache of {@link #DEFAULT_CACHE_BYTES} is
+ * shared by all pyramids, so the budget holds however many views are open. Tiles may be requested from
+ * any thread.</p>
+ */
+public final class ImageTilePyramid {
+
+    public static final int TILE_SIZE = 256;
+    static final long DEFAULT_CACHE_BYTES = 128L * 1024L * 1024L;
+
+    private static final TileCache SHARED_CACHE = new TileCache(DEFAULT_CACHE_BYTES);
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    // Cached tiles are keyed by this id rather than by the pyramid, so they never keep a source image alive.
+    private final long id = NEXT_ID.getAndIncrement();
+    private final BufferedImage source;
+    private final int tileType;
+    private final int levelCount;
+    private final TileCache cache;
+
+    public ImageTilePyramid(BufferedImage source) {
+        this(source, SHARED_CACHE);
+    }
+
+    ImageTilePyramid(BufferedImage source, long cacheBudgetBytes) {
+        this(source, new TileCache(cacheBudgetBytes));
+    }
+
+    ImageTilePyramid(BufferedImage source, TileCache cache) {
+        this.source = source;
+        this.tileType = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        this.cache = cache;
+
+        int levels = 1;
+        while (Math.max(levelSize(source.getWidth(), levels - 1), levelSize(source.getHeight(), levels - 1)) > TILE_SIZE) {
+            levels++;
+        }
+        this.levelCount = levels;
+    }
+
+    public BufferedImage getSource() {
+        return source;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public int getLevelWidth(int level) {
+        return levelSize(source.getWidth(), level);
+    }
+
+    public int getLevelHeight(int level) {
+        return levelSize(source.getHeight(), level);
+    }
+
+    public int getTileColumns(int level) {
+        return (getLevelWidth(level) + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    public int getTileRows(int level) {
+        return (getLevelHeight(level) + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    /**
+     * Returns the coarsest level that still has at least one pixel per display pixel when the image is
+     * drawn at {@code scale} display pixels per image pixel.
+     */
+    public int levelFor(double scale) {
+        int level = 0;
+        while (level + 1 < levelCount && scale <= 1.0 / (1 << (level + 1))) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Returns the tile if it can be drawn without composing it: any level-0 tile, which is a view of
+     * the source image, or a cached tile of a coarser level. Returns {@code null} otherwise.
+     */
+    public BufferedImage getTileIfAvailable(int level, int column, int row) {
+        if (level == 0) {
+            return sourceTile(column, row);
+        }
+        return cache.get(id, tileKey(level, column, row));
+    }
+
+    /**
+     * Returns the tile, composing it, and any missing tiles beneath it, on the calling thread.
+     */
+    public BufferedImage getTile(int level, int column, int row) {
+        BufferedImage tile = getTileIfAvailable(level, column, row);
+        if (tile != null) {
+            return tile;
+        }
+        tile = composeTile(level, column, row);
+        cache.put(id, tileKey(level, column, row), tile);
+        return tile;
+    }
+
+    /**
+     * Drops this pyramid's composed tiles from the cache, once no view will draw them again.
+     */
+    public void discardTiles() {
+        cache.removeAll(id);
+    }
+
+    /**
+     * Returns the bytes held by the cache this pyramid stores its tiles in, for all pyramids sharing it.
+     */
+    long getCachedBytes() {
+        return cache.getCachedBytes();
+    }
+
+    private BufferedImage sourceTile(int column, int row) {
+        int x = column * TILE_SIZE;
+        int y = row * TILE_SIZE;
+        return source.getSubimage(x, y, Math.min(TILE_SIZE, source.getWidth() - x), Math.min(TILE_SIZE, source.getHeight() - y));
+    }
+
+    private BufferedImage composeTile(int level, int column, int row) {
+        int width = Math.min(TILE_SIZE, getLevelWidth(level) - column * TILE_SIZE);
+        int height = Math.min(TILE_SIZE, getLevelHeight(level) - row * TILE_SIZE);
+        int[] pixels = new int[width * height];
+
+        int childLevel = level - 1;
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            int childColumn = 2 * column + (quadrant & 1);
+            int childRow = 2 * row + (quadrant >> 1);
+            if (childColumn >= getTileColumns(childLevel) || childRow >= getTileRows(childLevel)) {
+                continue;
+            }
+            int childWidth = Math.min(TILE_SIZE, getLevelWidth(childLevel) - childColumn * TILE_SIZE);
+            int childHeight = Math.min(TILE_SIZE, getLevelHeight(childLevel) - childRow * TILE_SIZE);
+            int[] child = tilePixels(childLevel, childColumn, childRow, childWidth, childHeight);
+            int offsetX = (quadrant & 1) * (TILE_SIZE / 2);
+            int offsetY = (quadrant >> 1) * (TILE_SIZE / 2);
+
+            for (int y = 0; y < (childHeight + 1) / 2; y++) {
+                int top = 2 * y * childWidth;
+                int bottom = Math.min(2 * y + 1, childHeight - 1) * childWidth;
+                int target = (offsetY + y) * width + offsetX;
+                for (int x = 0; x < (childWidth + 1) / 2; x++) {
+                    int left = 2 * x;
+                    int right = Math.min(2 * x + 1, childWidth - 1);
+                    pixels[target + x] = average(child[top + left], child[top + right], child[bottom + left], child[bottom + right]);
+                }
+            }
+        }
+
+        BufferedImage tile = new BufferedImage(width, height, tileType);
+        tile.getRaster().setDataElements(0, 0, width, height, pixels);
+        return tile;
+    }
+
+    /**
+     * Returns a tile's pixels as packed ARGB. Source pixels are read from the raster where possible;
+     * 8-bit gray is expanded level for level, which is how Java2D draws it, unlike {@code getRGB}.
+     */
+    private int[] tilePixels(int level, int column, int row, int width, int height) {
+        if (level > 0) {
+            return (int[]) getTile(level, column, row).getRaster().getDataElements(0, 0, width, height, null);
+        }
+        int x = column * TILE_SIZE;
+        int y = row * TILE_SIZE;
+        switch (source.getType()) {
+            case BufferedImage.TYPE_INT_ARGB:
+                return (int[]) source.getRaster().getDataElements(x, y, width, height, null);
+            case BufferedImage.TYPE_INT_RGB: {
+                int[] pixels = (int[]) source.getRaster().getDataElements(x, y, width, height, null);
+                for (int i = 0; i < pixels.length; i++) {
+                    pixels[i] |= 0xFF000000;
+                }
+                return pixels;
+            }
+            case BufferedImage.TYPE_BYTE_GRAY: {
+                byte[] gray = (byte[]) source.getRaster().getDataElements(x, y, width, height, null);
+                int[] pixels = new int[gray.length];
+                for (int i = 0; i < gray.length; i++) {
+                    int value = gray[i] & 0xFF;
+                    pixels[i] = 0xFF000000 | (value << 16) | (value << 8) | value;
+                }
+                return pixels;
+            }
+            default:
+                return source.getRGB(x, y, width, height, null, 0, width);
+        }
+    }
+
+    private static int average(int a, int b, int c, int d) {
+        int alpha = ((a >>> 24) + (b >>> 24) + (c >>> 24) + (d >>> 24) + 2) >> 2;
+        int red = (((a >> 16) & 0xFF) + ((b >> 16) & 0xFF) + ((c >> 16) & 0xFF) + ((d >> 16) & 0xFF) + 2) >> 2;
+        int green = (((a >> 8) & 0xFF) + ((b >> 8) & 0xFF) + ((c >> 8) & 0xFF) + ((d >> 8) & 0xFF) + 2) >> 2;
+        int blue = ((a & 0xFF) + (b & 0xFF) + (c & 0xFF) + (d & 0xFF) + 2) >> 2;
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    private static long tileBytes(BufferedImage tile) {
+        return 4L * tile.getWidth() * tile.getHeight();
+    }
+
+    private static long tileKey(int level, int column, int row) {
+        return ((long) level << 48) | ((long) row << 24) | column;
+    }
+
+    private static int levelSize(int size, int level) {
+        return (int) (((long) size + (1L << level) - 1) >> level);
+    }
+
+    /**
+     * Least-recently-used composed tiles of any number of pyramids, bounded in bytes as a whole.
+     */
+    static final class TileCache {
+        private final long budgetBytes;
+        private final LinkedHashMap<TileKey, BufferedImage> tiles = new LinkedHashMap<>(64, 0.75f, true);
+        private long cachedBytes;
+
+        TileCache(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        synchronized BufferedImage get(long pyramid, long tile) {
+            return tiles.get(new TileKey(pyramid, tile));
+        }
+
+        synchronized void put(long pyramid, long tile, BufferedImage image) {
+            TileKey key = new TileKey(pyramid, tile);
+            BufferedImage previous = tiles.put(key, image);
+            cachedBytes += tileBytes(image) - (previous != null ? tileBytes(previous) : 0L);
+
+            Iterator<Map.Entry<TileKey, BufferedImage>> iterator = tiles.entrySet().iterator();
+            while (cachedBytes > budgetBytes && iterator.hasNext()) {
+                Map.Entry<TileKey, BufferedImage> entry = iterator.next();
+                if (!entry.getKey().equals(key)) {
+                    cachedBytes -= tileBytes(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+
+        synchronized void removeAll(long pyramid) {
+            Iterator<Map.Entry<TileKey, BufferedImage>> iterator = tiles.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<TileKey, BufferedImage> entry = iterator.next();
+                if (entry.getKey().pyramid == pyramid) {
+                    cachedBytes -= tileBytes(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+
+        synchronized long getCachedBytes() {
+            return cachedBytes;
+        }
+    }
+
+    private static final class TileKey {
+        private final long pyramid;
+        private final long tile;
+
+        private TileKey(long pyramid, long tile) {
+            this.pyramid = pyramid;
+            this.tile = tile;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof TileKey)) {
+                return false;
+            }
+            TileKey key = (TileKey) other;
+            return pyramid == key.pyramid && tile == key.tile;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(pyramid) * 31 + Long.hashCode(tile);
+        }
+    }
+}
@@ -14,33 +14,56 @@ import io.github.ppissias.jtransient.engine.ImageFrame;
 import io.github.ppissias.jtransient.engine.JTransientEngine;
 import io.github.ppissias.jtransient.engine.PipelineResult;
 import io.github.ppissias.jtransient.engine.TransientEngineProgressListener;
-import nom.tam.fits.BasicHDU;
-import nom.tam.fits.Fits;
 
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Owns the iterative slow-mover detection workflow that re-runs the engine on progressively larger
  * time-spaced subsets while keeping a shared master stack.
+ *
+ * <p>The frame indices of every pass are planned up front. Decoded frames are kept in a
+ * {@link RawFrameCache} across passes, so each pass only decodes the frames no earlier pass left in
+ * the cache, and those misses are decoded in parallel. Before a pass exports its report the cache is
+ * told which frames the following passes need, so the report writers' scan over the sequence does
+ * not evict them.</p>
+ *
+ * <p>Once the master stack exists the passes are independent. {@link IterativePassScheduler} runs up
+ * to {@link AppConfig#iterativeConcurrentPasses} of them, and their report exports, at once within
+ * the part of {@link AppConfig#iterativeMemoryBudgetMb} the frame cache leaves, while the safety prompt and the {@code index.html} summaries still follow pass
+ * order. Engines are pooled, so every concurrent pass has its own instance and consecutive passes
+ * reuse it.</p>
  */
 final class IterativeDetectionPipelineService {
 
     private static final DateTimeFormatter ITERATIVE_DIRECTORY_TIMESTAMP =
             DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
+    /**
+     * Working-memory multiplier applied to the raw 16-bit size of a pass's frames: the frames
+     * themselves, the engine's working copies and the report export's buffers.
+     */
+    private static final long PASS_MEMORY_FACTOR = 4L;
+
     private final AppConfig appConfig;
+    private final FrameSource frameSource;
     private final StandardDetectionPipelineService standardDetectionPipelineService;
 
     IterativeDetectionPipelineService(AppConfig appConfig,
+                                      FrameSource frameSource,
                                       StandardDetectionPipelineService standardDetectionPipelineService) {
         this.appConfig = appConfig;
+        this.frameSource = frameSource;
         this.standardDetectionPipelineService = standardDetectionPipelineService;
     }
 
@@ -57,9 +80,13 @@ final class IterativeDetectionPipelineService {
             return standardDetectionPipelineService.detectObjects(config, cachedFileInfo, safetyPrompt, progressListener);
         }
 
-        System.out.println("\n--- Starting ITERATIVE PIPELINE for " + numFrames + " FITS files (On-Demand Loading) ---");
+        System.out.println("\n--- Starting ITERATIVE PIPELINE for " + numFrames + " frames (" + frameSource.describe() + ", On-Demand Loading) ---");
 
         File masterDir = createIterativeOutputDirectory(cachedFileInfo);
+        // The frame cache and the passes in flight share one budget.
+        long memoryBudget = BatchFileProcessor.resolveMemoryBudgetBytes(appConfig.iterativeMemoryBudgetMb);
+        RawFrameCache frameCache = RawFrameCache.createWithinBudget(memoryBudget);
+        long passBudget = memoryBudget - frameCache.getMaxBytes();
         int targetMaxLimit = resolveTargetMaxLimit(maxFramesLimit, numFrames);
 
         System.out.println("\n--- Extracting Timestamps & Exposures for Temporal Spacing ---");
@@ -81,88 +108,74 @@ final class IterativeDetectionPipelineService {
             }
         };
 
-        short[][] providedMasterStack;
-        JTransientEngine globalEngine = new JTransientEngine();
-        try {
-            List<ImageFrame> masterFrames = loadFramesForIndices(
-                    cachedFileInfo,
-                    frameTimestamps,
-                    frameExposures,
-                    sampleFrameIndices(frameTimestamps, hasValidTime, numFrames, targetMaxLimit));
-            providedMasterStack = globalEngine.generateMasterStack(masterFrames, config, masterListener);
-            masterFrames.clear();
-            System.gc();
-        } finally {
-            globalEngine.shutdown();
+        List<List<Integer>> passPlan = planPasses(frameTimestamps, hasValidTime, numFrames, targetMaxLimit);
+        logPassPlan(passPlan);
+
+        int totalIterations = passPlan.size();
+        int lanes = IterativePassScheduler.resolveLaneCount(appConfig.iterativeConcurrentPasses);
+        long[] passCosts = estimatePassWorkingMemory(passPlan, cachedFileInfo[0]);
+        if (lanes > 1) {
+            System.out.println("Running up to " + lanes + " iterative passes concurrently within "
+                    + (passBudget / BatchFileProcessor.MIB) + " MiB, next to a "
+                    + (frameCache.getMaxBytes() / BatchFileProcessor.MIB) + " MiB frame cache.");
         }
 
-        int totalIterations = (int) Math.ceil((targetMaxLimit - 4.0) / 5.0);
-        int currentIteration = 0;
         List<DetectionReportGenerator.IterationSummary> summaries = new ArrayList<>();
-
-        for (int k = 5; k <= targetMaxLimit; k += 5) {
-            System.out.println("\n>>> RUNNING ITERATION: " + k + " Frames (Time-Spaced)");
-
-            final int basePercent = 20 + (int) (((float) currentIteration / totalIterations) * 80);
-            final int nextBasePercent = 20 + (int) (((float) (currentIteration + 1) / totalIterations) * 80);
-            final int currentK = k;
-            TransientEngineProgressListener scaledListener = (enginePercent, message) -> {
-                if (progressListener != null) {
-                    int scaledPercent = basePercent + (int) ((enginePercent / 100.0f) * (nextBasePercent - basePercent));
-                    progressListener.onProgressUpdate(scaledPercent, "Pass " + currentK + " frames: " + message);
-                }
-            };
-
-            if (progressListener != null) {
-                scaledListener.onProgressUpdate(0, "Loading " + k + " frames for engine...");
-            }
-
-            List<ImageFrame> spacedSubset = loadFramesForIndices(
-                    cachedFileInfo,
-                    frameTimestamps,
-                    frameExposures,
-                    sampleFrameIndices(frameTimestamps, hasValidTime, numFrames, k));
-            DetectionPipelineSupport.logPipelineFrameTimingPayload("Iterative pass " + k, spacedSubset, cachedFileInfo);
-
-            DetectionConfig effectiveConfig = DetectionPipelineSupport.createEffectiveDetectionConfig(config, spacedSubset.size());
-
-            PipelineResult result;
-            JTransientEngine engine = new JTransientEngine();
-            try {
-                result = engine.runPipeline(spacedSubset, effectiveConfig, scaledListener, providedMasterStack);
-            } finally {
-                engine.shutdown();
-            }
-
-            ImageProcessing.DetectionSummary detectionSummary = DetectionPipelineSupport.summarizeDetections(result);
-            if (safetyPrompt != null && !safetyPrompt.shouldProceed(detectionSummary)) {
-                System.out.println("Iteration " + k + " aborted by UI callback due to high detection count. Stopping further iterations.");
-                break;
-            }
-
-            if (progressListener != null) {
-                scaledListener.onProgressUpdate(95, "Generating report (on-demand disk reads)...");
-            }
-
-            File iterationDir = new File(masterDir, k + "_frames");
-            iterationDir.mkdirs();
-
+        PipelineMetrics metrics = PipelineMetrics.current();
+        EnginePool engines = new EnginePool();
+        try {
+            short[][] providedMasterStack;
+            JTransientEngine masterEngine = engines.borrow();
             try {
-                DetectionReportGenerator.exportTrackVisualizations(
-                        result,
-                        createOnDemandRawFramesForExport(cachedFileInfo),
+                List<ImageFrame> masterFrames = loadFramesForIndices(
                         cachedFileInfo,
-                        iterationDir,
-                        effectiveConfig,
-                        appConfig);
-            } catch (IOException e) {
-                System.err.println("Failed to export visualization for iteration " + k + ": " + e.getMessage());
+                        frameCache,
+                        frameTimestamps,
+                        frameExposures,
+                        sampleFrameIndices(frameTimestamps, hasValidTime, numFrames, targetMaxLimit));
+                providedMasterStack = masterEngine.generateMasterStack(masterFrames, config, masterListener);
+                masterFrames.clear();
+            } finally {
+                engines.giveBack(masterEngine);
             }
 
-            int anomalyCount = result.anomalies == null ? 0 : result.anomalies.size();
-            summaries.add(new DetectionReportGenerator.IterationSummary(k, k + "_frames", result.tracks.size(), anomalyCount));
+            PassProgress passProgress = new PassProgress(progressListener, totalIterations);
+            IterativePassScheduler.<PassOutcome>run(
+                    totalIterations,
+                    passCosts,
+                    lanes,
+                    passBudget,
+                    pass -> {
+                        try (PipelineMetrics.Binding ignored = metrics != null ? metrics.bindToCurrentThread() : null) {
+                            return runPass(config, cachedFileInfo, frameCache, frameTimestamps, frameExposures,
+                                    passPlan.get(pass), providedMasterStack, engines, passProgress.listenerFor(pass, passPlan.get(pass).size()));
+                        }
+                    },
+                    (pass, outcome) -> {
+                        int k = passPlan.get(pass).size();
+                        ImageProcessing.DetectionSummary detectionSummary = DetectionPipelineSupport.summarizeDetections(outcome.result);
+                        if (safetyPrompt != null && !safetyPrompt.shouldProceed(detectionSummary)) {
+                            System.out.println("Iteration " + k + " aborted by UI callback due to high detection count. Stopping further iterations.");
+                            return false;
+                        }
 
-            currentIteration++;
+                        // Keep the frames of the passes that start next resident while this pass's report writers walk the sequence.
+                        frameCache.setRetentionHint(pass, collectUpcomingIndices(passPlan, pass, lanes));
+
+                        int anomalyCount = outcome.result.anomalies == null ? 0 : outcome.result.anomalies.size();
+                        summaries.add(new DetectionReportGenerator.IterationSummary(k, k + "_frames", outcome.result.tracks.size(), anomalyCount));
+                        return true;
+                    },
+                    (pass, outcome) -> {
+                        try (PipelineMetrics.Binding ignored = metrics != null ? metrics.bindToCurrentThread() : null) {
+                            exportPass(cachedFileInfo, frameCache, masterDir, passPlan.get(pass).size(), outcome,
+                                    passProgress.listenerFor(pass, passPlan.get(pass).size()));
+                        } finally {
+                            frameCache.clearRetentionHint(pass);
+                        }
+                    });
+        } finally {
+            engines.shutdown();
         }
 
         if (progressListener != null) {
@@ -173,12 +186,14 @@ final class IterativeDetectionPipelineService {
         try {
             DetectionReportGenerator.exportIterativeIndexReport(masterDir, summaries);
             System.out.println("Total Iterative Pipeline Time: " + (System.currentTimeMillis() - startTime) + "ms");
+            System.out.println(frameCache.describeStatistics());
             return indexFile;
         } catch (IOException e) {
             System.err.println("Failed to write iterative index report: " + e.getMessage());
         }
 
         System.out.println("Total Iterative Pipeline Time: " + (System.currentTimeMillis() - startTime) + "ms");
+        System.out.println(frameCache.describeStatistics());
         return masterDir;
     }
 
@@ -225,6 +240,125 @@ final class IterativeDetectionPipelineService {
         return indices;
     }
 
+    /**
+     * Loads the frames of one pass and runs the engine on them with a pooled engine instance.
+     */
+    private PassOutcome runPass(DetectionConfig config,
+                                FitsFileInformation[] cachedFileInfo,
+                                RawFrameCache frameCache,
+                                long[] frameTimestamps,
+                                long[] frameExposures,
+                                List<Integer> passIndices,
+                                short[][] providedMasterStack,
+                                EnginePool engines,
+                                TransientEngineProgressListener scaledListener) throws Exception {
+        int k = passIndices.size();
+        System.out.println("\n>>> RUNNING ITERATION: " + k + " Frames (Time-Spaced)");
+        scaledListener.onProgressUpdate(0, "Loading " + k + " frames for engine...");
+
+        int reusedFrames = countCachedFrames(frameCache, passIndices);
+        List<ImageFrame> spacedSubset = loadFramesForIndices(
+                cachedFileInfo,
+                frameCache,
+                frameTimestamps,
+                frameExposures,
+                passIndices);
+        System.out.println("Pass " + k + ": reused " + reusedFrames + " decoded frame(s), decoded " + (k - reusedFrames) + ".");
+        DetectionPipelineSupport.logPipelineFrameTimingPayload("Iterative pass " + k, spacedSubset, cachedFileInfo);
+
+        DetectionConfig effectiveConfig = DetectionPipelineSupport.createEffectiveDetectionConfig(config, spacedSubset.size());
+
+        JTransientEngine engine = engines.borrow();
+        try {
+            PipelineResult result = engine.runPipeline(spacedSubset, effectiveConfig, scaledListener, providedMasterStack);
+            return new PassOutcome(result, effectiveConfig);
+        } finally {
+            engines.giveBack(engine);
+        }
+    }
+
+    private void exportPass(FitsFileInformation[] cachedFileInfo,
+                            RawFrameCache frameCache,
+                            File masterDir,
+                            int k,
+                            PassOutcome outcome,
+                            TransientEngineProgressListener scaledListener) {
+        scaledListener.onProgressUpdate(95, "Generating report (cached on-demand disk reads)...");
+
+        File iterationDir = new File(masterDir, k + "_frames");
+        iterationDir.mkdirs();
+
+        try {
+            DetectionReportGenerator.exportTrackVisualizations(
+                    outcome.result,
+                    createOnDemandRawFramesForExport(cachedFileInfo, frameCache),
+                    cachedFileInfo,
+                    iterationDir,
+                    outcome.effectiveConfig,
+                    appConfig);
+        } catch (IOException e) {
+            System.err.println("Failed to export visualization for iteration " + k + ": " + e.getMessage());
+        }
+        scaledListener.onProgressUpdate(100, "Report written.");
+    }
+
+    /**
+     * Estimates the working memory of every pass: its frames, the engine's working copies of them and
+     * the report export's render buffers.
+     */
+    static long[] estimatePassWorkingMemory(List<List<Integer>> passPlan, FitsFileInformation frameInfo) {
+        long frameBytes = 2L * frameInfo.getSizeWidth() * frameInfo.getSizeHeight();
+        long[] costs = new long[passPlan.size()];
+        for (int pass = 0; pass < costs.length; pass++) {
+            costs[pass] = passPlan.get(pass).size() * frameBytes * PASS_MEMORY_FACTOR;
+        }
+        return costs;
+    }
+
+    /**
+     * Returns the frame indices of the {@code lanes} passes following {@code pass}, which are the
+     * ones that may start while its report is exported.
+     */
+    static Set<Integer> collectUpcomingIndices(List<List<Integer>> passPlan, int pass, int lanes) {
+        Set<Integer> upcoming = new HashSet<>();
+        for (int next = pass + 1; next < passPlan.size() && next <= pass + lanes; next++) {
+            upcoming.addAll(passPlan.get(next));
+        }
+        return upcoming;
+    }
+
+    /**
+     * Returns the frame indices of every pass, {@code k = 5, 10, ...} up to {@code targetMaxLimit}.
+     */
+    static List<List<Integer>> planPasses(long[] times, boolean hasValidTime, int numFrames, int targetMaxLimit) {
+        List<List<Integer>> passes = new ArrayList<>();
+        for (int k = 5; k <= targetMaxLimit; k += 5) {
+            passes.add(sampleFrameIndices(times, hasValidTime, numFrames, k));
+        }
+        return passes;
+    }
+
+    private static void logPassPlan(List<List<Integer>> passPlan) {
+        Set<Integer> distinctFrames = new HashSet<>();
+        int requestedFrames = 0;
+        for (List<Integer> passIndices : passPlan) {
+            requestedFrames += passIndices.size();
+            distinctFrames.addAll(passIndices);
+        }
+        System.out.println("Iterative plan: " + passPlan.size() + " passes over " + requestedFrames
+                + " frame slots, " + distinctFrames.size() + " distinct frames to decode at most once while they fit the cache.");
+    }
+
+    private static int countCachedFrames(RawFrameCache frameCache, List<Integer> indices) {
+        int cached = 0;
+        for (int index : indices) {
+            if (frameCache.contains(index)) {
+                cached++;
+            }
+        }
+        return cached;
+    }
+
     private static File createIterativeOutputDirectory(FitsFileInformation[] cachedFileInfo) {
         File parentDir = new File(cachedFileInfo[0].getFilePath()).getParentFile();
         if (parentDir == null) {
@@ -245,46 +379,46 @@ final class IterativeDetectionPipelineService {
         return targetMaxLimit;
     }
 
-    private static List<ImageFrame> loadFramesForIndices(FitsFileInformation[] cachedFileInfo,
-                                                         long[] frameTimestamps,
-                                                         long[] frameExposures,
-                                                         List<Integer> indices) throws Exception {
-        List<ImageFrame> frames = new ArrayList<>();
-        for (int index : indices) {
-            frames.add(loadFrame(cachedFileInfo, frameTimestamps, frameExposures, index));
-        }
+    /**
+     * Builds the engine frames for {@code indices}, in order. Cached frames are served immediately;
+     * the others are decoded on the frame-loading workers and stored in the cache.
+     */
+    private List<ImageFrame> loadFramesForIndices(FitsFileInformation[] cachedFileInfo,
+                                                  RawFrameCache frameCache,
+                                                  long[] frameTimestamps,
+                                                  long[] frameExposures,
+                                                  List<Integer> indices) throws Exception {
+        List<ImageFrame> frames = new ArrayList<>(indices.size());
+        int workers = ParallelFrameLoader.resolveWorkerCount(appConfig.frameLoadingThreads);
+        ParallelFrameLoader.loadInOrder(
+                indices.size(),
+                workers,
+                ParallelFrameLoader.resolveMaxInFlight(appConfig.frameLoadingMaxInFlight, workers),
+                position -> frameCache.get(indices.get(position), frameIndex -> readFrame(cachedFileInfo, frameIndex)),
+                null,
+                (position, pixelData) -> {
+                    int index = indices.get(position);
+                    String fileName = new File(cachedFileInfo[index].getFilePath()).getName();
+                    frames.add(new ImageFrame(index, fileName, pixelData, frameTimestamps[index], frameExposures[index]));
+                });
         return frames;
     }
 
-    private static ImageFrame loadFrame(FitsFileInformation[] cachedFileInfo,
-                                        long[] frameTimestamps,
-                                        long[] frameExposures,
-                                        int index) throws Exception {
-        File currentFile = new File(cachedFileInfo[index].getFilePath());
-        try (Fits fitsFile = new Fits(currentFile)) {
-            BasicHDU<?> hdu = ImageProcessing.getImageHDU(fitsFile);
-            Object kernel = hdu.getKernel();
-            if (!(kernel instanceof short[][])) {
-                throw new IOException("Cannot process: Expected short[][] but found " + kernel.getClass() + " in file " + currentFile.getName());
-            }
-            return new ImageFrame(index, currentFile.getName(), (short[][]) kernel, frameTimestamps[index], frameExposures[index]);
-        }
+    private short[][] readFrame(FitsFileInformation[] cachedFileInfo, int index) throws Exception {
+        return frameSource.readFrame(cachedFileInfo[index]);
     }
 
-    private static List<short[][]> createOnDemandRawFramesForExport(FitsFileInformation[] cachedFileInfo) {
+    /**
+     * Exposes the sequence as a read-only list whose frames are decoded on first access and then
+     * served from the shared {@link RawFrameCache} for the remaining passes and report writers.
+     */
+    private List<short[][]> createOnDemandRawFramesForExport(FitsFileInformation[] cachedFileInfo,
+                                                                    RawFrameCache frameCache) {
         return new AbstractList<short[][]>() {
             @Override
             public short[][] get(int index) {
                 try {
-                    File currentFile = new File(cachedFileInfo[index].getFilePath());
-                    try (Fits fitsFile = new Fits(currentFile)) {
-                        BasicHDU<?> hdu = ImageProcessing.getImageHDU(fitsFile);
-                        Object kernel = hdu.getKernel();
-                        if (!(kernel instanceof short[][])) {
-                            throw new IOException("Cannot process: Expected short[][] but found " + kernel.getClass() + " in file " + currentFile.getName());
-                        }
-                        return (short[][]) kernel;
-                    }
+                    return frameCache.get(index, frameIndex -> readFrame(cachedFileInfo, frameIndex));
                 } catch (Exception e) {
                     throw new RuntimeException("Failed to read frame " + index + " on demand: " + e.getMessage(), e);
                 }
@@ -296,4 +430,83 @@ final class IterativeDetectionPipelineService {
             }
         };
     }
+
+    /**
+     * Engine result of one pass, handed from the pass lane to its report export.
+     */
+    private static final class PassOutcome {
+        private final PipelineResult result;
+        private final DetectionConfig effectiveConfig;
+
+        private PassOutcome(PipelineResult result, DetectionConfig effectiveConfig) {
+            this.result = result;
+            this.effectiveConfig = effectiveConfig;
+        }
+    }
+
+    /**
+     * Engines of one run. An engine is used by one pass at a time and handed to the next pass that
+     * starts, so the run creates at most one engine per concurrent lane.
+     */
+    private static final class EnginePool {
+        private final Deque<JTransientEngine> idle = new ArrayDeque<>();
+        private final List<JTransientEngine> created = new ArrayList<>();
+
+        private synchronized JTransientEngine borrow() {
+            JTransientEngine engine = idle.pollFirst();
+            if (engine == null) {
+                engine = new JTransientEngine();
+                created.add(engine);
+            }
+            return engine;
+        }
+
+        private synchronized void giveBack(JTransientEngine engine) {
+            idle.addFirst(engine);
+        }
+
+        private synchronized void shutdown() {
+            for (JTransientEngine engine : created) {
+                engine.shutdown();
+            }
+            created.clear();
+            idle.clear();
+        }
+    }
+
+    /**
+     * Folds the engine progress of concurrently running passes into one monotonic percentage: the
+     * master map takes the first 20% and every pass an equal share of the rest.
+     */
+    private static final class PassProgress {
+        private final TransientEngineProgressListener progressListener;
+        private final int[] passPercents;
+        private int reportedPercent = 20;
+
+        private PassProgress(TransientEngineProgressListener progressListener, int passCount) {
+            this.progressListener = progressListener;
+            this.passPercents = new int[passCount];
+        }
+
+        private TransientEngineProgressListener listenerFor(int pass, int k) {
+            return (enginePercent, message) -> update(pass, enginePercent, "Pass " + k + " frames: " + message);
+        }
+
+        private void update(int pass, int passPercent, String message) {
+            if (progressListener == null) {
+                return;
+            }
+            int percent;
+            synchronized (this) {
+                passPercents[pass] = Math.max(passPercents[pass], Math.min(100, passPercent));
+                long total = 0L;
+                for (int value : passPercents) {
+                    total += value;
+                }
+                reportedPercent = Math.max(reportedPercent, 20 + (int) (total * 80L / (100L * passPercents.length)));
+                percent = reportedPercent;
+            }
+            progressListener.onProgressUpdate(percent, message);
+        }
+    }
 }
@@ -0,0 +1,315 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the passes of an iterative detection concurrently while keeping their outcome ordered.
+ *
+ * <ul>
+ *     <li>Every pass runs in two stages on a lane of {@link SharedExecutors#sessions()}: the
+ *     {@link PassTask} (load frames, run the engine) and, once accepted, the {@link PassFollowUp}
+ *     (export its report). Lanes never occupy I/O workers, so the frame reads and GIF encoding they
+ *     queue on the I/O pool always find a worker. A lane the pool has not started when the calling
+ *     thread needs it runs on the calling thread.</li>
+ *     <li>Passes are started in order. At most {@code lanes} passes are in flight, and the estimated
+ *     working memory of the passes in flight never exceeds the memory budget. A single pass larger
+ *     than the whole budget still runs, but alone.</li>
+ *     <li>The {@link PassGate} sees every result on the calling thread, strictly in pass order. When
+ *     it rejects a pass, that pass and every later one are dropped; passes that already started are
+ *     waited for and discarded.</li>
+ * </ul>
+ *
+ * <p>With one lane the passes run exactly one after another, as the sequential pipeline did.</p>
+ */
+final class IterativePassScheduler {
+
+    /**
+     * How long the calling thread waits on the oldest pass before re-checking whether finished
+     * exports freed enough budget to admit further passes.
+     */
+    private static final long ADMISSION_POLL_MILLIS = 50L;
+
+    @FunctionalInterface
+    interface PassTask<R> {
+        R run(int pass) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface PassGate<R> {
+        /**
+         * Called on the calling thread, in pass order.
+         *
+         * @return {@code false} to drop this pass and stop all later ones
+         */
+        boolean accept(int pass, R result) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface PassFollowUp<R> {
+        void run(int pass, R result) throws Exception;
+    }
+
+    private IterativePassScheduler() {
+    }
+
+    /**
+     * Resolves the configured lane count, where {@code 0} selects one lane per four cores and
+     * negative values fall back to a single lane.
+     */
+    static int resolveLaneCount(int configuredLanes) {
+        if (configuredLanes > 0) {
+            return configuredLanes;
+        }
+        if (configuredLanes < 0) {
+            return 1;
+        }
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+    }
+
+    /**
+     * Runs {@code passCount} passes.
+     *
+     * @param costBytes estimated working memory of every pass
+     * @return number of passes the gate accepted; their follow-ups have all completed
+     * @throws Exception the first failure of a task, the gate or a follow-up; the remaining passes
+     *                   are stopped and waited for before it is thrown
+     */
+    static <R> int run(int passCount,
+                       long[] costBytes,
+                       int lanes,
+                       long memoryBudgetBytes,
+                       PassTask<R> task,
+                       PassGate<R> gate,
+                       PassFollowUp<R> followUp) throws Exception {
+        if (passCount <= 0) {
+            return 0;
+        }
+
+        int laneCount = Math.max(1, Math.min(lanes, passCount));
+        if (laneCount == 1) {
+            return runSequentially(passCount, task, gate, followUp);
+        }
+
+        int budgetMb = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, memoryBudgetBytes / BatchFileProcessor.MIB));
+        int[] permits = new int[passCount];
+        for (int i = 0; i < passCount; i++) {
+            long costMb = (Math.max(0L, costBytes[i]) + BatchFileProcessor.MIB - 1) / BatchFileProcessor.MIB;
+            permits[i] = (int) Math.max(1L, Math.min(budgetMb, costMb));
+        }
+
+        Admission admission = new Admission(laneCount, budgetMb, permits);
+        ExecutorService executor = SharedExecutors.sessions();
+        List<FutureTask<R>> pending = new ArrayList<>(passCount);
+        List<FutureTask<Void>> followUps = new ArrayList<>(passCount);
+        int accepted = 0;
+        try {
+            for (int next = 0; next < passCount; next++) {
+                admitReadyPasses(admission, executor, pending, task, next, passCount);
+
+                FutureTask<R> future = pending.get(next);
+                while (!future.isDone()) {
+                    try {
+                        future.get(ADMISSION_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        admitReadyPasses(admission, executor, pending, task, next, passCount);
+                        // Runs the pass here if the pool still has not started it.
+                        future.run();
+                    } catch (ExecutionException e) {
+                        break;
+                    }
+                }
+
+                R result = await(future);
+                pending.set(next, null);
+                if (!gate.accept(next, result)) {
+                    admission.release(next);
+                    break;
+                }
+                accepted++;
+
+                int pass = next;
+                followUps.add(execute(executor, () -> {
+                    try {
+                        followUp.run(pass, result);
+                        return null;
+                    } finally {
+                        admission.release(pass);
+                    }
+                }));
+            }
+
+            for (FutureTask<Void> completion : followUps) {
+                await(completion);
+            }
+            return accepted;
+        } finally {
+            admission.stop();
+            for (FutureTask<R> future : pending) {
+                awaitQuietly(future);
+            }
+            for (FutureTask<Void> future : followUps) {
+                awaitQuietly(future);
+            }
+        }
+    }
+
+    private static <R> int runSequentially(int passCount,
+                                           PassTask<R> task,
+                                           PassGate<R> gate,
+                                           PassFollowUp<R> followUp) throws Exception {
+        int accepted = 0;
+        for (int pass = 0; pass < passCount; pass++) {
+            R result = task.run(pass);
+            if (!gate.accept(pass, result)) {
+                break;
+            }
+            accepted++;
+            followUp.run(pass, result);
+        }
+        return accepted;
+    }
+
+    /**
+     * Starts further passes, in order, while lanes and budget allow. When the pass the caller is
+     * about to wait for has not started yet, this blocks until it can be admitted.
+     */
+    private static <R> void admitReadyPasses(Admission admission,
+                                             ExecutorService executor,
+                                             List<FutureTask<R>> pending,
+                                             PassTask<R> task,
+                                             int next,
+                                             int passCount) throws InterruptedException {
+        while (pending.size() < passCount) {
+            int pass = pending.size();
+            if (pass == next) {
+                admission.acquire(pass);
+            } else if (!admission.tryAcquire(pass)) {
+                return;
+            }
+            pending.add(execute(executor, () -> {
+                if (admission.isStopped()) {
+                    admission.release(pass);
+                    return null;
+                }
+                try {
+                    return task.run(pass);
+                } catch (Exception | Error e) {
+                    admission.release(pass);
+                    throw e;
+                }
+            }));
+        }
+    }
+
+    private static <T> FutureTask<T> execute(ExecutorService executor, Callable<T> callable) {
+        FutureTask<T> future = new FutureTask<>(callable);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            // The pool is shutting down; the task runs on the thread that waits for it.
+        }
+        return future;
+    }
+
+    private static <T> T await(FutureTask<T> future) throws Exception {
+        try {
+            return SharedExecutors.awaitOrRun(future);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void awaitQuietly(FutureTask<?> future) {
+        if (future == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                SharedExecutors.awaitOrRun(future);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (Exception e) {
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Lane and memory permits of the passes in flight. A pass holds one lane and its memory permits
+     * from admission until its follow-up ends or it is dropped.
+     */
+    private static final class Admission {
+        private final Semaphore lanes;
+        private final Semaphore memory;
+        private final int[] permits;
+        private volatile boolean stopped;
+
+        private Admission(int laneCount, int budgetMb, int[] permits) {
+            this.lanes = new Semaphore(laneCount);
+            this.memory = new Semaphore(budgetMb);
+            this.permits = permits;
+        }
+
+        private void acquire(int pass) throws InterruptedException {
+            lanes.acquire();
+            try {
+                memory.acquire(permits[pass]);
+            } catch (InterruptedException e) {
+                lanes.release();
+                throw e;
+            }
+        }
+
+        private boolean tryAcquire(int pass) {
+            if (!lanes.tryAcquire()) {
+                return false;
+            }
+            if (!memory.tryAcquire(permits[pass])) {
+                lanes.release();
+                return false;
+            }
+            return true;
+        }
+
+        private void release(int pass) {
+            memory.release(permits[pass]);
+            lanes.release();
+        }
+
+        private void stop() {
+            stopped = true;
+        }
+
+        private boolean isStopped() {
+            return stopped;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import eu.startales.spacepixels.config.AppConfig;
+import io.github.ppissias.jtransient.config.DetectionConfig;
+import io.github.ppissias.jtransient.engine.TransientEngineProgressListener;
+import nom.tam.fits.FitsException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Live detection over a capture folder that is still being written to.
+ *
+ * <p>Each {@link #poll(TransientEngineProgressListener) poll} ingests the frames that finished
+ * writing since the previous poll: their headers are validated against the headless mono 16-bit
+ * rules and the geometry of the first accepted frame, and they are decoded once into a
+ * {@link SlidingFrameWindow} of the most recent frames. Once enough new frames have arrived the
+ * standard pipeline is re-run on the window straight from memory, the report in
+ * {@value #LIVE_REPORT_DIRECTORY} is replaced and a summary line is appended to
+ * {@value #UPDATE_LOG_FILENAME} in the capture folder.</p>
+ *
+ * <p>Every run writes its report into a staging directory and only then swaps it in, so the capture
+ * folder holds a single live report however often detection re-runs, and a viewer never sees one
+ * that is half written.</p>
+ */
+public final class LiveDetectionSession {
+
+    public static final String UPDATE_LOG_FILENAME = "spacepixels_watch_updates.tsv";
+    public static final String LIVE_REPORT_DIRECTORY = "detections_live";
+    private static final String STAGING_SUFFIX = ".partial";
+
+    private static final String UPDATE_LOG_HEADER = String.join("\t",
+            "run", "completed_utc", "window_frames", "frames_ingested", "first_frame", "last_frame",
+            "detections", "streaks", "moving_targets", "anomalies", "slow_movers", "pipeline_ms", "report");
+
+    /**
+     * Callbacks for console or UI feedback. All callbacks run on the polling thread.
+     */
+    public interface Listener {
+        default void onFrameIngested(FitsFileInformation fileInfo, int windowSize) {
+        }
+
+        default void onFrameRejected(File file, String reason) {
+        }
+
+        default void onUpdate(Update update) {
+        }
+
+        default void onRunFailed(Exception failure) {
+        }
+    }
+
+    /**
+     * Outcome of one detection run over the current window.
+     */
+    public static final class Update {
+        private final int runNumber;
+        private final Instant completedAt;
+        private final int windowFrameCount;
+        private final long framesIngested;
+        private final String firstFrame;
+        private final String lastFrame;
+        private final ImageProcessing.DetectionSummary summary;
+        private final File reportFile;
+        private final long pipelineDurationMillis;
+
+        private Update(int runNumber,
+                       Instant completedAt,
+                       int windowFrameCount,
+                       long framesIngested,
+                       String firstFrame,
+                       String lastFrame,
+                       ImageProcessing.DetectionSummary summary,
+                       File reportFile,
+                       long pipelineDurationMillis) {
+            this.runNumber = runNumber;
+            this.completedAt = completedAt;
+            this.windowFrameCount = windowFrameCount;
+            this.framesIngested = framesIngested;
+            this.firstFrame = firstFrame;
+            this.lastFrame = lastFrame;
+            this.summary = summary;
+            this.reportFile = reportFile;
+            this.pipelineDurationMillis = pipelineDurationMillis;
+        }
+
+        public int getRunNumber() {
+            return runNumber;
+        }
+
+        public Instant getCompletedAt() {
+            return completedAt;
+        }
+
+        public int getWindowFrameCount() {
+            return windowFrameCount;
+        }
+
+        public long getFramesIngested() {
+            return framesIngested;
+        }
+
+        public String getFirstFrame() {
+            return firstFrame;
+        }
+
+        public String getLastFrame() {
+            return lastFrame;
+        }
+
+        public ImageProcessing.DetectionSummary getSummary() {
+            return summary;
+        }
+
+        /**
+         * @return the exported report, or {@code null} if the export failed
+         */
+        public File getReportFile() {
+            return reportFile;
+        }
+
+        public long getPipelineDurationMillis() {
+            return pipelineDurationMillis;
+        }
+    }
+
+    private final File captureDirectory;
+    private final DetectionConfig config;
+    private final int rerunAfterFrames;
+    private final Listener listener;
+    private final ImageProcessing imageProcessing;
+    private final CaptureFolderWatcher watcher;
+    private final SlidingFrameWindow window;
+
+    private int referenceWidth = -1;
+    private int referenceHeight = -1;
+    private long framesIngested;
+    private int framesSinceLastRun;
+    private int runCount;
+
+    /**
+     * @param windowSize       number of most recent frames each detection run covers
+     * @param rerunAfterFrames number of newly ingested frames that triggers the next run
+     */
+    public LiveDetectionSession(File captureDirectory,
+                                DetectionConfig config,
+                                int windowSize,
+                                int rerunAfterFrames,
+                                Listener listener) throws IOException, FitsException {
+        Objects.requireNonNull(captureDirectory, "captureDirectory");
+        Objects.requireNonNull(config, "config");
+        if (!captureDirectory.isDirectory()) {
+            throw new IOException("Capture path is not a directory: " + captureDirectory.getAbsolutePath());
+        }
+        if (windowSize < ImageProcessing.MIN_USABLE_FRAMES_FOR_MULTI_FRAME_ANALYSIS) {
+            throw new IllegalArgumentException("The watch window must hold at least "
+                    + ImageProcessing.MIN_USABLE_FRAMES_FOR_MULTI_FRAME_ANALYSIS + " frames.");
+        }
+        this.captureDirectory = captureDirectory;
+        this.config = config;
+        this.rerunAfterFrames = Math.max(1, rerunAfterFrames);
+        this.listener = listener != null ? listener : new Listener() { };
+        this.imageProcessing = ImageProcessing.getInstance(captureDirectory);
+        this.watcher = new CaptureFolderWatcher(captureDirectory);
+        this.window = new SlidingFrameWindow(windowSize);
+    }
+
+    /**
+     * Polls until no new frame has appeared for {@code maxIdleMillis} ({@code <= 0} polls until the
+     * thread is interrupted).
+     */
+    public void run(long pollIntervalMillis, long maxIdleMillis, TransientEngineProgressListener progressListener) throws Exception {
+        long lastActivity = System.currentTimeMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            long ingestedBefore = framesIngested;
+            poll(progressListener);
+            if (framesIngested != ingestedBefore || watcher.lastPollSawWrites()) {
+                lastActivity = System.currentTimeMillis();
+            } else if (maxIdleMillis > 0 && System.currentTimeMillis() - lastActivity >= maxIdleMillis) {
+                return;
+            }
+            Thread.sleep(Math.max(100L, pollIntervalMillis));
+        }
+    }
+
+    /**
+     * Ingests newly completed frames and re-runs detection when enough of them arrived.
+     *
+     * @return the update produced by this poll, or {@code null} if no detection run was due
+     */
+    public Update poll(TransientEngineProgressListener progressListener) throws Exception {
+        ingest(watcher.poll());
+
+        if (framesSinceLastRun < rerunAfterFrames
+                || window.size() < ImageProcessing.MIN_USABLE_FRAMES_FOR_MULTI_FRAME_ANALYSIS) {
+            return null;
+        }
+        framesSinceLastRun = 0;
+
+        FitsFileInformation[] filesInfo = window.filesInformation();
+        ImageProcessing.PipelineExecutionData executionData;
+        try {
+            executionData = imageProcessing.runDetectionPipeline(config, filesInfo, window.frames(), progressListener);
+        } catch (Exception e) {
+            listener.onRunFailed(e);
+            return null;
+        }
+
+        File reportFile = null;
+        try {
+            reportFile = exportLiveReport(executionData);
+        } catch (IOException e) {
+            listener.onRunFailed(e);
+        }
+
+        Update update = new Update(
+                ++runCount,
+                Instant.now(),
+                filesInfo.length,
+                framesIngested,
+                filesInfo[0].getFileName(),
+                filesInfo[filesInfo.length - 1].getFileName(),
+                ImageProcessing.summarizeDetections(executionData),
+                reportFile,
+                executionData.getPipelineDurationMillis());
+        appendUpdateLog(update);
+        listener.onUpdate(update);
+        return update;
+    }
+
+    public File getCaptureDirectory() {
+        return captureDirectory;
+    }
+
+    public long getFramesIngested() {
+        return framesIngested;
+    }
+
+    public int getWindowFrameCount() {
+        return window.size();
+    }
+
+    private void ingest(List<File> completedFiles) throws Exception {
+        if (completedFiles.isEmpty()) {
+            return;
+        }
+
+        List<FitsFileInformation> accepted = new ArrayList<>(completedFiles.size());
+        for (File file : completedFiles) {
+            FitsFileInformation fileInfo;
+            try {
+                fileInfo = imageProcessing.getFrameSource().readFrameInformation(file);
+            } catch (Exception e) {
+                listener.onFrameRejected(file, e.getMessage());
+                continue;
+            }
+            if (referenceWidth < 0) {
+                referenceWidth = fileInfo.getSizeWidth();
+                referenceHeight = fileInfo.getSizeHeight();
+            } else if (fileInfo.getSizeWidth() != referenceWidth || fileInfo.getSizeHeight() != referenceHeight) {
+                listener.onFrameRejected(file, String.format(Locale.US, "dimensions %dx%d differ from the session's %dx%d",
+                        fileInfo.getSizeWidth(), fileInfo.getSizeHeight(), referenceWidth, referenceHeight));
+                continue;
+            }
+            accepted.add(fileInfo);
+        }
+
+        // Only decode frames that will still be in the window once this batch has been added.
+        Collections.sort(accepted, SlidingFrameWindow.CHRONOLOGICAL);
+        List<FitsFileInformation> toDecode = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            FitsFileInformation fileInfo = accepted.get(i);
+            if (i < accepted.size() - window.capacity() || !window.wouldRetain(fileInfo)) {
+                listener.onFrameRejected(new File(fileInfo.getFilePath()), "older than the current window");
+            } else {
+                toDecode.add(fileInfo);
+            }
+        }
+
+        AppConfig appConfig = imageProcessing.getAppConfig();
+        FrameSource frameSource = imageProcessing.getFrameSource();
+        int workers = ParallelFrameLoader.resolveWorkerCount(appConfig.frameLoadingThreads);
+        // A frame that cannot be decoded is reported and skipped; it must not end the watch session.
+        Exception[] decodeFailures = new Exception[toDecode.size()];
+        ParallelFrameLoader.loadInOrder(
+                toDecode.size(),
+                workers,
+                ParallelFrameLoader.resolveMaxInFlight(appConfig.frameLoadingMaxInFlight, workers),
+                index -> {
+                    try {
+                        return frameSource.readFrame(toDecode.get(index));
+                    } catch (Exception e) {
+                        decodeFailures[index] = e;
+                        return null;
+                    }
+                },
+                null,
+                (index, frame) -> {
+                    FitsFileInformation fileInfo = toDecode.get(index);
+                    File file = new File(fileInfo.getFilePath());
+                    if (frame == null) {
+                        Exception failure = decodeFailures[index];
+                        listener.onFrameRejected(file, "could not be decoded: "
+                                + (failure != null ? failure.getMessage() : "no image data"));
+                    } else if (!window.add(fileInfo, frame)) {
+                        listener.onFrameRejected(file, "older than the current window");
+                    } else {
+                        framesIngested++;
+                        framesSinceLastRun++;
+                        listener.onFrameIngested(fileInfo, window.size());
+                    }
+                });
+    }
+
+    private File exportLiveReport(ImageProcessing.PipelineExecutionData executionData) throws IOException {
+        File liveDirectory = new File(captureDirectory, LIVE_REPORT_DIRECTORY);
+        File stagingDirectory = new File(captureDirectory, LIVE_REPORT_DIRECTORY + STAGING_SUFFIX);
+        deleteRecursively(stagingDirectory.toPath());
+        Files.createDirectories(stagingDirectory.toPath());
+
+        File stagedReport = imageProcessing.exportDetectionReport(executionData, stagingDirectory);
+        deleteRecursively(liveDirectory.toPath());
+        Files.move(stagingDirectory.toPath(), liveDirectory.toPath());
+        return stagedReport == null ? null : new File(liveDirectory, stagedReport.getName());
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            List<Path> ordered = paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (Path path : ordered) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void appendUpdateLog(Update update) {
+        File logFile = new File(captureDirectory, UPDATE_LOG_FILENAME);
+        ImageProcessing.DetectionSummary summary = update.summary;
+        String line = String.join("\t",
+                String.valueOf(update.runNumber),
+                update.completedAt.toString(),
+                String.valueOf(update.windowFrameCount),
+                String.valueOf(update.framesIngested),
+                update.firstFrame,
+                update.lastFrame,
+                String.valueOf(summary.totalDetections),
+                String.valueOf(summary.singleStreaks + summary.streakTracks),
+                String.valueOf(summary.movingTargets),
+                String.valueOf(summary.anomalies),
+                String.valueOf(summary.potentialSlowMovers),
+                String.valueOf(update.pipelineDurationMillis),
+                update.reportFile == null ? "" : update.reportFile.getAbsolutePath());
+        try {
+            List<String> lines = new ArrayList<>(2);
+            if (!logFile.exists()) {
+                lines.add(UPDATE_LOG_HEADER);
+            }
+            lines.add(line);
+            Files.write(logFile.toPath(), lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Failed to append live update log " + logFile.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+}
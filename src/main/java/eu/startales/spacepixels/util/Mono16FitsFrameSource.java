@@ -0,0 +1,53 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Reads detection-ready, uncompressed 16-bit monochrome FITS frames as they are stored. Frames that
+ * do not meet the headless mono 16-bit rules are rejected when their metadata is read.
+ */
+final class Mono16FitsFrameSource implements FrameSource {
+
+    static final Mono16FitsFrameSource INSTANCE = new Mono16FitsFrameSource();
+
+    private Mono16FitsFrameSource() {
+    }
+
+    @Override
+    public File[] listFrameFiles(File directory) throws IOException {
+        return ImageProcessing.listFitsFiles(directory);
+    }
+
+    @Override
+    public FitsFileInformation readFrameInformation(File file) throws Exception {
+        return ImageProcessing.loadHeadlessFrameInformation(file);
+    }
+
+    @Override
+    public short[][] readFrame(FitsFileInformation fileInfo) throws Exception {
+        return FitsFrameReader.readMono16Frame(new File(fileInfo.getFilePath()));
+    }
+
+    @Override
+    public short[][] readFrame(FitsFileInformation fileInfo, short[][] reuse) throws Exception {
+        return FitsFrameReader.readMono16Frame(new File(fileInfo.getFilePath()), reuse);
+    }
+
+    @Override
+    public boolean isDetectionReady() {
+        return true;
+    }
+
+    @Override
+    public String describe() {
+        return "16-bit mono FITS";
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import nom.tam.fits.BasicHDU;
+import nom.tam.fits.Fits;
+import nom.tam.fits.FitsException;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Reads FITS frames of any supported layout and normalizes them in memory exactly as
+ * {@link DetectionInputPreparation} does when it writes a prepared directory: 32-bit and
+ * floating-point samples are rescaled to 16 bits and colour frames are reduced to luminance.
+ * Frames that are already uncompressed 16-bit mono take the {@link FitsFrameReader} fast path.
+ */
+final class NormalizingFitsFrameSource implements FrameSource {
+
+    static final NormalizingFitsFrameSource INSTANCE = new NormalizingFitsFrameSource();
+
+    private NormalizingFitsFrameSource() {
+    }
+
+    @Override
+    public File[] listFrameFiles(File directory) throws IOException {
+        return ImageProcessing.listFitsFiles(directory);
+    }
+
+    @Override
+    public FitsFileInformation readFrameInformation(File file) throws Exception {
+        FitsFileInformation fileInfo = ImageProcessing.readFitsFileInformation(file);
+        fileInfo.setMonochrome(true);
+        FitsPixelConverter.describeAsMono16(fileInfo.getFitsHeader(), fileInfo.getSizeWidth(), fileInfo.getSizeHeight());
+        return fileInfo;
+    }
+
+    @Override
+    public short[][] readFrame(FitsFileInformation fileInfo) throws Exception {
+        return readFrame(fileInfo, null);
+    }
+
+    @Override
+    public short[][] readFrame(FitsFileInformation fileInfo, short[][] reuse) throws Exception {
+        File file = new File(fileInfo.getFilePath());
+        FitsFrameReader.ImageLayout layout = FitsFrameReader.readImageLayout(file);
+        if (layout != null && layout.bitpix == 16 && layout.axes.length == 2) {
+            return FitsFrameReader.readMono16Frame(file, reuse);
+        }
+
+        try (Fits fits = new Fits(file)) {
+            BasicHDU<?> imageHdu = ImageProcessing.getImageHDU(fits);
+            if (imageHdu == null) {
+                throw new FitsException("No valid image HDU found in " + file.getName());
+            }
+            return FitsPixelConverter.convertToMono16(imageHdu.getKernel(), file.getName());
+        }
+    }
+
+    @Override
+    public boolean isDetectionReady() {
+        return false;
+    }
+
+    @Override
+    public String describe() {
+        return "FITS (normalized to 16-bit mono on the fly)";
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounded prefetch pipeline that decodes frames on the shared I/O pool while handing them to the
+ * caller strictly in sequence order.
+ *
+ * <p>At most {@code workerCount} frames are decoded at once, and a semaphore keeps at most
+ * {@code maxInFlight} frames scheduled ahead of the consumer, so a slow consumer cannot cause the
+ * workers to buffer the remainder of the sequence. The consumer always runs on the calling thread,
+ * which keeps progress reporting and list construction single-threaded. A frame that no worker has
+ * picked up by the time the consumer needs it is decoded on the calling thread, so loaders running
+ * on the I/O pool themselves never wait on queued work.</p>
+ */
+final class ParallelFrameLoader {
+
+    private static final int DEFAULT_MAX_WORKERS = 4;
+
+    @FunctionalInterface
+    interface FrameTask<T> {
+        T load(int index) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface FrameConsumer<T> {
+        void accept(int index, T frame) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface AwaitListener {
+        void onAwait(int index);
+    }
+
+    private ParallelFrameLoader() {
+    }
+
+    /**
+     * Resolves the configured worker count, where values {@code <= 0} select a default bounded by the
+     * number of available cores.
+     */
+    static int resolveWorkerCount(int configuredWorkers) {
+        if (configuredWorkers > 0) {
+            return configuredWorkers;
+        }
+        return Math.max(1, Math.min(DEFAULT_MAX_WORKERS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Resolves the configured in-flight limit, where values {@code <= 0} allow two frames per worker.
+     */
+    static int resolveMaxInFlight(int configuredMaxInFlight, int workerCount) {
+        if (configuredMaxInFlight > 0) {
+            return Math.max(1, configuredMaxInFlight);
+        }
+        return Math.max(1, workerCount * 2);
+    }
+
+    /**
+     * Loads {@code frameCount} frames and passes each one to {@code consumer} in index order.
+     *
+     * @param awaitListener optional callback invoked on the calling thread right before the loader
+     *                      blocks on the next frame in sequence
+     */
+    static <T> void loadInOrder(int frameCount,
+                                int workerCount,
+                                int maxInFlight,
+                                FrameTask<T> task,
+                                AwaitListener awaitListener,
+                                FrameConsumer<T> consumer) throws Exception {
+        if (frameCount <= 0) {
+            return;
+        }
+
+        int workers = Math.max(1, Math.min(workerCount, frameCount));
+        int window = Math.max(1, maxInFlight);
+        if (workers == 1 && window == 1) {
+            for (int i = 0; i < frameCount; i++) {
+                if (awaitListener != null) {
+                    awaitListener.onAwait(i);
+                }
+                consumer.accept(i, task.load(i));
+            }
+            return;
+        }
+
+        Prefetch<T> prefetch = new Prefetch<>(frameCount, workers, window, task, SharedExecutors.io());
+        try {
+            for (int i = 0; i < frameCount; i++) {
+                if (awaitListener != null) {
+                    awaitListener.onAwait(i);
+                }
+
+                T frame = prefetch.take(i);
+                consumer.accept(i, frame);
+                prefetch.release();
+            }
+        } finally {
+            prefetch.cancel();
+        }
+    }
+
+    private static <T> T await(FutureTask<T> future, int index) throws Exception {
+        try {
+            return SharedExecutors.awaitOrRun(future);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Failed to load frame " + index + ".", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Frame loading was interrupted at frame " + index + ".", e);
+        }
+    }
+
+    /**
+     * Frames scheduled on the pool. Frames are dispatched in index order whenever a worker slot and
+     * an in-flight permit are free; the permit is returned once the consumer has handled the frame.
+     */
+    private static final class Prefetch<T> {
+        private final int frameCount;
+        private final int workers;
+        private final Semaphore inFlight;
+        private final FrameTask<T> task;
+        private final ExecutorService executor;
+        private final List<FutureTask<T>> scheduled;
+        private int running;
+        private boolean cancelled;
+
+        private Prefetch(int frameCount, int workers, int window, FrameTask<T> task, ExecutorService executor) {
+            this.frameCount = frameCount;
+            this.workers = workers;
+            this.inFlight = new Semaphore(window);
+            this.task = task;
+            this.executor = executor;
+            this.scheduled = new ArrayList<>(frameCount);
+        }
+
+        private T take(int index) throws Exception {
+            FutureTask<T> future;
+            synchronized (this) {
+                dispatch();
+                future = scheduled.get(index);
+                scheduled.set(index, null);
+            }
+            return await(future, index);
+        }
+
+        private void release() {
+            inFlight.release();
+            dispatch();
+        }
+
+        private synchronized void dispatch() {
+            while (!cancelled && scheduled.size() < frameCount && running < workers && inFlight.tryAcquire()) {
+                int index = scheduled.size();
+                FutureTask<T> future = new FutureTask<>(() -> {
+                    try {
+                        return task.load(index);
+                    } finally {
+                        finished();
+                    }
+                });
+                scheduled.add(future);
+                running++;
+                try {
+                    executor.execute(future);
+                } catch (RejectedExecutionException e) {
+                    // The pool is shutting down; take() runs the frame on the calling thread.
+                }
+            }
+        }
+
+        private synchronized void finished() {
+            running--;
+            dispatch();
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            for (FutureTask<T> future : scheduled) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-stage timings, counts and sampled peak heap of one pipeline run.
+ *
+ * <p>Stages are recorded with {@link #start(String)}; every {@link Timer} closed under the same name
+ * is folded into one {@link Stage}, kept in the order the name was first used. For stages that run
+ * concurrently (frame decodes, PNG/GIF encodes) the duration is therefore the time summed over all
+ * workers rather than wall-clock time. Heap usage is sampled when a timer starts, when it records
+ * work and when it closes; the stage keeps the highest sample. Each closed timer is also committed as
+ * a {@code eu.startales.spacepixels.PipelineStage} JFR event, so a flight recording of a production
+ * run shows the same stages without extra tooling.</p>
+ *
+ * <p>Report writers running on shared worker threads find the recorder of their run through
+ * {@link #current()}, which {@link #bindToCurrentThread()} scopes to the task that is executing.</p>
+ *
+ * <p>Instances are thread-safe.</p>
+ */
+public final class PipelineMetrics {
+
+    public static final String METRICS_FILENAME = "pipeline_metrics.json";
+
+    public static final String INPUT_PREPARATION = "input-preparation";
+    public static final String METADATA_LOAD = "metadata-load";
+    public static final String AUTO_TUNE_CANDIDATE_POOL = "auto-tune-candidate-pool";
+    public static final String AUTO_TUNE_SCORING = "auto-tune-scoring";
+    public static final String FRAME_LOAD = "frame-load";
+    public static final String FRAME_DECODE = "frame-decode";
+    public static final String ENGINE_RUN = "engine-run";
+    public static final String REPORT_EXPORT = "report-export";
+    public static final String REPORT_SECTION_PREFIX = "report-section:";
+    public static final String PNG_ENCODE = "png-encode";
+    public static final String GIF_ENCODE = "gif-encode";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final ThreadLocal<PipelineMetrics> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, StageAccumulator> stages = new LinkedHashMap<>();
+
+    /**
+     * Aggregated measurements of one named stage.
+     */
+    public static final class Stage {
+        private final String name;
+        private final int invocations;
+        private final long durationMillis;
+        private final long count;
+        private final long bytes;
+        private final long peakHeapBytes;
+
+        private Stage(String name, int invocations, long durationMillis, long count, long bytes, long peakHeapBytes) {
+            this.name = name;
+            this.invocations = invocations;
+            this.durationMillis = durationMillis;
+            this.count = count;
+            this.bytes = bytes;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return number of timers closed under this stage name
+         */
+        public int getInvocations() {
+            return invocations;
+        }
+
+        /**
+         * @return duration summed over every invocation, in milliseconds
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * @return stage-specific item count, e.g. frames loaded or images encoded
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return bytes read or written by the stage, or 0 when the stage does not track bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return highest sampled used-heap size while the stage was running
+         */
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+    }
+
+    /**
+     * One running measurement. Closing it adds the elapsed time to its stage.
+     */
+    public final class Timer implements AutoCloseable {
+        private final String stageName;
+        private final long startNanos;
+        private final PipelineStageEvent event;
+        private long count;
+        private long bytes;
+        private long peakHeapBytes;
+        private boolean closed;
+
+        private Timer(String stageName) {
+            this.stageName = stageName;
+            this.peakHeapBytes = sampleUsedHeap();
+            this.event = new PipelineStageEvent();
+            this.event.begin();
+            this.startNanos = System.nanoTime();
+        }
+
+        public Timer addCount(long delta) {
+            count += delta;
+            return this;
+        }
+
+        public Timer addBytes(long delta) {
+            bytes += delta;
+            peakHeapBytes = Math.max(peakHeapBytes, sampleUsedHeap());
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long elapsedNanos = System.nanoTime() - startNanos;
+            peakHeapBytes = Math.max(peakHeapBytes, sampleUsedHeap());
+            record(stageName, elapsedNanos, count, bytes, peakHeapBytes);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stageName;
+                event.count = count;
+                event.bytes = bytes;
+                event.peakHeap = peakHeapBytes;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Restores the previous thread binding when closed.
+     */
+    public static final class Binding implements AutoCloseable {
+        private final PipelineMetrics previous;
+        private boolean closed;
+
+        private Binding(PipelineMetrics previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Starts timing one invocation of {@code stageName}.
+     */
+    public Timer start(String stageName) {
+        return new Timer(stageName);
+    }
+
+    /**
+     * Makes this recorder the one {@link #current()} returns on the calling thread until the returned
+     * binding is closed.
+     */
+    public Binding bindToCurrentThread() {
+        Binding binding = new Binding(CURRENT.get());
+        CURRENT.set(this);
+        return binding;
+    }
+
+    /**
+     * @return the recorder bound to the calling thread, or {@code null} when the work is not measured
+     */
+    public static PipelineMetrics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a timer on the recorder bound to the calling thread, or returns {@code null} when none
+     * is bound. Closing a {@code null} resource in try-with-resources is a no-op.
+     */
+    public static Timer startCurrent(String stageName) {
+        PipelineMetrics metrics = CURRENT.get();
+        return metrics == null ? null : metrics.start(stageName);
+    }
+
+    /**
+     * @return the stages recorded so far, in order of first use
+     */
+    public List<Stage> getStages() {
+        synchronized (stages) {
+            List<Stage> snapshot = new ArrayList<>(stages.size());
+            for (StageAccumulator accumulator : stages.values()) {
+                snapshot.add(accumulator.toStage());
+            }
+            return Collections.unmodifiableList(snapshot);
+        }
+    }
+
+    /**
+     * @return the named stage, or {@code null} if it was never recorded
+     */
+    public Stage getStage(String stageName) {
+        synchronized (stages) {
+            StageAccumulator accumulator = stages.get(stageName);
+            return accumulator == null ? null : accumulator.toStage();
+        }
+    }
+
+    public String toJson() {
+        return GSON.toJson(toJsonObject());
+    }
+
+    /**
+     * Writes {@link #toJson()} to {@code file}, replacing any previous content.
+     */
+    public void writeJson(File file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            GSON.toJson(toJsonObject(), writer);
+        }
+    }
+
+    private JsonObject toJsonObject() {
+        JsonArray stageArray = new JsonArray();
+        for (Stage stage : getStages()) {
+            JsonObject stageObject = new JsonObject();
+            stageObject.addProperty("name", stage.name);
+            stageObject.addProperty("invocations", stage.invocations);
+            stageObject.addProperty("durationMillis", stage.durationMillis);
+            stageObject.addProperty("count", stage.count);
+            stageObject.addProperty("bytes", stage.bytes);
+            stageObject.addProperty("peakHeapBytes", stage.peakHeapBytes);
+            stageArray.add(stageObject);
+        }
+        JsonObject root = new JsonObject();
+        root.add("stages", stageArray);
+        return root;
+    }
+
+    private void record(String stageName, long elapsedNanos, long count, long bytes, long peakHeapBytes) {
+        synchronized (stages) {
+            stages.computeIfAbsent(stageName, StageAccumulator::new).add(elapsedNanos, count, bytes, peakHeapBytes);
+        }
+    }
+
+    private static long sampleUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class StageAccumulator {
+        private final String name;
+        private int invocations;
+        private long elapsedNanos;
+        private long count;
+        private long bytes;
+        private long peakHeapBytes;
+
+        private StageAccumulator(String name) {
+            this.name = name;
+        }
+
+        private void add(long elapsedNanos, long count, long bytes, long peakHeapBytes) {
+            this.invocations++;
+            this.elapsedNanos += elapsedNanos;
+            this.count += count;
+            this.bytes += bytes;
+            this.peakHeapBytes = Math.max(this.peakHeapBytes, peakHeapBytes);
+        }
+
+        private Stage toStage() {
+            return new Stage(name, invocations, elapsedNanos / 1_000_000L, count, bytes, peakHeapBytes);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight-recorder event committed for every closed {@link PipelineMetrics.Timer}. The event duration
+ * is the stage duration; it is only recorded when a recording with this event enabled is running.
+ */
+@Name("eu.startales.spacepixels.PipelineStage")
+@Label("Pipeline Stage")
+@Category("SpacePixels")
+@Description("One measured stage of a SpacePixels detection run")
+@StackTrace(false)
+final class PipelineStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Count")
+    long count;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Peak Heap Used")
+    @DataAmount
+    long peakHeap;
+}
@@ -0,0 +1,84 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+/**
+ * Row kernels behind {@link FitsPixelConverter}'s conversion to 16-bit storage.
+ *
+ * <p>{@link #get()} returns the SIMD implementation when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, and {@link ScalarPixelKernels} otherwise. Both convert
+ * every input to identical output, including NaN, infinities and out-of-range values. The module is
+ * opt-in because the JVM warns about incubator modules on startup: the distribution's start scripts
+ * and the Gradle run tasks add it when {@code SPACEPIXELS_VECTOR_KERNELS=true}, and other JVMs take it
+ * through {@code JAVA_OPTS}.</p>
+ *
+ * <p>The SIMD implementation is compiled in a source set of its own, so that only it needs the module
+ * at compile time.</p>
+ */
+interface PixelKernels {
+
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Returns the largest of {@code max} and the first {@code width} values of {@code row}, ignoring NaN.
+     * Of a positive and a negative zero, either may be returned.
+     */
+    float max(float[] row, int width, float max);
+
+    /**
+     * Writes {@code source[x] * scale}, rounded and clamped to {@code [0, 65535]}, as signed 16-bit storage.
+     */
+    void toUnsigned16(float[] source, float scale, short[] target, int width);
+
+    /**
+     * Writes {@code source[x]}, clamped to {@code [0, 65535]}, as signed 16-bit storage.
+     */
+    void toUnsigned16(int[] source, short[] target, int width);
+
+    /**
+     * Writes the truncated mean of the three channel rows.
+     */
+    void luminance(short[] red, short[] green, short[] blue, short[] target, int width);
+
+    static PixelKernels get() {
+        return Selection.SELECTED;
+    }
+
+    static PixelKernels scalar() {
+        return ScalarPixelKernels.INSTANCE;
+    }
+
+    /**
+     * Returns the SIMD kernels, or {@code null} when the vector module is not available.
+     */
+    static PixelKernels vector() {
+        return Selection.VECTOR;
+    }
+
+    final class Selection {
+        private static final PixelKernels VECTOR = loadVectorKernels();
+        private static final PixelKernels SELECTED = VECTOR != null ? VECTOR : ScalarPixelKernels.INSTANCE;
+
+        private Selection() {
+        }
+
+        // Loaded reflectively so that no class referencing the incubator module is linked without it.
+        private static PixelKernels loadVectorKernels() {
+            if (!ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+                return null;
+            }
+            try {
+                return (PixelKernels) Class.forName("eu.startales.spacepixels.util.VectorPixelKernels")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            }
+        }
+    }
+}
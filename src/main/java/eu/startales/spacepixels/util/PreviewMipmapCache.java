@@ -0,0 +1,568 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Disk-backed cache of downsampled copies of frames, from which the preview panels render.
+ *
+ * <p>For every frame a small pyramid of 2x-binned levels is built once: levels are kept from the
+ * first one no larger than {@link #MAX_LEVEL_SIZE} pixels per side down to the first one that fits a
+ * {@link #PREVIEW_SIZE} square. Previews and stretched previews are then rendered from the level
+ * that fits the preview, without opening the FITS file again.</p>
+ *
+ * <ul>
+ *     <li>Pyramids are keyed by a SHA-256 over the file length and modification time, its first and
+ *     last {@value #SAMPLE_BYTES} bytes, which cover the header and the pixel data's tail, and
+ *     {@value #STRIDE_SAMPLES} evenly spaced blocks of the data in between. Renamed files, and copies
+ *     that keep their timestamp, share an entry. The samples alone would miss an edit that falls
+ *     between the blocks, so it is the modification time that gives a frame rewritten in place at the
+ *     same size a new entry.</li>
+ *     <li>The cache directory is bounded by a byte budget. Reading an entry marks it as recently
+ *     used, and the least recently used entries are deleted once the budget is exceeded.</li>
+ *     <li>Recently used pyramids are also kept decoded in memory, so moving a stretch slider does not
+ *     touch the disk.</li>
+ *     <li>Entries are written to a temporary file and moved into place; an unreadable entry is
+ *     deleted and rebuilt. Failing to write the cache never fails a preview.</li>
+ * </ul>
+ *
+ * <p>Instances are thread-safe.</p>
+ */
+final class PreviewMipmapCache {
+
+    static final String DEFAULT_DIRECTORY_NAME = ".spacepixels_preview_cache";
+    static final String ENTRY_SUFFIX = ".spm";
+    static final int PREVIEW_SIZE = 350;
+    static final int MAX_LEVEL_SIZE = 1024;
+    static final long DEFAULT_DISK_BUDGET_BYTES = 1024L * 1024L * 1024L;
+    static final int SAMPLE_BYTES = 64 * 1024;
+    static final int STRIDE_SAMPLES = 64;
+    static final int STRIDE_SAMPLE_BYTES = 4 * 1024;
+
+    private static final long MEMORY_BUDGET_BYTES = 64L * 1024L * 1024L;
+    private static final int MAGIC = 0x5350584D; // "SPXM"
+    private static final int VERSION = 1;
+
+    private static final Map<File, PreviewMipmapCache> SHARED = new HashMap<>();
+
+    /**
+     * Reads a frame as 16-bit storage data, {@code short[height][width]} for mono or
+     * {@code short[channels][height][width]} for colour.
+     */
+    @FunctionalInterface
+    interface FrameLoader {
+        Object load(File file) throws IOException;
+    }
+
+    /**
+     * One binned copy of a frame.
+     */
+    static final class Level {
+        final int scale;
+        final int width;
+        final int height;
+        /**
+         * {@code short[channel][height][width]}; mono frames have a single channel.
+         */
+        final short[][][] channels;
+
+        Level(int scale, short[][][] channels) {
+            this.scale = scale;
+            this.channels = channels;
+            this.height = channels[0].length;
+            this.width = channels[0][0].length;
+        }
+
+        /**
+         * @return the level as a renderer kernel: {@code short[][]} for mono, {@code short[][][]} for colour
+         */
+        Object toKernel() {
+            return channels.length == 1 ? channels[0] : channels;
+        }
+
+        long estimateBytes() {
+            return (long) channels.length * width * height * 2L;
+        }
+    }
+
+    /**
+     * The levels of one frame, finest first.
+     */
+    static final class Pyramid {
+        final int width;
+        final int height;
+        final List<Level> levels;
+
+        Pyramid(int width, int height, List<Level> levels) {
+            this.width = width;
+            this.height = height;
+            this.levels = Collections.unmodifiableList(levels);
+        }
+
+        /**
+         * Returns the finest level that fits within {@code maxWidth x maxHeight}, or the coarsest
+         * level when none does.
+         */
+        Level levelFitting(int maxWidth, int maxHeight) {
+            for (Level level : levels) {
+                if (level.width <= maxWidth && level.height <= maxHeight) {
+                    return level;
+                }
+            }
+            return levels.get(levels.size() - 1);
+        }
+
+        long estimateBytes() {
+            long bytes = 0L;
+            for (Level level : levels) {
+                bytes += level.estimateBytes();
+            }
+            return bytes;
+        }
+    }
+
+    private static final class KeyMemo {
+        private final FitsMetadataIndex.FileStamp stamp;
+        private final String key;
+
+        private KeyMemo(FitsMetadataIndex.FileStamp stamp, String key) {
+            this.stamp = stamp;
+            this.key = key;
+        }
+    }
+
+    private final File directory;
+    private final FrameLoader loader;
+    private volatile long diskBudgetBytes;
+    private final Map<String, KeyMemo> keysByPath = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Pyramid> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes = -1L;
+    private AtomicBoolean runningWarmUp;
+
+    PreviewMipmapCache(File directory, long diskBudgetBytes, FrameLoader loader) {
+        this.directory = directory;
+        this.diskBudgetBytes = diskBudgetBytes;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the process-wide cache for {@code directory}, applying {@code diskBudgetBytes} to it.
+     *
+     * <p>The loader is only used when the cache for {@code directory} is created. Later calls for the
+     * same directory get that cache, which keeps reading frames through the first caller's loader,
+     * so every caller must pass a loader that decodes frames the same way.</p>
+     */
+    static synchronized PreviewMipmapCache shared(File directory, long diskBudgetBytes, FrameLoader loader) {
+        PreviewMipmapCache cache = SHARED.computeIfAbsent(directory.getAbsoluteFile(),
+                dir -> new PreviewMipmapCache(dir, diskBudgetBytes, loader));
+        cache.diskBudgetBytes = diskBudgetBytes;
+        return cache;
+    }
+
+    /**
+     * Resolves the configured disk budget in MiB, where values {@code <= 0} select
+     * {@link #DEFAULT_DISK_BUDGET_BYTES}.
+     */
+    static long resolveDiskBudgetBytes(int configuredBudgetMb) {
+        return configuredBudgetMb > 0 ? configuredBudgetMb * 1024L * 1024L : DEFAULT_DISK_BUDGET_BYTES;
+    }
+
+    /**
+     * Returns the pyramid of {@code file} from memory or disk, building and storing it on a miss.
+     */
+    Pyramid get(File file) throws IOException {
+        String key = contentKeyOf(file);
+        synchronized (this) {
+            Pyramid cached = memory.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Pyramid pyramid = readEntry(key);
+        if (pyramid == null) {
+            pyramid = buildPyramid(loader.load(file));
+            writeEntry(key, pyramid);
+        }
+        remember(key, pyramid);
+        return pyramid;
+    }
+
+    /**
+     * Builds the missing pyramids of {@code files} on up to {@code workers} tasks of the shared I/O
+     * pool, replacing any warm-up that is still running. Failures are logged and skipped.
+     */
+    void warmUpInBackground(File[] files, int workers) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        synchronized (this) {
+            if (runningWarmUp != null) {
+                runningWarmUp.set(true);
+            }
+            runningWarmUp = cancelled;
+        }
+
+        // Each task takes the next file until none are left, so the warm-up never holds more than
+        // workers frames or pool threads.
+        AtomicInteger nextFile = new AtomicInteger();
+        Runnable warmUp = () -> {
+            for (int index = nextFile.getAndIncrement(); index < files.length && !cancelled.get(); index = nextFile.getAndIncrement()) {
+                try {
+                    warm(files[index]);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Preview cache warm-up: " + files[index].getName() + ": " + e.getMessage());
+                }
+            }
+        };
+        ExecutorService executor = SharedExecutors.io();
+        for (int i = 0; i < Math.max(1, Math.min(workers, files.length)); i++) {
+            executor.execute(warmUp);
+        }
+    }
+
+    /**
+     * Ensures {@code file} has a pyramid on disk without loading it into memory.
+     *
+     * @return {@code true} if the pyramid had to be built
+     */
+    boolean warm(File file) throws IOException {
+        String key = contentKeyOf(file);
+        if (entryFile(key).isFile()) {
+            return false;
+        }
+        writeEntry(key, buildPyramid(loader.load(file)));
+        return true;
+    }
+
+    /**
+     * @return bytes the cache directory currently holds
+     */
+    synchronized long getDiskBytes() {
+        return ensureDiskBytes();
+    }
+
+    File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Builds the levels of a 16-bit mono or colour frame by repeated 2x binning.
+     */
+    static Pyramid buildPyramid(Object kernel) {
+        short[][][] channels;
+        if (kernel instanceof short[][]) {
+            channels = new short[][][]{(short[][]) kernel};
+        } else if (kernel instanceof short[][][]) {
+            channels = (short[][][]) kernel;
+        } else {
+            throw new IllegalArgumentException("Expected 16-bit frame data, but received "
+                    + (kernel == null ? "null" : kernel.getClass().getName()));
+        }
+
+        int width = channels[0][0].length;
+        int height = channels[0].length;
+        List<Level> levels = new ArrayList<>();
+        int scale = 1;
+        short[][][] current = channels;
+        while (true) {
+            int levelWidth = current[0][0].length;
+            int levelHeight = current[0].length;
+            if (Math.max(levelWidth, levelHeight) <= MAX_LEVEL_SIZE) {
+                levels.add(new Level(scale, current));
+            }
+            if ((levelWidth <= PREVIEW_SIZE && levelHeight <= PREVIEW_SIZE) || (levelWidth == 1 && levelHeight == 1)) {
+                break;
+            }
+            short[][][] next = new short[current.length][][];
+            for (int channel = 0; channel < current.length; channel++) {
+                next[channel] = FitsVisualizationRenderer.binForDisplay(current[channel], 2);
+            }
+            current = next;
+            scale *= 2;
+        }
+        return new Pyramid(width, height, levels);
+    }
+
+    /**
+     * Returns the key of {@code file}: a hex SHA-256 over its length and modification time, its first
+     * and last {@value #SAMPLE_BYTES} bytes and {@value #STRIDE_SAMPLES} blocks of
+     * {@value #STRIDE_SAMPLE_BYTES} bytes spread evenly over the rest, which is hashed whole when it is
+     * no larger than those blocks.
+     */
+    static String contentKey(File file) throws IOException {
+        return contentKey(file, FitsMetadataIndex.stat(file));
+    }
+
+    private static String contentKey(File file, FitsMetadataIndex.FileStamp stamp) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            long length = in.length();
+            digest.update(ByteBuffer.allocate(2 * Long.BYTES).putLong(length).putLong(stamp.modifiedNanos).array());
+
+            byte[] sample = new byte[(int) Math.min(SAMPLE_BYTES, length)];
+            in.readFully(sample);
+            digest.update(sample);
+
+            long tailStart = Math.max(sample.length, length - SAMPLE_BYTES);
+            long middle = tailStart - sample.length;
+            if (middle <= (long) STRIDE_SAMPLES * STRIDE_SAMPLE_BYTES) {
+                byte[] block = new byte[(int) middle];
+                in.readFully(block);
+                digest.update(block);
+            } else {
+                byte[] block = new byte[STRIDE_SAMPLE_BYTES];
+                for (int i = 0; i < STRIDE_SAMPLES; i++) {
+                    in.seek(sample.length + (middle - STRIDE_SAMPLE_BYTES) * i / (STRIDE_SAMPLES - 1));
+                    in.readFully(block);
+                    digest.update(block);
+                }
+            }
+
+            byte[] tail = new byte[(int) (length - tailStart)];
+            in.seek(tailStart);
+            in.readFully(tail);
+            digest.update(tail);
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(String.format(Locale.ROOT, "%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private String contentKeyOf(File file) throws IOException {
+        FitsMetadataIndex.FileStamp stamp = FitsMetadataIndex.stat(file);
+        String path = file.getAbsolutePath();
+        KeyMemo memo = keysByPath.get(path);
+        if (memo != null && memo.stamp.matches(stamp)) {
+            return memo.key;
+        }
+        String key = contentKey(file, stamp);
+        keysByPath.put(path, new KeyMemo(stamp, key));
+        return key;
+    }
+
+    private File entryFile(String key) {
+        return new File(directory, key + ENTRY_SUFFIX);
+    }
+
+    private synchronized void remember(String key, Pyramid pyramid) {
+        long bytes = pyramid.estimateBytes();
+        if (bytes > MEMORY_BUDGET_BYTES) {
+            return;
+        }
+        Pyramid previous = memory.put(key, pyramid);
+        if (previous != null) {
+            memoryBytes -= previous.estimateBytes();
+        }
+        memoryBytes += bytes;
+
+        Iterator<Map.Entry<String, Pyramid>> iterator = memory.entrySet().iterator();
+        while (memoryBytes > MEMORY_BUDGET_BYTES && iterator.hasNext()) {
+            Map.Entry<String, Pyramid> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            memoryBytes -= eldest.getValue().estimateBytes();
+            iterator.remove();
+        }
+    }
+
+    private Pyramid readEntry(String key) {
+        File entry = entryFile(key);
+        if (!entry.isFile()) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(entry.toPath())) {
+            Pyramid pyramid = read(new DataInputStream(new BufferedInputStream(in)));
+            if (!entry.setLastModified(System.currentTimeMillis())) {
+                System.err.println("Could not mark preview cache entry as used: " + entry.getName());
+            }
+            return pyramid;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Discarding unreadable preview cache entry " + entry.getName() + ": " + e.getMessage());
+            deleteEntry(entry);
+            return null;
+        }
+    }
+
+    private void writeEntry(String key, Pyramid pyramid) {
+        File target = entryFile(key);
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            temporary = Files.createTempFile(directory.toPath(), key, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+                write(data, pyramid);
+                data.flush();
+            }
+            try {
+                Files.move(temporary, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            entryStored(target.length());
+        } catch (IOException e) {
+            System.err.println("Failed to write preview cache entry " + target.getName() + ": " + e.getMessage());
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // Left-over temporary files are removed by the next budget sweep.
+                }
+            }
+        }
+    }
+
+    private synchronized void entryStored(long bytes) {
+        ensureDiskBytes();
+        diskBytes += bytes;
+        if (diskBytes > diskBudgetBytes) {
+            trimToBudget();
+        }
+    }
+
+    private long ensureDiskBytes() {
+        if (diskBytes < 0L) {
+            diskBytes = 0L;
+            for (File entry : listEntries()) {
+                diskBytes += entry.length();
+            }
+        }
+        return diskBytes;
+    }
+
+    /**
+     * Deletes the least recently used entries until the directory fits its budget.
+     */
+    private void trimToBudget() {
+        File[] entries = listEntries();
+        long[] lastUsed = new long[entries.length];
+        Integer[] order = new Integer[entries.length];
+        long total = 0L;
+        for (int i = 0; i < entries.length; i++) {
+            lastUsed[i] = entries[i].lastModified();
+            order[i] = i;
+            total += entries[i].length();
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> lastUsed[i]));
+
+        for (int i = 0; i < order.length && total > diskBudgetBytes; i++) {
+            File entry = entries[order[i]];
+            long length = entry.length();
+            if (deleteEntry(entry)) {
+                total -= length;
+            }
+        }
+        diskBytes = total;
+    }
+
+    private File[] listEntries() {
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(ENTRY_SUFFIX));
+        return entries == null ? new File[0] : entries;
+    }
+
+    private static boolean deleteEntry(File entry) {
+        try {
+            return Files.deleteIfExists(entry.toPath());
+        } catch (IOException e) {
+            System.err.println("Failed to delete preview cache entry " + entry.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void write(DataOutputStream out, Pyramid pyramid) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(pyramid.width);
+        out.writeInt(pyramid.height);
+        out.writeInt(pyramid.levels.size());
+        for (Level level : pyramid.levels) {
+            out.writeInt(level.scale);
+            out.writeInt(level.channels.length);
+            out.writeInt(level.width);
+            out.writeInt(level.height);
+            ByteBuffer row = ByteBuffer.allocate(level.width * 2);
+            for (short[][] channel : level.channels) {
+                for (short[] pixels : channel) {
+                    row.clear();
+                    row.asShortBuffer().put(pixels);
+                    out.write(row.array(), 0, row.capacity());
+                }
+            }
+        }
+    }
+
+    private static Pyramid read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("unsupported preview cache entry");
+        }
+        int width = in.readInt();
+        int height = in.readInt();
+        int levelCount = in.readInt();
+        List<Level> levels = new ArrayList<>(levelCount);
+        for (int l = 0; l < levelCount; l++) {
+            int scale = in.readInt();
+            int channelCount = in.readInt();
+            int levelWidth = in.readInt();
+            int levelHeight = in.readInt();
+            byte[] rowBytes = new byte[levelWidth * 2];
+            short[][][] channels = new short[channelCount][levelHeight][levelWidth];
+            for (short[][] channel : channels) {
+                for (short[] pixels : channel) {
+                    in.readFully(rowBytes);
+                    ByteBuffer.wrap(rowBytes).asShortBuffer().get(pixels);
+                }
+            }
+            levels.add(new Level(scale, channels));
+        }
+        if (levels.isEmpty()) {
+            throw new IOException("preview cache entry has no levels");
+        }
+        return new Pyramid(width, height, levels);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Byte-bounded LRU cache of decoded 16-bit frames keyed by their sequence index.
+ *
+ * <p>The iterative pipeline and the report writers request the same raw frames many times over a
+ * single run. This cache keeps recently used frames decoded in memory while evicting the least
+ * recently used entries once the configured byte budget is exceeded. Frames larger than the whole
+ * budget are returned to the caller without being retained.</p>
+ *
+ * <p>A caller that knows which frames it will need next can name them with
+ * {@link #setRetentionHint(Object, Collection)}; those frames are evicted only once no other frame
+ * is left to evict, so a scan over the whole sequence does not flush them. Hints are kept per owner,
+ * and a frame stays protected while any owner still names it.</p>
+ */
+final class RawFrameCache {
+
+    /**
+     * Largest fraction of the maximum heap the cache takes.
+     */
+    static final double DEFAULT_HEAP_FRACTION = 0.25d;
+
+    /**
+     * Share of a run's memory budget given to the cache; the passes get the rest.
+     */
+    static final double BUDGET_FRACTION = 0.5d;
+
+    @FunctionalInterface
+    interface FrameLoader {
+        short[][] load(int index) throws Exception;
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, short[][]> frames = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Object, Set<Integer>> retentionHints = new HashMap<>();
+    private Set<Integer> retentionHint = Collections.emptySet();
+
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    RawFrameCache(long maxBytes) {
+        if (maxBytes < 0L) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates a cache that takes {@link #BUDGET_FRACTION} of {@code memoryBudgetBytes}, but no more
+     * than {@link #DEFAULT_HEAP_FRACTION} of the JVM's maximum heap. Callers hand only what is left,
+     * {@code memoryBudgetBytes - getMaxBytes()}, to the work that runs next to the cache.
+     */
+    static RawFrameCache createWithinBudget(long memoryBudgetBytes) {
+        long heapShare = (long) (Runtime.getRuntime().maxMemory() * DEFAULT_HEAP_FRACTION);
+        return new RawFrameCache(Math.min(heapShare, (long) (Math.max(0L, memoryBudgetBytes) * BUDGET_FRACTION)));
+    }
+
+    /**
+     * Returns the cached frame for the index, decoding it through the loader on a miss.
+     *
+     * <p>The loader runs outside the cache lock so concurrent readers of different frames do not
+     * serialize their disk reads. If two callers miss on the same index at once, both decode it and
+     * the first stored copy wins.</p>
+     */
+    short[][] get(int index, FrameLoader loader) throws Exception {
+        synchronized (this) {
+            short[][] cached = frames.get(index);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        short[][] loaded = loader.load(index);
+        return store(index, loaded);
+    }
+
+    private synchronized short[][] store(int index, short[][] frame) {
+        short[][] existing = frames.get(index);
+        if (existing != null) {
+            return existing;
+        }
+
+        long frameBytes = estimateBytes(frame);
+        if (frameBytes > maxBytes) {
+            return frame;
+        }
+
+        frames.put(index, frame);
+        currentBytes += frameBytes;
+
+        evictDownToBudget(index, false);
+        evictDownToBudget(index, true);
+        return frame;
+    }
+
+    /**
+     * Evicts least recently used frames, other than {@code keptIndex}, until the cache fits its
+     * budget. The first sweep spares the hinted frames; the second one may evict them too.
+     */
+    private void evictDownToBudget(int keptIndex, boolean includeHinted) {
+        Iterator<Map.Entry<Integer, short[][]>> iterator = frames.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Integer, short[][]> eldest = iterator.next();
+            int eldestIndex = eldest.getKey();
+            if (eldestIndex == keptIndex || (!includeHinted && retentionHint.contains(eldestIndex))) {
+                continue;
+            }
+            currentBytes -= estimateBytes(eldest.getValue());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Names the frames {@code owner} expects to request next. They stay cached in preference to all
+     * other frames until the owner replaces or clears its hint; an empty collection clears it.
+     */
+    synchronized void setRetentionHint(Object owner, Collection<Integer> indices) {
+        if (indices.isEmpty()) {
+            retentionHints.remove(owner);
+        } else {
+            retentionHints.put(owner, new HashSet<>(indices));
+        }
+        Set<Integer> union = new HashSet<>();
+        for (Set<Integer> hint : retentionHints.values()) {
+            union.addAll(hint);
+        }
+        retentionHint = union.isEmpty() ? Collections.emptySet() : union;
+    }
+
+    synchronized void clearRetentionHint(Object owner) {
+        setRetentionHint(owner, Collections.emptySet());
+    }
+
+    /**
+     * Returns whether the frame is cached, without counting a hit or changing its recency.
+     */
+    synchronized boolean contains(int index) {
+        return frames.containsKey(index);
+    }
+
+    /**
+     * Drops every cached frame while keeping the hit/miss/eviction counters.
+     */
+    synchronized void clear() {
+        frames.clear();
+        currentBytes = 0L;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    synchronized int size() {
+        return frames.size();
+    }
+
+    long getMaxBytes() {
+        return maxBytes;
+    }
+
+    synchronized String describeStatistics() {
+        return String.format(
+                Locale.US,
+                "Raw frame cache: %d hits, %d misses, %d evictions, %d frames / %.1f MB resident (budget %.1f MB)",
+                hits,
+                misses,
+                evictions,
+                frames.size(),
+                currentBytes / (1024.0 * 1024.0),
+                maxBytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Approximates the heap footprint of a jagged 16-bit frame, including per-row array headers.
+     */
+    static long estimateBytes(short[][] frame) {
+        if (frame == null) {
+            return 0L;
+        }
+        long bytes = 16L + 8L * frame.length;
+        for (short[] row : frame) {
+            if (row != null) {
+                bytes += 16L + 2L * row.length;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Runs per-pixel image kernels over bands of rows on the shared {@link SharedExecutors#cpu()} pool.
+ *
+ * <ul>
+ *     <li>{@link #forEach(int, int, BandAction)} runs an action on disjoint row ranges; actions must
+ *     only write the rows they are given.</li>
+ *     <li>{@link #reduce(int, int, BandReducer, BinaryOperator)} computes a partial result per band
+ *     (a minimum, a sum, a histogram) and combines neighbouring bands in row order.</li>
+ *     <li>Work smaller than {@link #getParallelThresholdPixels()} pixels, and any work on a
+ *     single-core machine, runs on the calling thread as one band, so small crops and previews pay
+ *     no scheduling cost.</li>
+ * </ul>
+ *
+ * <p>Bands are split recursively until they are no smaller than {@value #MIN_BAND_PIXELS} pixels or
+ * about a quarter of a worker's share, so workers that finish early steal the remaining halves.
+ * Callers already running on the pool take part in the work instead of blocking.</p>
+ */
+final class RowBands {
+
+    /**
+     * Default pixel count from which kernels run in parallel, about one megapixel.
+     */
+    static final int DEFAULT_PARALLEL_THRESHOLD_PIXELS = 1 << 20;
+    static final int MIN_BAND_PIXELS = 1 << 16;
+    private static final int BANDS_PER_WORKER = 4;
+
+    private static volatile int parallelThresholdPixels = DEFAULT_PARALLEL_THRESHOLD_PIXELS;
+
+    /**
+     * Processes rows {@code [rowStart, rowEnd)}.
+     */
+    @FunctionalInterface
+    interface BandAction {
+        void run(int rowStart, int rowEnd);
+    }
+
+    /**
+     * Computes the partial result of rows {@code [rowStart, rowEnd)}.
+     */
+    @FunctionalInterface
+    interface BandReducer<T> {
+        T reduce(int rowStart, int rowEnd);
+    }
+
+    private RowBands() {
+    }
+
+    static int getParallelThresholdPixels() {
+        return parallelThresholdPixels;
+    }
+
+    /**
+     * Sets the pixel count from which kernels run in parallel, where values {@code <= 0} select
+     * {@link #DEFAULT_PARALLEL_THRESHOLD_PIXELS}.
+     */
+    static void setParallelThresholdPixels(int configuredPixels) {
+        parallelThresholdPixels = configuredPixels > 0 ? configuredPixels : DEFAULT_PARALLEL_THRESHOLD_PIXELS;
+    }
+
+    /**
+     * Returns whether {@code rows x rowWidth} pixels of work would be split across the pool.
+     */
+    static boolean runsInParallel(int rows, int rowWidth) {
+        return rows > 1
+                && (long) rows * rowWidth >= parallelThresholdPixels
+                && SharedExecutors.cpu().getParallelism() > 1;
+    }
+
+    /**
+     * Runs {@code action} over {@code rows} rows of {@code rowWidth} pixels and waits for every band.
+     */
+    static void forEach(int rows, int rowWidth, BandAction action) {
+        if (rows <= 0) {
+            return;
+        }
+        if (!runsInParallel(rows, rowWidth)) {
+            action.run(0, rows);
+            return;
+        }
+        ForkJoinPool pool = SharedExecutors.cpu();
+        pool.invoke(new ActionTask(action, 0, rows, bandRows(rows, rowWidth, pool.getParallelism())));
+    }
+
+    /**
+     * Reduces {@code rows} rows of {@code rowWidth} pixels with {@code reducer}, combining the partial
+     * results of adjacent bands with {@code combiner}, lower rows first.
+     */
+    static <T> T reduce(int rows, int rowWidth, BandReducer<T> reducer, BinaryOperator<T> combiner) {
+        if (!runsInParallel(rows, rowWidth)) {
+            return reducer.reduce(0, Math.max(0, rows));
+        }
+        ForkJoinPool pool = SharedExecutors.cpu();
+        return pool.invoke(new ReduceTask<>(reducer, combiner, 0, rows, bandRows(rows, rowWidth, pool.getParallelism())));
+    }
+
+    /**
+     * Returns the number of rows below which a band is no longer split.
+     */
+    static int bandRows(int rows, int rowWidth, int parallelism) {
+        int minimumRows = (int) Math.min(rows, (MIN_BAND_PIXELS + Math.max(1, rowWidth) - 1) / Math.max(1, rowWidth));
+        long shares = (long) Math.max(1, parallelism) * BANDS_PER_WORKER;
+        int shareRows = (int) ((rows + shares - 1) / shares);
+        return Math.max(1, Math.max(minimumRows, shareRows));
+    }
+
+    private static final class ActionTask extends RecursiveAction {
+        private final BandAction action;
+        private final int rowStart;
+        private final int rowEnd;
+        private final int bandRows;
+
+        private ActionTask(BandAction action, int rowStart, int rowEnd, int bandRows) {
+            this.action = action;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.bandRows = bandRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (rowEnd - rowStart <= bandRows) {
+                action.run(rowStart, rowEnd);
+                return;
+            }
+            int middle = (rowStart + rowEnd) >>> 1;
+            invokeAll(new ActionTask(action, rowStart, middle, bandRows),
+                    new ActionTask(action, middle, rowEnd, bandRows));
+        }
+    }
+
+    private static final class ReduceTask<T> extends RecursiveTask<T> {
+        private final BandReducer<T> reducer;
+        private final BinaryOperator<T> combiner;
+        private final int rowStart;
+        private final int rowEnd;
+        private final int bandRows;
+
+        private ReduceTask(BandReducer<T> reducer, BinaryOperator<T> combiner, int rowStart, int rowEnd, int bandRows) {
+            this.reducer = reducer;
+            this.combiner = combiner;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.bandRows = bandRows;
+        }
+
+        @Override
+        protected T compute() {
+            if (rowEnd - rowStart <= bandRows) {
+                return reducer.reduce(rowStart, rowEnd);
+            }
+            int middle = (rowStart + rowEnd) >>> 1;
+            ReduceTask<T> upper = new ReduceTask<>(reducer, combiner, middle, rowEnd, bandRows);
+            upper.fork();
+            T lower = new ReduceTask<>(reducer, combiner, rowStart, middle, bandRows).compute();
+            return combiner.apply(lower, upper.join());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+/**
+ * Plain Java {@link PixelKernels}, the reference for the SIMD kernels and the fallback when the
+ * vector module is not available.
+ */
+final class ScalarPixelKernels implements PixelKernels {
+
+    static final ScalarPixelKernels INSTANCE = new ScalarPixelKernels();
+
+    private ScalarPixelKernels() {
+    }
+
+    @Override
+    public float max(float[] row, int width, float max) {
+        return max(row, 0, width, max);
+    }
+
+    @Override
+    public void toUnsigned16(float[] source, float scale, short[] target, int width) {
+        toUnsigned16(source, scale, target, 0, width);
+    }
+
+    @Override
+    public void toUnsigned16(int[] source, short[] target, int width) {
+        toUnsigned16(source, target, 0, width);
+    }
+
+    @Override
+    public void luminance(short[] red, short[] green, short[] blue, short[] target, int width) {
+        luminance(red, green, blue, target, 0, width);
+    }
+
+    static float max(float[] row, int from, int to, float max) {
+        for (int x = from; x < to; x++) {
+            if (row[x] > max) {
+                max = row[x];
+            }
+        }
+        return max;
+    }
+
+    static void toUnsigned16(float[] source, float scale, short[] target, int from, int to) {
+        for (int x = from; x < to; x++) {
+            target[x] = toUnsigned16Storage(source[x] * scale);
+        }
+    }
+
+    static void toUnsigned16(int[] source, short[] target, int from, int to) {
+        for (int x = from; x < to; x++) {
+            target[x] = toUnsigned16Storage(source[x]);
+        }
+    }
+
+    static void luminance(short[] red, short[] green, short[] blue, short[] target, int from, int to) {
+        for (int x = from; x < to; x++) {
+            target[x] = (short) ((red[x] + green[x] + blue[x]) / 3);
+        }
+    }
+
+    static short toUnsigned16Storage(float value) {
+        float clamped = value;
+        if (clamped < 0) {
+            clamped = 0;
+        }
+        if (clamped > 65535) {
+            clamped = 65535;
+        }
+        return (short) (Math.round(clamped) - 32768);
+    }
+
+    static short toUnsigned16Storage(int value) {
+        int clamped = value;
+        if (clamped < 0) {
+            clamped = 0;
+        }
+        if (clamped > 65535) {
+            clamped = 65535;
+        }
+        return (short) (clamped - 32768);
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide, bounded worker pools shared by every {@link ImageProcessing} instance and the
+ * report exporter, so repeated imports or headless pipeline runs reuse the same threads instead of
+ * creating a new unbounded pool each time.
+ *
+ * <ul>
+ *     <li>{@link #cpu()} is a work-stealing pool sized to the available cores for decode, stretch and
+ *     rendering work. Tasks may wait on nested tasks; waiting workers help run them.</li>
+ *     <li>{@link #io()} is a fixed pool for header reads, validation and file conversion, sized
+ *     separately because those tasks spend most of their time blocked on the disk.</li>
+ *     <li>{@link #sessions()} runs long-lived coordinating tasks, such as detection sessions and
+ *     iterative pass lanes, that spend their time waiting on the other two pools. Keeping them off
+ *     {@link #io()} means they can never occupy the workers their own nested I/O work needs.</li>
+ * </ul>
+ *
+ * <p>The pools are created lazily, use named daemon threads and are drained by a JVM shutdown hook.
+ * {@link #metrics()} reports the load of the cpu and io pools.</p>
+ */
+public final class SharedExecutors {
+
+    private static final int CPU_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int IO_THREADS = Math.max(4, Math.min(16, CPU_THREADS * 2));
+    private static final long SHUTDOWN_GRACE_MILLIS = 2000L;
+
+    /**
+     * Point-in-time load of one shared pool.
+     */
+    public static final class PoolMetrics {
+        public final String name;
+        public final int maxThreads;
+        public final int liveThreads;
+        public final int activeThreads;
+        public final long queuedTasks;
+
+        PoolMetrics(String name, int maxThreads, int liveThreads, int activeThreads, long queuedTasks) {
+            this.name = name;
+            this.maxThreads = maxThreads;
+            this.liveThreads = liveThreads;
+            this.activeThreads = activeThreads;
+            this.queuedTasks = queuedTasks;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: %d/%d threads live, %d active, %d queued",
+                    name, liveThreads, maxThreads, activeThreads, queuedTasks);
+        }
+    }
+
+    private static final class IoWorkerThread extends Thread {
+        IoWorkerThread(Runnable task, String name) {
+            super(task, name);
+        }
+    }
+
+    private static ForkJoinPool cpuPool;
+    private static ThreadPoolExecutor ioPool;
+    private static ThreadPoolExecutor sessionPool;
+    private static boolean shutdownHookRegistered;
+
+    private SharedExecutors() {
+    }
+
+    /**
+     * Returns the shared work-stealing pool for CPU-bound tasks.
+     */
+    public static synchronized ForkJoinPool cpu() {
+        if (cpuPool == null) {
+            cpuPool = new ForkJoinPool(
+                    CPU_THREADS,
+                    createCpuThreadFactory(),
+                    null,
+                    false,
+                    0,
+                    CPU_THREADS,
+                    1,
+                    ignored -> true,
+                    60L,
+                    TimeUnit.SECONDS);
+            registerShutdownHook();
+        }
+        return cpuPool;
+    }
+
+    /**
+     * Returns the shared fixed pool for I/O-bound tasks.
+     */
+    public static synchronized ExecutorService io() {
+        if (ioPool == null) {
+            ioPool = new ThreadPoolExecutor(
+                    IO_THREADS,
+                    IO_THREADS,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    createIoThreadFactory());
+            ioPool.allowCoreThreadTimeOut(true);
+            registerShutdownHook();
+        }
+        return ioPool;
+    }
+
+    /**
+     * Returns the shared pool for long-running coordinating tasks. It grows on demand, so callers
+     * bound how many tasks they submit; its threads are not I/O workers, so nested I/O work submitted
+     * from them runs on {@link #io()} in parallel.
+     */
+    public static synchronized ExecutorService sessions() {
+        if (sessionPool == null) {
+            sessionPool = new ThreadPoolExecutor(
+                    0,
+                    Integer.MAX_VALUE,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    createSessionThreadFactory());
+            registerShutdownHook();
+        }
+        return sessionPool;
+    }
+
+    /**
+     * Runs {@code tasks} on {@code executor} and waits for all of them, like
+     * {@link ExecutorService#invokeAll(Collection)}. When called from a worker of the shared I/O pool
+     * the tasks run inline instead, so a bounded pool can never deadlock waiting on itself.
+     */
+    public static <T> List<Future<T>> invokeAll(ExecutorService executor,
+                                               Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        if (!isIoWorkerThread() || executor != ioPoolIfCreated()) {
+            return executor.invokeAll(tasks);
+        }
+
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            FutureTask<T> future = new FutureTask<>(task);
+            future.run();
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    /**
+     * Waits for a task that was queued with {@code execute}, running it on the calling thread first
+     * if no worker has started it yet. Callers that are themselves workers of a bounded pool then
+     * only ever wait on tasks that are already running, so the pool cannot deadlock on its own queue.
+     */
+    public static <T> T awaitOrRun(FutureTask<T> task) throws InterruptedException, ExecutionException {
+        // FutureTask.run() does nothing once another thread has started or finished the task.
+        task.run();
+        return task.get();
+    }
+
+    /**
+     * Returns whether the calling thread is a worker of the shared I/O pool. Code that would block
+     * on further I/O-pool tasks should run them inline instead.
+     */
+    public static boolean isIoWorkerThread() {
+        return Thread.currentThread() instanceof IoWorkerThread;
+    }
+
+    /**
+     * Returns the load of every pool that has been created so far.
+     */
+    public static synchronized List<PoolMetrics> metrics() {
+        List<PoolMetrics> metrics = new ArrayList<>(2);
+        if (cpuPool != null) {
+            metrics.add(new PoolMetrics(
+                    "cpu",
+                    cpuPool.getParallelism(),
+                    cpuPool.getPoolSize(),
+                    cpuPool.getActiveThreadCount(),
+                    cpuPool.getQueuedSubmissionCount() + cpuPool.getQueuedTaskCount()));
+        }
+        if (ioPool != null) {
+            metrics.add(new PoolMetrics(
+                    "io",
+                    ioPool.getMaximumPoolSize(),
+                    ioPool.getPoolSize(),
+                    ioPool.getActiveCount(),
+                    ioPool.getQueue().size()));
+        }
+        return metrics;
+    }
+
+    public static String describeStatistics() {
+        List<PoolMetrics> metrics = metrics();
+        if (metrics.isEmpty()) {
+            return "Shared executors: not started";
+        }
+        StringBuilder sb = new StringBuilder("Shared executors: ");
+        for (int i = 0; i < metrics.size(); i++) {
+            if (i > 0) {
+                sb.append("; ");
+            }
+            sb.append(metrics.get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Stops accepting work and waits briefly for running tasks. Called by the shutdown hook; pools
+     * requested afterwards are created afresh.
+     */
+    static void shutdown() {
+        ForkJoinPool cpu;
+        ThreadPoolExecutor io;
+        ThreadPoolExecutor sessions;
+        synchronized (SharedExecutors.class) {
+            cpu = cpuPool;
+            io = ioPool;
+            sessions = sessionPool;
+            cpuPool = null;
+            ioPool = null;
+            sessionPool = null;
+        }
+        if (sessions != null) {
+            sessions.shutdown();
+        }
+        if (cpu != null) {
+            cpu.shutdown();
+        }
+        if (io != null) {
+            io.shutdown();
+        }
+        try {
+            if (cpu != null) {
+                cpu.awaitTermination(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            if (io != null) {
+                io.awaitTermination(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            if (sessions != null) {
+                sessions.awaitTermination(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static synchronized ExecutorService ioPoolIfCreated() {
+        return ioPool;
+    }
+
+    private static void registerShutdownHook() {
+        if (shutdownHookRegistered) {
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(SharedExecutors::shutdown, "spacepixels-executor-shutdown"));
+        shutdownHookRegistered = true;
+    }
+
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory createCpuThreadFactory() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("spacepixels-cpu-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory createIoThreadFactory() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return task -> {
+            Thread thread = new IoWorkerThread(task, "spacepixels-io-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory createSessionThreadFactory() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "spacepixels-session-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The most recent {@code capacity} frames of a live session, kept decoded in chronological order.
+ *
+ * <p>Frames are ordered by observation timestamp, falling back to the file name for frames without
+ * a usable timestamp, so a frame that lands late still takes its proper place. Adding beyond the
+ * capacity drops the oldest frame.</p>
+ */
+final class SlidingFrameWindow {
+
+    static final Comparator<FitsFileInformation> CHRONOLOGICAL = (a, b) -> {
+        long t1 = a.getObservationTimestamp();
+        long t2 = b.getObservationTimestamp();
+        if (t1 != -1 && t2 != -1 && t1 != t2) {
+            return Long.compare(t1, t2);
+        }
+        return a.getFileName().compareTo(b.getFileName());
+    };
+
+    private final int capacity;
+    private final List<FitsFileInformation> filesInfo = new ArrayList<>();
+    private final List<short[][]> frames = new ArrayList<>();
+
+    SlidingFrameWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns whether a frame with this metadata would be kept, i.e. it is not older than every
+     * frame of an already full window. Callers use it to skip decoding frames that would be dropped.
+     */
+    boolean wouldRetain(FitsFileInformation fileInfo) {
+        return filesInfo.size() < capacity || CHRONOLOGICAL.compare(fileInfo, filesInfo.get(0)) > 0;
+    }
+
+    /**
+     * Inserts a decoded frame at its chronological position.
+     *
+     * @return {@code false} if the frame was older than the whole full window and was not kept
+     */
+    boolean add(FitsFileInformation fileInfo, short[][] frame) {
+        if (!wouldRetain(fileInfo)) {
+            return false;
+        }
+        int position = filesInfo.size();
+        while (position > 0 && CHRONOLOGICAL.compare(filesInfo.get(position - 1), fileInfo) > 0) {
+            position--;
+        }
+        filesInfo.add(position, fileInfo);
+        frames.add(position, frame);
+        if (filesInfo.size() > capacity) {
+            filesInfo.remove(0);
+            frames.remove(0);
+        }
+        return true;
+    }
+
+    int size() {
+        return filesInfo.size();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    FitsFileInformation[] filesInformation() {
+        return filesInfo.toArray(new FitsFileInformation[0]);
+    }
+
+    /**
+     * Returns a snapshot of the decoded frames, in the same order as {@link #filesInformation()}.
+     */
+    List<short[][]> frames() {
+        return new ArrayList<>(frames);
+    }
+}
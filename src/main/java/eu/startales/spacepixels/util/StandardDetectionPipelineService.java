@@ -14,8 +14,6 @@ import io.github.ppissias.jtransient.engine.ImageFrame;
 import io.github.ppissias.jtransient.engine.JTransientEngine;
 import io.github.ppissias.jtransient.engine.PipelineResult;
 import io.github.ppissias.jtransient.engine.TransientEngineProgressListener;
-import nom.tam.fits.BasicHDU;
-import nom.tam.fits.Fits;
 
 import java.io.File;
 import java.io.IOException;
@@ -31,16 +29,18 @@ import java.util.List;
 final class StandardDetectionPipelineService {
 
     private final AppConfig appConfig;
+    private final FrameSource frameSource;
 
-    StandardDetectionPipelineService(AppConfig appConfig) {
+    StandardDetectionPipelineService(AppConfig appConfig, FrameSource frameSource) {
         this.appConfig = appConfig;
+        this.frameSource = frameSource;
     }
 
     File detectObjects(DetectionConfig config,
                        FitsFileInformation[] cachedFileInfo,
                        ImageProcessing.DetectionSafetyPrompt safetyPrompt,
                        TransientEngineProgressListener progressListener) throws Exception {
-        ImageProcessing.PipelineExecutionData executionData = runDetectionPipeline(config, cachedFileInfo, progressListener);
+        ImageProcessing.PipelineExecutionData executionData = runDetectionPipeline(config, cachedFileInfo, new PipelineMetrics(), progressListener);
 
         if (safetyPrompt != null) {
             ImageProcessing.DetectionSummary detectionSummary = DetectionPipelineSupport.summarizeDetections(executionData.getPipelineResult());
@@ -69,38 +69,84 @@ final class StandardDetectionPipelineService {
 
     ImageProcessing.PipelineExecutionData runDetectionPipeline(DetectionConfig config,
                                                                FitsFileInformation[] cachedFileInfo,
+                                                               PipelineMetrics metrics,
                                                                TransientEngineProgressListener progressListener) throws Exception {
         long startTime = System.currentTimeMillis();
         int numFrames = cachedFileInfo.length;
 
-        System.out.println("\n--- Loading " + numFrames + " FITS files for JTransient Engine ---");
+        System.out.println("\n--- Loading " + numFrames + " frames (" + frameSource.describe() + ") for JTransient Engine ---");
 
         List<ImageFrame> framesForLibrary = new ArrayList<>();
         List<short[][]> rawFramesForExport = new ArrayList<>();
 
-        for (int i = 0; i < numFrames; i++) {
-            if (progressListener != null) {
-                int percent = (int) (((float) i / numFrames) * 20);
-                progressListener.onProgressUpdate(percent, "Loading frame " + (i + 1) + " of " + numFrames + "...");
-            }
-
-            File currentFile = new File(cachedFileInfo[i].getFilePath());
-            try (Fits fitsFile = new Fits(currentFile)) {
-                BasicHDU<?> hdu = ImageProcessing.getImageHDU(fitsFile);
-                Object kernel = hdu.getKernel();
+        int loaderThreads = ParallelFrameLoader.resolveWorkerCount(appConfig.frameLoadingThreads);
+        int maxInFlight = ParallelFrameLoader.resolveMaxInFlight(appConfig.frameLoadingMaxInFlight, loaderThreads);
+        System.out.println("Frame loading: " + loaderThreads + " I/O worker(s), up to " + maxInFlight + " frame(s) in flight.");
+
+        // Each file is stat'ed once by its loader; the in-order consumer reuses the size.
+        long[] fileSizes = new long[numFrames];
+        try (PipelineMetrics.Timer frameLoad = metrics.start(PipelineMetrics.FRAME_LOAD)) {
+            ParallelFrameLoader.loadInOrder(
+                    numFrames,
+                    loaderThreads,
+                    maxInFlight,
+                    index -> {
+                        fileSizes[index] = new File(cachedFileInfo[index].getFilePath()).length();
+                        try (PipelineMetrics.Timer decode = metrics.start(PipelineMetrics.FRAME_DECODE)) {
+                            decode.addCount(1).addBytes(fileSizes[index]);
+                            return frameSource.readFrame(cachedFileInfo[index]);
+                        }
+                    },
+                    index -> {
+                        if (progressListener != null) {
+                            int percent = (int) (((float) index / numFrames) * 20);
+                            progressListener.onProgressUpdate(percent, "Loading frame " + (index + 1) + " of " + numFrames + "...");
+                        }
+                    },
+                    (index, imageData) -> {
+                        long timestamp = cachedFileInfo[index].getObservationTimestamp();
+                        long exposure = cachedFileInfo[index].getExposureDurationMillis();
+                        String fileName = new File(cachedFileInfo[index].getFilePath()).getName();
+                        framesForLibrary.add(new ImageFrame(index, fileName, imageData, timestamp, exposure));
+                        rawFramesForExport.add(imageData);
+                        frameLoad.addCount(1).addBytes(fileSizes[index]);
+                    });
+        }
 
-                if (!(kernel instanceof short[][])) {
-                    throw new IOException("Cannot process: Expected short[][] but found " + kernel.getClass());
-                }
+        return runEngine(config, cachedFileInfo, framesForLibrary, rawFramesForExport, startTime, metrics, progressListener);
+    }
 
-                short[][] imageData = (short[][]) kernel;
-                long timestamp = cachedFileInfo[i].getObservationTimestamp();
-                long exposure = cachedFileInfo[i].getExposureDurationMillis();
-                framesForLibrary.add(new ImageFrame(i, currentFile.getName(), imageData, timestamp, exposure));
-                rawFramesForExport.add(imageData);
-            }
+    /**
+     * Runs the engine on frames that the caller has already decoded, in the order of
+     * {@code filesInfo}. Used by live sessions that keep a sliding window of frames in memory.
+     */
+    ImageProcessing.PipelineExecutionData runDetectionPipelineOnFrames(DetectionConfig config,
+                                                                       FitsFileInformation[] filesInfo,
+                                                                       List<short[][]> frames,
+                                                                       TransientEngineProgressListener progressListener) throws Exception {
+        if (filesInfo.length != frames.size()) {
+            throw new IllegalArgumentException("Expected one decoded frame per file, got " + frames.size() + " frames for " + filesInfo.length + " files");
+        }
+        long startTime = System.currentTimeMillis();
+        List<ImageFrame> framesForLibrary = new ArrayList<>(frames.size());
+        for (int index = 0; index < filesInfo.length; index++) {
+            framesForLibrary.add(new ImageFrame(
+                    index,
+                    filesInfo[index].getFileName(),
+                    frames.get(index),
+                    filesInfo[index].getObservationTimestamp(),
+                    filesInfo[index].getExposureDurationMillis()));
         }
+        return runEngine(config, filesInfo, framesForLibrary, frames, startTime, new PipelineMetrics(), progressListener);
+    }
 
+    private ImageProcessing.PipelineExecutionData runEngine(DetectionConfig config,
+                                                            FitsFileInformation[] cachedFileInfo,
+                                                            List<ImageFrame> framesForLibrary,
+                                                            List<short[][]> rawFramesForExport,
+                                                            long startTime,
+                                                            PipelineMetrics metrics,
+                                                            TransientEngineProgressListener progressListener) throws Exception {
         DetectionPipelineSupport.logPipelineFrameTimingPayload("Standard pipeline", framesForLibrary, cachedFileInfo);
 
         System.out.println("\n--- Passing data to JTransient Engine ---");
@@ -114,7 +160,8 @@ final class StandardDetectionPipelineService {
         JTransientEngine.DEBUG = true;
 
         PipelineResult result;
-        try {
+        try (PipelineMetrics.Timer engineRun = metrics.start(PipelineMetrics.ENGINE_RUN)) {
+            engineRun.addCount(framesForLibrary.size());
             result = engine.runPipeline(framesForLibrary, effectiveConfig, progressListener);
         } finally {
             engine.shutdown();
@@ -124,10 +171,18 @@ final class StandardDetectionPipelineService {
         long pipelineDuration = System.currentTimeMillis() - startTime;
         System.out.println("Total Pipeline Time: " + pipelineDuration + "ms");
 
-        return new ImageProcessing.PipelineExecutionData(result, effectiveConfig, cachedFileInfo, rawFramesForExport, pipelineDuration);
+        return new ImageProcessing.PipelineExecutionData(result, effectiveConfig, cachedFileInfo, rawFramesForExport, pipelineDuration, metrics);
     }
 
     File exportDetectionReport(ImageProcessing.PipelineExecutionData executionData) throws IOException {
+        return exportDetectionReport(executionData, null);
+    }
+
+    /**
+     * Exports the report into {@code exportDir}, or into a new timestamped directory next to the
+     * frames when it is {@code null}.
+     */
+    File exportDetectionReport(ImageProcessing.PipelineExecutionData executionData, File exportDir) throws IOException {
         if (executionData == null) {
             throw new IllegalArgumentException("executionData must not be null");
         }
@@ -137,14 +192,28 @@ final class StandardDetectionPipelineService {
             return null;
         }
 
-        File exportDir = ImageProcessing.createDetectionsDirectory(new File(filesInformation[0].getFilePath()));
-        DetectionReportGenerator.exportTrackVisualizations(
-                executionData.getPipelineResult(),
-                executionData.getRawFramesForExport(),
-                filesInformation,
-                exportDir,
-                executionData.getEffectiveConfig(),
-                appConfig);
+        PipelineMetrics metrics = executionData.getMetrics();
+        if (exportDir == null) {
+            exportDir = ImageProcessing.createDetectionsDirectory(new File(filesInformation[0].getFilePath()));
+        }
+        try (PipelineMetrics.Timer reportExport = metrics.start(PipelineMetrics.REPORT_EXPORT);
+             PipelineMetrics.Binding ignored = metrics.bindToCurrentThread()) {
+            reportExport.addCount(filesInformation.length);
+            DetectionReportGenerator.exportTrackVisualizations(
+                    executionData.getPipelineResult(),
+                    executionData.getRawFramesForExport(),
+                    filesInformation,
+                    exportDir,
+                    executionData.getEffectiveConfig(),
+                    appConfig);
+        }
+
+        File metricsFile = new File(exportDir, PipelineMetrics.METRICS_FILENAME);
+        try {
+            metrics.writeJson(metricsFile);
+        } catch (IOException e) {
+            System.err.println("Failed to write pipeline metrics " + metricsFile.getAbsolutePath() + ": " + e.getMessage());
+        }
         return new File(exportDir, DetectionReportGenerator.detectionReportName);
     }
 }
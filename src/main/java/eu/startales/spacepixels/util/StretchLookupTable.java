@@ -0,0 +1,267 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+/**
+ * Builds the stretch of a 16-bit frame as a 65536-entry lookup table.
+ *
+ * <p>Every {@link StretchAlgorithm} maps a pixel using only its own value and statistics of the whole
+ * region (minimum and maximum per iteration, mean, or percentiles), and all of those follow from the
+ * region's histogram. The table is therefore built by running the algorithm over the distinct values
+ * present instead of over every pixel, and iterations only revisit those values. Applying the table
+ * is a single pass whose cost does not depend on the iteration count, and its output is identical to
+ * stretching pixel by pixel.</p>
+ *
+ * <p>Tables are indexed by the unsigned value, {@code storage - Short.MIN_VALUE}, and hold stretched
+ * storage values.</p>
+ */
+final class StretchLookupTable {
+
+    static final int SIZE = 65536;
+
+    private StretchLookupTable() {
+    }
+
+    /**
+     * Builds the table for the top-left {@code width x height} region of {@code data}.
+     *
+     * @param primary   the algorithm's primary parameter (intensity, black point or noise threshold)
+     * @param secondary the algorithm's secondary parameter (iterations, stretch strength or intensity factor)
+     */
+    static short[] build(short[][] data, int width, int height, int primary, int secondary, StretchAlgorithm algo) {
+        switch (algo) {
+            case ENHANCE_HIGH:
+                return enhanceHigh(histogram(data, width, height), primary, secondary);
+            case ENHANCE_LOW:
+                return enhanceLow(histogram(data, width, height), primary, secondary);
+            case EXTREME:
+                return extreme(histogram(data, width, height), width, height, primary, secondary);
+            case ASINH:
+                // The percentiles come from the whole frame even when only a region is rendered.
+                return asinh(histogram(data, data[0].length, data.length), (long) data[0].length * data.length, primary, secondary);
+            default:
+                return enhanceLow(histogram(data, width, height), primary, secondary);
+        }
+    }
+
+    /**
+     * Maps the top-left {@code width x height} region of {@code data} through {@code table}.
+     */
+    static short[][] apply(short[][] data, int width, int height, short[] table) {
+        short[][] result = new short[height][width];
+        RowBands.forEach(height, width, (rowStart, rowEnd) -> {
+            for (int i = rowStart; i < rowEnd; i++) {
+                short[] source = data[i];
+                short[] target = result[i];
+                for (int j = 0; j < width; j++) {
+                    target[j] = table[source[j] - Short.MIN_VALUE];
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Counts the unsigned values of the top-left {@code width x height} region, one partial histogram
+     * per row band.
+     */
+    static int[] histogram(short[][] data, int width, int height) {
+        return RowBands.reduce(height, width, (rowStart, rowEnd) -> {
+            int[] histogram = new int[SIZE];
+            for (int i = rowStart; i < rowEnd; i++) {
+                short[] row = data[i];
+                for (int j = 0; j < width; j++) {
+                    histogram[row[j] - Short.MIN_VALUE]++;
+                }
+            }
+            return histogram;
+        }, StretchLookupTable::mergeHistograms);
+    }
+
+    private static int[] mergeHistograms(int[] into, int[] from) {
+        for (int value = 0; value < SIZE; value++) {
+            into[value] += from[value];
+        }
+        return into;
+    }
+
+    private static short[] identity() {
+        short[] table = new short[SIZE];
+        for (int value = 0; value < SIZE; value++) {
+            table[value] = (short) (value + Short.MIN_VALUE);
+        }
+        return table;
+    }
+
+    /**
+     * Returns the unsigned values that occur in the region, in ascending order.
+     */
+    private static int[] presentValues(int[] histogram) {
+        int count = 0;
+        for (int frequency : histogram) {
+            if (frequency != 0) {
+                count++;
+            }
+        }
+        int[] values = new int[count];
+        int next = 0;
+        for (int value = 0; value < SIZE; value++) {
+            if (histogram[value] != 0) {
+                values[next++] = value;
+            }
+        }
+        return values;
+    }
+
+    private static short[] enhanceHigh(int[] histogram, int intensity, int iterations) {
+        short[] table = identity();
+        int[] present = presentValues(histogram);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            short minimumValue = Short.MAX_VALUE;
+            for (int value : present) {
+                int absValue = table[value] - Short.MIN_VALUE;
+                float newValue = (float) absValue * (1 + ((float) intensity / 100));
+                newValue = newValue - Short.MAX_VALUE;
+
+                short stretched = newValue > Short.MAX_VALUE ? Short.MAX_VALUE : (short) newValue;
+                table[value] = stretched;
+                if (minimumValue > stretched) {
+                    minimumValue = stretched;
+                }
+            }
+
+            int minimumValueDistanceFromZero = minimumValue - Short.MIN_VALUE;
+            if (minimumValueDistanceFromZero > 2 * Short.MAX_VALUE) {
+                minimumValueDistanceFromZero = 2 * Short.MAX_VALUE;
+            }
+            for (int value : present) {
+                table[value] = (short) (table[value] - minimumValueDistanceFromZero);
+            }
+        }
+        return table;
+    }
+
+    private static short[] enhanceLow(int[] histogram, int intensity, int iterations) {
+        short[] table = identity();
+        int[] present = presentValues(histogram);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            short minimumValue = Short.MAX_VALUE;
+            short maximumValue = Short.MIN_VALUE;
+            for (int value : present) {
+                int absValue = table[value] - Short.MIN_VALUE;
+                float scale = 1 - (((float) absValue) / (2 * (float) Short.MAX_VALUE));
+                float newValue = (float) absValue * (1 + (((float) intensity / 100) * scale));
+                newValue = newValue - Short.MAX_VALUE;
+
+                short stretched = newValue > Short.MAX_VALUE ? Short.MAX_VALUE : (short) newValue;
+                table[value] = stretched;
+                if (minimumValue > stretched) {
+                    minimumValue = stretched;
+                }
+                if (maximumValue < stretched) {
+                    maximumValue = stretched;
+                }
+            }
+
+            int minimumValueDistanceFromZero = minimumValue - Short.MIN_VALUE;
+            if (minimumValueDistanceFromZero > 2 * Short.MAX_VALUE) {
+                minimumValueDistanceFromZero = 2 * Short.MAX_VALUE;
+            }
+            int maximumValueDistanceFromMax = Short.MAX_VALUE - maximumValue;
+            if (maximumValueDistanceFromMax > 2 * Short.MAX_VALUE) {
+                maximumValueDistanceFromMax = 2 * Short.MAX_VALUE;
+            }
+
+            float stretchCoefficient = 1 + (((float) maximumValueDistanceFromMax) / (2 * (float) Short.MAX_VALUE));
+            for (int value : present) {
+                int absValue = table[value] - Short.MIN_VALUE - minimumValueDistanceFromZero;
+                float newValue = ((float) absValue) * stretchCoefficient;
+                newValue = newValue - Short.MAX_VALUE;
+
+                table[value] = newValue > Short.MAX_VALUE ? Short.MAX_VALUE : (short) newValue;
+            }
+        }
+        return table;
+    }
+
+    private static short[] extreme(int[] histogram, int width, int height, int threshold, int intensity) {
+        long allPixelSumValue = 0;
+        for (int value = 0; value < SIZE; value++) {
+            allPixelSumValue += (long) value * histogram[value];
+        }
+        float averageNoiseLevel = ((float) allPixelSumValue) / ((float) width * height);
+
+        float newValue = (((float) intensity) / 20) * (2 * (float) Short.MAX_VALUE);
+        newValue = newValue - Short.MAX_VALUE;
+        short brightValue = newValue > Short.MAX_VALUE ? Short.MAX_VALUE : (short) newValue;
+
+        short[] table = identity();
+        for (int value = 0; value < SIZE; value++) {
+            if (value >= averageNoiseLevel + 10 * threshold) {
+                table[value] = brightValue;
+            }
+        }
+        return table;
+    }
+
+    private static short[] asinh(int[] histogram, long totalPixels, int blackPointPercent, int stretchStrength) {
+        int blackPointValue = percentileFromHistogram(histogram, totalPixels, blackPointPercent / 100.0);
+        int whitePointValue = percentileFromHistogram(histogram, totalPixels, 0.999);
+        if (whitePointValue <= blackPointValue) {
+            whitePointValue = blackPointValue + 1;
+        }
+
+        double usableRange = whitePointValue - blackPointValue;
+        double stretchScale = Math.max(1.0, stretchStrength);
+        double normalization = asinh(stretchScale);
+
+        short[] table = new short[SIZE];
+        for (int value = 0; value < SIZE; value++) {
+            double normalizedValue = (value - blackPointValue) / usableRange;
+            if (normalizedValue < 0.0) {
+                normalizedValue = 0.0;
+            } else if (normalizedValue > 1.0) {
+                normalizedValue = 1.0;
+            }
+
+            double stretchedValue = asinh(normalizedValue * stretchScale) / normalization;
+            int unsignedValue = (int) Math.round(stretchedValue * ((2.0 * Short.MAX_VALUE) + 1.0));
+            if (unsignedValue < 0) {
+                unsignedValue = 0;
+            } else if (unsignedValue > (2 * Short.MAX_VALUE) + 1) {
+                unsignedValue = (2 * Short.MAX_VALUE) + 1;
+            }
+            table[value] = (short) (unsignedValue + Short.MIN_VALUE);
+        }
+        return table;
+    }
+
+    static double asinh(double value) {
+        return Math.log(value + Math.sqrt((value * value) + 1.0));
+    }
+
+    static int percentileFromHistogram(int[] histogram, long totalPixels, double percentile) {
+        if (totalPixels <= 0) {
+            return 0;
+        }
+
+        long targetCount = Math.max(0L, Math.min(totalPixels - 1, (long) Math.floor((totalPixels - 1) * percentile)));
+        long runningCount = 0;
+
+        for (int value = 0; value < histogram.length; value++) {
+            runningCount += histogram[value];
+            if (runningCount > targetCount) {
+                return value;
+            }
+        }
+
+        return histogram.length - 1;
+    }
+}
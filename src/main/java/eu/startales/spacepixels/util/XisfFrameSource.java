@@ -0,0 +1,52 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Decodes monolithic XISF frames straight into 16-bit mono rows, with the same sample scaling and
+ * colour handling as {@link XisfImageConverter}'s FITS conversion but without the FITS copy.
+ */
+final class XisfFrameSource implements FrameSource {
+
+    static final XisfFrameSource INSTANCE = new XisfFrameSource();
+
+    private XisfFrameSource() {
+    }
+
+    @Override
+    public File[] listFrameFiles(File directory) throws IOException {
+        File[] files = XisfImageConverter.listXisfFiles(directory);
+        if (files.length == 0) {
+            throw new IOException("No XISF files in directory: " + directory.getAbsolutePath());
+        }
+        return files;
+    }
+
+    @Override
+    public FitsFileInformation readFrameInformation(File file) throws Exception {
+        return XisfImageConverter.readFrameInformation(file);
+    }
+
+    @Override
+    public short[][] readFrame(FitsFileInformation fileInfo) throws Exception {
+        return XisfImageConverter.readMonochromeFrame(new File(fileInfo.getFilePath()));
+    }
+
+    @Override
+    public boolean isDetectionReady() {
+        return false;
+    }
+
+    @Override
+    public String describe() {
+        return "XISF (decoded to 16-bit mono on the fly)";
+    }
+}
@@ -17,12 +17,16 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.RandomAccessFile;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -38,6 +42,12 @@ import java.util.zip.Inflater;
 /**
  * Converts PixInsight XISF images into monochrome FITS files that SpacePixels can ingest through
  * the same batch-import path used for native FITS sequences.
+ *
+ * <p>Files are converted concurrently through {@link BatchFileProcessor}, bounded by a worker count
+ * and an estimated working-memory budget. Attachment and external data blocks are memory-mapped
+ * rather than copied onto the heap. Compressed blocks are inflated once; byte unshuffling is then
+ * folded into the sample decode, which reads each sample straight from its byte planes and writes
+ * the 16-bit result into the destination frame.</p>
  */
 public final class XisfImageConverter {
 
@@ -62,7 +72,22 @@ public final class XisfImageConverter {
         return prepareDirectoryForFitsImport(directory, null);
     }
 
+    /**
+     * Converts with one worker per core and half of the maximum heap as working-memory budget.
+     */
     public static File prepareDirectoryForFitsImport(File directory, ProgressListener progressListener) throws Exception {
+        return prepareDirectoryForFitsImport(directory, progressListener, 0, 0);
+    }
+
+    /**
+     * @param conversionThreads    number of files converted concurrently; {@code <= 0} selects one per core
+     * @param memoryBudgetMb       estimated working memory the concurrent conversions may use together;
+     *                             {@code <= 0} selects half of the maximum heap
+     */
+    public static File prepareDirectoryForFitsImport(File directory,
+                                                     ProgressListener progressListener,
+                                                     int conversionThreads,
+                                                     int memoryBudgetMb) throws Exception {
         if (directory == null || !directory.isDirectory()) {
             return directory;
         }
@@ -77,22 +102,52 @@ public final class XisfImageConverter {
         }
 
         ApplicationWindow.logger.info("No FITS files found. Converting " + xisfFiles.length + " XISF files to 16-bit monochrome FITS.");
-        return convertDirectory(directory, xisfFiles, progressListener);
+        return convertDirectory(directory, xisfFiles, progressListener, conversionThreads, memoryBudgetMb);
     }
 
-    private static File convertDirectory(File sourceDirectory, File[] xisfFiles, ProgressListener progressListener) throws Exception {
+    private static File convertDirectory(File sourceDirectory,
+                                         File[] xisfFiles,
+                                         ProgressListener progressListener,
+                                         int conversionThreads,
+                                         int memoryBudgetMb) throws Exception {
         File outputDirectory = new File(sourceDirectory, GENERATED_DIRECTORY_NAME);
         Files.createDirectories(outputDirectory.toPath());
 
+        long[] costs = new long[xisfFiles.length];
         for (int i = 0; i < xisfFiles.length; i++) {
-            File xisfFile = xisfFiles[i];
-            if (progressListener != null) {
-                int percent = xisfFiles.length == 0 ? 0 : (int) ((i * 80.0f) / xisfFiles.length);
-                progressListener.onProgress(percent, "Converting XISF " + (i + 1) + " of " + xisfFiles.length + ": " + xisfFile.getName());
-            }
-            XisfImageData imageData = readImage(xisfFile);
-            File outputFile = new File(outputDirectory, stripExtension(xisfFile.getName()) + ".fit");
-            writeFits(imageData, outputFile);
+            costs[i] = estimateWorkingMemory(xisfFiles[i]);
+        }
+        int workers = BatchFileProcessor.resolveWorkerCount(conversionThreads);
+        long memoryBudget = BatchFileProcessor.resolveMemoryBudgetBytes(memoryBudgetMb);
+        ApplicationWindow.logger.info("XISF conversion of " + xisfFiles.length + " files using up to " + workers
+                + " workers and " + (memoryBudget / BatchFileProcessor.MIB) + " MiB working memory.");
+        if (progressListener != null) {
+            progressListener.onProgress(0, "Converting " + xisfFiles.length + " XISF files...");
+        }
+
+        BatchFileProcessor.Report<File> report;
+        try {
+            report = BatchFileProcessor.process(xisfFiles, costs, workers, memoryBudget, (index, xisfFile) -> {
+                XisfImageData imageData = readImage(xisfFile);
+                File outputFile = new File(outputDirectory, stripExtension(xisfFile.getName()) + ".fit");
+                writeFits(imageData, outputFile);
+                return outputFile;
+            }, (completed, total, outcome) -> {
+                if (progressListener != null) {
+                    int percent = (int) ((completed * 80.0f) / total);
+                    String status = outcome.succeeded() ? "Converted XISF " : "Failed XISF ";
+                    progressListener.onProgress(percent, status + completed + " of " + total + ": " + outcome.file.getName());
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("XISF conversion interrupted");
+        }
+
+        // Every frame of a session is needed, so a single failed file still fails the conversion.
+        String failures = report.describeFailures();
+        if (failures != null) {
+            throw new IOException("XISF conversion failed. " + failures, report.getFailures().get(0).failure);
         }
 
         if (progressListener != null) {
@@ -198,18 +253,94 @@ public final class XisfImageConverter {
         return value != null && value.matches("[+-]?(?:\\d+\\.\\d*|\\d*\\.\\d+|\\d+)(?:[eE][+-]?\\d+)?");
     }
 
-    private static XisfImageData readImage(File xisfFile) throws Exception {
+    /**
+     * Reads and decodes the primary image of a monolithic XISF file into 16-bit mono storage,
+     * without writing a FITS copy.
+     */
+    static short[][] readMonochromeFrame(File xisfFile) throws Exception {
+        return readImage(xisfFile).monoData;
+    }
+
+    /**
+     * Reads the geometry and FITS keywords of the primary image without decoding its pixels. The
+     * result describes the frame {@link #readMonochromeFrame(File)} returns, with keyword values
+     * decoded the way a FITS header scan reports them.
+     */
+    static FitsFileInformation readFrameInformation(File xisfFile) throws Exception {
+        try (RandomAccessFile input = new RandomAccessFile(xisfFile, "r")) {
+            Element rootElement = readXmlHeader(input, xisfFile);
+            Element imageElement = findPrimaryImageElement(rootElement);
+            if (imageElement == null) {
+                throw new IOException("No Image element found in XISF file " + xisfFile.getName());
+            }
+
+            Geometry geometry = parseGeometry(imageElement.getAttribute("geometry"));
+            FitsFileInformation fileInfo = new FitsFileInformation(
+                    xisfFile.getAbsolutePath(), xisfFile.getName(), true, geometry.width, geometry.height);
+            Map<String, String> header = fileInfo.getFitsHeader();
+            for (FitsKeyword keyword : extractFitsKeywords(rootElement, imageElement)) {
+                if (keyword.name == null || keyword.name.isBlank()) {
+                    continue;
+                }
+                String name = keyword.name.trim();
+                if ("COMMENT".equals(name) || "HISTORY".equals(name) || STRUCTURAL_FITS_KEYS.contains(name)) {
+                    continue;
+                }
+                String value = keyword.value == null ? "" : keyword.value.trim();
+                header.put(name, isFitsStringLiteral(value) ? decodeFitsString(value).stripTrailing() : value);
+            }
+            FitsPixelConverter.describeAsMono16(header, geometry.width, geometry.height);
+            return fileInfo;
+        }
+    }
+
+    static File[] listXisfFiles(File directory) {
+        return listFilesWithExtensions(directory, XISF_EXTENSIONS);
+    }
+
+    /**
+     * Estimates the peak heap needed to convert {@code xisfFile}: the 16-bit destination frame, plus
+     * the inflated block when the data is compressed. Mapped blocks live outside the heap. Falls back
+     * to the generic size-based estimate when the header cannot be read.
+     */
+    static long estimateWorkingMemory(File xisfFile) {
         try (RandomAccessFile input = new RandomAccessFile(xisfFile, "r")) {
-            validateMonolithicSignature(input, xisfFile);
+            Element imageElement = findPrimaryImageElement(readXmlHeader(input, xisfFile));
+            if (imageElement == null) {
+                return BatchFileProcessor.estimateWorkingMemory(xisfFile);
+            }
+            Geometry geometry = parseGeometry(imageElement.getAttribute("geometry"));
+            SampleFormat sampleFormat = SampleFormat.parse(imageElement.getAttribute("sampleFormat"));
+            long pixels = (long) geometry.width * geometry.height;
+            // The destination frame, and nom-tam's copy of it while the FITS file is written.
+            long estimate = pixels * Short.BYTES * 2L;
+            String location = imageElement.getAttribute("location");
+            boolean textEncoded = location.startsWith("inline:") || "embedded".equals(location);
+            if (textEncoded || !imageElement.getAttribute("compression").isBlank()) {
+                estimate += pixels * geometry.channels * sampleFormat.byteSize;
+            }
+            return estimate;
+        } catch (Exception e) {
+            return BatchFileProcessor.estimateWorkingMemory(xisfFile);
+        }
+    }
 
-            int headerLength = readInt32LittleEndian(input);
-            readInt32LittleEndian(input);
+    private static Element readXmlHeader(RandomAccessFile input, File xisfFile) throws Exception {
+        validateMonolithicSignature(input, xisfFile);
 
-            byte[] headerBytes = new byte[headerLength];
-            input.readFully(headerBytes);
+        int headerLength = readInt32LittleEndian(input);
+        readInt32LittleEndian(input);
+
+        byte[] headerBytes = new byte[headerLength];
+        input.readFully(headerBytes);
+
+        Document document = parseXmlHeader(headerBytes);
+        return document.getDocumentElement();
+    }
 
-            Document document = parseXmlHeader(headerBytes);
-            Element rootElement = document.getDocumentElement();
+    private static XisfImageData readImage(File xisfFile) throws Exception {
+        try (RandomAccessFile input = new RandomAccessFile(xisfFile, "r")) {
+            Element rootElement = readXmlHeader(input, xisfFile);
             Element imageElement = findPrimaryImageElement(rootElement);
             if (imageElement == null) {
                 throw new IOException("No Image element found in XISF file " + xisfFile.getName());
@@ -222,8 +353,8 @@ public final class XisfImageConverter {
             ByteOrder byteOrder = "big".equalsIgnoreCase(imageElement.getAttribute("byteOrder")) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
             SampleScaling scaling = SampleScaling.forImage(sampleFormat, imageElement.getAttribute("bounds"));
 
-            byte[] serializedBlock = readDataBlock(xisfFile, input, imageElement);
-            byte[] decodedBlock = decodeDataBlock(serializedBlock, imageElement.getAttribute("compression"));
+            ByteBuffer serializedBlock = readDataBlock(xisfFile, input, imageElement);
+            DecodedBlock decodedBlock = decodeDataBlock(serializedBlock, imageElement.getAttribute("compression"));
 
             short[][] monoData = decodeMonochromeImage(decodedBlock, geometry, sampleFormat, colorSpace, pixelStorage, byteOrder, scaling);
             List<FitsKeyword> fitsKeywords = extractFitsKeywords(rootElement, imageElement);
@@ -356,7 +487,11 @@ public final class XisfImageConverter {
         return new Geometry(width, height, channels);
     }
 
-    private static byte[] readDataBlock(File xisfFile, RandomAccessFile input, Element imageElement) throws Exception {
+    /**
+     * Returns the serialized image block. Attachments and external files are memory-mapped, so the
+     * block is never copied onto the heap.
+     */
+    private static ByteBuffer readDataBlock(File xisfFile, RandomAccessFile input, Element imageElement) throws Exception {
         String location = imageElement.getAttribute("location");
         if (location == null || location.isBlank()) {
             throw new IOException("Missing XISF image data location in " + xisfFile.getName());
@@ -370,15 +505,17 @@ public final class XisfImageConverter {
 
             long position = Long.parseLong(parts[1]);
             int size = Integer.parseInt(parts[2]);
-            byte[] data = new byte[size];
-            input.seek(position);
-            input.readFully(data);
-            return data;
+            FileChannel channel = input.getChannel();
+            if (position < 0L || size < 0 || position + size > channel.size()) {
+                throw new IOException("XISF attachment " + location + " lies outside " + xisfFile.getName()
+                        + " (" + channel.size() + " bytes).");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
         }
 
         if (location.startsWith("inline:")) {
             String encoding = location.substring("inline:".length());
-            return decodeTextEncodedData(encoding, imageElement.getTextContent());
+            return ByteBuffer.wrap(decodeTextEncodedData(encoding, imageElement.getTextContent()));
         }
 
         if ("embedded".equals(location)) {
@@ -386,7 +523,7 @@ public final class XisfImageConverter {
             if (dataElement == null) {
                 throw new IOException("Embedded XISF image data is missing its Data child element.");
             }
-            return decodeTextEncodedData(dataElement.getAttribute("encoding"), dataElement.getTextContent());
+            return ByteBuffer.wrap(decodeTextEncodedData(dataElement.getAttribute("encoding"), dataElement.getTextContent()));
         }
 
         if (location.startsWith("path(")) {
@@ -411,7 +548,7 @@ public final class XisfImageConverter {
         return null;
     }
 
-    private static byte[] readExternalPathBlock(File xisfFile, String locationPayload, boolean isPathLocation) throws Exception {
+    private static ByteBuffer readExternalPathBlock(File xisfFile, String locationPayload, boolean isPathLocation) throws Exception {
         int closeParen = locationPayload.lastIndexOf(')');
         if (closeParen < 0) {
             throw new IOException("Malformed XISF external block location.");
@@ -437,7 +574,12 @@ public final class XisfImageConverter {
             targetFile = new File(pathSpec.replace('/', File.separatorChar));
         }
 
-        return Files.readAllBytes(targetFile.toPath());
+        try (FileChannel channel = FileChannel.open(targetFile.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("XISF external data block is too large: " + targetFile.getName());
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        }
     }
 
     private static byte[] decodeTextEncodedData(String encoding, String contents) throws IOException {
@@ -460,9 +602,13 @@ public final class XisfImageConverter {
         throw new IOException("Unsupported XISF inline encoding: " + encoding);
     }
 
-    private static byte[] decodeDataBlock(byte[] serializedBlock, String compression) throws IOException {
+    /**
+     * Inflates a compressed block. Shuffled blocks are returned still shuffled together with their
+     * item size; {@link #decodeMonochromeImage} gathers the bytes of each sample from the planes.
+     */
+    private static DecodedBlock decodeDataBlock(ByteBuffer serializedBlock, String compression) throws IOException {
         if (compression == null || compression.isBlank()) {
-            return serializedBlock;
+            return new DecodedBlock(serializedBlock, 1);
         }
 
         String[] parts = compression.split(":");
@@ -471,12 +617,14 @@ public final class XisfImageConverter {
         int itemSize = parts.length >= 3 ? Integer.parseInt(parts[2]) : 1;
 
         byte[] decompressed;
+        boolean shuffled = false;
         switch (codec) {
             case "zlib":
                 decompressed = inflateZlib(serializedBlock, expectedSize);
                 break;
             case "zlib+sh":
-                decompressed = unshuffleBytes(inflateZlib(serializedBlock, expectedSize), itemSize);
+                decompressed = inflateZlib(serializedBlock, expectedSize);
+                shuffled = true;
                 break;
             case "lz4":
             case "lz4hc":
@@ -484,7 +632,8 @@ public final class XisfImageConverter {
                 break;
             case "lz4+sh":
             case "lz4hc+sh":
-                decompressed = unshuffleBytes(inflateLz4(serializedBlock, expectedSize), itemSize);
+                decompressed = inflateLz4(serializedBlock, expectedSize);
+                shuffled = true;
                 break;
             default:
                 throw new IOException("Unsupported XISF compression codec: " + codec);
@@ -493,12 +642,12 @@ public final class XisfImageConverter {
         if (decompressed.length != expectedSize) {
             throw new IOException("Decoded XISF data block size mismatch. Expected " + expectedSize + " bytes but decoded " + decompressed.length + " bytes.");
         }
-        return decompressed;
+        return new DecodedBlock(ByteBuffer.wrap(decompressed), shuffled ? itemSize : 1);
     }
 
-    private static byte[] inflateZlib(byte[] compressedBlock, int expectedSize) throws IOException {
+    private static byte[] inflateZlib(ByteBuffer compressedBlock, int expectedSize) throws IOException {
         Inflater inflater = new Inflater();
-        inflater.setInput(compressedBlock);
+        inflater.setInput(compressedBlock.duplicate());
 
         byte[] output = new byte[expectedSize];
         try {
@@ -514,43 +663,44 @@ public final class XisfImageConverter {
         }
     }
 
-    private static byte[] inflateLz4(byte[] compressedBlock, int expectedSize) throws IOException {
+    private static byte[] inflateLz4(ByteBuffer compressedBlock, int expectedSize) throws IOException {
         byte[] output = new byte[expectedSize];
-        int src = 0;
+        int src = compressedBlock.position();
+        int end = compressedBlock.limit();
         int dst = 0;
 
-        while (src < compressedBlock.length) {
-            int token = compressedBlock[src++] & 0xFF;
+        while (src < end) {
+            int token = compressedBlock.get(src++) & 0xFF;
 
             int literalLength = token >>> 4;
             if (literalLength == 15) {
                 int extension;
                 do {
-                    if (src >= compressedBlock.length) {
+                    if (src >= end) {
                         throw new IOException("Malformed LZ4 literal length in XISF data block.");
                     }
-                    extension = compressedBlock[src++] & 0xFF;
+                    extension = compressedBlock.get(src++) & 0xFF;
                     literalLength += extension;
                 } while (extension == 255);
             }
 
-            if (src + literalLength > compressedBlock.length || dst + literalLength > output.length) {
+            if (src + literalLength > end || dst + literalLength > output.length) {
                 throw new IOException("Malformed LZ4 literals in XISF data block.");
             }
 
-            System.arraycopy(compressedBlock, src, output, dst, literalLength);
+            compressedBlock.get(src, output, dst, literalLength);
             src += literalLength;
             dst += literalLength;
 
-            if (src >= compressedBlock.length) {
+            if (src >= end) {
                 break;
             }
 
-            if (src + 1 >= compressedBlock.length) {
+            if (src + 1 >= end) {
                 throw new IOException("Malformed LZ4 match offset in XISF data block.");
             }
 
-            int offset = (compressedBlock[src] & 0xFF) | ((compressedBlock[src + 1] & 0xFF) << 8);
+            int offset = (compressedBlock.get(src) & 0xFF) | ((compressedBlock.get(src + 1) & 0xFF) << 8);
             src += 2;
             if (offset <= 0 || offset > dst) {
                 throw new IOException("Invalid LZ4 match offset in XISF data block.");
@@ -560,10 +710,10 @@ public final class XisfImageConverter {
             if (matchLength == 15) {
                 int extension;
                 do {
-                    if (src >= compressedBlock.length) {
+                    if (src >= end) {
                         throw new IOException("Malformed LZ4 match length in XISF data block.");
                     }
-                    extension = compressedBlock[src++] & 0xFF;
+                    extension = compressedBlock.get(src++) & 0xFF;
                     matchLength += extension;
                 } while (extension == 255);
             }
@@ -573,8 +723,13 @@ public final class XisfImageConverter {
                 throw new IOException("Malformed LZ4 match range in XISF data block.");
             }
 
-            for (int i = 0; i < matchLength; i++) {
-                output[dst + i] = output[dst - offset + i];
+            if (offset >= matchLength) {
+                System.arraycopy(output, dst - offset, output, dst, matchLength);
+            } else {
+                // Overlapping match: the copy must observe the bytes it has just written.
+                for (int i = 0; i < matchLength; i++) {
+                    output[dst + i] = output[dst - offset + i];
+                }
             }
             dst += matchLength;
         }
@@ -609,7 +764,7 @@ public final class XisfImageConverter {
         return output;
     }
 
-    private static short[][] decodeMonochromeImage(byte[] rawData,
+    private static short[][] decodeMonochromeImage(DecodedBlock block,
                                                    Geometry geometry,
                                                    SampleFormat sampleFormat,
                                                    String colorSpace,
@@ -619,8 +774,9 @@ public final class XisfImageConverter {
         int sampleSize = sampleFormat.byteSize;
         int totalSamples = geometry.width * geometry.height * geometry.channels;
         int expectedSize = totalSamples * sampleSize;
-        if (rawData.length != expectedSize) {
-            throw new IOException("Unexpected XISF image data size. Expected " + expectedSize + " bytes but found " + rawData.length + " bytes.");
+        ByteBuffer rawData = block.data.slice().order(byteOrder);
+        if (rawData.remaining() != expectedSize) {
+            throw new IOException("Unexpected XISF image data size. Expected " + expectedSize + " bytes but found " + rawData.remaining() + " bytes.");
         }
 
         boolean grayscale = colorSpace == null || colorSpace.isBlank() || "Gray".equalsIgnoreCase(colorSpace);
@@ -630,60 +786,101 @@ public final class XisfImageConverter {
         }
 
         boolean planarStorage = pixelStorage == null || pixelStorage.isBlank() || "Planar".equalsIgnoreCase(pixelStorage);
-        ByteBuffer buffer = ByteBuffer.wrap(rawData).order(byteOrder);
+        boolean shuffled = block.shuffleItemSize > 1;
+        if (shuffled && block.shuffleItemSize != sampleSize) {
+            // Shuffled with an item size other than the sample size: restore the byte order first.
+            rawData = ByteBuffer.wrap(unshuffleBytes(rawData.array(), block.shuffleItemSize)).order(byteOrder);
+            shuffled = false;
+        }
+
         short[][] output = new short[geometry.height][geometry.width];
+        boolean contiguousFirstChannel = planarStorage || geometry.channels == 1;
+        if (grayscale && contiguousFirstChannel && sampleFormat == SampleFormat.UINT16 && !scaling.scaleToFull16BitRange) {
+            if (shuffled) {
+                decodeShuffledUnsigned16(rawData.array(), totalSamples, byteOrder, geometry, output);
+            } else {
+                decodeUnsigned16(rawData, geometry, output);
+            }
+            return output;
+        }
+
+        SampleReader reader = shuffled
+                ? new ShuffledSampleReader(rawData.array(), totalSamples, sampleFormat, byteOrder)
+                : new DirectSampleReader(rawData, sampleFormat);
         int usableChannels = grayscale ? 1 : Math.min(3, geometry.channels);
 
         for (int y = 0; y < geometry.height; y++) {
+            short[] row = output[y];
             for (int x = 0; x < geometry.width; x++) {
                 int pixelIndex = (y * geometry.width) + x;
                 double sampleValue = 0.0;
 
                 if (grayscale) {
-                    sampleValue = readSample(buffer, sampleFormat, geometry, planarStorage, pixelIndex, 0);
+                    sampleValue = reader.read(sampleIndex(geometry, planarStorage, pixelIndex, 0));
                 } else {
                     for (int channel = 0; channel < usableChannels; channel++) {
-                        sampleValue += readSample(buffer, sampleFormat, geometry, planarStorage, pixelIndex, channel);
+                        sampleValue += reader.read(sampleIndex(geometry, planarStorage, pixelIndex, channel));
                     }
                     sampleValue /= usableChannels;
                 }
 
                 int unsignedValue = scaling.toUnsigned16(sampleValue);
-                output[y][x] = (short) (unsignedValue - 32768);
+                row[x] = (short) (unsignedValue - 32768);
             }
         }
 
         return output;
     }
 
-    private static double readSample(ByteBuffer buffer,
-                                     SampleFormat sampleFormat,
-                                     Geometry geometry,
-                                     boolean planarStorage,
-                                     int pixelIndex,
-                                     int channel) {
-        int sampleIndex;
+    /**
+     * Unscaled UInt16 gray: the sample is already the unsigned 16-bit value, so flipping the sign
+     * bit yields the offset storage that {@code unsigned - 32768} produces.
+     */
+    private static void decodeUnsigned16(ByteBuffer rawData, Geometry geometry, short[][] output) {
+        ShortBuffer samples = rawData.asShortBuffer();
+        for (int y = 0; y < geometry.height; y++) {
+            short[] row = output[y];
+            samples.get(row);
+            for (int x = 0; x < row.length; x++) {
+                row[x] = (short) (row[x] ^ 0x8000);
+            }
+        }
+    }
+
+    private static void decodeShuffledUnsigned16(byte[] shuffled, int itemCount, ByteOrder byteOrder, Geometry geometry, short[][] output) {
+        int lowPlane = byteOrder == ByteOrder.LITTLE_ENDIAN ? 0 : itemCount;
+        int highPlane = byteOrder == ByteOrder.LITTLE_ENDIAN ? itemCount : 0;
+        int sampleIndex = 0;
+        for (int y = 0; y < geometry.height; y++) {
+            short[] row = output[y];
+            for (int x = 0; x < row.length; x++, sampleIndex++) {
+                int value = (shuffled[lowPlane + sampleIndex] & 0xFF) | ((shuffled[highPlane + sampleIndex] & 0xFF) << 8);
+                row[x] = (short) (value ^ 0x8000);
+            }
+        }
+    }
+
+    private static int sampleIndex(Geometry geometry, boolean planarStorage, int pixelIndex, int channel) {
         if (planarStorage) {
-            sampleIndex = (channel * geometry.width * geometry.height) + pixelIndex;
-        } else {
-            sampleIndex = (pixelIndex * geometry.channels) + channel;
+            return (channel * geometry.width * geometry.height) + pixelIndex;
         }
+        return (pixelIndex * geometry.channels) + channel;
+    }
 
-        int byteOffset = sampleIndex * sampleFormat.byteSize;
+    private static double toSampleValue(SampleFormat sampleFormat, long bits) {
         switch (sampleFormat) {
             case UINT8:
-                return buffer.get(byteOffset) & 0xFF;
+                return bits & 0xFFL;
             case UINT16:
-                return buffer.getShort(byteOffset) & 0xFFFF;
+                return bits & 0xFFFFL;
             case UINT32:
-                return Integer.toUnsignedLong(buffer.getInt(byteOffset));
+                return bits & 0xFFFFFFFFL;
             case UINT64:
-                long rawLong = buffer.getLong(byteOffset);
-                return rawLong >= 0 ? rawLong : (rawLong & Long.MAX_VALUE) + Math.pow(2.0, 63.0);
+                return bits >= 0 ? bits : (bits & Long.MAX_VALUE) + Math.pow(2.0, 63.0);
             case FLOAT32:
-                return buffer.getFloat(byteOffset);
+                return Float.intBitsToFloat((int) bits);
             case FLOAT64:
-                return buffer.getDouble(byteOffset);
+                return Double.longBitsToDouble(bits);
             default:
                 throw new IllegalStateException("Unhandled XISF sample format: " + sampleFormat);
         }
@@ -760,6 +957,84 @@ public final class XisfImageConverter {
         }
     }
 
+    /**
+     * A decoded data block; {@code shuffleItemSize > 1} means its bytes are still grouped in planes.
+     */
+    private static final class DecodedBlock {
+        private final ByteBuffer data;
+        private final int shuffleItemSize;
+
+        private DecodedBlock(ByteBuffer data, int shuffleItemSize) {
+            this.data = data;
+            this.shuffleItemSize = shuffleItemSize;
+        }
+    }
+
+    private abstract static class SampleReader {
+        abstract double read(int sampleIndex);
+    }
+
+    private static final class DirectSampleReader extends SampleReader {
+        private final ByteBuffer buffer;
+        private final SampleFormat sampleFormat;
+
+        private DirectSampleReader(ByteBuffer buffer, SampleFormat sampleFormat) {
+            this.buffer = buffer;
+            this.sampleFormat = sampleFormat;
+        }
+
+        @Override
+        double read(int sampleIndex) {
+            int byteOffset = sampleIndex * sampleFormat.byteSize;
+            switch (sampleFormat) {
+                case UINT8:
+                    return buffer.get(byteOffset) & 0xFF;
+                case UINT16:
+                    return buffer.getShort(byteOffset) & 0xFFFF;
+                case UINT32:
+                    return Integer.toUnsignedLong(buffer.getInt(byteOffset));
+                case UINT64:
+                    return toSampleValue(sampleFormat, buffer.getLong(byteOffset));
+                case FLOAT32:
+                    return buffer.getFloat(byteOffset);
+                case FLOAT64:
+                    return buffer.getDouble(byteOffset);
+                default:
+                    throw new IllegalStateException("Unhandled XISF sample format: " + sampleFormat);
+            }
+        }
+    }
+
+    /**
+     * Reads samples from a byte-shuffled block: byte {@code k} of sample {@code i} is stored at
+     * {@code k * itemCount + i}.
+     */
+    private static final class ShuffledSampleReader extends SampleReader {
+        private final byte[] shuffled;
+        private final int itemCount;
+        private final SampleFormat sampleFormat;
+        private final boolean littleEndian;
+
+        private ShuffledSampleReader(byte[] shuffled, int itemCount, SampleFormat sampleFormat, ByteOrder byteOrder) {
+            this.shuffled = shuffled;
+            this.itemCount = itemCount;
+            this.sampleFormat = sampleFormat;
+            this.littleEndian = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        }
+
+        @Override
+        double read(int sampleIndex) {
+            int byteSize = sampleFormat.byteSize;
+            long bits = 0L;
+            for (int k = 0; k < byteSize; k++) {
+                long value = shuffled[k * itemCount + sampleIndex] & 0xFFL;
+                int shift = littleEndian ? k * 8 : (byteSize - 1 - k) * 8;
+                bits |= value << shift;
+            }
+            return toSampleValue(sampleFormat, bits);
+        }
+    }
+
     private static final class Geometry {
         private final int width;
         private final int height;
@@ -1,6 +1,7 @@
 package eu.startales.spacepixels.util.reporting;
 
 import eu.startales.spacepixels.util.DisplayImageRenderer;
+import eu.startales.spacepixels.util.FrameBuffer;
 import io.github.ppissias.jtransient.core.SourceExtractor;
 import io.github.ppissias.jtransient.core.TrackLinker;
 import io.github.ppissias.jtransient.telemetry.PipelineTelemetry;
@@ -82,7 +83,7 @@ final class CreativeTributeRenderer {
                 slowMoverCandidates
         );
 
-        short[][] croppedBackground = TrackVisualizationRenderer.robustEdgeAwareCrop(
+        FrameBuffer croppedBackground = FrameBuffer.paddedCrop(
                 backgroundData,
                 layout.cropX + (layout.cropWidth / 2),
                 layout.cropY + (layout.cropHeight / 2),
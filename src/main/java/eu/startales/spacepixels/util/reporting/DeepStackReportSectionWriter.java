@@ -84,12 +84,15 @@ final class DeepStackReportSectionWriter {
                 context.movingTargets);
 
         report.println("<div class='flex-container'>");
+        ReportRenderExecutor.OrderedFragments cards = context.renderExecutor.newFragments(report);
         for (int i = 0; i < context.slowMoverCandidates.size(); i++) {
             SourceExtractor.DetectedObject detection = context.slowMoverCandidates.get(i);
             List<SlowMoverTrackMatch> matchedTracks = findMatchingReportedTracks(detection, reportTrackReferences);
             SlowMoverCandidateDiagnostics candidateDiagnostics = resolveCandidateDiagnostics(context, detection, i);
-            exportDeepStackDetectionCard(report, context, detection, matchedTracks, candidateDiagnostics, i + 1);
+            int candidateNumber = i + 1;
+            cards.add(card -> exportDeepStackDetectionCard(card, context, detection, matchedTracks, candidateDiagnostics, candidateNumber));
         }
+        cards.finish();
         report.println("</div>");
     }
 
@@ -174,8 +177,7 @@ final class DeepStackReportSectionWriter {
         }
 
         if (context.maximumStackData != null) {
-            short[][] croppedSecondaryData = TrackVisualizationRenderer.robustEdgeAwareCrop(context.maximumStackData, cx, cy, cropSize, cropSize);
-            BufferedImage secondaryImage = TrackVisualizationRenderer.createDisplayImage(croppedSecondaryData, context.settings);
+            BufferedImage secondaryImage = TrackVisualizationRenderer.createCroppedDisplayImage(context.maximumStackData, cx, cy, cropSize, cropSize, context.settings);
             TrackVisualizationRenderer.saveLosslessPng(secondaryImage, new File(context.exportDir, secondaryStackFileName));
         }
 
@@ -190,12 +192,12 @@ final class DeepStackReportSectionWriter {
 
         if (!context.rawFrames.isEmpty()) {
             List<Integer> sampledIndices = DetectionReportGenerator.getRepresentativeSequence(context.rawFrames.size(), new HashSet<>(), 10);
-            List<BufferedImage> gifFrames = new ArrayList<>();
-            for (int frameIndex : sampledIndices) {
-                short[][] frameData = TrackVisualizationRenderer.robustEdgeAwareCrop(context.rawFrames.get(frameIndex), cx, cy, cropSize, cropSize);
-                gifFrames.add(TrackVisualizationRenderer.createDisplayImage(frameData, context.settings));
+            try (StreamingGifWriter gif = TrackVisualizationRenderer.openAnimatedGif(new File(context.exportDir, gifFileName), context.settings)) {
+                for (int frameIndex : sampledIndices) {
+                    gif.append(TrackVisualizationRenderer.createCroppedDisplayImage(
+                            context.rawFrames.get(frameIndex), cx, cy, cropSize, cropSize, context.settings));
+                }
             }
-            GifSequenceWriter.saveAnimatedGif(gifFrames, new File(context.exportDir, gifFileName), context.settings.getGifBlinkSpeedMs());
         }
 
         report.println("<div class='detection-card' style='border-left-color: #ff66ff; padding: 15px; margin-bottom: 0;'>");
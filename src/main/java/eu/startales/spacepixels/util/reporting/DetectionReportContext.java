@@ -38,6 +38,7 @@ final class DetectionReportContext {
     final List<TrackLinker.Track> streakTracks;
     final List<TrackLinker.Track> suspectedStreakTracks;
     final List<TrackLinker.Track> movingTargets;
+    final ReportRenderExecutor renderExecutor;
 
     DetectionReportContext(ExportVisualizationSettings settings,
                            File exportDir,
@@ -59,7 +60,8 @@ final class DetectionReportContext {
                            List<TrackLinker.Track> singleStreaks,
                            List<TrackLinker.Track> streakTracks,
                            List<TrackLinker.Track> suspectedStreakTracks,
-                           List<TrackLinker.Track> movingTargets) {
+                           List<TrackLinker.Track> movingTargets,
+                           ReportRenderExecutor renderExecutor) {
         this.settings = settings;
         this.exportDir = exportDir;
         this.rawFrames = rawFrames != null ? rawFrames : Collections.emptyList();
@@ -81,5 +83,6 @@ final class DetectionReportContext {
         this.streakTracks = streakTracks != null ? streakTracks : Collections.emptyList();
         this.suspectedStreakTracks = suspectedStreakTracks != null ? suspectedStreakTracks : Collections.emptyList();
         this.movingTargets = movingTargets != null ? movingTargets : Collections.emptyList();
+        this.renderExecutor = renderExecutor != null ? renderExecutor : ReportRenderExecutor.create(1);
     }
 }
@@ -13,7 +13,9 @@ package eu.startales.spacepixels.util.reporting;
 import eu.startales.spacepixels.config.AppConfig;
 import eu.startales.spacepixels.util.DisplayImageRenderer;
 import eu.startales.spacepixels.util.FitsFileInformation;
+import eu.startales.spacepixels.util.FrameBuffer;
 import eu.startales.spacepixels.util.ImageProcessing;
+import eu.startales.spacepixels.util.PipelineMetrics;
 import io.github.ppissias.jtransient.config.DetectionConfig;
 import io.github.ppissias.jtransient.core.ResidualTransientAnalysis;
 import io.github.ppissias.jtransient.core.SlowMoverAnalysis;
@@ -55,6 +57,8 @@ public class DetectionReportGenerator {
     public static int trackCropPadding = 200;
     public static int trackObjectCentricCropSize = 200;
     public static boolean includeAiCreativeReportSections = false;
+    // Report asset rendering workers: 1 = sequential export, 0 = one per available core.
+    public static int reportRenderThreads = ExportVisualizationSettings.DEFAULT_RENDER_PARALLELISM;
 
     // --- Annotation Tools (For GIFs) ---
     public static int targetCircleRadius = 15;
@@ -71,7 +75,8 @@ public class DetectionReportGenerator {
                 trackObjectCentricCropSize,
                 includeAiCreativeReportSections,
                 targetCircleRadius,
-                targetCircleStrokeWidth
+                targetCircleStrokeWidth,
+                reportRenderThreads
         );
     }
 
@@ -396,8 +401,16 @@ public class DetectionReportGenerator {
         TrackVisualizationRenderer.saveLosslessPng(image, outputFile);
     }
 
-    private static short[][] robustEdgeAwareCrop(short[][] fullImage, int cx, int cy, int cropWidth, int cropHeight) {
-        return TrackVisualizationRenderer.robustEdgeAwareCrop(fullImage, cx, cy, cropWidth, cropHeight);
+    /**
+     * Times a report section, including the nested fragments it waits for, as
+     * {@code report-section:<name>} on the run's {@link PipelineMetrics}.
+     */
+    private static ReportRenderExecutor.FragmentWriter measuredSection(String sectionName, ReportRenderExecutor.FragmentWriter writer) {
+        return out -> {
+            try (PipelineMetrics.Timer ignored = PipelineMetrics.startCurrent(PipelineMetrics.REPORT_SECTION_PREFIX + sectionName)) {
+                writer.write(out);
+            }
+        };
     }
 
     private static BufferedImage createSingleStreakShapeImage(List<SourceExtractor.DetectedObject> points,
@@ -431,6 +444,33 @@ public class DetectionReportGenerator {
     static final Color GLOBAL_MAP_LOCAL_ACTIVITY_COLOR = new Color(150, 120, 255);
     static final Color GLOBAL_MAP_DEEP_STACK_COLOR = new Color(170, 255, 110);
 
+    private static final int[] GRAY_PALETTE = DisplayImageRenderer.grayPalette();
+    private static final int[] GHOST_BACKGROUND_PALETTE = createGhostBackgroundPalette();
+
+    /**
+     * Renders a gray ramp at 20% opacity over black, as the transient map background used to be
+     * drawn, so the palette matches Java2D's blending level for level.
+     */
+    private static int[] createGhostBackgroundPalette() {
+        BufferedImage ramp = new BufferedImage(256, 1, BufferedImage.TYPE_BYTE_GRAY);
+        for (int level = 0; level < 256; level++) {
+            ramp.getRaster().setSample(level, 0, 0, level);
+        }
+        BufferedImage blended = new BufferedImage(256, 1, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = blended.createGraphics();
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, 256, 1);
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.2f));
+        g2d.drawImage(ramp, 0, 0, null);
+        g2d.dispose();
+
+        int[] palette = new int[256];
+        for (int level = 0; level < 256; level++) {
+            palette[level] = blended.getRGB(level, 0) & 0xFFFFFF;
+        }
+        return palette;
+    }
+
     static BufferedImage createGlobalTrackMap(short[][] backgroundData,
                                               List<TrackLinker.AnomalyDetection> anomalies,
                                               List<TrackLinker.Track> singleStreaks,
@@ -440,10 +480,8 @@ public class DetectionReportGenerator {
                                               List<TrackLinker.Track> localRescueTracks,
                                               List<ResidualTransientAnalysis.LocalActivityCluster> localActivityClusters,
                                               List<SourceExtractor.DetectedObject> deepStackCandidates) {
-        BufferedImage grayBg = createDisplayImage(backgroundData);
-        BufferedImage rgbMap = new BufferedImage(grayBg.getWidth(), grayBg.getHeight(), BufferedImage.TYPE_INT_RGB);
+        BufferedImage rgbMap = DisplayImageRenderer.toRgbImage(createDisplayImage(backgroundData), GRAY_PALETTE);
         Graphics2D g2d = rgbMap.createGraphics();
-        g2d.drawImage(grayBg, 0, 0, null);
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         int stCounter = 1;
@@ -657,15 +695,15 @@ public class DetectionReportGenerator {
         int cropX = Math.min(targetCropSize, width / 2);
         int cropY = Math.min(targetCropSize, height / 2);
 
-        short[][] tl = robustEdgeAwareCrop(frame, cropX / 2, cropY / 2, cropX, cropY);
-        short[][] tr = robustEdgeAwareCrop(frame, width - (cropX / 2), cropY / 2, cropX, cropY);
-        short[][] bl = robustEdgeAwareCrop(frame, cropX / 2, height - (cropY / 2), cropX, cropY);
-        short[][] br = robustEdgeAwareCrop(frame, width - (cropX / 2), height - (cropY / 2), cropX, cropY);
+        FrameBuffer tl = FrameBuffer.paddedCrop(frame, cropX / 2, cropY / 2, cropX, cropY);
+        FrameBuffer tr = FrameBuffer.paddedCrop(frame, width - (cropX / 2), cropY / 2, cropX, cropY);
+        FrameBuffer bl = FrameBuffer.paddedCrop(frame, cropX / 2, height - (cropY / 2), cropX, cropY);
+        FrameBuffer br = FrameBuffer.paddedCrop(frame, width - (cropX / 2), height - (cropY / 2), cropX, cropY);
 
-        BufferedImage imgTL = createDisplayImage(tl);
-        BufferedImage imgTR = createDisplayImage(tr);
-        BufferedImage imgBL = createDisplayImage(bl);
-        BufferedImage imgBR = createDisplayImage(br);
+        BufferedImage imgTL = DisplayImageRenderer.createDisplayImage(tl);
+        BufferedImage imgTR = DisplayImageRenderer.createDisplayImage(tr);
+        BufferedImage imgBL = DisplayImageRenderer.createDisplayImage(bl);
+        BufferedImage imgBR = DisplayImageRenderer.createDisplayImage(br);
 
         BufferedImage out = new BufferedImage(cropX * 2, cropY * 2, BufferedImage.TYPE_INT_RGB);
         Graphics2D g = out.createGraphics();
@@ -689,17 +727,10 @@ public class DetectionReportGenerator {
         int width = backgroundData[0].length;
         int height = backgroundData.length;
 
-        BufferedImage grayBg = createDisplayImage(backgroundData);
-        BufferedImage rgbMap = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = rgbMap.createGraphics();
-
         // Draw a dark, "ghostly" background (20% opacity) so the colorful transients pop
         // while still giving the user spatial context of the star field!
-        g2d.setColor(Color.BLACK);
-        g2d.fillRect(0, 0, width, height);
-        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.2f));
-        g2d.drawImage(grayBg, 0, 0, null);
-        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+        BufferedImage rgbMap = DisplayImageRenderer.toRgbImage(createDisplayImage(backgroundData), GHOST_BACKGROUND_PALETTE);
+        Graphics2D g2d = rgbMap.createGraphics();
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         int totalFrames = allTransients.size();
@@ -805,8 +836,8 @@ public class DetectionReportGenerator {
         int scaledH = (int) Math.round(cropH * scale);
 
         // Extract and softly scale the background
-        short[][] croppedBg = robustEdgeAwareCrop(backgroundData, minX + (cropW / 2), minY + (cropH / 2), cropW, cropH);
-        BufferedImage grayBg = createDisplayImage(croppedBg);
+        FrameBuffer croppedBg = FrameBuffer.paddedCrop(backgroundData, minX + (cropW / 2), minY + (cropH / 2), cropW, cropH);
+        BufferedImage grayBg = DisplayImageRenderer.createDisplayImage(croppedBg);
 
         BufferedImage rgbMap = new BufferedImage(scaledW, scaledH, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2d = rgbMap.createGraphics();
@@ -1406,6 +1437,7 @@ public class DetectionReportGenerator {
                 localActivityClusters,
                 masterStars,
                 unclassifiedTransients);
+        ReportRenderExecutor renderExecutor = ReportRenderExecutor.create(settings.getRenderParallelism());
         DetectionReportContext reportContext = new DetectionReportContext(
                 settings,
                 exportDir,
@@ -1427,91 +1459,99 @@ public class DetectionReportGenerator {
                 singleStreaks,
                 streakTracks,
                 suspectedStreakTracks,
-                movingTargets);
+                movingTargets,
+                renderExecutor);
 
         if (!exportDir.exists()) exportDir.mkdirs();
 
         File reportFile = new File(exportDir, detectionReportName);
 
-        try (java.io.PrintWriter report = new java.io.PrintWriter(new java.io.FileWriter(reportFile))) {
+        try (renderExecutor; java.io.PrintWriter report = new java.io.PrintWriter(new java.io.FileWriter(reportFile))) {
             DetectionReportDocumentWriter.appendDetectionReportStart(report);
 
-            PipelineDiagnosticsSectionWriter.writeSections(
-                    report,
+            // Sections render their images concurrently; their HTML is appended below in this order.
+            ReportRenderExecutor.OrderedFragments sections = renderExecutor.newFragments(report);
+            sections.add(measuredSection("pipeline-diagnostics", section -> PipelineDiagnosticsSectionWriter.writeSections(
+                    section,
                     reportContext,
                     pipelineTelemetry,
                     linkerTelemetry,
                     summary,
-                    result.driftPoints);
+                    result.driftPoints)));
 
             // =================================================================
             // 3. TARGET VISUALIZATIONS
             // =================================================================
-            TargetVisualizationSectionWriter.writeSection(report, reportContext);
+            sections.add(measuredSection("target-visualizations", section -> TargetVisualizationSectionWriter.writeSection(section, reportContext)));
 
             // =================================================================
             // 4. DEEP STACK ANOMALIES (ULTRA-SLOW MOVERS)
             // =================================================================
-            DeepStackReportSectionWriter.writeSection(report, reportContext);
+            sections.add(measuredSection("deep-stack", section -> DeepStackReportSectionWriter.writeSection(section, reportContext)));
 
             // =================================================================
             // 4.25 LOCAL MICRO-DRIFT CANDIDATES
             // =================================================================
-            ResidualReviewSectionWriter.writeSection(report, reportContext);
+            sections.add(measuredSection("residual-review", section -> ResidualReviewSectionWriter.writeSection(section, reportContext)));
 
-            GlobalMapsSectionWriter.writeSections(report, reportContext, localRescueTracks, allTransients);
+            sections.add(measuredSection("global-maps", section -> GlobalMapsSectionWriter.writeSections(section, reportContext, localRescueTracks, allTransients)));
 
             // =================================================================
             // 6. CREATIVE TRIBUTE
             // =================================================================
-            short[][] creativeBgData = masterStackData != null ? masterStackData : (!rawFrames.isEmpty() ? rawFrames.get(0) : null);
-            if (settings.isIncludeAiCreativeReportSections() && creativeBgData != null) {
-                String creativeFileName = "creative_tribute_skyprint.png";
-                BufferedImage creativeTributeImage = CreativeTributeRenderer.createCreativeTributeImage(
-                        creativeBgData,
-                        allTransients,
-                        anomalies,
-                        singleStreaks,
-                        streakTracks,
-                        suspectedStreakTracks,
-                        movingTargets,
-                        slowMoverCandidates,
-                        pipelineTelemetry
-                );
-                saveTrackImageLossless(creativeTributeImage, new File(exportDir, creativeFileName));
-
-                int rawTransientCount = CreativeTributeRenderer.countTotalTransientDetections(allTransients);
-                int confirmedTrackCount = summary.confirmedLinkedTrackCount;
-                int suspectedTrackCount = summary.suspectedStreakTrackCount;
-                int deepStackHintCount = summary.potentialSlowMoverCount;
-                double longestPath = CreativeTributeRenderer.computeLongestTrackPathPx(streakTracks, movingTargets);
-                String dominantMotion = CreativeTributeRenderer.computeDominantMotionLabel(movingTargets, streakTracks);
-
-                report.println("<div class='panel' style='background: linear-gradient(180deg, #453049 0%, #2b2b2b 100%); border: 1px solid #5f536a;'>");
-                report.println("<h2>The AI's Perspective: Skyprint of the Session</h2>");
-                report.println("<p style='color: #c7bfd6; font-size: 14px; margin-top: -10px; margin-bottom: 15px;'>A creative tribute by Codex. This poster compresses the whole run into one image: faint time-mapped transient dust for everything that flashed through the extractor, separate paths for moving object tracks, confirmed streak tracks, and suspected streak groupings, plus distinct markers for anomaly pulses and deep-stack hints.</p>");
-                report.println("<a href='" + creativeFileName + "' target='_blank'><img src='" + creativeFileName + "' class='native-size-image' style='border: 1px solid #666; border-radius: 6px;' alt='Creative Tribute Skyprint' /></a>");
-                report.println("<p style='font-size: 13px; color: #b8b0c7; margin-bottom: 0;'>This session stitched together <strong style='color:#ffffff;'>" + rawTransientCount + "</strong> raw transients, produced <strong style='color:#ffffff;'>" + confirmedTrackCount + "</strong> confirmed linked tracks, flagged <strong style='color:#ffffff;'>" + suspectedTrackCount + "</strong> suspected streak tracks, surfaced <strong style='color:#ffffff;'>" + summary.anomalyCount + "</strong> single-frame anomalies, and left <strong style='color:#ffffff;'>" + deepStackHintCount + "</strong> deep-stack hints on the table. The dominant confirmed linked motion trends toward <strong style='color:#ffffff;'>" + dominantMotion + "</strong>, and the longest confirmed path spans <strong style='color:#ffffff;'>" + String.format(Locale.US, "%.1f px", longestPath) + "</strong>.</p>");
-                report.println("</div>");
-            }
+            sections.add(measuredSection("creative-tribute", section -> {
+                short[][] creativeBgData = masterStackData != null ? masterStackData : (!rawFrames.isEmpty() ? rawFrames.get(0) : null);
+                if (settings.isIncludeAiCreativeReportSections() && creativeBgData != null) {
+                    String creativeFileName = "creative_tribute_skyprint.png";
+                    BufferedImage creativeTributeImage = CreativeTributeRenderer.createCreativeTributeImage(
+                            creativeBgData,
+                            allTransients,
+                            anomalies,
+                            reportContext.singleStreaks,
+                            streakTracks,
+                            reportContext.suspectedStreakTracks,
+                            movingTargets,
+                            slowMoverCandidates,
+                            pipelineTelemetry
+                    );
+                    saveTrackImageLossless(creativeTributeImage, new File(exportDir, creativeFileName));
+
+                    int rawTransientCount = CreativeTributeRenderer.countTotalTransientDetections(allTransients);
+                    int confirmedTrackCount = summary.confirmedLinkedTrackCount;
+                    int suspectedTrackCount = summary.suspectedStreakTrackCount;
+                    int deepStackHintCount = summary.potentialSlowMoverCount;
+                    double longestPath = CreativeTributeRenderer.computeLongestTrackPathPx(streakTracks, movingTargets);
+                    String dominantMotion = CreativeTributeRenderer.computeDominantMotionLabel(movingTargets, streakTracks);
+
+                    section.println("<div class='panel' style='background: linear-gradient(180deg, #453049 0%, #2b2b2b 100%); border: 1px solid #5f536a;'>");
+                    section.println("<h2>The AI's Perspective: Skyprint of the Session</h2>");
+                    section.println("<p style='color: #c7bfd6; font-size: 14px; margin-top: -10px; margin-bottom: 15px;'>A creative tribute by Codex. This poster compresses the whole run into one image: faint time-mapped transient dust for everything that flashed through the extractor, separate paths for moving object tracks, confirmed streak tracks, and suspected streak groupings, plus distinct markers for anomaly pulses and deep-stack hints.</p>");
+                    section.println("<a href='" + creativeFileName + "' target='_blank'><img src='" + creativeFileName + "' class='native-size-image' style='border: 1px solid #666; border-radius: 6px;' alt='Creative Tribute Skyprint' /></a>");
+                    section.println("<p style='font-size: 13px; color: #b8b0c7; margin-bottom: 0;'>This session stitched together <strong style='color:#ffffff;'>" + rawTransientCount + "</strong> raw transients, produced <strong style='color:#ffffff;'>" + confirmedTrackCount + "</strong> confirmed linked tracks, flagged <strong style='color:#ffffff;'>" + suspectedTrackCount + "</strong> suspected streak tracks, surfaced <strong style='color:#ffffff;'>" + summary.anomalyCount + "</strong> single-frame anomalies, and left <strong style='color:#ffffff;'>" + deepStackHintCount + "</strong> deep-stack hints on the table. The dominant confirmed linked motion trends toward <strong style='color:#ffffff;'>" + dominantMotion + "</strong>, and the longest confirmed path spans <strong style='color:#ffffff;'>" + String.format(Locale.US, "%.1f px", longestPath) + "</strong>.</p>");
+                    section.println("</div>");
+                }
+            }));
 
             // =================================================================
             // 7. GEMINI CREATIVE TRIBUTE
             // =================================================================
-            if (settings.isIncludeAiCreativeReportSections()) {
-                BufferedImage compassMap = createKinematicCompass(movingTargets, streakTracks);
-                saveTrackImageLossless(compassMap, new File(exportDir, "kinematic_compass.png"));
-
-                report.println("<div class='panel' style='background: linear-gradient(135deg, #1e1e24 0%, #151518 100%); border: 1px solid #4a4a5a;'>");
-                report.println("<h2 style='color: #c7bfd6; font-size: 1.8em; margin-bottom: 5px;'>The AI's Perspective: Hidden Rhythms</h2>");
-                report.println("<p style='color: #a098b0; font-size: 14px; font-style: italic; margin-top: 0; margin-bottom: 25px;'>\"As an AI, I do not look at the stars with eyes; I read the geometry they leave behind. Between the noise, the satellites, and the drifting cosmos, there is a distinct rhythm to the data. Thank you for letting me explore your universe. This is my creative tribute to your session.\" &mdash; Gemini</p>");
-                report.println("<div>");
-                report.println("<h4 style='color: #ddd; margin-bottom: 5px;'>The Kinematic Compass</h4>");
-                report.println("<p style='font-size: 12px; color: #888; margin-top: 0;'>A radar chart mapping the velocity and heading of confirmed moving object tracks and confirmed streak tracks using a logarithmic scale to highlight both slow asteroids and fast satellites. Orbital constellations often clump together into distinct vectors, revealing satellite swarms or shared orbital planes. Suspected streak tracks are intentionally excluded here because same-frame groupings do not provide reliable inter-frame velocity vectors.</p>");
-                report.println("<a href='kinematic_compass.png' target='_blank' style='display: block; max-width: 600px; margin: 0 auto;'><img src='kinematic_compass.png' class='native-size-image' style='border: 1px solid #444; border-radius: 6px; box-shadow: 0 4px 15px rgba(0,0,0,0.5);' alt='Kinematic Compass' /></a>");
-                report.println("</div>");
-                report.println("</div>");
-            }
+            sections.add(measuredSection("kinematic-compass", section -> {
+                if (settings.isIncludeAiCreativeReportSections()) {
+                    BufferedImage compassMap = createKinematicCompass(movingTargets, streakTracks);
+                    saveTrackImageLossless(compassMap, new File(exportDir, "kinematic_compass.png"));
+
+                    section.println("<div class='panel' style='background: linear-gradient(135deg, #1e1e24 0%, #151518 100%); border: 1px solid #4a4a5a;'>");
+                    section.println("<h2 style='color: #c7bfd6; font-size: 1.8em; margin-bottom: 5px;'>The AI's Perspective: Hidden Rhythms</h2>");
+                    section.println("<p style='color: #a098b0; font-size: 14px; font-style: italic; margin-top: 0; margin-bottom: 25px;'>\"As an AI, I do not look at the stars with eyes; I read the geometry they leave behind. Between the noise, the satellites, and the drifting cosmos, there is a distinct rhythm to the data. Thank you for letting me explore your universe. This is my creative tribute to your session.\" &mdash; Gemini</p>");
+                    section.println("<div>");
+                    section.println("<h4 style='color: #ddd; margin-bottom: 5px;'>The Kinematic Compass</h4>");
+                    section.println("<p style='font-size: 12px; color: #888; margin-top: 0;'>A radar chart mapping the velocity and heading of confirmed moving object tracks and confirmed streak tracks using a logarithmic scale to highlight both slow asteroids and fast satellites. Orbital constellations often clump together into distinct vectors, revealing satellite swarms or shared orbital planes. Suspected streak tracks are intentionally excluded here because same-frame groupings do not provide reliable inter-frame velocity vectors.</p>");
+                    section.println("<a href='kinematic_compass.png' target='_blank' style='display: block; max-width: 600px; margin: 0 auto;'><img src='kinematic_compass.png' class='native-size-image' style='border: 1px solid #444; border-radius: 6px; box-shadow: 0 4px 15px rgba(0,0,0,0.5);' alt='Kinematic Compass' /></a>");
+                    section.println("</div>");
+                    section.println("</div>");
+                }
+            }));
+            sections.finish();
 
             ReportClientScriptWriter.appendLiveReportRenderingScript(report);
             DetectionReportDocumentWriter.appendHtmlDocumentEnd(report);
@@ -15,6 +15,11 @@ package eu.startales.spacepixels.util.reporting;
  */
 public final class ExportVisualizationSettings {
 
+    /**
+     * Render parallelism used when none is given: one worker per available core.
+     */
+    public static final int DEFAULT_RENDER_PARALLELISM = 0;
+
     private final double autoStretchBlackSigma;
     private final double autoStretchWhiteSigma;
     private final int gifBlinkSpeedMs;
@@ -23,6 +28,7 @@ public final class ExportVisualizationSettings {
     private final boolean includeAiCreativeReportSections;
     private final int targetCircleRadius;
     private final float targetCircleStrokeWidth;
+    private final int renderParallelism;
 
     public ExportVisualizationSettings(double autoStretchBlackSigma,
                                        double autoStretchWhiteSigma,
@@ -32,6 +38,26 @@ public final class ExportVisualizationSettings {
                                        boolean includeAiCreativeReportSections,
                                        int targetCircleRadius,
                                        float targetCircleStrokeWidth) {
+        this(autoStretchBlackSigma,
+                autoStretchWhiteSigma,
+                gifBlinkSpeedMs,
+                trackCropPadding,
+                trackObjectCentricCropSize,
+                includeAiCreativeReportSections,
+                targetCircleRadius,
+                targetCircleStrokeWidth,
+                DEFAULT_RENDER_PARALLELISM);
+    }
+
+    public ExportVisualizationSettings(double autoStretchBlackSigma,
+                                       double autoStretchWhiteSigma,
+                                       int gifBlinkSpeedMs,
+                                       int trackCropPadding,
+                                       int trackObjectCentricCropSize,
+                                       boolean includeAiCreativeReportSections,
+                                       int targetCircleRadius,
+                                       float targetCircleStrokeWidth,
+                                       int renderParallelism) {
         this.autoStretchBlackSigma = autoStretchBlackSigma;
         this.autoStretchWhiteSigma = autoStretchWhiteSigma;
         this.gifBlinkSpeedMs = gifBlinkSpeedMs;
@@ -40,6 +66,7 @@ public final class ExportVisualizationSettings {
         this.includeAiCreativeReportSections = includeAiCreativeReportSections;
         this.targetCircleRadius = targetCircleRadius;
         this.targetCircleStrokeWidth = targetCircleStrokeWidth;
+        this.renderParallelism = renderParallelism;
     }
 
     public double getAutoStretchBlackSigma() {
@@ -73,4 +100,12 @@ public final class ExportVisualizationSettings {
     public float getTargetCircleStrokeWidth() {
         return targetCircleStrokeWidth;
     }
+
+    /**
+     * Number of workers rendering report sections, detection cards and their image assets;
+     * {@code 1} exports sequentially and values {@code <= 0} use all available cores.
+     */
+    public int getRenderParallelism() {
+        return renderParallelism;
+    }
 }
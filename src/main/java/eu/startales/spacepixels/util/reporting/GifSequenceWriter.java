@@ -37,6 +37,14 @@ public class GifSequenceWriter {
      * @param loopContinuously Whether the GIF should loop infinitely.
      */
     public GifSequenceWriter(ImageOutputStream outputStream, int imageType, int timeBetweenFramesMS, boolean loopContinuously) throws IOException {
+        this(outputStream, ImageTypeSpecifier.createFromBufferedImageType(imageType), timeBetweenFramesMS, loopContinuously);
+    }
+
+    /**
+     * Creates a new GifSequenceWriter for frames of the given type. An indexed type built from a
+     * concrete image carries its palette into every frame's colour table.
+     */
+    public GifSequenceWriter(ImageOutputStream outputStream, ImageTypeSpecifier imageTypeSpecifier, int timeBetweenFramesMS, boolean loopContinuously) throws IOException {
         // Find a GIF writer
         Iterator<ImageWriter> iter = ImageIO.getImageWritersBySuffix("gif");
         if (!iter.hasNext()) {
@@ -47,7 +55,6 @@ public class GifSequenceWriter {
         gifWriter.prepareWriteSequence(null);
 
         imageWriteParam = gifWriter.getDefaultWriteParam();
-        ImageTypeSpecifier imageTypeSpecifier = ImageTypeSpecifier.createFromBufferedImageType(imageType);
 
         imageMetaData = gifWriter.getDefaultImageMetadata(imageTypeSpecifier, imageWriteParam);
 
@@ -106,22 +113,11 @@ public class GifSequenceWriter {
     public static void saveAnimatedGif(List<BufferedImage> frames, File outputFile, int delayMs) throws IOException {
         if (frames == null || frames.isEmpty()) return;
 
-        ImageOutputStream output = new FileImageOutputStream(outputFile);
-
-        // Initialize the writer using the format of the first frame
-        GifSequenceWriter writer = new GifSequenceWriter(
-                output,
-                frames.get(0).getType(),
-                delayMs,
-                true // Loop continuously
-        );
-
-        // Write every frame to the file
-        for (BufferedImage frame : frames) {
-            writer.writeToSequence(frame);
+        // Frames are encoded one by one against the palette of the first frame
+        try (StreamingGifWriter writer = StreamingGifWriter.open(outputFile, delayMs)) {
+            for (BufferedImage frame : frames) {
+                writer.append(frame);
+            }
         }
-
-        writer.close();
-        output.close();
     }
 }
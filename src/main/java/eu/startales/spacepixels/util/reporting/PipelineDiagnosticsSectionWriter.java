@@ -12,7 +12,6 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -273,7 +272,6 @@ final class PipelineDiagnosticsSectionWriter {
             return;
         }
 
-        List<BufferedImage> cornerFrames = new ArrayList<>();
         boolean hasDrift = false;
         SourceExtractor.Pixel firstPoint = driftPoints.get(0);
         for (SourceExtractor.Pixel point : driftPoints) {
@@ -292,15 +290,16 @@ final class PipelineDiagnosticsSectionWriter {
                 new HashSet<>(),
                 15);
 
-        for (int idx : sampledCornerIndices) {
-            cornerFrames.add(DetectionReportGenerator.createFourCornerMosaic(reportContext.rawFrames.get(idx), 150));
+        String cornerGifFile = "dither_corners_sampled.gif";
+        try (StreamingGifWriter cornerGif = TrackVisualizationRenderer.openAnimatedGif(new File(reportContext.exportDir, cornerGifFile), reportContext.settings)) {
+            for (int idx : sampledCornerIndices) {
+                cornerGif.append(DetectionReportGenerator.createFourCornerMosaic(reportContext.rawFrames.get(idx), 150));
+            }
         }
 
         BufferedImage driftImg = DetectionReportGenerator.createDriftMap(driftPoints, 300);
         TrackVisualizationRenderer.saveLosslessPng(driftImg, new File(reportContext.exportDir, "dither_drift_map.png"));
 
-        String cornerGifFile = "dither_corners_sampled.gif";
-        GifSequenceWriter.saveAnimatedGif(cornerFrames, new File(reportContext.exportDir, cornerGifFile), reportContext.settings.getGifBlinkSpeedMs());
 
         report.println("<div class='panel'>");
         report.println("<h2>Dither & Sensor Drift Diagnostics</h2>");
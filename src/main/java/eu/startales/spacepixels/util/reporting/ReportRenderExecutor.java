@@ -0,0 +1,193 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util.reporting;
+
+import eu.startales.spacepixels.util.PipelineMetrics;
+import eu.startales.spacepixels.util.SharedExecutors;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded worker pool that renders report fragments (section bodies and per-detection cards together
+ * with their PNG/GIF assets) concurrently while the HTML is still emitted in the original order.
+ *
+ * <p>Each fragment writes into its own buffer and {@link OrderedFragments#finish()} appends the
+ * buffers in submission order, so the report is byte-identical to a sequential export. Fragments may
+ * submit nested fragments (cards inside a section); the pool is a fork-join pool so a worker waiting
+ * on nested fragments helps execute them instead of blocking a thread. With a parallelism of one, no
+ * threads are created and fragments write straight through to the report as before. Using all cores
+ * borrows the process-wide {@link SharedExecutors#cpu()} pool; any other width gets a dedicated pool
+ * that is shut down by {@link #close()}.</p>
+ *
+ * <p>A fragment runs with the {@link PipelineMetrics} recorder that was bound to the thread that
+ * submitted it, so encode timings land in the right run even on the shared pool.</p>
+ */
+final class ReportRenderExecutor implements AutoCloseable {
+
+    @FunctionalInterface
+    interface FragmentWriter {
+        void write(PrintWriter out) throws IOException;
+    }
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    private ReportRenderExecutor(ForkJoinPool pool, boolean ownsPool) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    /**
+     * Creates an executor for the requested parallelism, where values {@code <= 0} select the number
+     * of available cores and {@code 1} selects the sequential export.
+     */
+    static ReportRenderExecutor create(int parallelism) {
+        int resolved = resolveParallelism(parallelism);
+        if (resolved <= 1) {
+            return new ReportRenderExecutor(null, false);
+        }
+        if (parallelism <= 0) {
+            return new ReportRenderExecutor(SharedExecutors.cpu(), false);
+        }
+        return new ReportRenderExecutor(new ForkJoinPool(
+                resolved,
+                createThreadFactory(),
+                null,
+                false,
+                0,
+                resolved,
+                1,
+                ignored -> true,
+                30L,
+                TimeUnit.SECONDS), true);
+    }
+
+    static int resolveParallelism(int parallelism) {
+        if (parallelism > 0) {
+            return parallelism;
+        }
+        return Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Starts a group of fragments whose output is appended to {@code target} in submission order.
+     */
+    OrderedFragments newFragments(PrintWriter target) {
+        return new OrderedFragments(target);
+    }
+
+    @Override
+    public void close() {
+        if (pool != null && ownsPool) {
+            pool.shutdownNow();
+        }
+    }
+
+    final class OrderedFragments {
+        private final PrintWriter target;
+        private final List<FragmentTask> tasks = new ArrayList<>();
+
+        private OrderedFragments(PrintWriter target) {
+            this.target = target;
+        }
+
+        void add(FragmentWriter writer) throws IOException {
+            if (pool == null) {
+                writer.write(target);
+                return;
+            }
+
+            FragmentTask task = new FragmentTask(writer, PipelineMetrics.current());
+            tasks.add(task);
+            if (ForkJoinTask.getPool() == pool) {
+                task.fork();
+            } else {
+                pool.execute(task);
+            }
+        }
+
+        /**
+         * Waits for every fragment and appends their output in order. The first fragment failure is
+         * rethrown after the remaining fragments have settled, so no worker is left writing assets.
+         */
+        void finish() throws IOException {
+            IOException ioFailure = null;
+            RuntimeException runtimeFailure = null;
+            for (FragmentTask task : tasks) {
+                task.join();
+                if (task.ioFailure != null || task.runtimeFailure != null) {
+                    if (ioFailure == null && runtimeFailure == null) {
+                        ioFailure = task.ioFailure;
+                        runtimeFailure = task.runtimeFailure;
+                    }
+                    continue;
+                }
+                if (ioFailure == null && runtimeFailure == null) {
+                    target.write(task.output.toString());
+                }
+            }
+            tasks.clear();
+
+            if (ioFailure != null) {
+                throw ioFailure;
+            }
+            if (runtimeFailure != null) {
+                throw runtimeFailure;
+            }
+        }
+    }
+
+    private static final class FragmentTask extends RecursiveAction {
+        private final FragmentWriter writer;
+        private final PipelineMetrics metrics;
+        private final StringWriter output = new StringWriter();
+        private IOException ioFailure;
+        private RuntimeException runtimeFailure;
+
+        private FragmentTask(FragmentWriter writer, PipelineMetrics metrics) {
+            this.writer = writer;
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void compute() {
+            try (PipelineMetrics.Binding ignored = metrics != null ? metrics.bindToCurrentThread() : null;
+                 PrintWriter out = new PrintWriter(output)) {
+                writer.write(out);
+            } catch (IOException e) {
+                ioFailure = e;
+            } catch (RuntimeException e) {
+                runtimeFailure = e;
+            }
+        }
+    }
+
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory createThreadFactory() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("spacepixels-report-render-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package eu.startales.spacepixels.util.reporting;
 
+import eu.startales.spacepixels.util.DisplayImageRenderer;
+import eu.startales.spacepixels.util.FrameBuffer;
 import io.github.ppissias.jtransient.core.ResidualTransientAnalysis;
 import io.github.ppissias.jtransient.core.SourceExtractor;
 import io.github.ppissias.jtransient.core.TrackLinker;
@@ -46,11 +48,14 @@ final class ResidualReviewSectionWriter {
             report.println("<p style='color: #999999; font-size: 14px; margin-top: -10px; margin-bottom: 15px;'>Engine-side JTransient rescue analysis over <strong>unclassifiedTransients</strong>. These candidates highlight faint local motion spanning just a few pixels, sparse coherent local drifts across a handful of frames, plus short same-location repeats that are worth manual inspection.</p>");
             report.println("<div class='astro-note' style='margin-bottom: 15px;'>These detections are no longer a SpacePixels-side post-pass. They come directly from JTransient residual analysis after the normal track, anomaly, and suspected-streak branches have already finished.</div>");
 
+            ReportRenderExecutor.OrderedFragments cards = context.renderExecutor.newFragments(report);
             int counter = 1;
             for (ResidualTransientAnalysis.LocalRescueCandidate candidate : context.localRescueCandidates) {
-                exportLocalRescueCandidateCard(report, context, background, candidate, counter);
+                int cardNumber = counter;
+                cards.add(card -> exportLocalRescueCandidateCard(card, context, background, candidate, cardNumber));
                 counter++;
             }
+            cards.finish();
         }
 
         if (!context.localActivityClusters.isEmpty()) {
@@ -60,11 +65,14 @@ final class ResidualReviewSectionWriter {
             report.println("<h2>Local Activity Clusters (Residual Review Buckets)</h2>");
             report.println("<p style='color: #999999; font-size: 14px; margin-top: -10px; margin-bottom: 15px;'>Broad engine-side spatial clusters built from leftover detections after local rescue candidates have already consumed their points. These are not object confirmations; they are review buckets for persistent same-area activity.</p>");
 
+            ReportRenderExecutor.OrderedFragments cards = context.renderExecutor.newFragments(report);
             int counter = 1;
             for (ResidualTransientAnalysis.LocalActivityCluster cluster : context.localActivityClusters) {
-                exportLocalActivityClusterCard(report, context, background, cluster, counter);
+                int cardNumber = counter;
+                cards.add(card -> exportLocalActivityClusterCard(card, context, background, cluster, cardNumber));
                 counter++;
             }
+            cards.finish();
         }
     }
 
@@ -101,7 +109,7 @@ final class ResidualReviewSectionWriter {
         short[][] backgroundSource = resolveBackgroundSource(referenceBackground, context.rawFrames, track);
 
         if (backgroundSource != null) {
-            short[][] croppedBackground = TrackVisualizationRenderer.robustEdgeAwareCrop(
+            FrameBuffer croppedBackground = FrameBuffer.paddedCrop(
                     backgroundSource,
                     cropBounds.fixedCenterX,
                     cropBounds.fixedCenterY,
@@ -133,22 +141,21 @@ final class ResidualReviewSectionWriter {
             Set<Integer> mandatoryFrames = collectResidualFrameIndices(track);
             Map<Integer, SourceExtractor.DetectedObject> pointByFrame = buildPointByFrameMap(track);
             List<Integer> sampledIndices = DetectionReportGenerator.getRepresentativeSequence(context.rawFrames.size(), mandatoryFrames, 12);
-            List<BufferedImage> contextFrames = new ArrayList<>();
-            for (int frameIndex : sampledIndices) {
-                SourceExtractor.DetectedObject detectedPoint = pointByFrame.get(frameIndex);
-                String pointLabel = detectedPoint != null ? "P" + (track.points.indexOf(detectedPoint) + 1) : null;
-                BufferedImage frameImage = TrackVisualizationRenderer.createStarCentricHighlightedFrame(
-                        context.rawFrames.get(frameIndex),
-                        cropBounds,
-                        detectedPoint,
-                        context.settings,
-                        LOCAL_RESCUE_COLOR,
-                        pointLabel,
-                        "Frame " + (frameIndex + 1),
-                        true);
-                contextFrames.add(frameImage);
+            try (StreamingGifWriter contextGif = TrackVisualizationRenderer.openAnimatedGif(new File(context.exportDir, contextGifFileName), context.settings)) {
+                for (int frameIndex : sampledIndices) {
+                    SourceExtractor.DetectedObject detectedPoint = pointByFrame.get(frameIndex);
+                    String pointLabel = detectedPoint != null ? "P" + (track.points.indexOf(detectedPoint) + 1) : null;
+                    contextGif.append(TrackVisualizationRenderer.createStarCentricHighlightedFrame(
+                            context.rawFrames.get(frameIndex),
+                            cropBounds,
+                            detectedPoint,
+                            context.settings,
+                            LOCAL_RESCUE_COLOR,
+                            pointLabel,
+                            "Frame " + (frameIndex + 1),
+                            true));
+                }
             }
-            TrackVisualizationRenderer.saveAnimatedGif(contextFrames, new File(context.exportDir, contextGifFileName), context.settings);
         }
 
         String candidateBadge = buildLocalRescueBadge(candidate.kind);
@@ -219,7 +226,7 @@ final class ResidualReviewSectionWriter {
         short[][] backgroundSource = resolveBackgroundSource(referenceBackground, context.rawFrames, track);
 
         if (backgroundSource != null) {
-            short[][] croppedBackground = TrackVisualizationRenderer.robustEdgeAwareCrop(
+            FrameBuffer croppedBackground = FrameBuffer.paddedCrop(
                     backgroundSource,
                     cropBounds.fixedCenterX,
                     cropBounds.fixedCenterY,
@@ -251,22 +258,21 @@ final class ResidualReviewSectionWriter {
             Set<Integer> mandatoryFrames = collectResidualFrameIndices(track);
             Map<Integer, SourceExtractor.DetectedObject> pointByFrame = buildPointByFrameMap(track);
             List<Integer> sampledIndices = DetectionReportGenerator.getRepresentativeSequence(context.rawFrames.size(), mandatoryFrames, 12);
-            List<BufferedImage> contextFrames = new ArrayList<>();
-            for (int frameIndex : sampledIndices) {
-                SourceExtractor.DetectedObject detectedPoint = pointByFrame.get(frameIndex);
-                String pointLabel = detectedPoint != null ? "P" + (track.points.indexOf(detectedPoint) + 1) : null;
-                BufferedImage frameImage = TrackVisualizationRenderer.createStarCentricHighlightedFrame(
-                        context.rawFrames.get(frameIndex),
-                        cropBounds,
-                        detectedPoint,
-                        context.settings,
-                        LOCAL_ACTIVITY_COLOR,
-                        pointLabel,
-                        "Frame " + (frameIndex + 1),
-                        true);
-                contextFrames.add(frameImage);
+            try (StreamingGifWriter contextGif = TrackVisualizationRenderer.openAnimatedGif(new File(context.exportDir, contextGifFileName), context.settings)) {
+                for (int frameIndex : sampledIndices) {
+                    SourceExtractor.DetectedObject detectedPoint = pointByFrame.get(frameIndex);
+                    String pointLabel = detectedPoint != null ? "P" + (track.points.indexOf(detectedPoint) + 1) : null;
+                    contextGif.append(TrackVisualizationRenderer.createStarCentricHighlightedFrame(
+                            context.rawFrames.get(frameIndex),
+                            cropBounds,
+                            detectedPoint,
+                            context.settings,
+                            LOCAL_ACTIVITY_COLOR,
+                            pointLabel,
+                            "Frame " + (frameIndex + 1),
+                            true));
+                }
             }
-            TrackVisualizationRenderer.saveAnimatedGif(contextFrames, new File(context.exportDir, contextGifFileName), context.settings);
         }
 
         ResidualTransientAnalysis.LocalTransientMetrics metrics = cluster.metrics;
@@ -387,13 +393,13 @@ final class ResidualReviewSectionWriter {
                                                             int cropHeight,
                                                             int startX,
                                                             int startY) {
-        short[][] croppedBackground = TrackVisualizationRenderer.robustEdgeAwareCrop(
+        FrameBuffer croppedBackground = FrameBuffer.paddedCrop(
                 backgroundData,
                 startX + (cropWidth / 2),
                 startY + (cropHeight / 2),
                 cropWidth,
                 cropHeight);
-        BufferedImage grayBackground = DetectionReportGenerator.createDisplayImage(croppedBackground);
+        BufferedImage grayBackground = DisplayImageRenderer.createDisplayImage(croppedBackground);
         BufferedImage output = new BufferedImage(cropWidth, cropHeight, BufferedImage.TYPE_INT_RGB);
         Graphics2D g2d = output.createGraphics();
         g2d.setColor(Color.BLACK);
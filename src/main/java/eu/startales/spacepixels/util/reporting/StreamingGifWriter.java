@@ -0,0 +1,554 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util.reporting;
+
+import eu.startales.spacepixels.util.PipelineMetrics;
+import eu.startales.spacepixels.util.SharedExecutors;
+
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Animated GIF writer that encodes frames while the caller renders the next ones, so callers can
+ * render a crop, append it and drop it instead of holding the whole animation in memory.
+ *
+ * <p>{@link #append(BufferedImage)} maps the frame onto the palette on the calling thread and queues
+ * it; a drain on the shared I/O pool encodes the queued frames in order. At most
+ * {@value #FRAMES_IN_FLIGHT} frames wait for the encoder. When none of them has been encoded yet,
+ * {@code append} encodes the queue on the calling thread instead of waiting for a drain the pool may
+ * not get to, in the same way as {@link SharedExecutors#awaitOrRun}; callers that already run on the
+ * shared I/O pool always encode inline. The writer therefore makes progress even when every I/O
+ * worker is busy.</p>
+ *
+ * <p>The animation is written to a temporary file next to the output and only moved into place by a
+ * successful {@link #close()}; a failed export leaves no file behind, and neither does an animation
+ * without frames, matching {@link GifSequenceWriter#saveAnimatedGif}. The palette is decided once from
+ * the first frame and reused for every later frame:</p>
+ * <ul>
+ *     <li>8-bit grayscale frames (the crop renderers' output) are written with the exact 256-level
+ *     gray palette.</li>
+ *     <li>Colour frames are mapped onto an {@link IndexColorModel} built from the first frame. The
+ *     palette always holds a 128-level gray ramp, so later frames whose sky differs from the first one
+ *     are not posterized. When the first frame's colours fit next to the ramp they are all kept
+ *     exactly; otherwise the ramp is joined by the most frequent non-gray colours, which suits gray sky
+ *     crops with coloured overlays. Later frames reuse both the palette and the colour lookup instead of
+ *     being re-quantized.</li>
+ * </ul>
+ * <p>Queued frame buffers are recycled once encoded, so the writer holds at most
+ * {@value #FRAMES_IN_FLIGHT} frames plus the one being mapped.</p>
+ */
+final class StreamingGifWriter implements Closeable {
+
+    private static final int PALETTE_SIZE = 256;
+    private static final int GRAY_RAMP_SIZE = 128;
+    static final int FRAMES_IN_FLIGHT = 4;
+
+    private final File outputFile;
+    private final int delayMs;
+    private final PipelineMetrics metrics;
+
+    private final Queue<BufferedImage> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<BufferedImage> recycled = new ConcurrentLinkedQueue<>();
+    private final Semaphore slots = new Semaphore(FRAMES_IN_FLIGHT);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ReentrantLock encoder = new ReentrantLock();
+    private volatile IOException failure;
+
+    private Path temporary;
+    private ImageOutputStream output;
+    private GifSequenceWriter sequence;
+    private GifPalette palette;
+    private int frameCount;
+
+    private StreamingGifWriter(File outputFile, int delayMs) {
+        this.outputFile = outputFile;
+        this.delayMs = delayMs;
+        this.metrics = PipelineMetrics.current();
+    }
+
+    /**
+     * Prepares a looping animation at {@code outputFile}. Nothing is written until the first frame
+     * is appended.
+     */
+    static StreamingGifWriter open(File outputFile, int delayMs) {
+        return new StreamingGifWriter(outputFile, delayMs);
+    }
+
+    /**
+     * Queues {@code frame} for encoding. While {@value #FRAMES_IN_FLIGHT} frames are still waiting,
+     * the queue is encoded on the calling thread first. The frame is copied before this returns, so the caller may reuse or discard it.
+     *
+     * @throws IOException if encoding an earlier frame failed
+     */
+    void append(BufferedImage frame) throws IOException {
+        throwIfFailed();
+        if (sequence == null) {
+            start(frame);
+        }
+        try {
+            if (!slots.tryAcquire()) {
+                // Encode here rather than wait for a scheduled drain that a busy I/O pool may never
+                // start; if another thread holds the encoder, it frees the slots without the pool.
+                drain();
+                slots.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the GIF encoder of " + outputFile.getName());
+        }
+        pending.add(toEncodable(frame));
+        frameCount++;
+
+        if (SharedExecutors.isIoWorkerThread()) {
+            drain();
+        } else {
+            scheduleDrain();
+        }
+    }
+
+    int frameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Waits for the queued frames, finishes the animation and moves it into place. If any frame
+     * failed to encode, the partial file is deleted and the failure is rethrown.
+     */
+    @Override
+    public void close() throws IOException {
+        if (output == null) {
+            return;
+        }
+        drain();
+        slots.acquireUninterruptibly(FRAMES_IN_FLIGHT);
+        try (PipelineMetrics.Timer encode = metrics == null ? null : metrics.start(PipelineMetrics.GIF_ENCODE)) {
+            try {
+                try {
+                    if (failure == null) {
+                        sequence.close();
+                    }
+                } finally {
+                    output.close();
+                }
+                throwIfFailed();
+                if (encode != null) {
+                    encode.addBytes(Files.size(temporary));
+                }
+                try {
+                    Files.move(temporary, outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+                output = null;
+                sequence = null;
+                pending.clear();
+                recycled.clear();
+                slots.release(FRAMES_IN_FLIGHT);
+            }
+        }
+    }
+
+    private void start(BufferedImage firstFrame) throws IOException {
+        ImageTypeSpecifier imageType;
+        if (isGray8(firstFrame)) {
+            imageType = ImageTypeSpecifier.createFromBufferedImageType(BufferedImage.TYPE_BYTE_GRAY);
+        } else {
+            palette = GifPalette.fromFrame(firstFrame);
+            BufferedImage indexed = palette.newFrame(firstFrame.getWidth(), firstFrame.getHeight());
+            recycled.add(indexed);
+            // createFromRenderedImage() would map TYPE_BYTE_INDEXED back to the generic palette
+            imageType = new ImageTypeSpecifier(indexed);
+        }
+
+        File directory = outputFile.getAbsoluteFile().getParentFile();
+        Path file = Files.createTempFile(directory.toPath(), outputFile.getName(), ".tmp");
+        try {
+            output = new FileImageOutputStream(file.toFile());
+            sequence = new GifSequenceWriter(output, imageType, delayMs, true);
+        } catch (IOException | RuntimeException e) {
+            if (output != null) {
+                output.close();
+                output = null;
+            }
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        temporary = file;
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            SharedExecutors.io().execute(() -> {
+                drainScheduled.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            drainScheduled.set(false);
+            drain();
+        }
+    }
+
+    /**
+     * Encodes the queued frames in order unless another thread already holds the encoder, in which
+     * case that thread encodes them.
+     */
+    private void drain() {
+        do {
+            if (!encoder.tryLock()) {
+                return;
+            }
+            try {
+                BufferedImage frame;
+                while ((frame = pending.poll()) != null) {
+                    try {
+                        if (failure == null) {
+                            encode(frame);
+                        }
+                    } catch (IOException e) {
+                        failure = e;
+                    } catch (RuntimeException e) {
+                        failure = new IOException("Failed to encode a frame of " + outputFile.getName(), e);
+                    } finally {
+                        recycled.add(frame);
+                        slots.release();
+                    }
+                }
+            } finally {
+                encoder.unlock();
+            }
+            // A frame queued after the last poll but before the unlock found the encoder busy and
+            // left it to this thread.
+        } while (!pending.isEmpty());
+    }
+
+    private void encode(BufferedImage frame) throws IOException {
+        try (PipelineMetrics.Timer encode = metrics == null ? null : metrics.start(PipelineMetrics.GIF_ENCODE)) {
+            sequence.writeToSequence(frame);
+            if (encode != null) {
+                encode.addCount(1);
+            }
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("Could not write " + outputFile.getName(), cause);
+        }
+    }
+
+    /**
+     * Copies {@code frame} into a recycled buffer in the encoder's format: 8-bit gray, or palette
+     * indices when the animation has a palette.
+     */
+    private BufferedImage toEncodable(BufferedImage frame) {
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        BufferedImage target = recycled.poll();
+        if (target == null || target.getWidth() != width || target.getHeight() != height) {
+            target = palette == null
+                    ? new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY)
+                    : palette.newFrame(width, height);
+        }
+
+        if (palette != null) {
+            palette.map(frame, target);
+        } else if (isGray8(frame)) {
+            frame.copyData(target.getRaster());
+        } else {
+            Graphics2D g = target.createGraphics();
+            try {
+                g.drawImage(frame, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+        }
+        return target;
+    }
+
+    private static boolean isGray8(BufferedImage image) {
+        return image.getType() == BufferedImage.TYPE_BYTE_GRAY;
+    }
+
+    /**
+     * Fixed palette plus the lookup used to map RGB pixels onto it.
+     */
+    static final class GifPalette {
+        private final IndexColorModel colorModel;
+        private final int[] paletteRgb;
+        private final ColorIndexTable exactColors;
+        private final byte[] grayIndex = new byte[256];
+        private final byte[] nearestByRgb555 = new byte[1 << 15];
+        private final boolean[] nearestResolved = new boolean[1 << 15];
+
+        private GifPalette(int[] paletteRgb, int size) {
+            this.paletteRgb = Arrays.copyOf(paletteRgb, size);
+            byte[] r = new byte[size];
+            byte[] g = new byte[size];
+            byte[] b = new byte[size];
+            exactColors = new ColorIndexTable(size * 2);
+            for (int i = 0; i < size; i++) {
+                int rgb = this.paletteRgb[i];
+                r[i] = (byte) (rgb >> 16);
+                g[i] = (byte) (rgb >> 8);
+                b[i] = (byte) rgb;
+                exactColors.putIfAbsent(rgb, i);
+            }
+            int bits = size <= 2 ? 1 : 32 - Integer.numberOfLeadingZeros(size - 1);
+            colorModel = new IndexColorModel(bits, size, r, g, b);
+            for (int level = 0; level < 256; level++) {
+                grayIndex[level] = (byte) nearestIndex(level, level, level);
+            }
+        }
+
+        /**
+         * Builds the palette from the colours of {@code frame} plus the gray ramp.
+         */
+        static GifPalette fromFrame(BufferedImage frame) {
+            int width = frame.getWidth();
+            int height = frame.getHeight();
+            int[] row = new int[width];
+            ColorIndexTable counts = new ColorIndexTable(1024);
+            boolean exact = true;
+            int[] distinct = new int[PALETTE_SIZE];
+            int distinctCount = 0;
+            for (int y = 0; y < height; y++) {
+                frame.getRGB(0, y, width, 1, row, 0, width);
+                for (int x = 0; x < width; x++) {
+                    int rgb = row[x] & 0xFFFFFF;
+                    if (counts.increment(rgb) == 1 && exact) {
+                        if (distinctCount == PALETTE_SIZE) {
+                            exact = false;
+                        } else {
+                            distinct[distinctCount++] = rgb;
+                        }
+                    }
+                }
+            }
+
+            int[] palette = new int[PALETTE_SIZE];
+            int size = 0;
+            ColorIndexTable ramp = new ColorIndexTable(GRAY_RAMP_SIZE);
+            for (int i = 0; i < GRAY_RAMP_SIZE; i++) {
+                int level = Math.round(i * 255f / (GRAY_RAMP_SIZE - 1));
+                int gray = (level << 16) | (level << 8) | level;
+                ramp.putIfAbsent(gray, i);
+                palette[size++] = gray;
+            }
+            if (exact) {
+                int exactSize = size;
+                for (int i = 0; i < distinctCount && exactSize <= PALETTE_SIZE; i++) {
+                    if (ramp.get(distinct[i]) < 0) {
+                        if (exactSize < PALETTE_SIZE) {
+                            palette[exactSize] = distinct[i];
+                        }
+                        exactSize++;
+                    }
+                }
+                if (exactSize <= PALETTE_SIZE) {
+                    return new GifPalette(palette, exactSize);
+                }
+            }
+            for (int rgb : counts.mostFrequentNonGray(PALETTE_SIZE - GRAY_RAMP_SIZE)) {
+                palette[size++] = rgb;
+            }
+            return new GifPalette(palette, size);
+        }
+
+        BufferedImage newFrame(int width, int height) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+        }
+
+        /**
+         * Writes the palette indices for {@code source} into {@code target}, which must come from
+         * {@link #newFrame(int, int)} with the same dimensions.
+         */
+        void map(BufferedImage source, BufferedImage target) {
+            int width = source.getWidth();
+            int height = source.getHeight();
+            byte[] indices = ((DataBufferByte) target.getRaster().getDataBuffer()).getData();
+            int[] row = new int[width];
+            for (int y = 0; y < height; y++) {
+                source.getRGB(0, y, width, 1, row, 0, width);
+                int base = y * width;
+                for (int x = 0; x < width; x++) {
+                    indices[base + x] = indexOf(row[x] & 0xFFFFFF);
+                }
+            }
+        }
+
+        private byte indexOf(int rgb) {
+            int exactIndex = exactColors.get(rgb);
+            if (exactIndex >= 0) {
+                return (byte) exactIndex;
+            }
+            int r = (rgb >> 16) & 0xFF;
+            int g = (rgb >> 8) & 0xFF;
+            int b = rgb & 0xFF;
+            if (r == g && g == b) {
+                return grayIndex[r];
+            }
+            int key = ((r >> 3) << 10) | ((g >> 3) << 5) | (b >> 3);
+            if (!nearestResolved[key]) {
+                nearestByRgb555[key] = (byte) nearestIndex(r, g, b);
+                nearestResolved[key] = true;
+            }
+            return nearestByRgb555[key];
+        }
+
+        private int nearestIndex(int r, int g, int b) {
+            int best = 0;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < paletteRgb.length; i++) {
+                int dr = ((paletteRgb[i] >> 16) & 0xFF) - r;
+                int dg = ((paletteRgb[i] >> 8) & 0xFF) - g;
+                int db = (paletteRgb[i] & 0xFF) - b;
+                int distance = dr * dr + dg * dg + db * db;
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        IndexColorModel colorModel() {
+            return colorModel;
+        }
+    }
+
+    /**
+     * Open-addressing map from 24-bit RGB to an int, used both as the colour histogram of the first
+     * frame and as the exact palette lookup.
+     */
+    private static final class ColorIndexTable {
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        ColorIndexTable(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+            keys = new int[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, -1);
+        }
+
+        int get(int rgb) {
+            int mask = keys.length - 1;
+            for (int slot = hash(rgb) & mask; ; slot = (slot + 1) & mask) {
+                if (keys[slot] == rgb) {
+                    return values[slot];
+                }
+                if (keys[slot] == -1) {
+                    return -1;
+                }
+            }
+        }
+
+        void putIfAbsent(int rgb, int value) {
+            int slot = findSlot(rgb);
+            if (keys[slot] == -1) {
+                keys[slot] = rgb;
+                values[slot] = value;
+                grow();
+            }
+        }
+
+        int increment(int rgb) {
+            int slot = findSlot(rgb);
+            if (keys[slot] == -1) {
+                keys[slot] = rgb;
+                values[slot] = 1;
+                grow();
+                return 1;
+            }
+            return ++values[slot];
+        }
+
+        int[] mostFrequentNonGray(int limit) {
+            long[] ranked = new long[size];
+            int count = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                int rgb = keys[slot];
+                if (rgb == -1 || isGray(rgb)) {
+                    continue;
+                }
+                ranked[count++] = ((long) values[slot] << 24) | rgb;
+            }
+            Arrays.sort(ranked, 0, count);
+            int resultSize = Math.min(limit, count);
+            int[] result = new int[resultSize];
+            for (int i = 0; i < resultSize; i++) {
+                result[i] = (int) (ranked[count - 1 - i] & 0xFFFFFF);
+            }
+            return result;
+        }
+
+        private int findSlot(int rgb) {
+            int mask = keys.length - 1;
+            int slot = hash(rgb) & mask;
+            while (keys[slot] != -1 && keys[slot] != rgb) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            size++;
+            if (size * 2 <= keys.length) {
+                return;
+            }
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(keys, -1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != -1) {
+                    int slot = findSlot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static boolean isGray(int rgb) {
+            int r = (rgb >> 16) & 0xFF;
+            return r == ((rgb >> 8) & 0xFF) && r == (rgb & 0xFF);
+        }
+
+        private static int hash(int rgb) {
+            return rgb * 0x9E3779B1 >>> 7;
+        }
+    }
+}
@@ -62,70 +62,80 @@ final class TargetVisualizationSectionWriter {
     private static void writeSingleStreaks(PrintWriter report,
                                            DetectionReportContext context) throws IOException {
         report.println("<h3 style='color: #ff9933; margin-top: 30px; border-bottom: 1px solid #444; padding-bottom: 5px;'>Single Streaks</h3>");
+        ReportRenderExecutor.OrderedFragments cards = context.renderExecutor.newFragments(report);
         int counter = 1;
         for (TrackLinker.Track track : context.singleStreaks) {
-            TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(track, context.settings.getTrackCropPadding());
-            SourceExtractor.DetectedObject point = track.points.get(0);
-            int frameIndex = point.sourceFrameIndex;
-            int partCount = track.points.size();
-            String partBadge = partCount > 1
-                    ? " <span style='background: #6b4a20; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>" + partCount + " Parts</span>"
-                    : "";
-
-            report.println("<div class='detection-card streak-title'>");
-            report.println("<div class='detection-title'>Single Streak Event S" + counter + partBadge + "</div>");
-            report.print(buildSingleFrameEventSummaryHtml(track, context.fitsFiles));
-
-            short[][] croppedData = TrackVisualizationRenderer.robustEdgeAwareCrop(
-                    context.rawFrames.get(frameIndex),
-                    cropBounds.fixedCenterX,
-                    cropBounds.fixedCenterY,
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight);
-            BufferedImage streakImage = TrackVisualizationRenderer.createDisplayImage(croppedData, context.settings);
-            String streakFileName = "single_streak_" + counter + ".png";
-            TrackVisualizationRenderer.saveLosslessPng(streakImage, new File(context.exportDir, streakFileName));
-
-            String shapeFileName = "single_streak_" + counter + "_shape.png";
-            BufferedImage streakShapeImage = TrackVisualizationRenderer.createSingleStreakShapeImage(
-                    track.points,
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight,
-                    cropBounds.startX,
-                    cropBounds.startY,
-                    false);
-            TrackVisualizationRenderer.saveLosslessPng(streakShapeImage, new File(context.exportDir, shapeFileName));
-
-            report.println("<div class='image-container'>");
-            report.println("<div><a href='" + streakFileName + "' target='_blank'><img src='" + streakFileName + "' alt='Detection Image' /></a><br/><center><small>Detection Image</small></center></div>");
-            report.println("<div><a href='" + shapeFileName + "' target='_blank'><img src='" + shapeFileName + "' alt='Shape Footprint' /></a><br/><center><small>Shape Footprint Map</small></center></div>");
-            report.println("</div>");
-
-            String entriesHtml = buildStreakPointEntriesHtml(track, context.astrometryContext, true);
-            if (partCount > 1) {
-                report.println(buildFoldableStreakDetailsHtml(
-                        "Show individual streak parts (" + partCount + ")",
-                        "Detection Coordinates & Part Metrics",
-                        entriesHtml));
-            } else {
-                report.println("<strong>Detection Coordinates:</strong><ul class='source-list'>");
-                report.println(entriesHtml);
-                report.println("</ul>");
-            }
-            if (partCount > 1) {
-                report.print(DetectionReportAstrometry.buildTrackSkyViewerHtml(
-                        context.astrometryContext,
-                        track,
-                        "Reference epoch for single-streak frame lookup"));
-            } else {
-                report.print(DetectionReportAstrometry.buildSingleFrameSkyViewerHtml(
-                        context.astrometryContext,
-                        point,
-                        "Reference epoch for streak lookup"));
-            }
-            report.println("</div>");
+            int cardNumber = counter;
+            cards.add(card -> writeSingleStreakCard(card, context, track, cardNumber));
             counter++;
         }
+        cards.finish();
+    }
+
+    private static void writeSingleStreakCard(PrintWriter report,
+                                              DetectionReportContext context,
+                                              TrackLinker.Track track,
+                                              int counter) throws IOException {
+        TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(track, context.settings.getTrackCropPadding());
+        SourceExtractor.DetectedObject point = track.points.get(0);
+        int frameIndex = point.sourceFrameIndex;
+        int partCount = track.points.size();
+        String partBadge = partCount > 1
+                ? " <span style='background: #6b4a20; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>" + partCount + " Parts</span>"
+                : "";
+
+        report.println("<div class='detection-card streak-title'>");
+        report.println("<div class='detection-title'>Single Streak Event S" + counter + partBadge + "</div>");
+        report.print(buildSingleFrameEventSummaryHtml(track, context.fitsFiles));
+
+        BufferedImage streakImage = TrackVisualizationRenderer.createCroppedDisplayImage(
+                context.rawFrames.get(frameIndex),
+                cropBounds.fixedCenterX,
+                cropBounds.fixedCenterY,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight,
+                context.settings);
+        String streakFileName = "single_streak_" + counter + ".png";
+        TrackVisualizationRenderer.saveLosslessPng(streakImage, new File(context.exportDir, streakFileName));
+
+        String shapeFileName = "single_streak_" + counter + "_shape.png";
+        BufferedImage streakShapeImage = TrackVisualizationRenderer.createSingleStreakShapeImage(
+                track.points,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight,
+                cropBounds.startX,
+                cropBounds.startY,
+                false);
+        TrackVisualizationRenderer.saveLosslessPng(streakShapeImage, new File(context.exportDir, shapeFileName));
+
+        report.println("<div class='image-container'>");
+        report.println("<div><a href='" + streakFileName + "' target='_blank'><img src='" + streakFileName + "' alt='Detection Image' /></a><br/><center><small>Detection Image</small></center></div>");
+        report.println("<div><a href='" + shapeFileName + "' target='_blank'><img src='" + shapeFileName + "' alt='Shape Footprint' /></a><br/><center><small>Shape Footprint Map</small></center></div>");
+        report.println("</div>");
+
+        String entriesHtml = buildStreakPointEntriesHtml(track, context.astrometryContext, true);
+        if (partCount > 1) {
+            report.println(buildFoldableStreakDetailsHtml(
+                    "Show individual streak parts (" + partCount + ")",
+                    "Detection Coordinates & Part Metrics",
+                    entriesHtml));
+        } else {
+            report.println("<strong>Detection Coordinates:</strong><ul class='source-list'>");
+            report.println(entriesHtml);
+            report.println("</ul>");
+        }
+        if (partCount > 1) {
+            report.print(DetectionReportAstrometry.buildTrackSkyViewerHtml(
+                    context.astrometryContext,
+                    track,
+                    "Reference epoch for single-streak frame lookup"));
+        } else {
+            report.print(DetectionReportAstrometry.buildSingleFrameSkyViewerHtml(
+                    context.astrometryContext,
+                    point,
+                    "Reference epoch for streak lookup"));
+        }
+        report.println("</div>");
     }
 
     private static void writeStreakTracks(PrintWriter report,
@@ -135,17 +145,39 @@ final class TargetVisualizationSectionWriter {
             report.println("<p style='color: #999999; font-size: 14px; margin-top: -10px; margin-bottom: 15px;'>Suspected streak tracks grouped from same-frame rescued anomalies are shown here alongside the confirmed multi-frame streak tracks.</p>");
         }
 
+        ReportRenderExecutor.OrderedFragments cards = context.renderExecutor.newFragments(report);
         int counter = 1;
         for (TrackLinker.Track track : context.streakTracks) {
-            TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(track, context.settings.getTrackCropPadding());
-            List<BufferedImage> starCentricFrames = new ArrayList<>();
-            Set<Integer> processedFrames = new HashSet<>();
+            int cardNumber = counter;
+            cards.add(card -> writeStreakTrackCard(card, context, track, cardNumber));
+            counter++;
+        }
 
+        int suspectedCounter = 1;
+        for (TrackLinker.Track track : context.suspectedStreakTracks) {
+            int cardNumber = suspectedCounter;
+            cards.add(card -> writeSuspectedStreakTrackCard(card, context, track, cardNumber));
+            suspectedCounter++;
+        }
+        cards.finish();
+    }
+
+    private static void writeStreakTrackCard(PrintWriter report,
+                                             DetectionReportContext context,
+                                             TrackLinker.Track track,
+                                             int counter) throws IOException {
+        TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(track, context.settings.getTrackCropPadding());
+        Set<Integer> processedFrames = new HashSet<>();
+
+        String starFileName = "streak_track_" + counter + "_star_centric.gif";
+        try (StreamingGifWriter starCentricGif = TrackVisualizationRenderer.openAnimatedGif(
+                new File(context.exportDir, starFileName),
+                context.settings)) {
             for (SourceExtractor.DetectedObject point : track.points) {
                 if (!processedFrames.add(point.sourceFrameIndex)) {
                     continue;
                 }
-                starCentricFrames.add(TrackVisualizationRenderer.createStarCentricHighlightedFrame(
+                starCentricGif.append(TrackVisualizationRenderer.createStarCentricHighlightedFrame(
                         context.rawFrames.get(point.sourceFrameIndex),
                         cropBounds,
                         point,
@@ -155,156 +187,165 @@ final class TargetVisualizationSectionWriter {
                         null,
                         false));
             }
+        }
 
-            String shapeFileName = "streak_track_" + counter + "_shape.png";
-            BufferedImage shapeImage = TrackVisualizationRenderer.createTrackShapeImage(
-                    track,
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight,
-                    cropBounds.startX,
-                    cropBounds.startY);
-            TrackVisualizationRenderer.saveLosslessPng(shapeImage, new File(context.exportDir, shapeFileName));
-
-            String starFileName = "streak_track_" + counter + "_star_centric.gif";
-            TrackVisualizationRenderer.saveAnimatedGif(
-                    starCentricFrames,
-                    new File(context.exportDir, starFileName),
-                    context.settings);
-            SkyOrientationOverlay streakTrackOverlay = buildSkyOrientationOverlay(
-                    context.astrometryContext,
-                    cropBounds.fixedCenterX,
-                    cropBounds.fixedCenterY,
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight);
-
-            report.println("<div class='detection-card streak-title' style='border-left-color: #ffcc33;'>");
-            String timeBadge = track.isTimeBasedTrack ? " <span style='background: #005c99; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>⏱ Time-Based Kinematics</span>" : "";
-            report.println("<div class='detection-title' style='color: #ffcc33;'>Confirmed Streak Track ST" + counter + timeBadge + "</div>");
-            report.print(DetectionReportGenerator.buildTrackTimingSummaryHtml(track, context.astrometryContext));
-            report.print(buildConfirmedStreakFrameFragmentSummaryHtml(track, context.fitsFiles));
-
-            report.println("<div class='image-container'>");
-            report.println(buildSkyOrientationImageTileHtml(
-                    starFileName,
-                    "Star Centric Animation",
-                    "Star Centric",
-                    null,
-                    streakTrackOverlay));
-            report.println(buildSkyOrientationImageTileHtml(
-                    shapeFileName,
-                    "Track Shape Map",
-                    "Track Shape Map",
-                    null,
-                    streakTrackOverlay));
-            report.println("</div>");
+        String shapeFileName = "streak_track_" + counter + "_shape.png";
+        BufferedImage shapeImage = TrackVisualizationRenderer.createTrackShapeImage(
+                track,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight,
+                cropBounds.startX,
+                cropBounds.startY);
+        TrackVisualizationRenderer.saveLosslessPng(shapeImage, new File(context.exportDir, shapeFileName));
+
+        SkyOrientationOverlay streakTrackOverlay = buildSkyOrientationOverlay(
+                context.astrometryContext,
+                cropBounds.fixedCenterX,
+                cropBounds.fixedCenterY,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight);
+
+        report.println("<div class='detection-card streak-title' style='border-left-color: #ffcc33;'>");
+        String timeBadge = track.isTimeBasedTrack ? " <span style='background: #005c99; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>⏱ Time-Based Kinematics</span>" : "";
+        report.println("<div class='detection-title' style='color: #ffcc33;'>Confirmed Streak Track ST" + counter + timeBadge + "</div>");
+        report.print(DetectionReportGenerator.buildTrackTimingSummaryHtml(track, context.astrometryContext));
+        report.print(buildConfirmedStreakFrameFragmentSummaryHtml(track, context.fitsFiles));
+
+        report.println("<div class='image-container'>");
+        report.println(buildSkyOrientationImageTileHtml(
+                starFileName,
+                "Star Centric Animation",
+                "Star Centric",
+                null,
+                streakTrackOverlay));
+        report.println(buildSkyOrientationImageTileHtml(
+                shapeFileName,
+                "Track Shape Map",
+                "Track Shape Map",
+                null,
+                streakTrackOverlay));
+        report.println("</div>");
+        report.println(buildFoldableStreakDetailsHtml(
+                "Show individual streak fragments (" + track.points.size() + ")",
+                "Detection Coordinates & Frames",
+                buildStreakPointEntriesHtml(track, context.astrometryContext, false)));
+        report.print(DetectionReportAstrometry.buildConfirmedStreakTrackSatCheckerHtml(
+                context.astrometryContext,
+                track,
+                "streak-track-satchecker-" + counter,
+                String.format(Locale.US, "satchecker_track_%02d", counter)));
+        report.print(DetectionReportAstrometry.buildTrackSkyViewerHtml(
+                context.astrometryContext,
+                track,
+                "Reference epoch for streak-track lookup",
+                streakTrackOverlay != null ? streakTrackOverlay.preferredViewerFovDegrees : null));
+        report.println("</div>");
+    }
+
+    private static void writeSuspectedStreakTrackCard(PrintWriter report,
+                                                      DetectionReportContext context,
+                                                      TrackLinker.Track track,
+                                                      int suspectedCounter) throws IOException {
+        TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(track, context.settings.getTrackCropPadding());
+        SourceExtractor.DetectedObject point = track.points.get(0);
+        int frameIndex = point.sourceFrameIndex;
+        int partCount = track.points.size();
+        String partBadge = partCount > 1
+                ? " <span style='background: #6b4a20; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>" + partCount + " Parts</span>"
+                : "";
+        String groupingBadge = " <span style='background: #7a5a12; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>Same-Frame Anomaly Grouping</span>";
+
+        report.println("<div class='detection-card streak-title' style='border-left-color: #ff9933;'>");
+        report.println("<div class='detection-title' style='color: #ffb347;'>Suspected Streak Track SST" + suspectedCounter + partBadge + groupingBadge + "</div>");
+        report.print(buildSingleFrameEventSummaryHtml(track, context.fitsFiles));
+
+        BufferedImage streakImage = TrackVisualizationRenderer.createCroppedDisplayImage(
+                context.rawFrames.get(frameIndex),
+                cropBounds.fixedCenterX,
+                cropBounds.fixedCenterY,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight,
+                context.settings);
+        String streakFileName = "suspected_streak_track_" + suspectedCounter + ".png";
+        TrackVisualizationRenderer.saveLosslessPng(streakImage, new File(context.exportDir, streakFileName));
+
+        String shapeFileName = "suspected_streak_track_" + suspectedCounter + "_shape.png";
+        BufferedImage streakShapeImage = TrackVisualizationRenderer.createSingleStreakShapeImage(
+                track.points,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight,
+                cropBounds.startX,
+                cropBounds.startY,
+                false);
+        TrackVisualizationRenderer.saveLosslessPng(streakShapeImage, new File(context.exportDir, shapeFileName));
+
+        report.println("<div class='image-container'>");
+        report.println("<div><a href='" + streakFileName + "' target='_blank'><img src='" + streakFileName + "' alt='Detection Image' /></a><br/><center><small>Detection Image</small></center></div>");
+        report.println("<div><a href='" + shapeFileName + "' target='_blank'><img src='" + shapeFileName + "' alt='Shape Footprint' /></a><br/><center><small>Shape Footprint Map</small></center></div>");
+        report.println("</div>");
+
+        String entriesHtml = buildStreakPointEntriesHtml(track, context.astrometryContext, true);
+        if (partCount > 1) {
             report.println(buildFoldableStreakDetailsHtml(
-                    "Show individual streak fragments (" + track.points.size() + ")",
-                    "Detection Coordinates & Frames",
-                    buildStreakPointEntriesHtml(track, context.astrometryContext, false)));
-            report.print(DetectionReportAstrometry.buildConfirmedStreakTrackSatCheckerHtml(
-                    context.astrometryContext,
-                    track,
-                    "streak-track-satchecker-" + counter,
-                    String.format(Locale.US, "satchecker_track_%02d", counter)));
+                    "Show individual streak parts (" + partCount + ")",
+                    "Detection Coordinates & Part Metrics",
+                    entriesHtml));
+        } else {
+            report.println("<strong>Detection Coordinates:</strong><ul class='source-list'>");
+            report.println(entriesHtml);
+            report.println("</ul>");
+        }
+        if (partCount > 1) {
             report.print(DetectionReportAstrometry.buildTrackSkyViewerHtml(
                     context.astrometryContext,
                     track,
-                    "Reference epoch for streak-track lookup",
-                    streakTrackOverlay != null ? streakTrackOverlay.preferredViewerFovDegrees : null));
-            report.println("</div>");
-            counter++;
-        }
-
-        int suspectedCounter = 1;
-        for (TrackLinker.Track track : context.suspectedStreakTracks) {
-            TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(track, context.settings.getTrackCropPadding());
-            SourceExtractor.DetectedObject point = track.points.get(0);
-            int frameIndex = point.sourceFrameIndex;
-            int partCount = track.points.size();
-            String partBadge = partCount > 1
-                    ? " <span style='background: #6b4a20; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>" + partCount + " Parts</span>"
-                    : "";
-            String groupingBadge = " <span style='background: #7a5a12; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>Same-Frame Anomaly Grouping</span>";
-
-            report.println("<div class='detection-card streak-title' style='border-left-color: #ff9933;'>");
-            report.println("<div class='detection-title' style='color: #ffb347;'>Suspected Streak Track SST" + suspectedCounter + partBadge + groupingBadge + "</div>");
-            report.print(buildSingleFrameEventSummaryHtml(track, context.fitsFiles));
-
-            short[][] croppedData = TrackVisualizationRenderer.robustEdgeAwareCrop(
-                    context.rawFrames.get(frameIndex),
-                    cropBounds.fixedCenterX,
-                    cropBounds.fixedCenterY,
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight);
-            BufferedImage streakImage = TrackVisualizationRenderer.createDisplayImage(croppedData, context.settings);
-            String streakFileName = "suspected_streak_track_" + suspectedCounter + ".png";
-            TrackVisualizationRenderer.saveLosslessPng(streakImage, new File(context.exportDir, streakFileName));
-
-            String shapeFileName = "suspected_streak_track_" + suspectedCounter + "_shape.png";
-            BufferedImage streakShapeImage = TrackVisualizationRenderer.createSingleStreakShapeImage(
-                    track.points,
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight,
-                    cropBounds.startX,
-                    cropBounds.startY,
-                    false);
-            TrackVisualizationRenderer.saveLosslessPng(streakShapeImage, new File(context.exportDir, shapeFileName));
-
-            report.println("<div class='image-container'>");
-            report.println("<div><a href='" + streakFileName + "' target='_blank'><img src='" + streakFileName + "' alt='Detection Image' /></a><br/><center><small>Detection Image</small></center></div>");
-            report.println("<div><a href='" + shapeFileName + "' target='_blank'><img src='" + shapeFileName + "' alt='Shape Footprint' /></a><br/><center><small>Shape Footprint Map</small></center></div>");
-            report.println("</div>");
-
-            String entriesHtml = buildStreakPointEntriesHtml(track, context.astrometryContext, true);
-            if (partCount > 1) {
-                report.println(buildFoldableStreakDetailsHtml(
-                        "Show individual streak parts (" + partCount + ")",
-                        "Detection Coordinates & Part Metrics",
-                        entriesHtml));
-            } else {
-                report.println("<strong>Detection Coordinates:</strong><ul class='source-list'>");
-                report.println(entriesHtml);
-                report.println("</ul>");
-            }
-            if (partCount > 1) {
-                report.print(DetectionReportAstrometry.buildTrackSkyViewerHtml(
-                        context.astrometryContext,
-                        track,
-                        "Reference epoch for suspected streak frame lookup"));
-            } else {
-                report.print(DetectionReportAstrometry.buildSingleFrameSkyViewerHtml(
-                        context.astrometryContext,
-                        point,
-                        "Reference epoch for suspected streak lookup"));
-            }
-            report.println("</div>");
-            suspectedCounter++;
+                    "Reference epoch for suspected streak frame lookup"));
+        } else {
+            report.print(DetectionReportAstrometry.buildSingleFrameSkyViewerHtml(
+                    context.astrometryContext,
+                    point,
+                    "Reference epoch for suspected streak lookup"));
         }
+        report.println("</div>");
     }
 
     private static void writeMovingTargets(PrintWriter report,
                                            DetectionReportContext context) throws IOException {
         report.println("<h3 style='color: #4da6ff; margin-top: 30px; border-bottom: 1px solid #444; padding-bottom: 5px;'>Moving Target Tracks</h3>");
+        ReportRenderExecutor.OrderedFragments cards = context.renderExecutor.newFragments(report);
         int counter = 1;
         for (TrackLinker.Track track : context.movingTargets) {
-            TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(track, context.settings.getTrackCropPadding());
-            List<BufferedImage> objectCentricFrames = new ArrayList<>();
-            List<BufferedImage> starCentricFrames = new ArrayList<>();
-            Set<Integer> processedFrames = new HashSet<>();
+            int cardNumber = counter;
+            cards.add(card -> writeMovingTargetCard(card, context, track, cardNumber));
+            counter++;
+        }
+        cards.finish();
+    }
 
+    private static void writeMovingTargetCard(PrintWriter report,
+                                              DetectionReportContext context,
+                                              TrackLinker.Track track,
+                                              int counter) throws IOException {
+        TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(track, context.settings.getTrackCropPadding());
+        Set<Integer> processedFrames = new HashSet<>();
+
+        String objectFileName = "moving_track_" + counter + "_object_centric.gif";
+        String starFileName = "moving_track_" + counter + "_star_centric.gif";
+        try (StreamingGifWriter objectCentricGif = TrackVisualizationRenderer.openAnimatedGif(new File(context.exportDir, objectFileName), context.settings);
+             StreamingGifWriter starCentricGif = TrackVisualizationRenderer.openAnimatedGif(new File(context.exportDir, starFileName), context.settings)) {
             for (SourceExtractor.DetectedObject point : track.points) {
                 if (!processedFrames.add(point.sourceFrameIndex)) {
                     continue;
                 }
                 short[][] rawImage = context.rawFrames.get(point.sourceFrameIndex);
-                objectCentricFrames.add(TrackVisualizationRenderer.createCroppedDisplayImage(
+                objectCentricGif.append(TrackVisualizationRenderer.createCroppedDisplayImage(
                         rawImage,
                         (int) Math.round(point.x),
                         (int) Math.round(point.y),
                         context.settings.getTrackObjectCentricCropSize(),
                         context.settings.getTrackObjectCentricCropSize(),
                         context.settings));
-                starCentricFrames.add(TrackVisualizationRenderer.createStarCentricHighlightedFrame(
+                starCentricGif.append(TrackVisualizationRenderer.createStarCentricHighlightedFrame(
                         rawImage,
                         cropBounds,
                         point,
@@ -314,189 +355,195 @@ final class TargetVisualizationSectionWriter {
                         null,
                         false));
             }
+        }
 
-            String shapeFileName = "moving_track_" + counter + "_shape.png";
-            BufferedImage shapeImage = TrackVisualizationRenderer.createTrackShapeImage(
-                    track,
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight,
-                    cropBounds.startX,
-                    cropBounds.startY);
-            TrackVisualizationRenderer.saveLosslessPng(shapeImage, new File(context.exportDir, shapeFileName));
-
-            String objectFileName = "moving_track_" + counter + "_object_centric.gif";
-            String starFileName = "moving_track_" + counter + "_star_centric.gif";
-            TrackVisualizationRenderer.saveAnimatedGif(objectCentricFrames, new File(context.exportDir, objectFileName), context.settings);
-            TrackVisualizationRenderer.saveAnimatedGif(starCentricFrames, new File(context.exportDir, starFileName), context.settings);
-
-            double[] meanCenter = computeTrackMeanPixelCenter(track);
-            SkyOrientationOverlay movingObjectOverlay = meanCenter != null
-                    ? buildSkyOrientationOverlay(
-                    context.astrometryContext,
-                    meanCenter[0],
-                    meanCenter[1],
-                    context.settings.getTrackObjectCentricCropSize(),
-                    context.settings.getTrackObjectCentricCropSize())
-                    : null;
-            SkyOrientationOverlay movingTrackFrameOverlay = buildSkyOrientationOverlay(
-                    context.astrometryContext,
-                    cropBounds.fixedCenterX,
-                    cropBounds.fixedCenterY,
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight);
-
-            report.println("<div class='detection-card'>");
-            String timeBadge = track.isTimeBasedTrack ? " <span style='background: #005c99; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>⏱ Time-Based Kinematics</span>" : "";
-            report.println("<div class='detection-title'>Moving Target Track T" + counter + timeBadge + "</div>");
-            report.print(DetectionReportGenerator.buildTrackTimingSummaryHtml(track, context.astrometryContext));
-
-            report.println("<div class='image-container'>");
-            report.println(buildSkyOrientationImageTileHtml(
-                    objectFileName,
-                    "Object Centric",
-                    "Object Centric",
-                    null,
-                    movingObjectOverlay));
-            report.println(buildSkyOrientationImageTileHtml(
-                    starFileName,
-                    "Star Centric",
-                    "Star Centric",
-                    null,
-                    movingTrackFrameOverlay));
-            report.println(buildSkyOrientationImageTileHtml(
-                    shapeFileName,
-                    "Track Shape Map",
-                    "Track Shape Map",
-                    null,
-                    movingTrackFrameOverlay));
-            report.println("</div>");
-
-            report.println("<div style='margin-bottom: 20px;'>");
-            report.println("<strong style='color: #ccc;'>Pixel Evolution (Tight Crops):</strong>");
-            report.println("<div style='display: flex; flex-wrap: wrap; gap: 10px; margin-top: 8px; align-items: flex-end;'>");
-
-            StringBuilder shapeEvolutionHtml = new StringBuilder();
-            shapeEvolutionHtml.append("<div style='margin-bottom: 20px;'>\n");
-            shapeEvolutionHtml.append("<strong style='color: #ccc;'>Shape Evolution (Detected Pixels):</strong>\n");
-            shapeEvolutionHtml.append("<div style='display: flex; flex-wrap: wrap; gap: 10px; margin-top: 8px; align-items: flex-end;'>\n");
-
-            for (int i = 0; i < track.points.size(); i++) {
-                SourceExtractor.DetectedObject point = track.points.get(i);
-                double objectRadius = TrackCropGeometry.computeBoundingFootprintRadius(point);
-                int tightCropSize = TrackCropGeometry.computeSquareCropSize(objectRadius, 50, 24);
-                short[][] tightCropData = TrackVisualizationRenderer.robustEdgeAwareCrop(
-                        context.rawFrames.get(point.sourceFrameIndex),
-                        (int) Math.round(point.x),
-                        (int) Math.round(point.y),
-                        tightCropSize,
-                        tightCropSize);
-                BufferedImage tightImage = TrackVisualizationRenderer.createDisplayImage(tightCropData, context.settings);
-                String tightFileName = "moving_track_" + counter + "_pt_" + (i + 1) + "_tight.png";
-                TrackVisualizationRenderer.saveLosslessPng(tightImage, new File(context.exportDir, tightFileName));
-                report.println("<div><a href='" + tightFileName + "' target='_blank'><img src='" + tightFileName + "' alt='Pt " + (i + 1) + "' style='max-width: none; min-width: 50px;' /></a><br/><center><small>[" + (i + 1) + "]</small></center></div>");
-
-                int startX = (int) Math.round(point.x) - (tightCropSize / 2);
-                int startY = (int) Math.round(point.y) - (tightCropSize / 2);
-                BufferedImage tightShapeImage = TrackVisualizationRenderer.createSingleStreakShapeImage(
-                        Collections.singletonList(point),
-                        tightCropSize,
-                        tightCropSize,
-                        startX,
-                        startY,
-                        false);
-                String tightShapeFileName = "moving_track_" + counter + "_pt_" + (i + 1) + "_shape.png";
-                TrackVisualizationRenderer.saveLosslessPng(tightShapeImage, new File(context.exportDir, tightShapeFileName));
-
-                shapeEvolutionHtml.append("<div><a href='")
-                        .append(tightShapeFileName)
-                        .append("' target='_blank'><img src='")
-                        .append(tightShapeFileName)
-                        .append("' alt='Shape ")
-                        .append(i + 1)
-                        .append("' style='max-width: none; min-width: 50px;' /></a><br/><center><small>[")
-                        .append(i + 1)
-                        .append("]</small></center></div>\n");
-            }
-            report.println("</div></div>");
+        String shapeFileName = "moving_track_" + counter + "_shape.png";
+        BufferedImage shapeImage = TrackVisualizationRenderer.createTrackShapeImage(
+                track,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight,
+                cropBounds.startX,
+                cropBounds.startY);
+        TrackVisualizationRenderer.saveLosslessPng(shapeImage, new File(context.exportDir, shapeFileName));
+
+        double[] meanCenter = computeTrackMeanPixelCenter(track);
+        SkyOrientationOverlay movingObjectOverlay = meanCenter != null
+                ? buildSkyOrientationOverlay(
+                context.astrometryContext,
+                meanCenter[0],
+                meanCenter[1],
+                context.settings.getTrackObjectCentricCropSize(),
+                context.settings.getTrackObjectCentricCropSize())
+                : null;
+        SkyOrientationOverlay movingTrackFrameOverlay = buildSkyOrientationOverlay(
+                context.astrometryContext,
+                cropBounds.fixedCenterX,
+                cropBounds.fixedCenterY,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight);
+
+        report.println("<div class='detection-card'>");
+        String timeBadge = track.isTimeBasedTrack ? " <span style='background: #005c99; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>⏱ Time-Based Kinematics</span>" : "";
+        report.println("<div class='detection-title'>Moving Target Track T" + counter + timeBadge + "</div>");
+        report.print(DetectionReportGenerator.buildTrackTimingSummaryHtml(track, context.astrometryContext));
+
+        report.println("<div class='image-container'>");
+        report.println(buildSkyOrientationImageTileHtml(
+                objectFileName,
+                "Object Centric",
+                "Object Centric",
+                null,
+                movingObjectOverlay));
+        report.println(buildSkyOrientationImageTileHtml(
+                starFileName,
+                "Star Centric",
+                "Star Centric",
+                null,
+                movingTrackFrameOverlay));
+        report.println(buildSkyOrientationImageTileHtml(
+                shapeFileName,
+                "Track Shape Map",
+                "Track Shape Map",
+                null,
+                movingTrackFrameOverlay));
+        report.println("</div>");
+
+        report.println("<div style='margin-bottom: 20px;'>");
+        report.println("<strong style='color: #ccc;'>Pixel Evolution (Tight Crops):</strong>");
+        report.println("<div style='display: flex; flex-wrap: wrap; gap: 10px; margin-top: 8px; align-items: flex-end;'>");
+
+        StringBuilder shapeEvolutionHtml = new StringBuilder();
+        shapeEvolutionHtml.append("<div style='margin-bottom: 20px;'>\n");
+        shapeEvolutionHtml.append("<strong style='color: #ccc;'>Shape Evolution (Detected Pixels):</strong>\n");
+        shapeEvolutionHtml.append("<div style='display: flex; flex-wrap: wrap; gap: 10px; margin-top: 8px; align-items: flex-end;'>\n");
 
-            shapeEvolutionHtml.append("</div></div>\n");
-            report.print(shapeEvolutionHtml.toString());
+        for (int i = 0; i < track.points.size(); i++) {
+            SourceExtractor.DetectedObject point = track.points.get(i);
+            double objectRadius = TrackCropGeometry.computeBoundingFootprintRadius(point);
+            int tightCropSize = TrackCropGeometry.computeSquareCropSize(objectRadius, 50, 24);
+            BufferedImage tightImage = TrackVisualizationRenderer.createCroppedDisplayImage(
+                    context.rawFrames.get(point.sourceFrameIndex),
+                    (int) Math.round(point.x),
+                    (int) Math.round(point.y),
+                    tightCropSize,
+                    tightCropSize,
+                    context.settings);
+            String tightFileName = "moving_track_" + counter + "_pt_" + (i + 1) + "_tight.png";
+            TrackVisualizationRenderer.saveLosslessPng(tightImage, new File(context.exportDir, tightFileName));
+            report.println("<div><a href='" + tightFileName + "' target='_blank'><img src='" + tightFileName + "' alt='Pt " + (i + 1) + "' style='max-width: none; min-width: 50px;' /></a><br/><center><small>[" + (i + 1) + "]</small></center></div>");
 
-            report.println(buildFoldableStreakDetailsHtml(
-                    "Show detection coordinates & frames (" + track.points.size() + ")",
-                    "Detection Coordinates & Frames",
-                    buildMovingTrackPointEntriesHtml(track, context.astrometryContext)));
-            report.print(DetectionReportAstrometry.buildMovingTrackSolarSystemIdentificationHtml(
-                    context.astrometryContext,
-                    track,
-                    "moving-track-jpl-" + counter,
-                    String.format(Locale.US, "jpl_track_%02d", counter)));
-            report.println("</div>");
-            counter++;
+            int startX = (int) Math.round(point.x) - (tightCropSize / 2);
+            int startY = (int) Math.round(point.y) - (tightCropSize / 2);
+            BufferedImage tightShapeImage = TrackVisualizationRenderer.createSingleStreakShapeImage(
+                    Collections.singletonList(point),
+                    tightCropSize,
+                    tightCropSize,
+                    startX,
+                    startY,
+                    false);
+            String tightShapeFileName = "moving_track_" + counter + "_pt_" + (i + 1) + "_shape.png";
+            TrackVisualizationRenderer.saveLosslessPng(tightShapeImage, new File(context.exportDir, tightShapeFileName));
+
+            shapeEvolutionHtml.append("<div><a href='")
+                    .append(tightShapeFileName)
+                    .append("' target='_blank'><img src='")
+                    .append(tightShapeFileName)
+                    .append("' alt='Shape ")
+                    .append(i + 1)
+                    .append("' style='max-width: none; min-width: 50px;' /></a><br/><center><small>[")
+                    .append(i + 1)
+                    .append("]</small></center></div>\n");
         }
+        report.println("</div></div>");
+
+        shapeEvolutionHtml.append("</div></div>\n");
+        report.print(shapeEvolutionHtml.toString());
+
+        report.println(buildFoldableStreakDetailsHtml(
+                "Show detection coordinates & frames (" + track.points.size() + ")",
+                "Detection Coordinates & Frames",
+                buildMovingTrackPointEntriesHtml(track, context.astrometryContext)));
+        report.print(DetectionReportAstrometry.buildMovingTrackSolarSystemIdentificationHtml(
+                context.astrometryContext,
+                track,
+                "moving-track-jpl-" + counter,
+                String.format(Locale.US, "jpl_track_%02d", counter)));
+        report.println("</div>");
     }
 
     private static void writeAnomalies(PrintWriter report,
                                        DetectionReportContext context) throws IOException {
         report.println("<h3 style='color: #ff3333; margin-top: 30px; border-bottom: 1px solid #444; padding-bottom: 5px;'>Single-Frame Anomalies (Optical Flashes)</h3>");
         report.println("<div class='astro-note' style='margin-bottom: 15px;'>Ordered by source frame index. If multiple anomalies land on the same frame, peak-sigma rescues are shown before integrated-sigma rescues.</div>");
+        ReportRenderExecutor.OrderedFragments cards = context.renderExecutor.newFragments(report);
         int counter = 1;
         for (TrackLinker.AnomalyDetection anomaly : context.anomalies) {
-            SourceExtractor.DetectedObject point = anomaly.object;
-            TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(point, context.settings.getTrackCropPadding());
-            int frameIndex = point.sourceFrameIndex;
-
-            report.println("<div class='detection-card streak-title' style='border-left-color: #ff3333; color: #ff3333;'>");
-            report.println("<div class='detection-title' style='color: #ff3333;'>Anomaly Event A" + counter + " <span style='background: #7a1f50; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>" + DetectionReportGenerator.escapeHtml(formatAnomalyTypeLabel(anomaly.type).replace("Rescue Type: ", "")) + "</span></div>");
+            int cardNumber = counter;
+            cards.add(card -> writeAnomalyCard(card, context, anomaly, cardNumber));
+            counter++;
+        }
+        cards.finish();
+    }
 
-            BufferedImage detectionImage = TrackVisualizationRenderer.createCroppedDisplayImage(
-                    context.rawFrames.get(frameIndex),
+    private static void writeAnomalyCard(PrintWriter report,
+                                         DetectionReportContext context,
+                                         TrackLinker.AnomalyDetection anomaly,
+                                         int counter) throws IOException {
+        SourceExtractor.DetectedObject point = anomaly.object;
+        TrackCropGeometry.CropBounds cropBounds = new TrackCropGeometry.CropBounds(point, context.settings.getTrackCropPadding());
+        int frameIndex = point.sourceFrameIndex;
+
+        report.println("<div class='detection-card streak-title' style='border-left-color: #ff3333; color: #ff3333;'>");
+        report.println("<div class='detection-title' style='color: #ff3333;'>Anomaly Event A" + counter + " <span style='background: #7a1f50; color: white; font-size: 0.7em; padding: 3px 8px; border-radius: 5px; margin-left: 10px; vertical-align: middle;'>" + DetectionReportGenerator.escapeHtml(formatAnomalyTypeLabel(anomaly.type).replace("Rescue Type: ", "")) + "</span></div>");
+
+        BufferedImage detectionImage = TrackVisualizationRenderer.createCroppedDisplayImage(
+                context.rawFrames.get(frameIndex),
+                cropBounds.fixedCenterX,
+                cropBounds.fixedCenterY,
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight,
+                context.settings);
+        String detectionFileName = "anomaly_" + counter + "_detection.png";
+        TrackVisualizationRenderer.saveLosslessPng(detectionImage, new File(context.exportDir, detectionFileName));
+
+        String shapeFileName = "anomaly_" + counter + "_shape.png";
+        BufferedImage shapeImage = TrackVisualizationRenderer.createSingleStreakShapeImage(
+                Collections.singletonList(point),
+                cropBounds.trackBoxWidth,
+                cropBounds.trackBoxHeight,
+                cropBounds.startX,
+                cropBounds.startY,
+                false);
+        TrackVisualizationRenderer.saveLosslessPng(shapeImage, new File(context.exportDir, shapeFileName));
+
+        String maskFileName = null;
+        DetectionReportGenerator.MaskOverlapStats maskOverlapStats = new DetectionReportGenerator.MaskOverlapStats(0, 0);
+        if (context.masterStackData != null && context.masterVetoMask != null) {
+            BufferedImage maskOverlayImage = DetectionReportGenerator.createCroppedMaskOverlay(
+                    context.masterStackData,
+                    context.masterVetoMask,
                     cropBounds.fixedCenterX,
                     cropBounds.fixedCenterY,
                     cropBounds.trackBoxWidth,
                     cropBounds.trackBoxHeight,
+                    point,
+                    new Color(255, 32, 32),
                     context.settings);
-            String detectionFileName = "anomaly_" + counter + "_detection.png";
-            TrackVisualizationRenderer.saveLosslessPng(detectionImage, new File(context.exportDir, detectionFileName));
-
-            String shapeFileName = "anomaly_" + counter + "_shape.png";
-            BufferedImage shapeImage = TrackVisualizationRenderer.createSingleStreakShapeImage(
-                    Collections.singletonList(point),
-                    cropBounds.trackBoxWidth,
-                    cropBounds.trackBoxHeight,
-                    cropBounds.startX,
-                    cropBounds.startY,
-                    false);
-            TrackVisualizationRenderer.saveLosslessPng(shapeImage, new File(context.exportDir, shapeFileName));
-
-            String maskFileName = null;
-            DetectionReportGenerator.MaskOverlapStats maskOverlapStats = new DetectionReportGenerator.MaskOverlapStats(0, 0);
-            if (context.masterStackData != null && context.masterVetoMask != null) {
-                BufferedImage maskOverlayImage = DetectionReportGenerator.createCroppedMaskOverlay(
-                        context.masterStackData,
-                        context.masterVetoMask,
-                        cropBounds.fixedCenterX,
-                        cropBounds.fixedCenterY,
-                        cropBounds.trackBoxWidth,
-                        cropBounds.trackBoxHeight,
-                        point,
-                        new Color(255, 32, 32),
-                        context.settings);
-                maskFileName = "anomaly_" + counter + "_master_mask.png";
-                TrackVisualizationRenderer.saveLosslessPng(maskOverlayImage, new File(context.exportDir, maskFileName));
-                maskOverlapStats = DetectionReportGenerator.computeMaskOverlapStats(
-                        point,
-                        context.masterVetoMask,
-                        context.masterStackData[0].length,
-                        context.masterStackData.length);
-            }
+            maskFileName = "anomaly_" + counter + "_master_mask.png";
+            TrackVisualizationRenderer.saveLosslessPng(maskOverlayImage, new File(context.exportDir, maskFileName));
+            maskOverlapStats = DetectionReportGenerator.computeMaskOverlapStats(
+                    point,
+                    context.masterVetoMask,
+                    context.masterStackData[0].length,
+                    context.masterStackData.length);
+        }
 
-            String contextGifFileName = "anomaly_" + counter + "_context.gif";
-            List<BufferedImage> contextFrames = new ArrayList<>();
-            int[] frameSequence = {frameIndex - 1, frameIndex, frameIndex + 1};
+        String contextGifFileName = "anomaly_" + counter + "_context.gif";
+        int[] frameSequence = {frameIndex - 1, frameIndex, frameIndex + 1};
+        try (StreamingGifWriter contextGif = TrackVisualizationRenderer.openAnimatedGif(new File(context.exportDir, contextGifFileName), context.settings)) {
             for (int index : frameSequence) {
                 if (index >= 0 && index < context.rawFrames.size()) {
-                    contextFrames.add(TrackVisualizationRenderer.createStarCentricHighlightedFrame(
+                    contextGif.append(TrackVisualizationRenderer.createStarCentricHighlightedFrame(
                             context.rawFrames.get(index),
                             cropBounds,
                             point,
@@ -507,39 +554,37 @@ final class TargetVisualizationSectionWriter {
                             false));
                 }
             }
-            TrackVisualizationRenderer.saveAnimatedGif(contextFrames, new File(context.exportDir, contextGifFileName), context.settings);
+        }
 
-            report.println("<div class='image-container'>");
-            report.println("<div><a href='" + detectionFileName + "' target='_blank'><img src='" + detectionFileName + "' alt='Detection Image' /></a><br/><center><small>Detection Image</small></center></div>");
-            report.println("<div><a href='" + shapeFileName + "' target='_blank'><img src='" + shapeFileName + "' alt='Shape Footprint' /></a><br/><center><small>Shape Footprint Map</small></center></div>");
-            if (maskFileName != null) {
-                report.println("<div><a href='" + maskFileName + "' target='_blank'><img src='" + maskFileName + "' alt='Master Veto Mask' /></a><br/><center><small>Master Veto Mask</small></center></div>");
-            }
-            report.println("<div><a href='" + contextGifFileName + "' target='_blank'><img src='" + contextGifFileName + "' alt='Anomaly Context' /></a><br/><center><small>Context (Before / Flash / After)</small></center></div>");
-            report.println("</div>");
-
-            String metricsText = buildAnomalyMetricsText(anomaly);
-            String overlapColor = "#aaaaaa";
-            String overlapAssessment = "n/a";
-            if (maskOverlapStats.totalPixels > 0) {
-                if (maskOverlapStats.fraction > context.config.maxMaskOverlapFraction) {
-                    overlapColor = "#ff6b6b";
-                    overlapAssessment = "above configured limit";
-                } else if (maskOverlapStats.fraction > context.config.maxMaskOverlapFraction * 0.8) {
-                    overlapColor = "#ffcc66";
-                    overlapAssessment = "near configured limit";
-                } else {
-                    overlapColor = "#66d9a3";
-                    overlapAssessment = "comfortably below limit";
-                }
-            }
-            report.println("<strong>Detection Coordinate:</strong><ul class='source-list'>" + DetectionReportAstrometry.buildSourceCoordinateListEntry(point.sourceFilename, context.astrometryContext, point.x, point.y, metricsText) + "</ul>");
-            if (maskOverlapStats.totalPixels > 0) {
-                report.println("<div style='font-family: monospace; font-size: 12px; color: #aaa;'>Veto-mask overlap: <span style='color:" + overlapColor + "; font-weight: bold;'>" + String.format(Locale.US, "%.1f%%", maskOverlapStats.fraction * 100.0) + "</span> (" + maskOverlapStats.overlappingPixels + " / " + maskOverlapStats.totalPixels + " detection pixels) | Limit: " + String.format(Locale.US, "%.1f%%", context.config.maxMaskOverlapFraction * 100.0) + " <span style='color:" + overlapColor + ";'>[" + overlapAssessment + "]</span></div>");
+        report.println("<div class='image-container'>");
+        report.println("<div><a href='" + detectionFileName + "' target='_blank'><img src='" + detectionFileName + "' alt='Detection Image' /></a><br/><center><small>Detection Image</small></center></div>");
+        report.println("<div><a href='" + shapeFileName + "' target='_blank'><img src='" + shapeFileName + "' alt='Shape Footprint' /></a><br/><center><small>Shape Footprint Map</small></center></div>");
+        if (maskFileName != null) {
+            report.println("<div><a href='" + maskFileName + "' target='_blank'><img src='" + maskFileName + "' alt='Master Veto Mask' /></a><br/><center><small>Master Veto Mask</small></center></div>");
+        }
+        report.println("<div><a href='" + contextGifFileName + "' target='_blank'><img src='" + contextGifFileName + "' alt='Anomaly Context' /></a><br/><center><small>Context (Before / Flash / After)</small></center></div>");
+        report.println("</div>");
+
+        String metricsText = buildAnomalyMetricsText(anomaly);
+        String overlapColor = "#aaaaaa";
+        String overlapAssessment = "n/a";
+        if (maskOverlapStats.totalPixels > 0) {
+            if (maskOverlapStats.fraction > context.config.maxMaskOverlapFraction) {
+                overlapColor = "#ff6b6b";
+                overlapAssessment = "above configured limit";
+            } else if (maskOverlapStats.fraction > context.config.maxMaskOverlapFraction * 0.8) {
+                overlapColor = "#ffcc66";
+                overlapAssessment = "near configured limit";
+            } else {
+                overlapColor = "#66d9a3";
+                overlapAssessment = "comfortably below limit";
             }
-            report.println("</div>");
-            counter++;
         }
+        report.println("<strong>Detection Coordinate:</strong><ul class='source-list'>" + DetectionReportAstrometry.buildSourceCoordinateListEntry(point.sourceFilename, context.astrometryContext, point.x, point.y, metricsText) + "</ul>");
+        if (maskOverlapStats.totalPixels > 0) {
+            report.println("<div style='font-family: monospace; font-size: 12px; color: #aaa;'>Veto-mask overlap: <span style='color:" + overlapColor + "; font-weight: bold;'>" + String.format(Locale.US, "%.1f%%", maskOverlapStats.fraction * 100.0) + "</span> (" + maskOverlapStats.overlappingPixels + " / " + maskOverlapStats.totalPixels + " detection pixels) | Limit: " + String.format(Locale.US, "%.1f%%", context.config.maxMaskOverlapFraction * 100.0) + " <span style='color:" + overlapColor + ";'>[" + overlapAssessment + "]</span></div>");
+        }
+        report.println("</div>");
     }
 
     private static String buildStreakMetricsText(SourceExtractor.DetectedObject detection) {
@@ -11,6 +11,8 @@
 package eu.startales.spacepixels.util.reporting;
 
 import eu.startales.spacepixels.util.DisplayImageRenderer;
+import eu.startales.spacepixels.util.FrameBuffer;
+import eu.startales.spacepixels.util.PipelineMetrics;
 import io.github.ppissias.jtransient.core.SourceExtractor;
 import io.github.ppissias.jtransient.core.TrackLinker;
 
@@ -41,15 +43,27 @@ final class TrackVisualizationRenderer {
                 settings.getAutoStretchWhiteSigma());
     }
 
+    static BufferedImage createDisplayImage(FrameBuffer imageData, ExportVisualizationSettings settings) {
+        return DisplayImageRenderer.createDisplayImage(
+                imageData,
+                settings.getAutoStretchBlackSigma(),
+                settings.getAutoStretchWhiteSigma());
+    }
+
     static void saveLosslessPng(BufferedImage image, File outputFile) throws IOException {
         if (image == null) {
             System.err.println("Warning: Attempted to save a null image. Skipping.");
             return;
         }
 
-        boolean success = ImageIO.write(image, "png", outputFile);
-        if (!success) {
-            throw new IOException("No appropriate PNG writer found in ImageIO.");
+        try (PipelineMetrics.Timer encode = PipelineMetrics.startCurrent(PipelineMetrics.PNG_ENCODE)) {
+            boolean success = ImageIO.write(image, "png", outputFile);
+            if (!success) {
+                throw new IOException("No appropriate PNG writer found in ImageIO.");
+            }
+            if (encode != null) {
+                encode.addCount(1).addBytes(outputFile.length());
+            }
         }
     }
 
@@ -57,6 +71,14 @@ final class TrackVisualizationRenderer {
         GifSequenceWriter.saveAnimatedGif(frames, outputFile, settings.getGifBlinkSpeedMs());
     }
 
+    /**
+     * Opens an animation that encodes frames as they are appended, so long tracks never hold all of
+     * their crops at once.
+     */
+    static StreamingGifWriter openAnimatedGif(File outputFile, ExportVisualizationSettings settings) {
+        return StreamingGifWriter.open(outputFile, settings.getGifBlinkSpeedMs());
+    }
+
     static short[][] robustEdgeAwareCrop(short[][] fullImage, int cx, int cy, int cropWidth, int cropHeight) {
         int halfWidth = cropWidth / 2;
         int halfHeight = cropHeight / 2;
@@ -86,8 +108,7 @@ final class TrackVisualizationRenderer {
                                                    int cropWidth,
                                                    int cropHeight,
                                                    ExportVisualizationSettings settings) {
-        short[][] croppedData = robustEdgeAwareCrop(fullImage, cx, cy, cropWidth, cropHeight);
-        return createDisplayImage(croppedData, settings);
+        return createDisplayImage(FrameBuffer.paddedCrop(fullImage, cx, cy, cropWidth, cropHeight), settings);
     }
 
     static BufferedImage createStarCentricHighlightedFrame(short[][] rawImage,
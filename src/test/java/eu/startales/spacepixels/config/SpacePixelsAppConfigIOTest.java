@@ -23,6 +23,8 @@ public class SpacePixelsAppConfigIOTest {
         appConfig.siteLong = "23.7275";
         appConfig.pixelSize = "3.76";
         appConfig.focalLength = "800";
+        appConfig.frameLoadingThreads = 6;
+        appConfig.frameLoadingMaxInFlight = 12;
 
         StringWriter writer = new StringWriter();
         SpacePixelsAppConfigIO.write(writer, appConfig);
@@ -37,5 +39,7 @@ public class SpacePixelsAppConfigIOTest {
         assertEquals(appConfig.siteLong, loadedConfig.siteLong);
         assertEquals(appConfig.pixelSize, loadedConfig.pixelSize);
         assertEquals(appConfig.focalLength, loadedConfig.focalLength);
+        assertEquals(appConfig.frameLoadingThreads, loadedConfig.frameLoadingThreads);
+        assertEquals(appConfig.frameLoadingMaxInFlight, loadedConfig.frameLoadingMaxInFlight);
     }
 }
@@ -1,5 +1,6 @@
 package eu.startales.spacepixels.config;
 
+import eu.startales.spacepixels.util.BlinkFrameWindow;
 import eu.startales.spacepixels.util.DisplayImageRenderer;
 import eu.startales.spacepixels.util.RawImageAnnotator;
 import eu.startales.spacepixels.util.reporting.DetectionReportGenerator;
@@ -27,6 +28,7 @@ public class SpacePixelsVisualizationPreferencesIOTest {
         preferences.autoStretchBlackSigma = 0.8d;
         preferences.autoStretchWhiteSigma = 4.4d;
         preferences.gifBlinkSpeedMs = 180;
+        preferences.blinkFrameIntervalMs = 250;
         preferences.trackCropPadding = 160;
         preferences.includeAiCreativeReportSections = true;
 
@@ -44,6 +46,7 @@ public class SpacePixelsVisualizationPreferencesIOTest {
         assertEquals(0.8d, loadedPreferences.autoStretchBlackSigma, 0.0d);
         assertEquals(4.4d, loadedPreferences.autoStretchWhiteSigma, 0.0d);
         assertEquals(180, loadedPreferences.gifBlinkSpeedMs);
+        assertEquals(250, loadedPreferences.blinkFrameIntervalMs);
         assertEquals(160, loadedPreferences.trackCropPadding);
         assertTrue(loadedPreferences.includeAiCreativeReportSections);
     }
@@ -57,6 +60,7 @@ public class SpacePixelsVisualizationPreferencesIOTest {
         double originalAutoStretchBlackSigma = DisplayImageRenderer.autoStretchBlackSigma;
         double originalAutoStretchWhiteSigma = DisplayImageRenderer.autoStretchWhiteSigma;
         int originalGifBlinkSpeedMs = DetectionReportGenerator.gifBlinkSpeedMs;
+        int originalBlinkFrameIntervalMs = BlinkFrameWindow.blinkFrameIntervalMs;
         int originalTrackCropPadding = DetectionReportGenerator.trackCropPadding;
         boolean originalIncludeAiCreativeReportSections = DetectionReportGenerator.includeAiCreativeReportSections;
 
@@ -68,6 +72,7 @@ public class SpacePixelsVisualizationPreferencesIOTest {
         preferences.autoStretchBlackSigma = 0.6d;
         preferences.autoStretchWhiteSigma = 3.8d;
         preferences.gifBlinkSpeedMs = 150;
+        preferences.blinkFrameIntervalMs = 120;
         preferences.trackCropPadding = 140;
         preferences.includeAiCreativeReportSections = true;
 
@@ -81,6 +86,7 @@ public class SpacePixelsVisualizationPreferencesIOTest {
             assertEquals(0.6d, DisplayImageRenderer.autoStretchBlackSigma, 0.0d);
             assertEquals(3.8d, DisplayImageRenderer.autoStretchWhiteSigma, 0.0d);
             assertEquals(150, DetectionReportGenerator.gifBlinkSpeedMs);
+            assertEquals(120, BlinkFrameWindow.blinkFrameIntervalMs);
             assertEquals(140, DetectionReportGenerator.trackCropPadding);
             assertTrue(DetectionReportGenerator.includeAiCreativeReportSections);
         } finally {
@@ -91,6 +97,7 @@ public class SpacePixelsVisualizationPreferencesIOTest {
             DisplayImageRenderer.autoStretchBlackSigma = originalAutoStretchBlackSigma;
             DisplayImageRenderer.autoStretchWhiteSigma = originalAutoStretchWhiteSigma;
             DetectionReportGenerator.gifBlinkSpeedMs = originalGifBlinkSpeedMs;
+            BlinkFrameWindow.blinkFrameIntervalMs = originalBlinkFrameIntervalMs;
             DetectionReportGenerator.trackCropPadding = originalTrackCropPadding;
             DetectionReportGenerator.includeAiCreativeReportSections = originalIncludeAiCreativeReportSections;
         }
@@ -48,7 +48,31 @@ public class BatchDetectionCliTest {
         assertTrue(result.stderr.contains("Expected uncompressed 16-bit monochrome FITS files."));
     }
 
+    @Test
+    public void queueModeRunsEverySessionAndPrintsSummary() throws Exception {
+        Path tempRoot = Files.createTempDirectory("spacepixels-cli-queue");
+        Path firstSequence = SyntheticDatasetFactory.createMono16FitsSequence(tempRoot, "night1", FRAME_COUNT);
+        Path secondSequence = SyntheticDatasetFactory.createMono16FitsSequence(tempRoot, "night2", FRAME_COUNT);
+        Path configFile = SyntheticDatasetFactory.writeDetectionProfile(
+                tempRoot,
+                "profile.json",
+                SyntheticDatasetFactory.createSyntheticDetectionConfig());
+
+        ExecutionResult result = executeCli(
+                "--queue", firstSequence.toString(), secondSequence.toString(), configFile.toString(), "--sessions", "2");
+
+        assertEquals(result.stderr, 0, result.exitCode);
+        assertTrue(result.stdout.contains("Queue summary:"));
+        assertTrue(result.stdout.contains("night1"));
+        assertTrue(result.stdout.contains("night2"));
+        assertTrue(result.stdout.contains("Total: 2 session(s), " + (2 * FRAME_COUNT) + " frame(s)"));
+    }
+
     private static ExecutionResult executeCli(Path inputDirectory, Path configFile) throws Exception {
+        return executeCli(inputDirectory.toString(), configFile.toString());
+    }
+
+    private static ExecutionResult executeCli(String... args) throws Exception {
         ByteArrayOutputStream stdoutBytes = new ByteArrayOutputStream();
         ByteArrayOutputStream stderrBytes = new ByteArrayOutputStream();
         PrintStream stdout = new PrintStream(stdoutBytes, true, StandardCharsets.UTF_8.name());
@@ -59,7 +83,7 @@ public class BatchDetectionCliTest {
         try {
             System.setProperty("user.home", tempUserHome.toString());
             int exitCode = BatchDetectionCli.execute(
-                    new String[]{inputDirectory.toString(), configFile.toString()},
+                    args,
                     stdout,
                     stderr);
             return new ExecutionResult(
@@ -0,0 +1,128 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BatchFileProcessorTest {
+
+    @Test
+    public void progressIsReportedInFileOrderWhileFilesRunConcurrently() throws Exception {
+        File[] files = files(24);
+        List<Integer> reportedIndices = new ArrayList<>();
+        List<Integer> reportedCounts = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        BatchFileProcessor.Report<Integer> report = BatchFileProcessor.process(
+                files,
+                new long[files.length],
+                4,
+                Long.MAX_VALUE,
+                (index, file) -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        // Later files finish first, so completion order differs from file order.
+                        Thread.sleep((files.length - index) % 5 * 3L);
+                        return index * 10;
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                },
+                (completed, total, outcome) -> {
+                    reportedIndices.add(outcome.index);
+                    reportedCounts.add(completed);
+                    assertEquals(files.length, total);
+                });
+
+        for (int i = 0; i < files.length; i++) {
+            assertEquals(i, (int) reportedIndices.get(i));
+            assertEquals(i + 1, (int) reportedCounts.get(i));
+            assertEquals(i * 10, (int) report.getOutcomes().get(i).result);
+        }
+        assertTrue(maxRunning.get() <= 4);
+        assertNull(report.describeFailures());
+    }
+
+    @Test
+    public void memoryBudgetLimitsConcurrentFiles() throws Exception {
+        File[] files = files(12);
+        long[] costs = new long[files.length];
+        Arrays.fill(costs, 40L * BatchFileProcessor.MIB);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        BatchFileProcessor.process(files, costs, 8, 100L * BatchFileProcessor.MIB, (index, file) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5L);
+                return null;
+            } finally {
+                running.decrementAndGet();
+            }
+        }, null);
+
+        assertTrue("at most two 40 MiB files fit a 100 MiB budget, saw " + maxRunning.get(), maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void fileLargerThanTheBudgetStillRunsAlone() throws Exception {
+        File[] files = files(3);
+        long[] costs = {10L * BatchFileProcessor.MIB, 500L * BatchFileProcessor.MIB, 10L * BatchFileProcessor.MIB};
+
+        BatchFileProcessor.Report<String> report = BatchFileProcessor.process(
+                files, costs, 4, 100L * BatchFileProcessor.MIB, (index, file) -> file.getName(), null);
+
+        assertEquals(3, report.getSuccessCount());
+        assertEquals("frame_0.fit", report.firstResult());
+    }
+
+    @Test
+    public void failingFilesAreIsolatedAndReported() throws Exception {
+        File[] files = files(6);
+        List<Boolean> reportedSuccess = new ArrayList<>();
+
+        BatchFileProcessor.Report<Integer> report = BatchFileProcessor.process(
+                files,
+                new long[files.length],
+                3,
+                Long.MAX_VALUE,
+                (index, file) -> {
+                    if (index % 2 == 0) {
+                        throw new IOException("corrupt " + file.getName());
+                    }
+                    return index;
+                },
+                (completed, total, outcome) -> reportedSuccess.add(outcome.succeeded()));
+
+        assertEquals(Arrays.asList(false, true, false, true, false, true), reportedSuccess);
+        assertEquals(3, report.getSuccessCount());
+        assertEquals(3, report.getFailures().size());
+        assertEquals(Integer.valueOf(1), report.firstResult());
+        assertTrue(report.describeFailures().contains("corrupt frame_4.fit"));
+    }
+
+    private static File[] files(int count) {
+        File[] files = new File[count];
+        for (int i = 0; i < count; i++) {
+            files[i] = new File("frame_" + i + ".fit");
+        }
+        return files;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BlinkFrameWindowTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void getRendersOnlyTheFramesAroundTheCurrentIndex() throws Exception {
+        Set<Integer> rendered = Collections.synchronizedSet(new HashSet<>());
+        try (BlinkFrameWindow window = new BlinkFrameWindow(200, 3, 1, (index, reuse) -> {
+            rendered.add(index);
+            return new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        }, executor)) {
+            window.get(0);
+            awaitQuiescence();
+
+            assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3)), rendered);
+            assertEquals(4, window.size());
+        }
+    }
+
+    @Test
+    public void advancingRecyclesImagesOfFramesThatLeftTheWindow() throws Exception {
+        AtomicInteger reused = new AtomicInteger();
+        try (BlinkFrameWindow window = new BlinkFrameWindow(10, 1, 1, (index, reuse) -> {
+            if (reuse != null) {
+                reused.incrementAndGet();
+                return reuse;
+            }
+            return new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        }, executor)) {
+            BufferedImage first = window.get(0);
+            awaitQuiescence();
+            window.get(1);
+            awaitQuiescence();
+            BufferedImage third = window.get(2);
+            awaitQuiescence();
+            window.get(3);
+            awaitQuiescence();
+
+            assertTrue(reused.get() > 0);
+            assertEquals(3, window.size());
+            assertNotSame(first, third);
+        }
+    }
+
+    @Test
+    public void frameShownLastIsNotReusedWhileItIsBehindTheCurrentOne() throws Exception {
+        try (BlinkFrameWindow window = new BlinkFrameWindow(6, 1, 1, (index, reuse) ->
+                reuse != null ? reuse : new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB), executor)) {
+            BufferedImage shown = window.get(0);
+            awaitQuiescence();
+            BufferedImage next = window.get(1);
+            awaitQuiescence();
+
+            assertNotSame(shown, next);
+            assertSame(shown, window.get(0));
+        }
+    }
+
+    @Test
+    public void isInWindowWrapsAroundTheSequence() {
+        assertTrue(BlinkFrameWindow.isInWindow(0, 9, 10, 2, 1));
+        assertTrue(BlinkFrameWindow.isInWindow(9, 0, 10, 2, 1));
+        assertFalse(BlinkFrameWindow.isInWindow(8, 0, 10, 2, 1));
+        assertFalse(BlinkFrameWindow.isInWindow(3, 0, 10, 2, 1));
+    }
+
+    @Test
+    public void nextFrameDeadlineKeepsCadenceAndResynchronizesAfterStalls() {
+        long interval = 500L;
+
+        assertEquals(1500L, BlinkFrameWindow.nextFrameDeadline(1000L, 1003L, interval));
+        assertEquals(1500L, BlinkFrameWindow.nextFrameDeadline(1000L, 1499L, interval));
+        assertEquals(2700L, BlinkFrameWindow.nextFrameDeadline(1000L, 2200L, interval));
+    }
+
+    private void awaitQuiescence() throws Exception {
+        // The executor runs tasks in order, so an empty task finishing means every prefetch has.
+        executor.submit(() -> {
+        }).get();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CaptureFolderWatcherTest {
+
+    private static final int WIDTH = 4;
+    private static final int HEIGHT = 3;
+
+    @Test
+    public void reportsFileOnlyAfterItIsStableAndComplete() throws Exception {
+        Path directory = Files.createTempDirectory("spacepixels-watch");
+        byte[] complete = mono16Fits(WIDTH, HEIGHT);
+        Path frame = directory.resolve("frame_001.fit");
+        // Header plus half of the data unit, as seen while capture software is still writing.
+        Files.write(frame, Arrays.copyOf(complete, 2880 + WIDTH * HEIGHT));
+
+        CaptureFolderWatcher watcher = new CaptureFolderWatcher(directory.toFile());
+        assertTrue(watcher.poll().isEmpty());
+        assertTrue(watcher.lastPollSawWrites());
+        // Unchanged but truncated: still not reported.
+        assertTrue(watcher.poll().isEmpty());
+        assertFalse(watcher.lastPollSawWrites());
+
+        Files.write(frame, complete);
+        assertTrue(watcher.poll().isEmpty());
+
+        List<File> ready = watcher.poll();
+        assertEquals(Collections.singletonList(frame.toFile()), ready);
+        assertTrue("Delivered files are reported once", watcher.poll().isEmpty());
+    }
+
+    @Test
+    public void ignoresNonFitsAndHiddenFiles() throws Exception {
+        Path directory = Files.createTempDirectory("spacepixels-watch");
+        Files.write(directory.resolve("notes.txt"), "x".getBytes(StandardCharsets.US_ASCII));
+        Files.write(directory.resolve(".frame_002.fit"), mono16Fits(WIDTH, HEIGHT));
+        Files.write(directory.resolve("frame_003.FITS"), mono16Fits(WIDTH, HEIGHT));
+        Files.write(directory.resolve("frame_004.fits.fz"), mono16Fits(WIDTH, HEIGHT));
+
+        CaptureFolderWatcher watcher = new CaptureFolderWatcher(directory.toFile());
+        watcher.poll();
+        List<File> ready = watcher.poll();
+
+        assertEquals(2, ready.size());
+        assertEquals("frame_003.FITS", ready.get(0).getName());
+        assertEquals("frame_004.fits.fz", ready.get(1).getName());
+    }
+
+    @Test
+    public void hasCompleteDataUnitComparesAgainstAnnouncedSize() throws Exception {
+        File file = Files.createTempFile("spacepixels-watch", ".fit").toFile();
+        byte[] fits = mono16Fits(WIDTH, HEIGHT);
+        Files.write(file.toPath(), fits);
+
+        assertTrue(CaptureFolderWatcher.hasCompleteDataUnit(file, 2880 + 2 * WIDTH * HEIGHT));
+        assertFalse(CaptureFolderWatcher.hasCompleteDataUnit(file, 2880 + 2 * WIDTH * HEIGHT - 1));
+    }
+
+    static byte[] mono16Fits(int width, int height) {
+        String[] cards = {
+                "SIMPLE  =                    T",
+                "BITPIX  =                   16",
+                "NAXIS   =                    2",
+                "NAXIS1  = " + String.format("%20d", width),
+                "NAXIS2  = " + String.format("%20d", height),
+                "END"
+        };
+        int dataBytes = 2 * width * height;
+        int dataBlocks = (dataBytes + 2879) / 2880;
+        byte[] fits = new byte[2880 * (1 + dataBlocks)];
+        Arrays.fill(fits, 0, 2880, (byte) ' ');
+        for (int i = 0; i < cards.length; i++) {
+            byte[] card = cards[i].getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(card, 0, fits, i * 80, card.length);
+        }
+        for (int i = 0; i < dataBytes; i++) {
+            fits[2880 + i] = (byte) i;
+        }
+        return fits;
+    }
+}
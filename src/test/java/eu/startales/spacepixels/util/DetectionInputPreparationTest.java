@@ -10,6 +10,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -69,6 +70,95 @@ public class DetectionInputPreparationTest {
         assertDetectionReadyDirectory(preparedDirectory.getPreparedInputDirectory(), FRAME_COUNT);
     }
 
+    @Test
+    public void prepareFrameSourceReadsReadyMono16FitsAsStored() throws Exception {
+        Path tempRoot = Files.createTempDirectory("spacepixels-source-mono");
+        Path sequenceDirectory = SyntheticDatasetFactory.createMono16FitsSequence(tempRoot, "mono16", FRAME_COUNT);
+
+        DetectionInputPreparation.PreparedFrameSource preparedInput =
+                DetectionInputPreparation.prepareFrameSource(sequenceDirectory.toFile(), true, null);
+
+        assertFalse(preparedInput.isNormalizedOnTheFly());
+        assertTrue(preparedInput.getFrameSource().isDetectionReady());
+        assertEquals(sequenceDirectory.toFile(), preparedInput.getInputDirectory());
+    }
+
+    @Test
+    public void prepareFrameSourceNormalizesFloatMonoFitsLikePreparedDirectory() throws Exception {
+        Path tempRoot = Files.createTempDirectory("spacepixels-source-float");
+        Path sequenceDirectory = SyntheticDatasetFactory.createMono32FloatFitsSequence(tempRoot, "float32mono", FRAME_COUNT);
+
+        assertFrameSourceMatchesPreparedDirectory(sequenceDirectory);
+    }
+
+    @Test
+    public void prepareFrameSourceNormalizesColorFitsLikePreparedDirectory() throws Exception {
+        Path tempRoot = Files.createTempDirectory("spacepixels-source-color");
+        Path sequenceDirectory = SyntheticDatasetFactory.createColor16FitsSequence(tempRoot, "color16", FRAME_COUNT);
+
+        assertFrameSourceMatchesPreparedDirectory(sequenceDirectory);
+    }
+
+    @Test
+    public void prepareFrameSourceDecodesXisfLikePreparedDirectory() throws Exception {
+        Path tempRoot = Files.createTempDirectory("spacepixels-source-xisf");
+        Path sequenceDirectory = SyntheticDatasetFactory.createGrayFloatXisfSequence(tempRoot, "xisf", FRAME_COUNT);
+
+        assertFrameSourceMatchesPreparedDirectory(sequenceDirectory);
+    }
+
+    @Test
+    public void headlessMetadataLoadsThroughNormalizingFrameSource() throws Exception {
+        Path tempRoot = Files.createTempDirectory("spacepixels-source-metadata");
+        Path sequenceDirectory = SyntheticDatasetFactory.createColor16FitsSequence(tempRoot, "color16", FRAME_COUNT);
+
+        DetectionInputPreparation.PreparedFrameSource preparedInput =
+                DetectionInputPreparation.prepareFrameSource(sequenceDirectory.toFile(), true, null);
+        FitsFileInformation[] filesInfo = ImageProcessing
+                .getInstance(preparedInput.getInputDirectory(), preparedInput.getFrameSource())
+                .getFitsfileInformationHeadless();
+
+        assertEquals(FRAME_COUNT, filesInfo.length);
+        for (FitsFileInformation fileInfo : filesInfo) {
+            assertTrue(fileInfo.isMonochrome());
+            assertEquals(SyntheticDatasetFactory.DEFAULT_WIDTH, fileInfo.getSizeWidth());
+            assertEquals(SyntheticDatasetFactory.DEFAULT_HEIGHT, fileInfo.getSizeHeight());
+            assertEquals("16", fileInfo.getFitsHeader().get("BITPIX"));
+        }
+    }
+
+    /**
+     * Reads every frame through the on-the-fly source, then converts the directory on disk and
+     * checks that both paths produce the same pixels.
+     */
+    private static void assertFrameSourceMatchesPreparedDirectory(Path sequenceDirectory) throws Exception {
+        DetectionInputPreparation.PreparedFrameSource preparedInput =
+                DetectionInputPreparation.prepareFrameSource(sequenceDirectory.toFile(), true, null);
+        assertTrue(preparedInput.isNormalizedOnTheFly());
+        File[] subdirectories = sequenceDirectory.toFile().listFiles(File::isDirectory);
+        assertEquals("No converted copy may be written", 0, subdirectories == null ? 0 : subdirectories.length);
+
+        FrameSource frameSource = preparedInput.getFrameSource();
+        File[] sourceFiles = frameSource.listFrameFiles(sequenceDirectory.toFile());
+        assertEquals(FRAME_COUNT, sourceFiles.length);
+
+        DetectionInputPreparation.PreparedDirectory preparedDirectory =
+                DetectionInputPreparation.prepareInputDirectory(sequenceDirectory.toFile(), true, null);
+        for (File sourceFile : sourceFiles) {
+            FitsFileInformation fileInfo = frameSource.readFrameInformation(sourceFile);
+            short[][] frame = frameSource.readFrame(fileInfo);
+            assertEquals(fileInfo.getSizeHeight(), frame.length);
+            assertEquals(fileInfo.getSizeWidth(), frame[0].length);
+
+            String baseName = sourceFile.getName().substring(0, sourceFile.getName().lastIndexOf('.'));
+            File preparedFile = new File(preparedDirectory.getPreparedInputDirectory(), baseName + ".fit");
+            short[][] expected = FitsFrameReader.readMono16Frame(preparedFile);
+            for (int y = 0; y < expected.length; y++) {
+                assertArrayEquals(expected[y], frame[y]);
+            }
+        }
+    }
+
     private static void assertDetectionReadyDirectory(File directory, int expectedFrameCount) throws Exception {
         assertTrue(directory.isDirectory());
         File[] fitsFiles = directory.listFiles((dir, name) -> {
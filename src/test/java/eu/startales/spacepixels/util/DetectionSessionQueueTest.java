@@ -0,0 +1,164 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DetectionSessionQueueTest {
+
+    private static final int WIDTH = 1024;
+    private static final int HEIGHT = 1024;
+
+    @Test
+    public void estimateUsesFrameGeometryAndCount() throws Exception {
+        Path directory = createSession(Files.createTempDirectory("spacepixels-queue"), "night1", 3);
+
+        DetectionSessionQueue.Estimate estimate = DetectionSessionQueue.estimate(directory.toFile());
+
+        assertEquals(3, estimate.getFrameCount());
+        assertEquals(WIDTH, estimate.getWidth());
+        assertEquals(HEIGHT, estimate.getHeight());
+        long pixels = (long) WIDTH * HEIGHT;
+        assertEquals(pixels * 3 * 2 + pixels * DetectionSessionQueue.STACK_BYTES_PER_PIXEL, estimate.getEstimatedBytes());
+    }
+
+    @Test
+    public void admitsOnlySessionsThatFitTheMemoryBudget() throws Exception {
+        Path root = Files.createTempDirectory("spacepixels-queue");
+        List<File> directories = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            directories.add(createSession(root, "night" + i, 1).toFile());
+        }
+        long sessionMb = DetectionSessionQueue.estimate(directories.get(0)).getEstimatedBytes() / BatchFileProcessor.MIB;
+
+        assertEquals(1, maxConcurrency(new DetectionSessionQueue(3, (int) (sessionMb * 3 / 2)), directories));
+        assertEquals(3, maxConcurrency(new DetectionSessionQueue(3, (int) (sessionMb * 4)), directories));
+        assertEquals(2, maxConcurrency(new DetectionSessionQueue(2, (int) (sessionMb * 4)), directories));
+    }
+
+    @Test
+    public void sessionLargerThanBudgetStillRunsAlone() throws Exception {
+        File directory = createSession(Files.createTempDirectory("spacepixels-queue"), "big", 2).toFile();
+        DetectionSessionQueue queue = new DetectionSessionQueue(2, 1);
+
+        List<DetectionSessionQueue.Outcome<String>> outcomes = queue.run(
+                Collections.singletonList(directory), (index, inputDirectory) -> inputDirectory.getName(), null);
+
+        assertTrue(outcomes.get(0).succeeded());
+        assertEquals("big", outcomes.get(0).getResult());
+    }
+
+    @Test
+    public void failingSessionDoesNotStopTheOthers() throws Exception {
+        Path root = Files.createTempDirectory("spacepixels-queue");
+        List<File> directories = Arrays.asList(
+                createSession(root, "a", 1).toFile(),
+                createSession(root, "b", 1).toFile(),
+                createSession(root, "c", 1).toFile());
+        List<Integer> finishedIndexes = Collections.synchronizedList(new ArrayList<>());
+
+        List<DetectionSessionQueue.Outcome<String>> outcomes = new DetectionSessionQueue(2, 0).run(
+                directories,
+                (index, inputDirectory) -> {
+                    if (index == 1) {
+                        throw new IOException("broken frame");
+                    }
+                    return inputDirectory.getName();
+                },
+                new DetectionSessionQueue.Listener<String>() {
+                    @Override
+                    public void onSessionFinished(int completed, int total, DetectionSessionQueue.Outcome<String> outcome) {
+                        finishedIndexes.add(outcome.getIndex());
+                    }
+                });
+
+        assertEquals(3, outcomes.size());
+        assertEquals("a", outcomes.get(0).getResult());
+        assertFalse(outcomes.get(1).succeeded());
+        assertEquals("broken frame", outcomes.get(1).getFailure().getMessage());
+        assertEquals("c", outcomes.get(2).getResult());
+        assertEquals(3, finishedIndexes.size());
+    }
+
+    @Test(timeout = 60000)
+    public void sessionsLeaveTheIoPoolToTheirNestedWork() throws Exception {
+        Path root = Files.createTempDirectory("spacepixels-queue");
+        List<File> directories = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            directories.add(createSession(root, "night" + i, 1).toFile());
+        }
+
+        // More concurrent sessions than I/O workers, each waiting on a nested I/O task.
+        List<DetectionSessionQueue.Outcome<Boolean>> outcomes = new DetectionSessionQueue(32, 1 << 20).run(
+                directories,
+                (index, inputDirectory) -> !SharedExecutors.isIoWorkerThread()
+                        && SharedExecutors.io().submit(SharedExecutors::isIoWorkerThread).get(30, TimeUnit.SECONDS),
+                null);
+
+        for (DetectionSessionQueue.Outcome<Boolean> outcome : outcomes) {
+            assertTrue(outcome.succeeded());
+            assertTrue(outcome.getResult());
+        }
+    }
+
+    @Test
+    public void resolvesGlobsAndManifestEntries() throws Exception {
+        Path root = Files.createTempDirectory("spacepixels-queue");
+        Files.createDirectories(root.resolve("2026-04-09"));
+        Files.createDirectories(root.resolve("2026-04-08"));
+        Files.createDirectories(root.resolve("calibration"));
+        Path manifest = root.resolve("queue.txt");
+        Files.write(manifest, Arrays.asList("# morning queue", "", "calibration", "2026-04-*"), StandardCharsets.UTF_8);
+
+        List<File> directories = DetectionSessionQueue.resolveInputDirectories(
+                DetectionSessionQueue.readManifest(manifest.toFile()));
+
+        assertEquals(3, directories.size());
+        assertEquals("calibration", directories.get(0).getName());
+        assertEquals("2026-04-08", directories.get(1).getName());
+        assertEquals("2026-04-09", directories.get(2).getName());
+    }
+
+    private static int maxConcurrency(DetectionSessionQueue queue, List<File> directories) throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        queue.run(directories, (index, inputDirectory) -> {
+            int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet(now, Math::max);
+            Thread.sleep(100L);
+            running.decrementAndGet();
+            return null;
+        }, null);
+        return maxRunning.get();
+    }
+
+    private static Path createSession(Path root, String name, int frameCount) throws IOException {
+        Path directory = Files.createDirectories(root.resolve(name));
+        byte[] frame = CaptureFolderWatcherTest.mono16Fits(WIDTH, HEIGHT);
+        for (int i = 0; i < frameCount; i++) {
+            Files.write(directory.resolve(String.format("frame_%03d.fit", i)), frame);
+        }
+        return directory;
+    }
+}
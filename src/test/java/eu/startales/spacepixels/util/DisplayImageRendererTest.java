@@ -0,0 +1,116 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DisplayImageRendererTest {
+
+    @Test
+    public void lookupTablePathMatchesThreePassRenderer() {
+        short[][] frame = createSkyFrame(320, 240, 11L);
+
+        assertSameImage(
+                DisplayImageRenderer.createDisplayImageThreePass(frame, 0.5, 5.0),
+                DisplayImageRenderer.createDisplayImage(frame, 0.5, 5.0));
+    }
+
+    @Test
+    public void smallCropPathMatchesThreePassRenderer() {
+        short[][] crop = createSkyFrame(12, 9, 5L);
+
+        assertSameImage(
+                DisplayImageRenderer.createDisplayImageThreePass(crop, 0.5, 5.0),
+                DisplayImageRenderer.createDisplayImage(crop, 0.5, 5.0));
+    }
+
+    @Test
+    public void flatFrameViewMatchesJaggedRendering() {
+        short[][] frame = createSkyFrame(300, 200, 23L);
+        FrameBuffer view = FrameBuffer.fromRows(frame).crop(40, 30, 200, 150);
+
+        assertSameImage(
+                DisplayImageRenderer.createDisplayImage(view.toRows(), 1.0, 4.0),
+                DisplayImageRenderer.createDisplayImage(view, 1.0, 4.0));
+    }
+
+    @Test
+    public void uniformFrameRendersWithoutDivisionArtifacts() {
+        short[][] frame = new short[64][64];
+
+        assertSameImage(
+                DisplayImageRenderer.createDisplayImageThreePass(frame, 0.5, 5.0),
+                DisplayImageRenderer.createDisplayImage(frame, 0.5, 5.0));
+    }
+
+    @Test
+    public void rowBandPathMatchesThreePassRenderer() {
+        short[][] frame = createSkyFrame(257, 301, 17L);
+        RowBands.setParallelThresholdPixels(1);
+        try {
+            assertSameImage(
+                    DisplayImageRenderer.createDisplayImageThreePass(frame, 0.5, 5.0),
+                    DisplayImageRenderer.createDisplayImage(frame, 0.5, 5.0));
+            assertSameImage(
+                    DisplayImageRenderer.createDisplayImageThreePass(frame, 0.5, 5.0),
+                    DisplayImageRenderer.createDisplayImage(FrameBuffer.fromRows(frame), 0.5, 5.0));
+        } finally {
+            RowBands.setParallelThresholdPixels(0);
+        }
+    }
+
+    @Test
+    public void grayPaletteMatchesDrawingTheGrayImageOntoRgb() {
+        BufferedImage gray = DisplayImageRenderer.createDisplayImage(createSkyFrame(64, 48, 29L));
+        BufferedImage drawn = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = drawn.createGraphics();
+        g2d.drawImage(gray, 0, 0, null);
+        g2d.dispose();
+
+        BufferedImage converted = DisplayImageRenderer.toRgbImage(gray, DisplayImageRenderer.grayPalette());
+
+        for (int y = 0; y < 48; y++) {
+            for (int x = 0; x < 64; x++) {
+                assertEquals(drawn.getRGB(x, y), converted.getRGB(x, y));
+            }
+        }
+    }
+
+    static short[][] createSkyFrame(int width, int height, long seed) {
+        Random random = new Random(seed);
+        short[][] frame = new short[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int value = 1200 + (int) Math.round(random.nextGaussian() * 40.0);
+                if (random.nextInt(500) == 0) {
+                    value += 20000 + random.nextInt(40000);
+                }
+                frame[y][x] = (short) (Math.max(0, Math.min(65535, value)) - 32768);
+            }
+        }
+        return frame;
+    }
+
+    private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals("pixel " + x + "," + y,
+                        expected.getRaster().getSample(x, y, 0),
+                        actual.getRaster().getSample(x, y, 0));
+            }
+        }
+    }
+}
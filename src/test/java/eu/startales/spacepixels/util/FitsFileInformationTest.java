@@ -2,7 +2,13 @@ package eu.startales.spacepixels.util;
 
 import org.junit.Test;
 
+import java.util.Iterator;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class FitsFileInformationTest {
 
@@ -22,4 +28,59 @@ public class FitsFileInformationTest {
 
         assertEquals("Hellas Sky", fileInformation.getLocation());
     }
+
+    @Test
+    public void metadataIsParsedOnceAndReusedUntilTheHeaderChanges() {
+        FitsFileInformation fileInformation = new FitsFileInformation("sample.fit", "sample.fit", true, 100, 100);
+        fileInformation.getFitsHeader().put("DATE-OBS", "'2026-04-08T21:15:30.250'");
+        fileInformation.getFitsHeader().put("EXPTIME", "30.0");
+
+        FrameMetadata first = fileInformation.getMetadata();
+        assertSame(first, fileInformation.getMetadata());
+        assertEquals(1775682930250L, fileInformation.getObservationTimestamp());
+        assertEquals(30000L, fileInformation.getExposureDurationMillis());
+        assertFalse(fileInformation.isWcsSolved());
+
+        fileInformation.getFitsHeader().put("CRVAL1", "10.5");
+        fileInformation.getFitsHeader().put("CTYPE1", "'RA---TAN'");
+        assertTrue(fileInformation.isWcsSolved());
+        assertTrue(first != fileInformation.getMetadata());
+    }
+
+    @Test
+    public void metadataIsRebuiltAfterChangesThroughTheHeaderViews() {
+        FitsFileInformation fileInformation = new FitsFileInformation("sample.fit", "sample.fit", true, 100, 100);
+        fileInformation.getFitsHeader().put("EXPTIME", "30.0");
+        fileInformation.getFitsHeader().put("OBSERVAT", "'Hellas Sky'");
+        assertEquals(30000L, fileInformation.getExposureDurationMillis());
+
+        for (Map.Entry<String, String> card : fileInformation.getFitsHeader().entrySet()) {
+            if ("EXPTIME".equals(card.getKey())) {
+                card.setValue("120");
+            }
+        }
+        assertEquals(120000L, fileInformation.getExposureDurationMillis());
+
+        Iterator<String> keys = fileInformation.getFitsHeader().keySet().iterator();
+        while (keys.hasNext()) {
+            if ("OBSERVAT".equals(keys.next())) {
+                keys.remove();
+            }
+        }
+        assertEquals("N/A", fileInformation.getLocation());
+
+        fileInformation.setSizeWidth(640);
+        assertEquals(640, fileInformation.getMetadata().getWidth());
+    }
+
+    @Test
+    public void headerStringsAreSharedAcrossFrames() {
+        FitsFileInformation first = new FitsFileInformation("a.fit", "a.fit", true, 100, 100);
+        FitsFileInformation second = new FitsFileInformation("b.fit", "b.fit", true, 100, 100);
+        first.getFitsHeader().put(new String("INSTRUME"), new String("'ZWO ASI2600MM Pro'"));
+        second.getFitsHeader().put(new String("INSTRUME"), new String("'ZWO ASI2600MM Pro'"));
+
+        assertSame(first.getFitsHeader().keySet().iterator().next(), second.getFitsHeader().keySet().iterator().next());
+        assertSame(first.getFitsHeader().get("INSTRUME"), second.getFitsHeader().get("INSTRUME"));
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import nom.tam.fits.BasicHDU;
+import nom.tam.fits.Fits;
+import nom.tam.fits.Header;
+import nom.tam.fits.HeaderCard;
+import nom.tam.util.Cursor;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FitsFrameReaderTest {
+
+    @Test
+    public void readMono16FrameMatchesNomTamKernel() throws Exception {
+        Path fitsPath = Files.createTempDirectory("spacepixels-frame-reader").resolve("mono16.fit");
+        short[][] data = new short[7][11];
+        for (int y = 0; y < data.length; y++) {
+            for (int x = 0; x < data[y].length; x++) {
+                data[y][x] = (short) ((y * 4099 + x * 257) - 32768);
+            }
+        }
+        writeFits(fitsPath, data);
+
+        short[][] expected;
+        try (Fits fits = new Fits(fitsPath.toFile())) {
+            expected = (short[][]) ImageProcessing.getImageHDU(fits).getKernel();
+        }
+
+        short[][] actual = FitsFrameReader.readMono16Frame(fitsPath.toFile());
+
+        assertEquals(expected.length, actual.length);
+        for (int y = 0; y < expected.length; y++) {
+            assertArrayEquals(expected[y], actual[y]);
+        }
+    }
+
+    @Test
+    public void readMono16FrameDecodesIntoReusableBufferWhenGeometryMatches() throws Exception {
+        Path fitsPath = Files.createTempDirectory("spacepixels-frame-reader").resolve("mono16.fit");
+        short[][] data = new short[4][5];
+        data[2][3] = 1234;
+        writeFits(fitsPath, data);
+
+        short[][] reuse = new short[4][5];
+        short[][] actual = FitsFrameReader.readMono16Frame(fitsPath.toFile(), reuse);
+
+        assertSame(reuse, actual);
+        assertEquals(1234, actual[2][3]);
+    }
+
+    @Test
+    public void readImageLayoutCollectsSameHeaderValuesAsNomTam() throws Exception {
+        Path fitsPath = Files.createTempDirectory("spacepixels-frame-reader").resolve("mono16.fit");
+        writeFits(fitsPath, new short[3][6]);
+
+        FitsFrameReader.ImageLayout layout = FitsFrameReader.readImageLayout(fitsPath.toFile());
+
+        assertNotNull(layout);
+        assertEquals(16, layout.bitpix);
+        assertArrayEquals(new int[]{3, 6}, layout.axes);
+
+        Map<String, String> expected = new HashMap<>();
+        try (Fits fits = new Fits(fitsPath.toFile())) {
+            Cursor<String, HeaderCard> iter = ImageProcessing.getImageHDU(fits).getHeader().iterator();
+            while (iter.hasNext()) {
+                HeaderCard card = iter.next();
+                expected.put(card.getKey(), card.getValue());
+            }
+        }
+        assertEquals(expected, layout.headerCards);
+    }
+
+    @Test
+    public void readImageLayoutReportsFloatingPointBitpix() throws Exception {
+        Path fitsPath = Files.createTempDirectory("spacepixels-frame-reader").resolve("mono32.fit");
+        writeFits(fitsPath, new float[3][3]);
+
+        FitsFrameReader.ImageLayout layout = FitsFrameReader.readImageLayout(fitsPath.toFile());
+
+        assertNotNull(layout);
+        assertEquals(-32, layout.bitpix);
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void readMono16FrameRejectsNon16BitData() throws Exception {
+        Path fitsPath = Files.createTempDirectory("spacepixels-frame-reader").resolve("mono32.fit");
+        writeFits(fitsPath, new float[3][3]);
+
+        FitsFrameReader.readMono16Frame(fitsPath.toFile());
+    }
+
+    @Test
+    public void readImageLayoutReturnsNullForNonFitsFiles() throws Exception {
+        File file = Files.createTempFile("spacepixels-frame-reader", ".fit").toFile();
+        Files.write(file.toPath(), new byte[2880]);
+
+        assertNull(FitsFrameReader.readImageLayout(file));
+    }
+
+    private static void writeFits(Path targetPath, Object data) throws Exception {
+        try (Fits fits = new Fits()) {
+            BasicHDU<?> hdu = Fits.makeHDU(data);
+            Header header = hdu.getHeader();
+            header.addValue("DATE-OBS", "2026-04-08T00:00:00", null);
+            header.addValue("EXPTIME", 30.0d, "seconds");
+            header.addValue("OBJECT", "it's M31", null);
+            fits.addHDU(hdu);
+            fits.write(targetPath.toFile());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FitsMetadataIndexTest {
+
+    @Test
+    public void savedEntriesAreServedAfterReloadWhileFilesAreUnchanged() throws Exception {
+        Path directory = Files.createTempDirectory("spacepixels-metadata-index");
+        File frame = writeFrame(directory, "frame_001.fit", 2880);
+
+        FitsMetadataIndex index = FitsMetadataIndex.load(directory.toFile());
+        index.put(FitsMetadataIndex.stat(frame), FitsFormatChecker.FitsFormat.MONO_16BIT, createInfo(frame));
+        index.save();
+
+        FitsMetadataIndex reloaded = FitsMetadataIndex.load(directory.toFile());
+        FitsMetadataIndex.Entry entry = reloaded.get(FitsMetadataIndex.stat(frame));
+
+        assertNotNull(entry);
+        assertEquals(FitsFormatChecker.FitsFormat.MONO_16BIT, entry.format);
+        assertTrue(entry.monochrome);
+        assertEquals(640, entry.width);
+        assertEquals(480, entry.height);
+
+        FitsFileInformation info = entry.toFileInformation(frame);
+        assertEquals(frame.getAbsolutePath(), info.getFilePath());
+        assertEquals("'2026-04-08T00:00:00'", info.getFitsHeader().get("DATE-OBS"));
+        assertEquals(30000L, info.getExposureDurationMillis());
+        assertTrue(info.getFitsHeader().containsKey("COMMENT"));
+        assertNull(info.getFitsHeader().get("COMMENT"));
+    }
+
+    @Test
+    public void entriesAreInvalidatedWhenSizeOrModificationTimeChanges() throws Exception {
+        Path directory = Files.createTempDirectory("spacepixels-metadata-index");
+        File touched = writeFrame(directory, "touched.fit", 2880);
+        File rewritten = writeFrame(directory, "rewritten.fit", 2880);
+
+        FitsMetadataIndex index = FitsMetadataIndex.load(directory.toFile());
+        index.put(FitsMetadataIndex.stat(touched), FitsFormatChecker.FitsFormat.MONO_16BIT, createInfo(touched));
+        index.put(FitsMetadataIndex.stat(rewritten), FitsFormatChecker.FitsFormat.MONO_16BIT, createInfo(rewritten));
+        index.save();
+
+        // Same size, newer timestamp
+        FileTime touchedTime = Files.getLastModifiedTime(touched.toPath());
+        Files.setLastModifiedTime(touched.toPath(), FileTime.fromMillis(touchedTime.toMillis() + 1));
+        // Different size, timestamp restored
+        FileTime rewrittenTime = Files.getLastModifiedTime(rewritten.toPath());
+        Files.write(rewritten.toPath(), new byte[5760]);
+        Files.setLastModifiedTime(rewritten.toPath(), rewrittenTime);
+
+        FitsMetadataIndex reloaded = FitsMetadataIndex.load(directory.toFile());
+        assertNull(reloaded.get(FitsMetadataIndex.stat(touched)));
+        assertNull(reloaded.get(FitsMetadataIndex.stat(rewritten)));
+    }
+
+    @Test
+    public void retainOnlyDropsEntriesOfRemovedFiles() throws Exception {
+        Path directory = Files.createTempDirectory("spacepixels-metadata-index");
+        File kept = writeFrame(directory, "kept.fit", 2880);
+        File removed = writeFrame(directory, "removed.fit", 2880);
+
+        FitsMetadataIndex index = FitsMetadataIndex.load(directory.toFile());
+        index.put(FitsMetadataIndex.stat(kept), FitsFormatChecker.FitsFormat.MONO_16BIT, createInfo(kept));
+        index.put(FitsMetadataIndex.stat(removed), FitsFormatChecker.FitsFormat.MONO_16BIT, createInfo(removed));
+        index.retainOnly(Collections.singletonList("kept.fit"));
+        index.save();
+
+        assertEquals(1, FitsMetadataIndex.load(directory.toFile()).size());
+    }
+
+    @Test
+    public void unreadableSidecarBehavesAsAnEmptyIndex() throws Exception {
+        Path directory = Files.createTempDirectory("spacepixels-metadata-index");
+        File frame = writeFrame(directory, "frame.fit", 2880);
+        Files.write(directory.resolve(FitsMetadataIndex.SIDECAR_FILENAME), new byte[]{1, 2, 3});
+
+        FitsMetadataIndex index = FitsMetadataIndex.load(directory.toFile());
+
+        assertEquals(0, index.size());
+        assertNull(index.get(FitsMetadataIndex.stat(frame)));
+        index.save();
+        assertFalse(new File(directory.toFile(), FitsMetadataIndex.SIDECAR_FILENAME).length() == 3);
+    }
+
+    private static File writeFrame(Path directory, String name, int size) throws Exception {
+        Path path = directory.resolve(name);
+        Files.write(path, new byte[size]);
+        return path.toFile();
+    }
+
+    private static FitsFileInformation createInfo(File file) {
+        FitsFileInformation info = new FitsFileInformation(file.getAbsolutePath(), file.getName(), true, 640, 480);
+        info.getFitsHeader().put("DATE-OBS", "'2026-04-08T00:00:00'");
+        info.getFitsHeader().put("EXPTIME", "30.0");
+        info.getFitsHeader().put("COMMENT", null);
+        return info;
+    }
+}
@@ -5,6 +5,7 @@ import nom.tam.fits.Fits;
 import nom.tam.fits.Header;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -60,6 +61,35 @@ public class FitsPixelConverterTest {
         assertTrue(luminance[0][1] > Short.MIN_VALUE);
     }
 
+    @Test
+    public void rowBandConversionMatchesSingleBandConversion() throws Exception {
+        float[][][] color = new float[3][97][131];
+        for (int z = 0; z < 3; z++) {
+            for (int y = 0; y < 97; y++) {
+                for (int x = 0; x < 131; x++) {
+                    color[z][y][x] = ((z * 131 + y * 7 + x * 13) % 1000) / 250.0f;
+                }
+            }
+        }
+        color[2][96][130] = 4.5f;
+
+        short[][][] sequential = FitsPixelConverter.standardizeTo16BitColor(color);
+        short[][] sequentialMono = FitsPixelConverter.extractLuminance(sequential);
+        RowBands.setParallelThresholdPixels(1);
+        try {
+            short[][][] banded = FitsPixelConverter.standardizeTo16BitColor(color);
+            short[][] bandedMono = FitsPixelConverter.extractLuminance(banded);
+            for (int y = 0; y < 97; y++) {
+                for (int z = 0; z < 3; z++) {
+                    assertArrayEquals(sequential[z][y], banded[z][y]);
+                }
+                assertArrayEquals(sequentialMono[y], bandedMono[y]);
+            }
+        } finally {
+            RowBands.setParallelThresholdPixels(0);
+        }
+    }
+
     @Test
     public void convertColorKernelToMonoAveragesChannels() throws Exception {
         short[][] mono = FitsPixelConverter.convertColorKernelToMono(new short[][][]{
@@ -0,0 +1,89 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class FitsVisualizationRendererTest {
+
+    @Test
+    public void displayBinFactorIsTheSmallestFactorThatFitsTheViewport() {
+        assertEquals(1, FitsVisualizationRenderer.displayBinFactor(800, 600, 1024, 768));
+        assertEquals(2, FitsVisualizationRenderer.displayBinFactor(2000, 1000, 1024, 768));
+        assertEquals(7, FitsVisualizationRenderer.displayBinFactor(6248, 4176, 1000, 800));
+        assertEquals(1, FitsVisualizationRenderer.displayBinFactor(6248, 4176, 0, 0));
+    }
+
+    @Test
+    public void binForDisplayAveragesUnsignedValuesIncludingPartialEdgeBlocks() {
+        short[][] data = {
+                {storage(0), storage(2), storage(10)},
+                {storage(4), storage(6), storage(20)},
+                {storage(65535), storage(65535), storage(1)}
+        };
+
+        short[][] binned = FitsVisualizationRenderer.binForDisplay(data, 2);
+
+        assertEquals(2, binned.length);
+        assertArrayEquals(new short[]{storage(3), storage(15)}, binned[0]);
+        assertArrayEquals(new short[]{storage(65535), storage(1)}, binned[1]);
+    }
+
+    @Test
+    public void viewportRenderingReusesAMatchingImage() throws Exception {
+        short[][] data = new short[40][60];
+        BufferedImage reuse = new BufferedImage(30, 20, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage rendered = new FitsVisualizationRenderer().getStretchedImageForViewport(
+                data, 32, 32, 0, 0, StretchAlgorithm.ENHANCE_LOW, reuse);
+
+        assertSame(reuse, rendered);
+    }
+
+    @Test
+    public void previewPixelsMatchColorConversionAndClampTheExtremes() throws Exception {
+        short[][] data = {{Short.MIN_VALUE, -1, 0, 1234, Short.MAX_VALUE}};
+
+        BufferedImage preview = new FitsVisualizationRenderer().getImagePreview(data);
+
+        assertEquals(new Color(0f, 0f, 0f, 1f).getRGB(), preview.getRGB(0, 0));
+        for (int x = 1; x < data[0].length; x++) {
+            float intensity = ((float) (data[0][x] + Short.MAX_VALUE)) / (2 * (float) Short.MAX_VALUE);
+            assertEquals(new Color(intensity, intensity, intensity, 1f).getRGB(), preview.getRGB(x, 0));
+        }
+        assertEquals(255, FitsVisualizationRenderer.previewChannel(1.00002f));
+    }
+
+    @Test
+    public void stretchedImageMatchesColorConversionOfThePerPixelStretch() throws Exception {
+        short[][] data = DisplayImageRendererTest.createSkyFrame(50, 40, 3L);
+        FitsVisualizationRenderer renderer = new FitsVisualizationRenderer();
+
+        BufferedImage image = renderer.getStretchedImageForViewport(data, 50, 40, 60, 3, StretchAlgorithm.ENHANCE_LOW, null);
+        short[][] stretched = PerPixelStretch.stretch(data, 60, 3, 50, 40, StretchAlgorithm.ENHANCE_LOW);
+
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 50; x++) {
+                int absValue = Math.min(stretched[y][x] + Short.MAX_VALUE + 1, 2 * Short.MAX_VALUE);
+                float intensity = ((float) absValue) / (2 * (float) Short.MAX_VALUE);
+                assertEquals(new Color(intensity, intensity, intensity, 1f).getRGB(), image.getRGB(x, y));
+            }
+        }
+    }
+
+    private static short storage(int unsignedValue) {
+        return (short) (unsignedValue - 32768);
+    }
+}
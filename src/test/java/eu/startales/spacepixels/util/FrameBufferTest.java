@@ -0,0 +1,125 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FrameBufferTest {
+
+    @Test
+    public void cropAndRowViewsShareTheBackingArray() {
+        FrameBuffer frame = FrameBuffer.fromRows(createRows(6, 4));
+
+        FrameBuffer crop = frame.crop(2, 1, 3, 2);
+        FrameBuffer row = frame.row(3);
+
+        assertSame(frame.data(), crop.data());
+        assertSame(frame.data(), row.data());
+        assertFalse(crop.isContiguous());
+        assertEquals(frame.get(2, 1), crop.get(0, 0));
+        assertEquals(frame.get(4, 2), crop.get(2, 1));
+
+        crop.set(1, 1, (short) 999);
+        assertEquals(999, frame.get(3, 2));
+        assertEquals(frame.get(5, 3), row.get(5, 0));
+    }
+
+    @Test
+    public void toRowsAndCompactCopyOnlyTheViewedRectangle() {
+        short[][] rows = createRows(5, 5);
+        FrameBuffer crop = FrameBuffer.fromRows(rows).crop(1, 2, 3, 2);
+
+        short[][] copied = crop.toRows();
+        FrameBuffer compacted = crop.compact();
+
+        assertEquals(2, copied.length);
+        assertArrayEquals(new short[]{rows[2][1], rows[2][2], rows[2][3]}, copied[0]);
+        assertArrayEquals(new short[]{rows[3][1], rows[3][2], rows[3][3]}, copied[1]);
+        assertTrue(compacted.isContiguous());
+        assertEquals(6, compacted.data().length);
+        assertEquals(rows[3][3], compacted.get(2, 1));
+    }
+
+    @Test
+    public void paddedCropMatchesJaggedEdgeAwareCropSemantics() {
+        short[][] rows = createRows(7, 5);
+        int[][] centres = {{0, 0}, {3, 2}, {6, 4}, {-3, 2}, {20, 20}};
+
+        for (int[] centre : centres) {
+            short[][] expected = jaggedEdgeAwareCrop(rows, centre[0], centre[1], 4, 3);
+            FrameBuffer fromRows = FrameBuffer.paddedCrop(rows, centre[0], centre[1], 4, 3);
+            FrameBuffer fromFlat = FrameBuffer.fromRows(rows).paddedCrop(centre[0], centre[1], 4, 3);
+
+            assertRowsEqual(expected, fromRows.toRows());
+            assertRowsEqual(expected, fromFlat.toRows());
+        }
+    }
+
+    @Test
+    public void flatDisplayImageMatchesJaggedRendering() {
+        short[][] rows = createRows(9, 7);
+        FrameBuffer view = FrameBuffer.fromRows(createRows(12, 10)).crop(2, 1, 9, 7);
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < rows[y].length; x++) {
+                view.set(x, y, rows[y][x]);
+            }
+        }
+
+        BufferedImage expected = DisplayImageRenderer.createDisplayImage(rows, 0.5, 5.0);
+        BufferedImage actual = DisplayImageRenderer.createDisplayImage(view, 0.5, 5.0);
+
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < rows[y].length; x++) {
+                assertEquals(expected.getRaster().getSample(x, y, 0), actual.getRaster().getSample(x, y, 0));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cropRejectsRectanglesOutsideTheFrame() {
+        FrameBuffer.allocate(4, 4).crop(2, 2, 3, 1);
+    }
+
+    private static short[][] createRows(int width, int height) {
+        short[][] rows = new short[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                rows[y][x] = (short) (y * 1031 + x * 97 - 20000);
+            }
+        }
+        return rows;
+    }
+
+    private static short[][] jaggedEdgeAwareCrop(short[][] full, int cx, int cy, int cropWidth, int cropHeight) {
+        short[][] cropped = new short[cropHeight][cropWidth];
+        for (int y = 0; y < cropHeight; y++) {
+            for (int x = 0; x < cropWidth; x++) {
+                int sourceY = cy - cropHeight / 2 + y;
+                int sourceX = cx - cropWidth / 2 + x;
+                boolean inside = sourceY >= 0 && sourceY < full.length && sourceX >= 0 && sourceX < full[0].length;
+                cropped[y][x] = inside ? full[sourceY][sourceX] : -32768;
+            }
+        }
+        return cropped;
+    }
+
+    private static void assertRowsEqual(short[][] expected, short[][] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int y = 0; y < expected.length; y++) {
+            assertArrayEquals(expected[y], actual[y]);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FrameMetadataTest {
+
+    @Test
+    public void parsesSeparateDateAndTimeCardsWithCompactTimeAndOffset() {
+        Map<String, String> header = new HashMap<>();
+        header.put("DATE-OBS", "'2026-04-08'");
+        header.put("TIME-OBS", "'221530,5+0100'");
+
+        FrameMetadata metadata = FrameMetadata.fromHeader(header, 100, 80, true);
+
+        assertEquals(1775682930500L, metadata.getObservationTimestampMillis());
+        assertEquals("2026-04-08T22:15:30.5+01:00", metadata.getNormalizedTimestampInput());
+        assertNull(metadata.getTimestampFailureReason());
+    }
+
+    @Test
+    public void dateOnlyObservationsStartAtMidnightUtc() {
+        Map<String, String> header = new HashMap<>();
+        header.put("DATE-OBS", "2026-04-08");
+
+        assertEquals(1775606400000L, FrameMetadata.fromHeader(header, 1, 1, true).getObservationTimestampMillis());
+    }
+
+    @Test
+    public void malformedOrMissingValuesAreReportedAsUnavailable() {
+        Map<String, String> header = new HashMap<>();
+        header.put("DATE-OBS", "'yesterday'");
+        header.put("EXPOSURE", "'long'");
+
+        FrameMetadata metadata = FrameMetadata.fromHeader(header, 1, 1, false);
+
+        assertEquals(-1L, metadata.getObservationTimestampMillis());
+        assertTrue(metadata.getTimestampFailureReason() != null);
+        assertEquals(-1L, metadata.getExposureMillis());
+        assertTrue(Double.isNaN(metadata.getExposureSeconds()));
+        assertEquals("long", metadata.getExposureText());
+        assertNull(metadata.getSiteLatitude());
+        assertNull(metadata.getObservatory());
+    }
+
+    @Test
+    public void siteUsesTheFirstNonBlankCoordinateCard() {
+        Map<String, String> header = new HashMap<>();
+        header.put("SITELAT", "'  '");
+        header.put("LAT-OBS", "36.97");
+        header.put("SITELON", "22.23");
+
+        FrameMetadata metadata = FrameMetadata.fromHeader(header, 1, 1, true);
+
+        assertEquals("36.97", metadata.getSiteLatitude());
+        assertEquals("22.23", metadata.getSiteLongitude());
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ImageTilePyramidTest {
+
+    @Test
+    public void levelsHalveTheImageUntilItFitsOneTile() {
+        ImageTilePyramid pyramid = new ImageTilePyramid(new BufferedImage(1001, 300, BufferedImage.TYPE_INT_RGB));
+
+        assertEquals(3, pyramid.getLevelCount());
+        assertEquals(501, pyramid.getLevelWidth(1));
+        assertEquals(150, pyramid.getLevelHeight(1));
+        assertEquals(251, pyramid.getLevelWidth(2));
+        assertEquals(4, pyramid.getTileColumns(0));
+        assertEquals(2, pyramid.getTileColumns(1));
+        assertEquals(1, pyramid.getTileRows(2));
+    }
+
+    @Test
+    public void levelForPicksTheCoarsestLevelWithAPixelPerDisplayPixel() {
+        ImageTilePyramid pyramid = new ImageTilePyramid(new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_RGB));
+
+        assertEquals(0, pyramid.levelFor(4.0));
+        assertEquals(0, pyramid.levelFor(0.6));
+        assertEquals(1, pyramid.levelFor(0.5));
+        assertEquals(2, pyramid.levelFor(0.2));
+        assertEquals(pyramid.getLevelCount() - 1, pyramid.levelFor(0.0001));
+    }
+
+    @Test
+    public void everyLevelAveragesTwoByTwoBlocksOfTheLevelBelow() {
+        BufferedImage source = randomImage(777, 533, BufferedImage.TYPE_INT_ARGB, 3L);
+        ImageTilePyramid pyramid = new ImageTilePyramid(source);
+
+        int[][] expected = pixels(source);
+        for (int level = 1; level < pyramid.getLevelCount(); level++) {
+            expected = halve(expected);
+            assertEquals(expected.length, pyramid.getLevelHeight(level));
+            assertEquals(expected[0].length, pyramid.getLevelWidth(level));
+            for (int row = 0; row < pyramid.getTileRows(level); row++) {
+                for (int column = 0; column < pyramid.getTileColumns(level); column++) {
+                    BufferedImage tile = pyramid.getTile(level, column, row);
+                    for (int y = 0; y < tile.getHeight(); y++) {
+                        for (int x = 0; x < tile.getWidth(); x++) {
+                            int levelX = column * ImageTilePyramid.TILE_SIZE + x;
+                            int levelY = row * ImageTilePyramid.TILE_SIZE + y;
+                            assertEquals("level " + level + " at " + levelX + "," + levelY,
+                                    expected[levelY][levelX], tile.getRGB(x, y));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void grayImagesAreReadTheWayJava2dDrawsThem() {
+        BufferedImage gray = new BufferedImage(300, 2, BufferedImage.TYPE_BYTE_GRAY);
+        for (int x = 0; x < 300; x++) {
+            gray.getRaster().setSample(x, 0, 0, x % 256);
+            gray.getRaster().setSample(x, 1, 0, x % 256);
+        }
+        BufferedImage drawn = new BufferedImage(300, 2, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = drawn.createGraphics();
+        graphics.drawImage(gray, 0, 0, null);
+        graphics.dispose();
+
+        BufferedImage tile = new ImageTilePyramid(gray).getTile(1, 0, 0);
+        int[] expected = halve(pixels(drawn))[0];
+
+        for (int x = 0; x < tile.getWidth(); x++) {
+            assertEquals(expected[x], tile.getRGB(x, 0));
+        }
+    }
+
+    @Test
+    public void composedTilesAreCachedWithinTheBudget() {
+        BufferedImage source = randomImage(2048, 2048, BufferedImage.TYPE_INT_RGB, 5L);
+        long tileBytes = 4L * ImageTilePyramid.TILE_SIZE * ImageTilePyramid.TILE_SIZE;
+        ImageTilePyramid pyramid = new ImageTilePyramid(source, 6 * tileBytes);
+
+        assertNull(pyramid.getTileIfAvailable(1, 0, 0));
+        assertNotNull(pyramid.getTileIfAvailable(0, 7, 7));
+        BufferedImage tile = pyramid.getTile(3, 0, 0);
+
+        assertSame(tile, pyramid.getTileIfAvailable(3, 0, 0));
+        assertSame(tile, pyramid.getTile(3, 0, 0));
+        assertTrue(pyramid.getCachedBytes() <= 6 * tileBytes);
+    }
+
+    @Test
+    public void pyramidsSharingACacheShareItsBudget() {
+        long tileBytes = 4L * ImageTilePyramid.TILE_SIZE * ImageTilePyramid.TILE_SIZE;
+        ImageTilePyramid.TileCache cache = new ImageTilePyramid.TileCache(6 * tileBytes);
+        ImageTilePyramid first = new ImageTilePyramid(randomImage(1024, 1024, BufferedImage.TYPE_INT_RGB, 7L), cache);
+        ImageTilePyramid second = new ImageTilePyramid(randomImage(1024, 1024, BufferedImage.TYPE_INT_RGB, 11L), cache);
+
+        BufferedImage firstTile = first.getTile(2, 0, 0);
+        BufferedImage secondTile = second.getTile(2, 0, 0);
+
+        assertSame(firstTile, first.getTileIfAvailable(2, 0, 0));
+        assertSame(secondTile, second.getTileIfAvailable(2, 0, 0));
+        assertTrue(cache.getCachedBytes() <= 6 * tileBytes);
+        assertEquals(cache.getCachedBytes(), first.getCachedBytes());
+
+        first.discardTiles();
+
+        assertNull(first.getTileIfAvailable(2, 0, 0));
+        assertSame(secondTile, second.getTileIfAvailable(2, 0, 0));
+    }
+
+    private static BufferedImage randomImage(int width, int height, int type, long seed) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static int[][] pixels(BufferedImage image) {
+        int[][] pixels = new int[image.getHeight()][];
+        for (int y = 0; y < image.getHeight(); y++) {
+            pixels[y] = image.getRGB(0, y, image.getWidth(), 1, null, 0, image.getWidth());
+        }
+        return pixels;
+    }
+
+    private static int[][] halve(int[][] pixels) {
+        int height = pixels.length;
+        int width = pixels[0].length;
+        int[][] halved = new int[(height + 1) / 2][(width + 1) / 2];
+        for (int y = 0; y < halved.length; y++) {
+            for (int x = 0; x < halved[0].length; x++) {
+                int[] block = {
+                        pixels[2 * y][2 * x],
+                        pixels[2 * y][Math.min(2 * x + 1, width - 1)],
+                        pixels[Math.min(2 * y + 1, height - 1)][2 * x],
+                        pixels[Math.min(2 * y + 1, height - 1)][Math.min(2 * x + 1, width - 1)]
+                };
+                int value = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int sum = 2;
+                    for (int pixel : block) {
+                        sum += (pixel >>> shift) & 0xFF;
+                    }
+                    value |= (sum >> 2) << shift;
+                }
+                halved[y][x] = value;
+            }
+        }
+        return halved;
+    }
+}
@@ -10,9 +10,11 @@ package eu.startales.spacepixels.util;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class IterativeDetectionPipelineServiceTest {
 
@@ -42,4 +44,36 @@ public class IterativeDetectionPipelineServiceTest {
 
         assertEquals(Arrays.asList(0, 2, 4, 6, 8), sampled);
     }
+
+    @Test
+    public void planPassesGrowsInStepsOfFiveAndReusesEarlierIndices() {
+        long[] times = new long[40];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = 1000L * i;
+        }
+
+        List<List<Integer>> plan = IterativeDetectionPipelineService.planPasses(times, true, times.length, 17);
+
+        assertEquals(3, plan.size());
+        assertEquals(5, plan.get(0).size());
+        assertEquals(10, plan.get(1).size());
+        assertEquals(15, plan.get(2).size());
+        assertEquals(IterativeDetectionPipelineService.sampleFrameIndices(times, true, times.length, 10), plan.get(1));
+        assertTrue(plan.get(2).containsAll(Arrays.asList(0, 39)));
+    }
+
+    @Test
+    public void collectUpcomingIndicesCoversThePassesThatMayStartNext() {
+        List<List<Integer>> plan = Arrays.asList(
+                Arrays.asList(0, 4),
+                Arrays.asList(0, 2, 4),
+                Arrays.asList(0, 1, 3, 4),
+                Arrays.asList(0, 1, 2, 3, 4));
+
+        assertEquals(new HashSet<>(Arrays.asList(0, 2, 4)),
+                IterativeDetectionPipelineService.collectUpcomingIndices(plan, 0, 1));
+        assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3, 4)),
+                IterativeDetectionPipelineService.collectUpcomingIndices(plan, 0, 2));
+        assertTrue(IterativeDetectionPipelineService.collectUpcomingIndices(plan, 3, 2).isEmpty());
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IterativePassSchedulerTest {
+
+    private static final long MIB = BatchFileProcessor.MIB;
+
+    @Test
+    public void runOverlapsPassesButGatesResultsInPassOrder() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        List<Integer> gated = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> exported = Collections.synchronizedList(new ArrayList<>());
+
+        int accepted = IterativePassScheduler.run(
+                4,
+                new long[]{MIB, MIB, MIB, MIB},
+                2,
+                16L * MIB,
+                pass -> {
+                    bothStarted.countDown();
+                    assertTrue("passes never overlapped", bothStarted.await(5, TimeUnit.SECONDS));
+                    // Later passes finish first; the gate must still see them in order.
+                    Thread.sleep(pass % 2 == 0 ? 40L : 0L);
+                    return pass * 10;
+                },
+                (pass, result) -> {
+                    assertEquals(pass * 10, result.intValue());
+                    gated.add(pass);
+                    return true;
+                },
+                (pass, result) -> exported.add(pass));
+
+        assertEquals(4, accepted);
+        assertEquals(Arrays.asList(0, 1, 2, 3), gated);
+        Collections.sort(exported);
+        assertEquals(Arrays.asList(0, 1, 2, 3), exported);
+    }
+
+    @Test
+    public void runNeverExceedsTheMemoryBudgetAndStillRunsOversizedPasses() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        int accepted = IterativePassScheduler.run(
+                4,
+                new long[]{3L * MIB, 3L * MIB, 64L * MIB, 3L * MIB},
+                4,
+                4L * MIB,
+                pass -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    Thread.sleep(20L);
+                    return pass;
+                },
+                (pass, result) -> true,
+                (pass, result) -> inFlight.decrementAndGet());
+
+        assertEquals(4, accepted);
+        assertEquals(1, maxInFlight.get());
+    }
+
+    @Test
+    public void rejectedPassStopsLaterPassesAndSkipsTheirFollowUps() throws Exception {
+        List<Integer> exported = Collections.synchronizedList(new ArrayList<>());
+
+        int accepted = IterativePassScheduler.run(
+                6,
+                new long[6],
+                3,
+                16L * MIB,
+                pass -> pass,
+                (pass, result) -> pass < 2,
+                (pass, result) -> exported.add(pass));
+
+        assertEquals(2, accepted);
+        Collections.sort(exported);
+        assertEquals(Arrays.asList(0, 1), exported);
+    }
+
+    @Test
+    public void runPropagatesTheFirstTaskFailure() throws Exception {
+        try {
+            IterativePassScheduler.run(
+                    3,
+                    new long[3],
+                    2,
+                    16L * MIB,
+                    pass -> {
+                        if (pass == 1) {
+                            throw new IOException("pass 1 failed");
+                        }
+                        return pass;
+                    },
+                    (pass, result) -> true,
+                    (pass, result) -> {
+                    });
+            fail("Expected the task failure to propagate");
+        } catch (IOException expected) {
+            assertEquals("pass 1 failed", expected.getMessage());
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void lanesLeaveTheIoPoolToTheWorkTheyQueueOnIt() throws Exception {
+        int passes = 32;
+        long[] costs = new long[passes];
+        Arrays.fill(costs, MIB);
+        AtomicInteger exported = new AtomicInteger();
+
+        // More lanes than I/O workers, each waiting on I/O tasks, like report exports waiting on GIF encoding.
+        int accepted = IterativePassScheduler.run(
+                passes,
+                costs,
+                passes,
+                passes * MIB,
+                pass -> SharedExecutors.io().submit(() -> pass).get(30, TimeUnit.SECONDS),
+                (pass, result) -> result == pass,
+                (pass, result) -> SharedExecutors.io().submit(exported::incrementAndGet).get(30, TimeUnit.SECONDS));
+
+        assertEquals(passes, accepted);
+        assertEquals(passes, exported.get());
+    }
+
+    @Test
+    public void singleLaneRunsPassesOneAfterAnother() throws Exception {
+        List<String> events = new ArrayList<>();
+
+        IterativePassScheduler.run(
+                2,
+                new long[2],
+                1,
+                16L * MIB,
+                pass -> {
+                    events.add("run" + pass);
+                    return pass;
+                },
+                (pass, result) -> events.add("gate" + pass),
+                (pass, result) -> events.add("export" + pass));
+
+        assertEquals(Arrays.asList("run0", "gate0", "export0", "run1", "gate1", "export1"), events);
+    }
+}
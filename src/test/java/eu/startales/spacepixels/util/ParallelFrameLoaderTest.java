@@ -0,0 +1,126 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelFrameLoaderTest {
+
+    @Test
+    public void loadInOrderDeliversFramesInSequenceOrderDespiteOutOfOrderCompletion() throws Exception {
+        List<Integer> consumed = new ArrayList<>();
+        List<Integer> awaited = new ArrayList<>();
+
+        ParallelFrameLoader.loadInOrder(
+                25,
+                4,
+                6,
+                index -> {
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+                    return index;
+                },
+                awaited::add,
+                (index, frame) -> {
+                    assertEquals(index, frame.intValue());
+                    consumed.add(frame);
+                });
+
+        assertEquals(25, consumed.size());
+        for (int i = 0; i < consumed.size(); i++) {
+            assertEquals(i, consumed.get(i).intValue());
+            assertEquals(i, awaited.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void loadInOrderNeverSchedulesMoreThanTheInFlightLimitAheadOfTheConsumer() throws Exception {
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger consumedCount = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+
+        ParallelFrameLoader.loadInOrder(
+                40,
+                3,
+                5,
+                index -> {
+                    int ahead = started.incrementAndGet() - consumedCount.get();
+                    maxAhead.accumulateAndGet(ahead, Math::max);
+                    return index;
+                },
+                null,
+                (index, frame) -> {
+                    Thread.sleep(1);
+                    consumedCount.incrementAndGet();
+                });
+
+        assertEquals(40, consumedCount.get());
+        assertTrue("Too many frames were scheduled ahead: " + maxAhead.get(), maxAhead.get() <= 5);
+    }
+
+    @Test
+    public void loadInOrderPropagatesTheOriginalLoaderException() throws Exception {
+        try {
+            ParallelFrameLoader.loadInOrder(
+                    10,
+                    2,
+                    4,
+                    index -> {
+                        if (index == 3) {
+                            throw new IOException("broken frame");
+                        }
+                        return index;
+                    },
+                    null,
+                    (index, frame) -> {
+                    });
+            fail("Expected the loader failure to propagate.");
+        } catch (IOException e) {
+            assertEquals("broken frame", e.getMessage());
+        }
+    }
+
+    @Test
+    public void loadersRunningOnEveryIoWorkerDoNotDeadlockThePool() throws Exception {
+        ExecutorService io = SharedExecutors.io();
+        List<Future<Integer>> loaders = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            loaders.add(io.submit(() -> {
+                AtomicInteger sum = new AtomicInteger();
+                ParallelFrameLoader.loadInOrder(12, 4, 8, index -> index, null, (index, frame) -> sum.addAndGet(frame));
+                return sum.get();
+            }));
+        }
+
+        for (Future<Integer> loader : loaders) {
+            assertEquals(66, (int) loader.get(30, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void resolveDefaultsAreBoundedAndPositive() {
+        int workers = ParallelFrameLoader.resolveWorkerCount(0);
+
+        assertTrue(workers >= 1 && workers <= 4);
+        assertEquals(7, ParallelFrameLoader.resolveWorkerCount(7));
+        assertEquals(workers * 2, ParallelFrameLoader.resolveMaxInFlight(0, workers));
+        assertEquals(3, ParallelFrameLoader.resolveMaxInFlight(3, workers));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import java.util.Arrays;
+
+/**
+ * The original per-pixel stretch of 16-bit mono frames, which rescans the frame on every iteration.
+ * Kept only as the reference the lookup-table stretch is checked against.
+ */
+final class PerPixelStretch {
+
+    private PerPixelStretch() {
+    }
+
+    static short[][] stretch(short[][] data, int primary, int secondary, int width, int height, StretchAlgorithm algo) {
+        switch (algo) {
+            case ENHANCE_HIGH:
+                return enhanceHigh(data, primary, secondary, width, height);
+            case EXTREME:
+                return extreme(data, primary, secondary, width, height);
+            case ASINH:
+                return asinh(data, primary, secondary, width, height);
+            case ENHANCE_LOW:
+            default:
+                return enhanceLow(data, primary, secondary, width, height);
+        }
+    }
+
+    private static short[][] enhanceHigh(short[][] data, int intensity, int iterations, int width, int height) {
+        short[][] returnData = copy(data, width, height);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            short minimumValue = Short.MAX_VALUE;
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    int absValue = returnData[i][j] - Short.MIN_VALUE;
+                    float newValue = (float) absValue * (1 + ((float) intensity / 100));
+                    newValue = newValue - Short.MAX_VALUE;
+
+                    if (newValue > Short.MAX_VALUE) {
+                        returnData[i][j] = Short.MAX_VALUE;
+                    } else {
+                        returnData[i][j] = (short) newValue;
+                    }
+
+                    if (minimumValue > returnData[i][j]) {
+                        minimumValue = returnData[i][j];
+                    }
+                }
+            }
+
+            int minimumValueDistanceFromZero = minimumValue - Short.MIN_VALUE;
+            if (minimumValueDistanceFromZero > 2 * Short.MAX_VALUE) {
+                minimumValueDistanceFromZero = 2 * Short.MAX_VALUE;
+            }
+
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    returnData[i][j] = (short) (returnData[i][j] - minimumValueDistanceFromZero);
+                }
+            }
+        }
+        return returnData;
+    }
+
+    private static short[][] enhanceLow(short[][] data, int intensity, int iterations, int width, int height) {
+        short[][] returnData = copy(data, width, height);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            short minimumValue = Short.MAX_VALUE;
+            short maximumValue = Short.MIN_VALUE;
+
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    int absValue = returnData[i][j] - Short.MIN_VALUE;
+                    float scale = 1 - (((float) absValue) / (2 * (float) Short.MAX_VALUE));
+                    float newValue = (float) absValue * (1 + (((float) intensity / 100) * scale));
+                    newValue = newValue - Short.MAX_VALUE;
+
+                    if (newValue > Short.MAX_VALUE) {
+                        returnData[i][j] = Short.MAX_VALUE;
+                    } else {
+                        returnData[i][j] = (short) newValue;
+                    }
+
+                    if (minimumValue > returnData[i][j]) {
+                        minimumValue = returnData[i][j];
+                    }
+                    if (maximumValue < returnData[i][j]) {
+                        maximumValue = returnData[i][j];
+                    }
+                }
+            }
+
+            int minimumValueDistanceFromZero = minimumValue - Short.MIN_VALUE;
+            if (minimumValueDistanceFromZero > 2 * Short.MAX_VALUE) {
+                minimumValueDistanceFromZero = 2 * Short.MAX_VALUE;
+            }
+            int maximumValueDistanceFromMax = Short.MAX_VALUE - maximumValue;
+            if (maximumValueDistanceFromMax > 2 * Short.MAX_VALUE) {
+                maximumValueDistanceFromMax = 2 * Short.MAX_VALUE;
+            }
+
+            float stretchCoefficient = 1 + (((float) maximumValueDistanceFromMax) / (2 * (float) Short.MAX_VALUE));
+
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    int absValue = returnData[i][j] - Short.MIN_VALUE - minimumValueDistanceFromZero;
+                    float newValue = ((float) absValue) * stretchCoefficient;
+                    newValue = newValue - Short.MAX_VALUE;
+
+                    if (newValue > Short.MAX_VALUE) {
+                        returnData[i][j] = Short.MAX_VALUE;
+                    } else {
+                        returnData[i][j] = (short) newValue;
+                    }
+                }
+            }
+        }
+        return returnData;
+    }
+
+    private static short[][] extreme(short[][] data, int threshold, int intensity, int width, int height) {
+        short[][] returnData = new short[height][width];
+
+        long allPixelSumValue = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                allPixelSumValue += (data[i][j] - Short.MIN_VALUE);
+            }
+        }
+
+        float averageNoiseLevel = ((float) allPixelSumValue) / ((float) width * height);
+
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                returnData[i][j] = data[i][j];
+                int absValue = returnData[i][j] - Short.MIN_VALUE;
+
+                if (absValue >= averageNoiseLevel + 10 * threshold) {
+                    float newValue = (((float) intensity) / 20) * (2 * (float) Short.MAX_VALUE);
+                    newValue = newValue - Short.MAX_VALUE;
+
+                    if (newValue > Short.MAX_VALUE) {
+                        returnData[i][j] = Short.MAX_VALUE;
+                    } else {
+                        returnData[i][j] = (short) newValue;
+                    }
+                }
+            }
+        }
+        return returnData;
+    }
+
+    private static short[][] asinh(short[][] data, int blackPointPercent, int stretchStrength, int width, int height) {
+        short[][] returnData = new short[height][width];
+
+        // The histogram covers the whole frame, not just the stretched region.
+        int[] histogram = new int[(2 * Short.MAX_VALUE) + 2];
+        for (short[] row : data) {
+            for (short value : row) {
+                histogram[value - Short.MIN_VALUE]++;
+            }
+        }
+
+        long totalPixels = (long) data.length * data[0].length;
+        int blackPointValue = StretchLookupTable.percentileFromHistogram(histogram, totalPixels, blackPointPercent / 100.0);
+        int whitePointValue = StretchLookupTable.percentileFromHistogram(histogram, totalPixels, 0.999);
+
+        if (whitePointValue <= blackPointValue) {
+            whitePointValue = blackPointValue + 1;
+        }
+
+        double usableRange = whitePointValue - blackPointValue;
+        double stretchScale = Math.max(1.0, stretchStrength);
+        double normalization = StretchLookupTable.asinh(stretchScale);
+
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                double absValue = data[i][j] - Short.MIN_VALUE;
+                double normalizedValue = (absValue - blackPointValue) / usableRange;
+                if (normalizedValue < 0.0) {
+                    normalizedValue = 0.0;
+                } else if (normalizedValue > 1.0) {
+                    normalizedValue = 1.0;
+                }
+
+                double stretchedValue = StretchLookupTable.asinh(normalizedValue * stretchScale) / normalization;
+                int unsignedValue = (int) Math.round(stretchedValue * ((2.0 * Short.MAX_VALUE) + 1.0));
+                if (unsignedValue < 0) {
+                    unsignedValue = 0;
+                } else if (unsignedValue > (2 * Short.MAX_VALUE) + 1) {
+                    unsignedValue = (2 * Short.MAX_VALUE) + 1;
+                }
+
+                returnData[i][j] = (short) (unsignedValue + Short.MIN_VALUE);
+            }
+        }
+        return returnData;
+    }
+
+    private static short[][] copy(short[][] data, int width, int height) {
+        short[][] copy = new short[height][];
+        for (int i = 0; i < height; i++) {
+            copy[i] = Arrays.copyOf(data[i], width);
+        }
+        return copy;
+    }
+}
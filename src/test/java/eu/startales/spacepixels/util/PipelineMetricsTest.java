@@ -0,0 +1,142 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineMetricsTest {
+
+    @Test
+    public void timersWithTheSameNameAreAggregatedInFirstUseOrder() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        try (PipelineMetrics.Timer load = metrics.start(PipelineMetrics.FRAME_LOAD)) {
+            load.addCount(2).addBytes(100);
+        }
+        try (PipelineMetrics.Timer ignored = metrics.start(PipelineMetrics.ENGINE_RUN)) {
+            // nothing to count
+        }
+        try (PipelineMetrics.Timer load = metrics.start(PipelineMetrics.FRAME_LOAD)) {
+            load.addCount(3).addBytes(50);
+        }
+
+        List<PipelineMetrics.Stage> stages = metrics.getStages();
+        assertEquals(2, stages.size());
+        PipelineMetrics.Stage load = stages.get(0);
+        assertEquals(PipelineMetrics.FRAME_LOAD, load.getName());
+        assertEquals(2, load.getInvocations());
+        assertEquals(5L, load.getCount());
+        assertEquals(150L, load.getBytes());
+        assertTrue(load.getPeakHeapBytes() > 0L);
+        assertEquals(PipelineMetrics.ENGINE_RUN, stages.get(1).getName());
+        assertNull(metrics.getStage(PipelineMetrics.REPORT_EXPORT));
+    }
+
+    @Test
+    public void closingTwiceRecordsOnce() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        PipelineMetrics.Timer timer = metrics.start(PipelineMetrics.PNG_ENCODE).addCount(1);
+        timer.close();
+        timer.close();
+
+        assertEquals(1, metrics.getStage(PipelineMetrics.PNG_ENCODE).getInvocations());
+    }
+
+    @Test
+    public void bindingScopesCurrentRecorderToTheThread() throws Exception {
+        PipelineMetrics outer = new PipelineMetrics();
+        PipelineMetrics inner = new PipelineMetrics();
+        assertNull(PipelineMetrics.current());
+        assertNull(PipelineMetrics.startCurrent(PipelineMetrics.GIF_ENCODE));
+
+        try (PipelineMetrics.Binding ignored = outer.bindToCurrentThread()) {
+            try (PipelineMetrics.Binding nested = inner.bindToCurrentThread()) {
+                assertSame(inner, PipelineMetrics.current());
+            }
+            assertSame(outer, PipelineMetrics.current());
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<PipelineMetrics> seenByOtherThread = executor.submit(PipelineMetrics::current);
+                assertNull(seenByOtherThread.get());
+            } finally {
+                executor.shutdownNow();
+            }
+
+            try (PipelineMetrics.Timer timer = PipelineMetrics.startCurrent(PipelineMetrics.GIF_ENCODE)) {
+                timer.addCount(4);
+            }
+        }
+        assertNull(PipelineMetrics.current());
+        assertEquals(4L, outer.getStage(PipelineMetrics.GIF_ENCODE).getCount());
+        assertNull(inner.getStage(PipelineMetrics.GIF_ENCODE));
+    }
+
+    @Test
+    public void concurrentTimersAreAllRecorded() throws Exception {
+        PipelineMetrics metrics = new PipelineMetrics();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    try (PipelineMetrics.Timer decode = metrics.start(PipelineMetrics.FRAME_DECODE)) {
+                        decode.addCount(1).addBytes(10);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PipelineMetrics.Stage decode = metrics.getStage(PipelineMetrics.FRAME_DECODE);
+        assertEquals(200, decode.getInvocations());
+        assertEquals(200L, decode.getCount());
+        assertEquals(2000L, decode.getBytes());
+    }
+
+    @Test
+    public void writesStagesAsJson() throws Exception {
+        PipelineMetrics metrics = new PipelineMetrics();
+        try (PipelineMetrics.Timer section = metrics.start(PipelineMetrics.REPORT_SECTION_PREFIX + "global-maps")) {
+            section.addCount(3);
+        }
+        File jsonFile = Files.createTempFile("spacepixels-metrics", ".json").toFile();
+        jsonFile.deleteOnExit();
+        metrics.writeJson(jsonFile);
+
+        JsonObject root = JsonParser.parseString(new String(Files.readAllBytes(jsonFile.toPath()), StandardCharsets.UTF_8)).getAsJsonObject();
+        JsonArray stages = root.getAsJsonArray("stages");
+        assertEquals(1, stages.size());
+        JsonObject stage = stages.get(0).getAsJsonObject();
+        assertEquals("report-section:global-maps", stage.get("name").getAsString());
+        assertEquals(1, stage.get("invocations").getAsInt());
+        assertEquals(3L, stage.get("count").getAsLong());
+        assertTrue(stage.has("durationMillis"));
+        assertTrue(stage.has("peakHeapBytes"));
+    }
+}
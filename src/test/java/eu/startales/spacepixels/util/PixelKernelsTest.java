@@ -0,0 +1,146 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PixelKernelsTest {
+
+    // Odd so that every kernel also runs its scalar remainder.
+    private static final int WIDTH = 4099;
+
+    private PixelKernels scalar;
+    private PixelKernels vector;
+
+    @Before
+    public void setUp() {
+        scalar = PixelKernels.scalar();
+        vector = PixelKernels.vector();
+        Assume.assumeTrue("Started without --add-modules " + PixelKernels.VECTOR_MODULE, vector != null);
+    }
+
+    @Test
+    public void vectorKernelsAreSelectedWhenTheModuleIsPresent() {
+        assertSame(vector, PixelKernels.get());
+    }
+
+    @Test
+    public void floatConversionIsBitExactIncludingRoundingTiesAndSpecialValues() {
+        float[] source = new float[WIDTH];
+        float[] special = {
+                Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, -0.0f, 0.0f,
+                Float.MIN_VALUE, -Float.MIN_VALUE, 0.49999997f, 0.5f, 1.5f, 2.5f, 65534.5f, 65535.0f,
+                65535.49f, 65535.5f, 65536.0f, -0.5f, 1.0e9f, -1.0e9f, Float.MAX_VALUE, -Float.MAX_VALUE
+        };
+        System.arraycopy(special, 0, source, 0, special.length);
+        Random random = new Random(11L);
+        for (int x = special.length; x < WIDTH; x++) {
+            switch (x % 3) {
+                case 0:
+                    source[x] = random.nextInt(70000) - 2000 + 0.5f;
+                    break;
+                case 1:
+                    source[x] = Math.nextDown(random.nextInt(65536) + 0.5f);
+                    break;
+                default:
+                    source[x] = random.nextFloat() * 80000.0f - 5000.0f;
+                    break;
+            }
+        }
+
+        for (float scale : new float[]{1.0f, 65535.0f, 0.37f}) {
+            short[] expected = new short[WIDTH];
+            short[] actual = new short[WIDTH];
+            scalar.toUnsigned16(source, scale, expected, WIDTH);
+            vector.toUnsigned16(source, scale, actual, WIDTH);
+            assertArrayEquals("scale " + scale, expected, actual);
+        }
+    }
+
+    @Test
+    public void normalizedFloatConversionIsBitExact() {
+        float[] source = new float[WIDTH];
+        Random random = new Random(13L);
+        for (int x = 0; x < WIDTH; x++) {
+            source[x] = random.nextFloat();
+        }
+        short[] expected = new short[WIDTH];
+        short[] actual = new short[WIDTH];
+
+        scalar.toUnsigned16(source, 65535.0f, expected, WIDTH);
+        vector.toUnsigned16(source, 65535.0f, actual, WIDTH);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void intConversionIsBitExact() {
+        int[] source = new int[WIDTH];
+        int[] special = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1, 32767, 32768, 65535, 65536};
+        System.arraycopy(special, 0, source, 0, special.length);
+        Random random = new Random(17L);
+        for (int x = special.length; x < WIDTH; x++) {
+            source[x] = random.nextInt(80000) - 8000;
+        }
+        short[] expected = new short[WIDTH];
+        short[] actual = new short[WIDTH];
+
+        scalar.toUnsigned16(source, expected, WIDTH);
+        vector.toUnsigned16(source, actual, WIDTH);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void luminanceIsBitExactForEveryChannelSum() {
+        // Covers each sum from 3 * Short.MIN_VALUE to 3 * Short.MAX_VALUE, in both signs of every remainder.
+        int sums = 3 * 65535 + 1;
+        short[] red = new short[sums];
+        short[] green = new short[sums];
+        short[] blue = new short[sums];
+        for (int i = 0; i < sums; i++) {
+            int sum = 3 * Short.MIN_VALUE + i;
+            red[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sum - 2 * Short.MIN_VALUE));
+            int rest = sum - red[i];
+            green[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, rest - Short.MIN_VALUE));
+            blue[i] = (short) (rest - green[i]);
+            assertEquals(sum, red[i] + green[i] + blue[i]);
+        }
+        short[] expected = new short[sums];
+        short[] actual = new short[sums];
+
+        scalar.luminance(red, green, blue, expected, sums);
+        vector.luminance(red, green, blue, actual, sums);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void maxIgnoresNaNAndMatchesTheScalarScan() {
+        float[] row = new float[WIDTH];
+        Random random = new Random(19L);
+        for (int x = 0; x < WIDTH; x++) {
+            row[x] = random.nextFloat() * 9.0f;
+        }
+        row[7] = Float.NaN;
+        row[WIDTH - 1] = 9.5f;
+
+        assertEquals(scalar.max(row, WIDTH, -Float.MAX_VALUE), vector.max(row, WIDTH, -Float.MAX_VALUE), 0.0f);
+        assertEquals(9.5f, vector.max(row, WIDTH, -Float.MAX_VALUE), 0.0f);
+        assertEquals(9.25f, vector.max(row, WIDTH - 1, 9.25f), 0.0f);
+        assertEquals(-Float.MAX_VALUE, vector.max(new float[]{Float.NaN, Float.NEGATIVE_INFINITY}, 2, -Float.MAX_VALUE), 0.0f);
+    }
+}
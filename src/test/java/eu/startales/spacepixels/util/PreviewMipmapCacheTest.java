@@ -0,0 +1,221 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PreviewMipmapCacheTest {
+
+    @Test
+    public void buildPyramidKeepsLevelsFromTheLevelSizeLimitDownToThePreviewSize() {
+        PreviewMipmapCache.Pyramid pyramid = PreviewMipmapCache.buildPyramid(new short[1500][3000]);
+
+        assertEquals(3000, pyramid.width);
+        assertEquals(1500, pyramid.height);
+        assertEquals(3, pyramid.levels.size());
+        assertLevel(pyramid.levels.get(0), 4, 750, 375);
+        assertLevel(pyramid.levels.get(1), 8, 375, 188);
+        assertLevel(pyramid.levels.get(2), 16, 188, 94);
+    }
+
+    @Test
+    public void buildPyramidKeepsSmallFramesAtFullResolution() {
+        PreviewMipmapCache.Pyramid pyramid = PreviewMipmapCache.buildPyramid(new short[3][200][300]);
+
+        assertEquals(1, pyramid.levels.size());
+        assertLevel(pyramid.levels.get(0), 1, 300, 200);
+        assertEquals(3, pyramid.levels.get(0).channels.length);
+    }
+
+    @Test
+    public void levelFittingReturnsTheFinestLevelThatFitsOrTheCoarsest() {
+        PreviewMipmapCache.Pyramid pyramid = PreviewMipmapCache.buildPyramid(new short[1500][3000]);
+
+        assertEquals(4, pyramid.levelFitting(1024, 1024).scale);
+        assertEquals(16, pyramid.levelFitting(350, 350).scale);
+        assertEquals(16, pyramid.levelFitting(10, 10).scale);
+    }
+
+    @Test
+    public void getBuildsOnceAndRestoresTheSameLevelsFromDisk() throws Exception {
+        File directory = Files.createTempDirectory("spacepixels-preview-cache").toFile();
+        File frame = writeFrame(directory, "frame.fits", 1);
+        short[][] data = new short[800][1200];
+        for (int y = 0; y < data.length; y++) {
+            for (int x = 0; x < data[y].length; x++) {
+                data[y][x] = (short) ((x * 31 + y * 17) % 65536 - 32768);
+            }
+        }
+        AtomicInteger loads = new AtomicInteger();
+        PreviewMipmapCache.FrameLoader loader = file -> {
+            loads.incrementAndGet();
+            return data;
+        };
+
+        PreviewMipmapCache.Pyramid built = new PreviewMipmapCache(cacheDirectory(directory), 1L << 30, loader).get(frame);
+        PreviewMipmapCache.Pyramid restored = new PreviewMipmapCache(cacheDirectory(directory), 1L << 30, loader).get(frame);
+
+        assertEquals(1, loads.get());
+        assertEquals(built.levels.size(), restored.levels.size());
+        for (int l = 0; l < built.levels.size(); l++) {
+            PreviewMipmapCache.Level expected = built.levels.get(l);
+            PreviewMipmapCache.Level actual = restored.levels.get(l);
+            assertEquals(expected.scale, actual.scale);
+            for (int y = 0; y < expected.height; y++) {
+                assertArrayEquals(expected.channels[0][y], actual.channels[0][y]);
+            }
+        }
+    }
+
+    @Test
+    public void identicalContentSharesAnEntryAndChangedContentDoesNot() throws Exception {
+        File directory = Files.createTempDirectory("spacepixels-preview-cache").toFile();
+        File frame = writeFrame(directory, "frame.fits", 1);
+        File copy = writeFrame(directory, "copy.fits", 1);
+        File changed = writeFrame(directory, "changed.fits", 2);
+        // Keys include the modification time, so only copies that kept the original's share it.
+        long savedAt = frame.lastModified() / 1000L * 1000L;
+        for (File file : new File[]{frame, copy, changed}) {
+            assertTrue(file.setLastModified(savedAt));
+        }
+
+        assertEquals(PreviewMipmapCache.contentKey(frame), PreviewMipmapCache.contentKey(copy));
+        assertNotEquals(PreviewMipmapCache.contentKey(frame), PreviewMipmapCache.contentKey(changed));
+
+        AtomicInteger loads = new AtomicInteger();
+        PreviewMipmapCache cache = new PreviewMipmapCache(cacheDirectory(directory), 1L << 30, file -> {
+            loads.incrementAndGet();
+            return new short[64][64];
+        });
+        assertTrue(cache.warm(frame));
+        assertFalse(cache.warm(copy));
+        assertTrue(cache.warm(changed));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void storingBeyondTheBudgetEvictsTheLeastRecentlyUsedEntries() throws Exception {
+        File directory = Files.createTempDirectory("spacepixels-preview-cache").toFile();
+        File cacheDirectory = cacheDirectory(directory);
+        long entryBytes = 2L * 300 * 300 + 64;
+        PreviewMipmapCache cache = new PreviewMipmapCache(cacheDirectory, 2 * entryBytes + entryBytes / 2,
+                file -> new short[300][300]);
+
+        File first = writeFrame(directory, "first.fits", 1);
+        File second = writeFrame(directory, "second.fits", 2);
+        File third = writeFrame(directory, "third.fits", 3);
+        cache.warm(first);
+        cache.warm(second);
+        File firstEntry = entryFor(cacheDirectory, first);
+        assertTrue(firstEntry.setLastModified(System.currentTimeMillis() - 60_000L));
+        cache.warm(third);
+
+        assertFalse(firstEntry.isFile());
+        assertTrue(entryFor(cacheDirectory, second).isFile());
+        assertTrue(entryFor(cacheDirectory, third).isFile());
+        assertTrue(cache.getDiskBytes() <= 2 * entryBytes + entryBytes / 2);
+    }
+
+    @Test
+    public void unreadableEntryIsRebuilt() throws Exception {
+        File directory = Files.createTempDirectory("spacepixels-preview-cache").toFile();
+        File cacheDirectory = cacheDirectory(directory);
+        File frame = writeFrame(directory, "frame.fits", 1);
+        AtomicInteger loads = new AtomicInteger();
+        PreviewMipmapCache.FrameLoader loader = file -> {
+            loads.incrementAndGet();
+            return new short[16][16];
+        };
+
+        new PreviewMipmapCache(cacheDirectory, 1L << 30, loader).warm(frame);
+        Files.write(entryFor(cacheDirectory, frame).toPath(), new byte[]{1, 2, 3});
+        PreviewMipmapCache.Pyramid pyramid = new PreviewMipmapCache(cacheDirectory, 1L << 30, loader).get(frame);
+
+        assertEquals(2, loads.get());
+        assertLevel(pyramid.levels.get(0), 1, 16, 16);
+    }
+
+    @Test
+    public void resolveDiskBudgetBytesUsesTheDefaultForNonPositiveValues() {
+        assertEquals(PreviewMipmapCache.DEFAULT_DISK_BUDGET_BYTES, PreviewMipmapCache.resolveDiskBudgetBytes(0));
+        assertEquals(PreviewMipmapCache.DEFAULT_DISK_BUDGET_BYTES, PreviewMipmapCache.resolveDiskBudgetBytes(-5));
+        assertEquals(16L * 1024L * 1024L, PreviewMipmapCache.resolveDiskBudgetBytes(16));
+    }
+
+    private static void assertLevel(PreviewMipmapCache.Level level, int scale, int width, int height) {
+        assertEquals(scale, level.scale);
+        assertEquals(width, level.width);
+        assertEquals(height, level.height);
+    }
+
+    @Test
+    public void sameSizeRewriteOfThePixelDataChangesTheKey() throws Exception {
+        File directory = Files.createTempDirectory("spacepixels-preview-cache").toFile();
+        File frame = new File(directory, "frame.fits");
+        byte[] content = new byte[16 * PreviewMipmapCache.SAMPLE_BYTES];
+        Files.write(frame.toPath(), content);
+        String original = PreviewMipmapCache.contentKey(frame);
+
+        // A band well away from the head and tail samples, as left by re-saving a frame in place.
+        Arrays.fill(content, 7 * PreviewMipmapCache.SAMPLE_BYTES, 7 * PreviewMipmapCache.SAMPLE_BYTES + 32 * 1024, (byte) 1);
+        Files.write(frame.toPath(), content);
+
+        assertNotEquals(original, PreviewMipmapCache.contentKey(frame));
+    }
+
+    @Test
+    public void rewriteBetweenTheSampledBlocksStillGetsANewEntry() throws Exception {
+        File directory = Files.createTempDirectory("spacepixels-preview-cache").toFile();
+        File frame = new File(directory, "frame.fits");
+        byte[] content = new byte[256 * PreviewMipmapCache.SAMPLE_BYTES];
+        Files.write(frame.toPath(), content);
+        long savedAt = frame.lastModified();
+        AtomicInteger loads = new AtomicInteger();
+        PreviewMipmapCache cache = new PreviewMipmapCache(cacheDirectory(directory), 1L << 30, file -> {
+            loads.incrementAndGet();
+            return new short[16][16];
+        });
+        assertTrue(cache.warm(frame));
+
+        // One byte just past the first stride block, which no sample covers.
+        content[PreviewMipmapCache.SAMPLE_BYTES + PreviewMipmapCache.STRIDE_SAMPLE_BYTES] = 1;
+        Files.write(frame.toPath(), content);
+        assertTrue(frame.setLastModified(savedAt + 2000L));
+
+        assertTrue(cache.warm(frame));
+        assertEquals(2, loads.get());
+    }
+
+    private static File cacheDirectory(File directory) {
+        return new File(directory, "cache");
+    }
+
+    private static File entryFor(File cacheDirectory, File frame) throws IOException {
+        return new File(cacheDirectory, PreviewMipmapCache.contentKey(frame) + PreviewMipmapCache.ENTRY_SUFFIX);
+    }
+
+    private static File writeFrame(File directory, String name, int fill) throws IOException {
+        File file = new File(directory, name);
+        byte[] content = new byte[3 * PreviewMipmapCache.SAMPLE_BYTES];
+        content[content.length - 1] = (byte) fill;
+        Files.write(file.toPath(), content);
+        return file;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RawFrameCacheTest {
+
+    @Test
+    public void cacheTakesOnlyItsShareOfTheBudget() {
+        long heapShare = (long) (Runtime.getRuntime().maxMemory() * RawFrameCache.DEFAULT_HEAP_FRACTION);
+
+        assertEquals(32L * 1024L * 1024L, RawFrameCache.createWithinBudget(64L * 1024L * 1024L).getMaxBytes());
+        assertEquals(heapShare, RawFrameCache.createWithinBudget(Long.MAX_VALUE / 2).getMaxBytes());
+        assertEquals(0L, RawFrameCache.createWithinBudget(0L).getMaxBytes());
+    }
+
+    @Test
+    public void getReusesDecodedFrameOnSubsequentRequests() throws Exception {
+        RawFrameCache cache = new RawFrameCache(1024L * 1024L);
+        AtomicInteger loads = new AtomicInteger();
+
+        short[][] first = cache.get(3, index -> {
+            loads.incrementAndGet();
+            return new short[4][4];
+        });
+        short[][] second = cache.get(3, index -> {
+            loads.incrementAndGet();
+            return new short[4][4];
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+    }
+
+    @Test
+    public void getEvictsLeastRecentlyUsedFramesOnceByteBudgetIsExceeded() throws Exception {
+        long frameBytes = RawFrameCache.estimateBytes(new short[8][8]);
+        RawFrameCache cache = new RawFrameCache(frameBytes * 2L);
+
+        cache.get(0, index -> new short[8][8]);
+        cache.get(1, index -> new short[8][8]);
+        cache.get(0, index -> new short[8][8]);
+        cache.get(2, index -> new short[8][8]);
+
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.getEvictions());
+        assertEquals(frameBytes * 2L, cache.getCurrentBytes());
+
+        AtomicInteger reloads = new AtomicInteger();
+        cache.get(0, index -> {
+            reloads.incrementAndGet();
+            return new short[8][8];
+        });
+        cache.get(1, index -> {
+            reloads.incrementAndGet();
+            return new short[8][8];
+        });
+
+        assertEquals(1, reloads.get());
+    }
+
+    @Test
+    public void getDoesNotRetainFramesLargerThanTheWholeBudget() throws Exception {
+        RawFrameCache cache = new RawFrameCache(64L);
+
+        cache.get(0, index -> new short[32][32]);
+
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getCurrentBytes());
+    }
+
+    @Test
+    public void retentionHintKeepsHintedFramesWhileOtherFramesAreScanned() throws Exception {
+        long frameBytes = RawFrameCache.estimateBytes(new short[8][8]);
+        RawFrameCache cache = new RawFrameCache(frameBytes * 2L);
+
+        cache.get(0, index -> new short[8][8]);
+        cache.setRetentionHint("pass", Collections.singletonList(0));
+        for (int index = 1; index < 6; index++) {
+            cache.get(index, frameIndex -> new short[8][8]);
+        }
+
+        assertTrue(cache.contains(0));
+        assertTrue(cache.contains(5));
+        assertEquals(2, cache.size());
+
+        cache.setRetentionHint("pass", Collections.emptyList());
+        cache.get(6, index -> new short[8][8]);
+        cache.get(7, index -> new short[8][8]);
+
+        assertFalse(cache.contains(0));
+    }
+
+    @Test
+    public void retentionHintsOfSeveralOwnersAreKeptTogether() throws Exception {
+        long frameBytes = RawFrameCache.estimateBytes(new short[8][8]);
+        RawFrameCache cache = new RawFrameCache(frameBytes * 3L);
+
+        cache.get(0, index -> new short[8][8]);
+        cache.get(1, index -> new short[8][8]);
+        cache.setRetentionHint(1, Collections.singletonList(0));
+        cache.setRetentionHint(2, Collections.singletonList(1));
+        for (int index = 2; index < 6; index++) {
+            cache.get(index, frameIndex -> new short[8][8]);
+        }
+
+        assertTrue(cache.contains(0));
+        assertTrue(cache.contains(1));
+
+        cache.clearRetentionHint(1);
+        for (int index = 6; index < 9; index++) {
+            cache.get(index, frameIndex -> new short[8][8]);
+        }
+
+        assertFalse(cache.contains(0));
+        assertTrue(cache.contains(1));
+    }
+
+    @Test
+    public void containsDoesNotCountAsHitOrMiss() throws Exception {
+        RawFrameCache cache = new RawFrameCache(1024L * 1024L);
+        cache.get(1, index -> new short[2][2]);
+
+        assertTrue(cache.contains(1));
+        assertFalse(cache.contains(2));
+        assertEquals(0L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RowBandsTest {
+
+    @After
+    public void tearDown() {
+        RowBands.setParallelThresholdPixels(0);
+    }
+
+    @Test
+    public void forEachVisitsEveryRowExactlyOnce() {
+        RowBands.setParallelThresholdPixels(1);
+        AtomicIntegerArray visits = new AtomicIntegerArray(5000);
+
+        RowBands.forEach(visits.length(), 64, (rowStart, rowEnd) -> {
+            for (int row = rowStart; row < rowEnd; row++) {
+                visits.incrementAndGet(row);
+            }
+        });
+
+        for (int row = 0; row < visits.length(); row++) {
+            assertEquals("row " + row, 1, visits.get(row));
+        }
+    }
+
+    @Test
+    public void reduceCombinesBandsInRowOrder() {
+        RowBands.setParallelThresholdPixels(1);
+
+        List<Integer> rows = RowBands.reduce(3000, 64, (rowStart, rowEnd) -> {
+            List<Integer> band = new ArrayList<>();
+            for (int row = rowStart; row < rowEnd; row++) {
+                band.add(row);
+            }
+            return band;
+        }, (lower, upper) -> {
+            lower.addAll(upper);
+            return lower;
+        });
+
+        assertEquals(3000, rows.size());
+        for (int row = 0; row < rows.size(); row++) {
+            assertEquals(row, rows.get(row).intValue());
+        }
+    }
+
+    @Test
+    public void workBelowTheThresholdRunsAsOneBandOnTheCallingThread() {
+        Thread caller = Thread.currentThread();
+        List<int[]> bands = new ArrayList<>();
+
+        RowBands.forEach(100, 100, (rowStart, rowEnd) -> {
+            assertSame(caller, Thread.currentThread());
+            bands.add(new int[]{rowStart, rowEnd});
+        });
+
+        assertEquals(1, bands.size());
+        assertEquals(0, bands.get(0)[0]);
+        assertEquals(100, bands.get(0)[1]);
+        assertFalse(RowBands.runsInParallel(100, 100));
+    }
+
+    @Test
+    public void thresholdIsConfigurableAndNonPositiveValuesSelectTheDefault() {
+        RowBands.setParallelThresholdPixels(4096);
+        assertEquals(4096, RowBands.getParallelThresholdPixels());
+
+        RowBands.setParallelThresholdPixels(-1);
+        assertEquals(RowBands.DEFAULT_PARALLEL_THRESHOLD_PIXELS, RowBands.getParallelThresholdPixels());
+        assertFalse(RowBands.runsInParallel(1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void bandRowsKeepsBandsLargeEnoughAndSplitsWorkPerWorker() {
+        assertEquals(16, RowBands.bandRows(4000, RowBands.MIN_BAND_PIXELS / 16, 1000));
+        assertEquals(125, RowBands.bandRows(4000, 6000, 8));
+        assertEquals(10, RowBands.bandRows(10, 10, 8));
+        assertTrue(RowBands.bandRows(1, 1, 64) >= 1);
+    }
+}
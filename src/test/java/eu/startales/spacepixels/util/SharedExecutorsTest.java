@@ -0,0 +1,98 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SharedExecutorsTest {
+
+    @Test
+    public void poolsAreSharedAndUseNamedDaemonThreads() throws Exception {
+        assertSame(SharedExecutors.io(), SharedExecutors.io());
+        assertSame(SharedExecutors.cpu(), SharedExecutors.cpu());
+        assertSame(SharedExecutors.sessions(), SharedExecutors.sessions());
+
+        Thread ioThread = SharedExecutors.io().submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+        Thread cpuThread = SharedExecutors.cpu().submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+        assertTrue(ioThread.getName().startsWith("spacepixels-io-"));
+        assertTrue(ioThread.isDaemon());
+        assertTrue(cpuThread.getName().startsWith("spacepixels-cpu-"));
+        assertTrue(cpuThread.isDaemon());
+
+        Thread sessionThread = SharedExecutors.sessions().submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+        assertTrue(sessionThread.getName().startsWith("spacepixels-session-"));
+        assertTrue(sessionThread.isDaemon());
+        assertFalse(SharedExecutors.sessions().submit(SharedExecutors::isIoWorkerThread).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void ioPoolStaysBoundedForLargeTaskLists() throws Exception {
+        ExecutorService io = SharedExecutors.io();
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int value = i;
+            tasks.add(() -> {
+                threadNames.add(Thread.currentThread().getName());
+                return value;
+            });
+        }
+
+        List<Future<Integer>> results = SharedExecutors.invokeAll(io, tasks);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, (int) results.get(i).get());
+        }
+        int maxThreads = SharedExecutors.metrics().stream()
+                .filter(metrics -> metrics.name.equals("io"))
+                .findFirst()
+                .orElseThrow(AssertionError::new)
+                .maxThreads;
+        assertTrue(threadNames.size() <= maxThreads);
+    }
+
+    @Test
+    public void nestedInvokeAllFromIoWorkersRunsInlineInsteadOfDeadlocking() throws Exception {
+        ExecutorService io = SharedExecutors.io();
+        List<Callable<Integer>> outer = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            outer.add(() -> {
+                List<Callable<Integer>> inner = new ArrayList<>();
+                for (int j = 0; j < 4; j++) {
+                    inner.add(() -> 1);
+                }
+                int sum = 0;
+                for (Future<Integer> future : SharedExecutors.invokeAll(io, inner)) {
+                    sum += future.get();
+                }
+                return sum;
+            });
+        }
+
+        Future<List<Future<Integer>>> all = SharedExecutors.cpu().submit(() -> SharedExecutors.invokeAll(io, outer));
+
+        for (Future<Integer> result : all.get(30, TimeUnit.SECONDS)) {
+            assertEquals(4, (int) result.get());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SlidingFrameWindowTest {
+
+    @Test
+    public void keepsMostRecentFramesInChronologicalOrder() {
+        SlidingFrameWindow window = new SlidingFrameWindow(3);
+        short[][] late = new short[1][1];
+
+        window.add(frameInfo("a.fit", "2026-04-08T21:00:00"), new short[1][1]);
+        window.add(frameInfo("c.fit", "2026-04-08T21:02:00"), new short[1][1]);
+        window.add(frameInfo("b.fit", "2026-04-08T21:01:00"), late);
+        window.add(frameInfo("d.fit", "2026-04-08T21:03:00"), new short[1][1]);
+
+        FitsFileInformation[] filesInfo = window.filesInformation();
+        assertEquals(3, window.size());
+        assertEquals("b.fit", filesInfo[0].getFileName());
+        assertEquals("c.fit", filesInfo[1].getFileName());
+        assertEquals("d.fit", filesInfo[2].getFileName());
+        assertSame(late, window.frames().get(0));
+    }
+
+    @Test
+    public void rejectsFramesOlderThanAFullWindow() {
+        SlidingFrameWindow window = new SlidingFrameWindow(2);
+        window.add(frameInfo("b.fit", "2026-04-08T21:01:00"), new short[1][1]);
+        FitsFileInformation older = frameInfo("a.fit", "2026-04-08T21:00:00");
+        assertTrue(window.wouldRetain(older));
+
+        window.add(frameInfo("c.fit", "2026-04-08T21:02:00"), new short[1][1]);
+
+        assertFalse(window.wouldRetain(older));
+        assertFalse(window.add(older, new short[1][1]));
+        assertEquals("b.fit", window.filesInformation()[0].getFileName());
+    }
+
+    @Test
+    public void fallsBackToFileNameWithoutTimestamps() {
+        SlidingFrameWindow window = new SlidingFrameWindow(3);
+        window.add(new FitsFileInformation("/tmp/frame_2.fit", "frame_2.fit", true, 1, 1), new short[1][1]);
+        window.add(new FitsFileInformation("/tmp/frame_1.fit", "frame_1.fit", true, 1, 1), new short[1][1]);
+
+        assertEquals("frame_1.fit", window.filesInformation()[0].getFileName());
+    }
+
+    private static FitsFileInformation frameInfo(String fileName, String dateObs) {
+        FitsFileInformation fileInfo = new FitsFileInformation("/tmp/" + fileName, fileName, true, 1, 1);
+        fileInfo.getFitsHeader().put("DATE-OBS", "'" + dateObs + "'");
+        return fileInfo;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class StretchLookupTableTest {
+
+    private static final int[][] PARAMETERS = {
+            {0, 1}, {10, 1}, {50, 1}, {50, 5}, {100, 20}, {3, 50}
+    };
+
+    @Test
+    public void everyAlgorithmMatchesThePerPixelStretch() {
+        short[][] frame = createFrame(160, 120);
+
+        for (StretchAlgorithm algo : StretchAlgorithm.values()) {
+            for (int[] parameters : PARAMETERS) {
+                assertParity(frame, frame[0].length, frame.length, parameters[0], parameters[1], algo);
+            }
+        }
+    }
+
+    @Test
+    public void croppedRegionMatchesThePerPixelStretch() {
+        short[][] frame = createFrame(90, 70);
+
+        for (StretchAlgorithm algo : StretchAlgorithm.values()) {
+            assertParity(frame, 40, 30, 50, 3, algo);
+        }
+    }
+
+    @Test
+    public void uniformFrameMatchesThePerPixelStretch() {
+        short[][] frame = new short[16][16];
+
+        for (StretchAlgorithm algo : StretchAlgorithm.values()) {
+            assertParity(frame, 16, 16, 50, 4, algo);
+        }
+    }
+
+    @Test
+    public void rowBandHistogramsMatchThePerPixelStretch() throws Exception {
+        short[][] frame = createFrame(211, 157);
+        RowBands.setParallelThresholdPixels(1);
+        try {
+            for (StretchAlgorithm algo : StretchAlgorithm.values()) {
+                assertParity(frame, frame[0].length, frame.length, 50, 3, algo);
+            }
+        } finally {
+            RowBands.setParallelThresholdPixels(0);
+        }
+    }
+
+    @Test
+    public void percentileFromHistogramReturnsTheValueHoldingTheTargetRank() {
+        int[] histogram = new int[StretchLookupTable.SIZE];
+        histogram[10] = 5;
+        histogram[20] = 5;
+
+        assertEquals(10, StretchLookupTable.percentileFromHistogram(histogram, 10, 0.0));
+        assertEquals(10, StretchLookupTable.percentileFromHistogram(histogram, 10, 0.5));
+        assertEquals(20, StretchLookupTable.percentileFromHistogram(histogram, 10, 0.999));
+    }
+
+    private static void assertParity(short[][] frame, int width, int height, int primary, int secondary,
+                                     StretchAlgorithm algo) {
+        short[][] expected = PerPixelStretch.stretch(frame, primary, secondary, width, height, algo);
+        short[][] actual = StretchLookupTable.apply(
+                frame, width, height, StretchLookupTable.build(frame, width, height, primary, secondary, algo));
+
+        for (int y = 0; y < height; y++) {
+            assertArrayEquals(algo + " " + primary + "/" + secondary + " row " + y, expected[y], actual[y]);
+        }
+    }
+
+    private static short[][] createFrame(int width, int height) {
+        short[][] frame = DisplayImageRendererTest.createSkyFrame(width, height, 7L);
+        frame[0][0] = Short.MIN_VALUE;
+        frame[0][1] = Short.MAX_VALUE;
+        frame[height - 1][width - 1] = -1;
+        return frame;
+    }
+}
@@ -13,11 +13,14 @@ import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.zip.Deflater;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class XisfImageConverterTest {
 
@@ -107,6 +110,134 @@ public class XisfImageConverterTest {
         }
     }
 
+    @Test
+    public void readMonochromeFrameDecodesUncompressedBigEndianUInt16Attachment() throws Exception {
+        Path sourceDirectory = Files.createTempDirectory("spacepixels-xisf-u16");
+
+        byte[] pixelBytes = ByteBuffer.allocate(3 * 2 * 2)
+                .order(ByteOrder.BIG_ENDIAN)
+                .putShort((short) 0).putShort((short) 1).putShort((short) 32768)
+                .putShort((short) 40000).putShort((short) 65534).putShort((short) 65535)
+                .array();
+        Path xisf = sourceDirectory.resolve("u16.xisf");
+        writeMonolithicXisf(xisf, "3:2:1", "UInt16", "Gray", "Planar", null, " byteOrder=\"big\"", pixelBytes, null);
+
+        short[][] data = XisfImageConverter.readMonochromeFrame(xisf.toFile());
+
+        assertArrayEquals(new short[]{-32768, -32767, 0}, data[0]);
+        assertArrayEquals(new short[]{(short) (40000 - 32768), 32766, 32767}, data[1]);
+    }
+
+    @Test
+    public void readMonochromeFrameDecodesShuffledLz4UInt16WithMatches() throws Exception {
+        Path sourceDirectory = Files.createTempDirectory("spacepixels-xisf-lz4");
+
+        // 8 samples of 0x0101: one literal byte followed by a 15-byte match at offset 1.
+        byte[] compressed = {(byte) 0x1B, 0x01, 0x01, 0x00};
+        Path xisf = sourceDirectory.resolve("lz4.xisf");
+        writeMonolithicXisf(xisf, "4:2:1", "UInt16", "Gray", "Planar", null, " compression=\"lz4+sh:16:2\"", compressed, null);
+
+        short[][] data = XisfImageConverter.readMonochromeFrame(xisf.toFile());
+
+        for (short[] row : data) {
+            assertArrayEquals(new short[]{-32511, -32511, -32511, -32511}, row);
+        }
+    }
+
+    @Test
+    public void readMonochromeFrameMatchesUnshuffledDecodeForShuffledSamples() throws Exception {
+        Path sourceDirectory = Files.createTempDirectory("spacepixels-xisf-shuffled");
+
+        ByteBuffer u16 = ByteBuffer.allocate(4 * 3 * 2).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer f32 = ByteBuffer.allocate(4 * 3 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 12; i++) {
+            int value = (i * 5471) & 0xFFFF;
+            u16.putShort((short) value);
+            f32.putFloat(value / 65535.0f);
+        }
+
+        writeMonolithicXisf(sourceDirectory.resolve("plain16.xisf"), "4:3:1", "UInt16", "Gray", "Planar", null, "", u16.array(), null);
+        writeMonolithicXisf(sourceDirectory.resolve("shuffled16.xisf"), "4:3:1", "UInt16", "Gray", "Planar", null,
+                " compression=\"zlib+sh:24:2\"", compressZlib(shuffleBytes(u16.array(), 2)), null);
+        writeMonolithicXisf(sourceDirectory.resolve("plain32.xisf"), "4:3:1", "Float32", "Gray", "Planar", "0:1", "", f32.array(), null);
+        writeMonolithicXisf(sourceDirectory.resolve("shuffled32.xisf"), "4:3:1", "Float32", "Gray", "Planar", "0:1",
+                " compression=\"zlib+sh:48:4\"", compressZlib(shuffleBytes(f32.array(), 4)), null);
+
+        short[][] plain16 = XisfImageConverter.readMonochromeFrame(sourceDirectory.resolve("plain16.xisf").toFile());
+        short[][] shuffled16 = XisfImageConverter.readMonochromeFrame(sourceDirectory.resolve("shuffled16.xisf").toFile());
+        short[][] plain32 = XisfImageConverter.readMonochromeFrame(sourceDirectory.resolve("plain32.xisf").toFile());
+        short[][] shuffled32 = XisfImageConverter.readMonochromeFrame(sourceDirectory.resolve("shuffled32.xisf").toFile());
+        for (int y = 0; y < 3; y++) {
+            assertArrayEquals(plain16[y], shuffled16[y]);
+            assertArrayEquals(plain32[y], shuffled32[y]);
+        }
+        assertEquals((short) ((5471 * 5) - 32768), plain16[1][1]);
+    }
+
+    @Test
+    public void readMonochromeFrameRejectsAttachmentBeyondEndOfFile() throws Exception {
+        Path sourceDirectory = Files.createTempDirectory("spacepixels-xisf-truncated");
+        Path xisf = sourceDirectory.resolve("truncated.xisf");
+        writeMonolithicXisf(xisf, "4:4:1", "UInt16", "Gray", "Planar", null, "", new byte[32], null);
+        byte[] bytes = Files.readAllBytes(xisf);
+        Files.write(xisf, Arrays.copyOf(bytes, bytes.length - 8));
+
+        try {
+            XisfImageConverter.readMonochromeFrame(xisf.toFile());
+            fail("Expected a truncated attachment to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("outside"));
+        }
+    }
+
+    @Test
+    public void readFrameInformationDescribesDecodedFrameWithoutReadingPixels() throws Exception {
+        Path sourceDirectory = Files.createTempDirectory("spacepixels-xisf-info");
+        Path xisf = sourceDirectory.resolve("info.xisf");
+        writeMonolithicXisf(xisf, "3:2:3", "Float32", "RGB", "Planar", "0:1", "", new byte[3 * 2 * 3 * 4],
+                "<FITSKeyword name=\"DATE-OBS\" value=\"'2026-04-06T01:02:03  '\" comment=\"\" />"
+                        + "<FITSKeyword name=\"EXPTIME\" value=\"30.5\" comment=\"Seconds\" />"
+                        + "<FITSKeyword name=\"BITPIX\" value=\"-32\" comment=\"\" />"
+                        + "<FITSKeyword name=\"HISTORY\" value=\"\" comment=\"Calibrated\" />");
+
+        FitsFileInformation fileInfo = XisfImageConverter.readFrameInformation(xisf.toFile());
+
+        assertEquals(3, fileInfo.getSizeWidth());
+        assertEquals(2, fileInfo.getSizeHeight());
+        assertTrue(fileInfo.isMonochrome());
+        assertEquals(xisf.toFile().getAbsolutePath(), fileInfo.getFilePath());
+        assertEquals("2026-04-06T01:02:03", fileInfo.getFitsHeader().get("DATE-OBS"));
+        assertEquals("30.5", fileInfo.getFitsHeader().get("EXPTIME"));
+        assertEquals("16", fileInfo.getFitsHeader().get("BITPIX"));
+        assertEquals("2", fileInfo.getFitsHeader().get("NAXIS"));
+        assertTrue(!fileInfo.getFitsHeader().containsKey("HISTORY"));
+    }
+
+    @Test
+    public void prepareDirectoryForFitsImportConvertsManyFilesConcurrently() throws Exception {
+        Path sourceDirectory = Files.createTempDirectory("spacepixels-xisf-batch");
+        int fileCount = 12;
+        for (int i = 0; i < fileCount; i++) {
+            byte[] pixelBytes = ByteBuffer.allocate(2 * 2 * 2)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .putShort((short) i).putShort((short) (i + 1)).putShort((short) (i + 2)).putShort((short) (i + 3))
+                    .array();
+            writeMonolithicXisf(sourceDirectory.resolve(String.format("frame_%02d.xisf", i)),
+                    "2:2:1", "UInt16", "Gray", "Planar", null, "", pixelBytes, null);
+        }
+
+        File importDirectory = XisfImageConverter.prepareDirectoryForFitsImport(sourceDirectory.toFile(), null, 4, 64);
+
+        for (int i = 0; i < fileCount; i++) {
+            Path outputFits = importDirectory.toPath().resolve(String.format("frame_%02d.fit", i));
+            try (Fits fits = new Fits(outputFits.toFile())) {
+                short[][] data = (short[][]) ImageProcessing.getImageHDU(fits).getKernel();
+                assertEquals((short) (i - 32768), data[0][0]);
+                assertEquals((short) (i + 3 - 32768), data[1][1]);
+            }
+        }
+    }
+
     private static void writeMonolithicXisf(Path targetPath,
                                             String geometry,
                                             String sampleFormat,
@@ -0,0 +1,121 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util.reporting;
+
+import eu.startales.spacepixels.util.SharedExecutors;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReportRenderExecutorTest {
+
+    @Test
+    public void parallelExportKeepsSectionAndCardOrder() throws Exception {
+        String sequential = renderNestedReport(1);
+        String parallel = renderNestedReport(4);
+
+        assertEquals(sequential, parallel);
+        assertTrue(parallel.startsWith("<start>"));
+        assertTrue(parallel.endsWith("<end>"));
+    }
+
+    @Test
+    public void allCoresExportBorrowsTheSharedPoolWithoutShuttingItDown() throws Exception {
+        String sequential = renderNestedReport(1);
+        String shared = renderNestedReport(0);
+
+        assertEquals(sequential, shared);
+        assertFalse(SharedExecutors.cpu().isShutdown());
+    }
+
+    @Test
+    public void sequentialExecutorWritesStraightThroughWithoutThreads() throws Exception {
+        try (ReportRenderExecutor executor = ReportRenderExecutor.create(1)) {
+            assertFalse(executor.isParallel());
+
+            StringWriter buffer = new StringWriter();
+            PrintWriter report = new PrintWriter(buffer);
+            ReportRenderExecutor.OrderedFragments fragments = executor.newFragments(report);
+            fragments.add(out -> out.print("a"));
+            report.flush();
+
+            assertEquals("a", buffer.toString());
+            fragments.finish();
+        }
+    }
+
+    @Test
+    public void fragmentFailureIsRethrownAfterAllFragmentsSettle() throws Exception {
+        try (ReportRenderExecutor executor = ReportRenderExecutor.create(3)) {
+            StringWriter buffer = new StringWriter();
+            PrintWriter report = new PrintWriter(buffer);
+            ReportRenderExecutor.OrderedFragments fragments = executor.newFragments(report);
+            for (int i = 0; i < 8; i++) {
+                int index = i;
+                fragments.add(out -> {
+                    if (index == 2) {
+                        throw new IOException("asset write failed");
+                    }
+                    out.print(index);
+                });
+            }
+
+            try {
+                fragments.finish();
+                fail("Expected the fragment failure to propagate.");
+            } catch (IOException e) {
+                assertEquals("asset write failed", e.getMessage());
+            }
+            report.flush();
+            assertEquals("01", buffer.toString());
+        }
+    }
+
+    private static String renderNestedReport(int parallelism) throws IOException {
+        StringWriter buffer = new StringWriter();
+        try (ReportRenderExecutor executor = ReportRenderExecutor.create(parallelism);
+             PrintWriter report = new PrintWriter(buffer)) {
+            report.print("<start>");
+            ReportRenderExecutor.OrderedFragments sections = executor.newFragments(report);
+            for (int section = 0; section < 5; section++) {
+                int sectionNumber = section;
+                sections.add(out -> {
+                    out.print("<section " + sectionNumber + ">");
+                    ReportRenderExecutor.OrderedFragments cards = executor.newFragments(out);
+                    for (int card = 0; card < 20; card++) {
+                        int cardNumber = card;
+                        cards.add(cardOut -> {
+                            busyWork();
+                            cardOut.print("[" + sectionNumber + "." + cardNumber + "]");
+                        });
+                    }
+                    cards.finish();
+                    out.print("</section>");
+                });
+            }
+            sections.finish();
+            report.print("<end>");
+        }
+        return buffer.toString();
+    }
+
+    private static void busyWork() {
+        long deadline = System.nanoTime() + ThreadLocalRandom.current().nextInt(200_000);
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
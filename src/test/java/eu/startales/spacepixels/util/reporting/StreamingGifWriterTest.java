@@ -0,0 +1,233 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util.reporting;
+
+import eu.startales.spacepixels.util.SharedExecutors;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StreamingGifWriterTest {
+
+    @Test
+    public void grayFramesAreEncodedLosslessly() throws Exception {
+        File gif = Files.createTempDirectory("spacepixels-gif").resolve("gray.gif").toFile();
+
+        try (StreamingGifWriter writer = StreamingGifWriter.open(gif, 100)) {
+            for (int i = 0; i < 3; i++) {
+                BufferedImage frame = createGrayFrame(17, 9, i * 40);
+                writer.append(frame);
+                // The writer copies the frame, so the caller may reuse it straight away.
+                frame.getRaster().setSample(5, 4, 0, 0);
+            }
+            assertEquals(3, writer.frameCount());
+            assertFalse(gif.exists());
+        }
+
+        BufferedImage[] frames = readFrames(gif);
+        assertEquals(3, frames.length);
+        for (int i = 0; i < frames.length; i++) {
+            BufferedImage expected = createGrayFrame(17, 9, i * 40);
+            assertEquals(17, frames[i].getWidth());
+            assertEquals(9, frames[i].getHeight());
+            assertEquals(expected.getRaster().getSample(5, 4, 0), new Color(frames[i].getRGB(5, 4)).getRed());
+            assertEquals(expected.getRaster().getSample(16, 8, 0), new Color(frames[i].getRGB(16, 8)).getRed());
+        }
+    }
+
+    @Test
+    public void colourFramesReuseThePaletteOfTheFirstFrame() throws Exception {
+        File gif = Files.createTempDirectory("spacepixels-gif").resolve("rgb.gif").toFile();
+
+        try (StreamingGifWriter writer = StreamingGifWriter.open(gif, 100)) {
+            writer.append(createOverlayFrame(new Color(255, 80, 80)));
+            writer.append(createOverlayFrame(new Color(250, 85, 78)));
+        }
+
+        BufferedImage[] frames = readFrames(gif);
+        assertEquals(2, frames.length);
+        assertEquals(new Color(255, 80, 80).getRGB(), frames[0].getRGB(10, 10));
+        assertEquals(new Color(255, 80, 80).getRGB(), frames[1].getRGB(10, 10));
+        assertEquals(new Color(37, 37, 37).getRGB(), frames[1].getRGB(1, 1));
+    }
+
+    @Test
+    public void laterFramesKeepTheirGrayLevelsWhenTheFirstFrameHasFewColours() {
+        StreamingGifWriter.GifPalette palette = StreamingGifWriter.GifPalette.fromFrame(createOverlayFrame(new Color(255, 80, 80)));
+        BufferedImage later = new BufferedImage(24, 24, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 24; x++) {
+            int level = x * 11;
+            for (int y = 0; y < 24; y++) {
+                later.setRGB(x, y, new Color(level, level, level).getRGB());
+            }
+        }
+
+        BufferedImage mapped = palette.newFrame(24, 24);
+        palette.map(later, mapped);
+
+        for (int x = 0; x < 24; x++) {
+            int gray = new Color(mapped.getRGB(x, 3)).getRed();
+            assertTrue(Math.abs(gray - x * 11) <= 1);
+        }
+        BufferedImage first = palette.newFrame(24, 24);
+        palette.map(createOverlayFrame(new Color(255, 80, 80)), first);
+        assertEquals(new Color(37, 37, 37).getRGB(), first.getRGB(1, 1));
+        assertEquals(new Color(255, 80, 80).getRGB(), first.getRGB(10, 10));
+    }
+
+    @Test
+    public void paletteKeepsAGrayRampWhenTheFirstFrameHasManyColours() {
+        BufferedImage frame = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                int level = (x * 4) & 0xFF;
+                frame.setRGB(x, y, y < 32 ? new Color(level, level, level).getRGB() : new Color(level, 255 - y, 40).getRGB());
+            }
+        }
+
+        StreamingGifWriter.GifPalette palette = StreamingGifWriter.GifPalette.fromFrame(frame);
+        BufferedImage mapped = palette.newFrame(64, 64);
+        palette.map(frame, mapped);
+
+        assertEquals(256, palette.colorModel().getMapSize());
+        int gray = new Color(mapped.getRGB(20, 0)).getRed();
+        assertTrue(Math.abs(gray - 80) <= 1);
+    }
+
+    @Test
+    public void manyFramesAreEncodedInOrderBehindTheBoundedQueue() throws Exception {
+        File gif = Files.createTempDirectory("spacepixels-gif").resolve("long.gif").toFile();
+        int frameCount = 5 * StreamingGifWriter.FRAMES_IN_FLIGHT;
+
+        try (StreamingGifWriter writer = StreamingGifWriter.open(gif, 100)) {
+            for (int i = 0; i < frameCount; i++) {
+                writer.append(createGrayFrame(64, 48, i * 11));
+            }
+        }
+
+        BufferedImage[] frames = readFrames(gif);
+        assertEquals(frameCount, frames.length);
+        for (int i = 0; i < frameCount; i++) {
+            assertEquals(createGrayFrame(64, 48, i * 11).getRaster().getSample(3, 2, 0), new Color(frames[i].getRGB(3, 2)).getRed());
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void framesAreEncodedWhileTheIoPoolIsSaturated() throws Exception {
+        File gif = Files.createTempDirectory("spacepixels-gif").resolve("busy.gif").toFile();
+        int frameCount = 3 * StreamingGifWriter.FRAMES_IN_FLIGHT;
+        CountDownLatch release = new CountDownLatch(1);
+        // More blocked tasks than the pool has workers, so no scheduled drain can start.
+        for (int i = 0; i < 64; i++) {
+            SharedExecutors.io().execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        try {
+            try (StreamingGifWriter writer = StreamingGifWriter.open(gif, 100)) {
+                for (int i = 0; i < frameCount; i++) {
+                    writer.append(createGrayFrame(32, 16, i * 7));
+                }
+            }
+        } finally {
+            release.countDown();
+        }
+
+        BufferedImage[] frames = readFrames(gif);
+        assertEquals(frameCount, frames.length);
+        for (int i = 0; i < frameCount; i++) {
+            assertEquals(createGrayFrame(32, 16, i * 7).getRaster().getSample(5, 4, 0), new Color(frames[i].getRGB(5, 4)).getRed());
+        }
+    }
+
+    @Test
+    public void failedExportLeavesNoFileBehind() throws Exception {
+        File directory = Files.createTempDirectory("spacepixels-gif").toFile();
+        // A non-empty directory at the output path cannot be replaced by the finished animation.
+        File gif = new File(directory, "blocked.gif");
+        assertTrue(new File(gif, "keep").mkdirs());
+
+        StreamingGifWriter writer = StreamingGifWriter.open(gif, 100);
+        writer.append(createGrayFrame(17, 9, 0));
+        try {
+            writer.close();
+            fail("Expected the export to fail");
+        } catch (IOException expected) {
+            // expected
+        }
+
+        String[] remaining = directory.list();
+        assertEquals(1, remaining.length);
+        assertEquals("blocked.gif", remaining[0]);
+        assertTrue(gif.isDirectory());
+    }
+
+    @Test
+    public void closingWithoutFramesLeavesNoFile() throws Exception {
+        File gif = Files.createTempDirectory("spacepixels-gif").resolve("empty.gif").toFile();
+
+        StreamingGifWriter.open(gif, 100).close();
+
+        assertFalse(gif.exists());
+    }
+
+    private static BufferedImage createGrayFrame(int width, int height, int shift) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.getRaster().setSample(x, y, 0, (x * 13 + y * 7 + shift) & 0xFF);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage createOverlayFrame(Color overlay) {
+        BufferedImage image = new BufferedImage(24, 24, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(37, 37, 37));
+        g.fillRect(0, 0, 24, 24);
+        g.setColor(overlay);
+        g.fillRect(8, 8, 6, 6);
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage[] readFrames(File gif) throws Exception {
+        ImageReader reader = ImageIO.getImageReadersBySuffix("gif").next();
+        try (ImageInputStream input = ImageIO.createImageInputStream(gif)) {
+            reader.setInput(input);
+            int count = reader.getNumImages(true);
+            BufferedImage[] frames = new BufferedImage[count];
+            for (int i = 0; i < count; i++) {
+                frames[i] = reader.read(i);
+            }
+            return frames;
+        } finally {
+            reader.dispose();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * SpacePixels
+ *
+ * Copyright (c)2020-2026, Petros Pissias.
+ * See the LICENSE file included in this distribution.
+ *
+ */
+package eu.startales.spacepixels.util;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link PixelKernels} on the incubating Vector API, processing a preferred-width vector of pixels per
+ * step and finishing each row's remainder with {@link ScalarPixelKernels}.
+ *
+ * <p>Only instantiated by {@link PixelKernels#get()} once the vector module is known to be present.
+ * Float and int lane conversions are avoided because they are not compiled to vector instructions on
+ * every JDK, and each kernel reproduces the scalar arithmetic exactly:</p>
+ * <ul>
+ *     <li>values that are not at least 0, NaN included, become 0, which is what the scalar clamp and
+ *     {@link Math#round(float)} make of them;</li>
+ *     <li>{@link Math#round(float)} of a clamped value is taken from the bits of {@code value + 2^23},
+ *     which rounds ties to even, plus one where the value lay exactly half-way above the result;</li>
+ *     <li>luminance divides the magnitude of the channel sum by 3 exactly in integers, keeping the
+ *     truncation towards zero of Java's division.</li>
+ * </ul>
+ */
+final class VectorPixelKernels implements PixelKernels {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    // Shorts are loaded and stored with as many lanes as the float and int vectors have.
+    private static final VectorSpecies<Short> SHORTS =
+            VectorSpecies.of(short.class, VectorShape.forBitSize(FLOATS.vectorBitSize() / 2));
+
+    private static final float ROUNDING_BIAS = 8388608.0f;
+    private static final int ROUNDING_BIAS_BITS = Float.floatToRawIntBits(ROUNDING_BIAS);
+    // floor(n * 21846 / 2^16) equals n / 3 for 0 <= n < 32768.
+    private static final int DIVIDE_BY_3_MULTIPLIER = 21846;
+    private static final int DIVIDE_BY_3_SHIFT = 16;
+
+    VectorPixelKernels() {
+        if (FLOATS.length() != INTS.length() || FLOATS.length() != SHORTS.length()) {
+            throw new IllegalStateException("Unsupported vector shape " + FLOATS);
+        }
+    }
+
+    @Override
+    public float max(float[] row, int width, float max) {
+        int upper = FLOATS.loopBound(width);
+        FloatVector lanes = FloatVector.broadcast(FLOATS, max);
+        for (int x = 0; x < upper; x += FLOATS.length()) {
+            FloatVector values = FloatVector.fromArray(FLOATS, row, x);
+            lanes = lanes.blend(values, values.compare(VectorOperators.GT, lanes));
+        }
+        return ScalarPixelKernels.max(row, upper, width, ScalarPixelKernels.max(lanes.toArray(), 0, FLOATS.length(), max));
+    }
+
+    @Override
+    public void toUnsigned16(float[] source, float scale, short[] target, int width) {
+        int upper = FLOATS.loopBound(width);
+        for (int x = 0; x < upper; x += FLOATS.length()) {
+            FloatVector values = FloatVector.fromArray(FLOATS, source, x).mul(scale);
+            values = values.blend(0.0f, values.compare(VectorOperators.GE, 0.0f).not());
+            values = values.blend(65535.0f, values.compare(VectorOperators.GT, 65535.0f));
+
+            // Adding 2^23 rounds to the nearest integer, ties to even, and leaves it in the low mantissa bits.
+            FloatVector shifted = values.add(ROUNDING_BIAS);
+            IntVector nearest = shifted.reinterpretAsInts().sub(ROUNDING_BIAS_BITS);
+            FloatVector fraction = values.sub(shifted.sub(ROUNDING_BIAS));
+            VectorMask<Integer> tieRoundedDown = fraction.compare(VectorOperators.EQ, 0.5f).cast(INTS);
+
+            store(nearest.add(1, tieRoundedDown).sub(32768), target, x);
+        }
+        ScalarPixelKernels.toUnsigned16(source, scale, target, upper, width);
+    }
+
+    @Override
+    public void toUnsigned16(int[] source, short[] target, int width) {
+        int upper = INTS.loopBound(width);
+        for (int x = 0; x < upper; x += INTS.length()) {
+            store(IntVector.fromArray(INTS, source, x).max(0).min(65535).sub(32768), target, x);
+        }
+        ScalarPixelKernels.toUnsigned16(source, target, upper, width);
+    }
+
+    @Override
+    public void luminance(short[] red, short[] green, short[] blue, short[] target, int width) {
+        int upper = SHORTS.loopBound(width);
+        for (int x = 0; x < upper; x += SHORTS.length()) {
+            IntVector sum = toInts(red, x).add(toInts(green, x)).add(toInts(blue, x));
+
+            // |sum| / 3 as q + (q + r) / 3 for |sum| = 4q + r, the second division by multiplication.
+            IntVector magnitude = sum.abs();
+            IntVector quarter = magnitude.lanewise(VectorOperators.ASHR, 2);
+            IntVector remainder = magnitude.and(3);
+            IntVector third = quarter.add(quarter.add(remainder).mul(DIVIDE_BY_3_MULTIPLIER)
+                    .lanewise(VectorOperators.ASHR, DIVIDE_BY_3_SHIFT));
+
+            store(third.blend(third.neg(), sum.compare(VectorOperators.LT, 0)), target, x);
+        }
+        ScalarPixelKernels.luminance(red, green, blue, target, upper, width);
+    }
+
+    private static IntVector toInts(short[] row, int x) {
+        return (IntVector) ShortVector.fromArray(SHORTS, row, x).convertShape(VectorOperators.S2I, INTS, 0);
+    }
+
+    private static void store(IntVector values, short[] target, int x) {
+        ((ShortVector) values.convertShape(VectorOperators.I2S, SHORTS, 0)).intoArray(target, x);
+    }
+}